@@ -0,0 +1,20 @@
+package com.membership.users.application.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ServiceTokenRequestDTO {
+
+    @NotBlank(message = "L'identifiant du service est requis")
+    private String clientId;
+
+    @NotBlank(message = "Le secret du service est requis")
+    private String clientSecret;
+}
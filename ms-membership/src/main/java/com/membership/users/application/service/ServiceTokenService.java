@@ -0,0 +1,59 @@
+package com.membership.users.application.service;
+
+import com.membership.users.application.dto.AuthResponseDTO;
+import com.membership.users.application.dto.ServiceTokenRequestDTO;
+import com.membership.users.infrastructure.security.JwtService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Délivre les tokens des services appelants (ms-order), sur le modèle "client credentials" :
+ * le service s'authentifie avec son identifiant et son secret et reçoit un JWT court portant
+ * le rôle ROLE_SERVICE, qu'il renouvelle avant expiration.
+ *
+ * <p>Le client est déclaré par {@code security.service-client.id} et
+ * {@code security.service-client.secret} ; sans secret configuré, aucun token n'est délivré.</p>
+ */
+@Slf4j
+@Service
+public class ServiceTokenService {
+
+    private final JwtService jwtService;
+    private final String clientId;
+    private final byte[] clientSecret;
+
+    public ServiceTokenService(JwtService jwtService,
+            @Value("${security.service-client.id:ms-order}") String clientId,
+            @Value("${security.service-client.secret:}") String clientSecret) {
+        this.jwtService = jwtService;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret.getBytes(StandardCharsets.UTF_8);
+        if (clientSecret.isBlank()) {
+            log.warn("Aucun secret de service configuré (security.service-client.secret) : tokens de service désactivés");
+        }
+    }
+
+    public AuthResponseDTO issue(ServiceTokenRequestDTO request) {
+        // Comparaison en temps constant : la durée de la réponse ne renseigne pas sur le secret
+        boolean valid = clientSecret.length > 0
+                && clientId.equals(request.getClientId())
+                && MessageDigest.isEqual(clientSecret, request.getClientSecret().getBytes(StandardCharsets.UTF_8));
+        if (!valid) {
+            log.warn("Demande de token de service refusée pour {}", request.getClientId());
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Identifiants de service invalides");
+        }
+
+        log.info("Token de service délivré à {}", clientId);
+
+        return AuthResponseDTO.builder()
+                .token(jwtService.generateServiceToken(clientId))
+                .expiresIn(jwtService.getServiceExpirationSeconds())
+                .build();
+    }
+}
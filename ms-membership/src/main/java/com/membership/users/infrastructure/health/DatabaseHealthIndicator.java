@@ -3,7 +3,6 @@ package com.membership.users.infrastructure.health;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.actuate.health.Health;
-import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.stereotype.Component;
 
 import com.membership.users.domain.repository.UserRepository;
@@ -11,20 +10,20 @@ import com.membership.users.domain.repository.UserRepository;
 /**
  * Health Indicator personnalisé pour vérifier l'état de la base de données.
  * Best practices :
- * - Implémente HealthIndicator pour les checks personnalisés
+ * - Vérification en tâche de fond, résultat servi depuis la mémoire ({@link CachedHealthIndicator})
  * - Fournit des détails utiles pour le debugging
  * - Gère les exceptions proprement
- * - Utilisé par /actuator/health
+ * - Utilisé par /actuator/health et par le groupe readiness
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class DatabaseHealthIndicator implements HealthIndicator {
+public class DatabaseHealthIndicator extends CachedHealthIndicator {
 
     private final UserRepository userRepository;
 
     @Override
-    public Health health() {
+    protected Health check() {
         try {
             // Vérifie la connexion à la base de données
             long userCount = userRepository.count();
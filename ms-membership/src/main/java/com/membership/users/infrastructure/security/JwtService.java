@@ -18,6 +18,7 @@ public class JwtService {
 
     private final KeyPair keyPair;
     private final long expirationSeconds = Duration.ofHours(1).toSeconds();
+    private final long serviceExpirationSeconds = Duration.ofMinutes(15).toSeconds();
 
     public JwtService(KeyPair keyPair) {
         this.keyPair = keyPair;
@@ -40,6 +41,24 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * Token d'un service appelant : pas d'utilisateur, seul le rôle ROLE_SERVICE.
+     */
+    public String generateServiceToken(String clientId) {
+        Instant now = Instant.now();
+
+        return Jwts.builder()
+                .setSubject("service:" + clientId)
+                .setIssuer("episen-e-commerce")
+                .setAudience("web")
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plusSeconds(serviceExpirationSeconds)))
+                .claim("clientId", clientId)
+                .claim("roles", List.of("ROLE_SERVICE"))
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+    }
+
     public String getPublicKeyPem() {
         String base64Key = Base64.getMimeEncoder(64, new byte[]{'\n'})
                 .encodeToString(keyPair.getPublic().getEncoded());
@@ -50,6 +69,10 @@ public class JwtService {
         return expirationSeconds;
     }
 
+    public long getServiceExpirationSeconds() {
+        return serviceExpirationSeconds;
+    }
+
     private List<String> parseRoles(String roles) {
         if (roles == null || roles.isBlank()) {
             return List.of();
@@ -2,7 +2,9 @@ package com.membership.users.infrastructure.web.controller;
 
 import com.membership.users.application.dto.AuthRequestDTO;
 import com.membership.users.application.dto.AuthResponseDTO;
+import com.membership.users.application.dto.ServiceTokenRequestDTO;
 import com.membership.users.application.service.AuthService;
+import com.membership.users.application.service.ServiceTokenService;
 import com.membership.users.infrastructure.security.JwtService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -25,6 +27,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
 
     private final AuthService authService;
+    private final ServiceTokenService serviceTokenService;
     private final JwtService jwtService;
 
     @Operation(summary = "Authentification", description = "Retourne un JWT signé (RSA) valable 1h")
@@ -37,6 +40,16 @@ public class AuthController {
         return ResponseEntity.ok(authService.login(request));
     }
 
+    @Operation(summary = "Token de service", description = "Retourne un JWT ROLE_SERVICE valable 15 min pour un service appelant")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Token délivré"),
+            @ApiResponse(responseCode = "401", description = "Identifiants de service invalides")
+    })
+    @PostMapping(value = "/service-token", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<AuthResponseDTO> serviceToken(@Valid @RequestBody ServiceTokenRequestDTO request) {
+        return ResponseEntity.ok(serviceTokenService.issue(request));
+    }
+
     @Operation(summary = "Clé publique RSA", description = "Retourne la clé publique pour valider les JWT")
     @ApiResponse(responseCode = "200", description = "Clé publique retournée")
     @GetMapping(value = "/public-key", produces = MediaType.TEXT_PLAIN_VALUE)
@@ -2,12 +2,14 @@ package com.ecommerce.order;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Application principale du microservice Order.
  * Gère les commandes de la plateforme e-commerce.
  */
 @SpringBootApplication
+@EnableScheduling
 public class OrderApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,22 @@
+package com.ecommerce.order.application.dto;
+
+import com.ecommerce.order.domain.enumerate.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusHistoryDTO {
+
+    private OrderStatus fromStatus;
+    private OrderStatus toStatus;
+    private LocalDateTime changedAt;
+    private Long timeInPreviousMs;
+}
@@ -3,6 +3,8 @@ package com.ecommerce.order.application.mapper;
 
 import com.ecommerce.order.application.dto.OrderItemResponseDTO;
 import com.ecommerce.order.application.dto.OrderResponseDTO;
+import com.ecommerce.order.domain.entity.ArchivedOrder;
+import com.ecommerce.order.domain.entity.ArchivedOrderItem;
 import com.ecommerce.order.domain.entity.Order;
 import com.ecommerce.order.domain.entity.OrderItem;
 import org.springframework.stereotype.Component;
@@ -67,4 +69,35 @@ public class OrderMapper {
                 .map(this::toItemResponseDTO)
                 .collect(Collectors.toList());
     }
+
+    public OrderResponseDTO toResponseDTO(ArchivedOrder order) {
+        if (order == null) return null;
+
+        return OrderResponseDTO.builder()
+                .id(order.getId())
+                .userId(order.getUserId())
+                .orderDate(order.getOrderDate())
+                .status(order.getStatus())
+                .totalAmount(order.getTotalAmount())
+                .shippingAddress(order.getShippingAddress())
+                .items(order.getItems() == null ? List.of() : order.getItems().stream()
+                        .map(this::toItemResponseDTO)
+                        .collect(Collectors.toList()))
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .build();
+    }
+
+    public OrderItemResponseDTO toItemResponseDTO(ArchivedOrderItem item) {
+        if (item == null) return null;
+
+        return OrderItemResponseDTO.builder()
+                .id(item.getId())
+                .productId(item.getProductId())
+                .productName(item.getProductName())
+                .quantity(item.getQuantity())
+                .unitPrice(item.getUnitPrice())
+                .subtotal(item.getSubtotal())
+                .build();
+    }
 }
@@ -0,0 +1,129 @@
+package com.ecommerce.order.application.service;
+
+import com.ecommerce.order.domain.enumerate.OrderStatus;
+import com.ecommerce.order.domain.repository.ArchivedOrderRepository;
+import com.ecommerce.order.domain.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service d'archivage des commandes terminées (partitionnement chaud/froid).
+ *
+ * <p>
+ * Les commandes DELIVERED ou CANCELLED non modifiées depuis
+ * {@code orders.archive.retention-days} jours sont déplacées de
+ * {@code orders}/{@code order_items} vers {@code orders_archive}/{@code order_items_archive}.
+ * Le déplacement se fait par lots de {@code orders.archive.batch-size} commandes,
+ * chaque lot dans sa propre transaction courte (INSERT ... SELECT puis DELETE),
+ * afin de ne jamais verrouiller la table chaude longtemps.
+ * </p>
+ *
+ * <p>
+ * <b>Métriques Prometheus :</b>
+ * </p>
+ * <ul>
+ * <li>orders.archived.total - Compteur des commandes archivées</li>
+ * </ul>
+ *
+ * @author E-commerce Team
+ * @version 1.0
+ * @since 2024-12
+ * @see com.ecommerce.order.domain.entity.ArchivedOrder
+ */
+@Service
+public class OrderArchivalService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchivalService.class);
+
+    private static final Set<OrderStatus> TERMINAL_STATUSES = Arrays.stream(OrderStatus.values())
+            .filter(OrderStatus::isTerminal)
+            .collect(Collectors.toCollection(() -> EnumSet.noneOf(OrderStatus.class)));
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter ordersArchivedCounter;
+    private final boolean enabled;
+    private final Duration retention;
+    private final int batchSize;
+
+    public OrderArchivalService(OrderRepository orderRepository,
+            ArchivedOrderRepository archivedOrderRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${orders.archive.enabled:true}") boolean enabled,
+            @Value("${orders.archive.retention-days:90}") int retentionDays,
+            @Value("${orders.archive.batch-size:500}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.retention = Duration.ofDays(retentionDays);
+        this.batchSize = batchSize;
+        this.ordersArchivedCounter = Counter.builder("orders.archived.total")
+                .description("Nombre total de commandes archivées")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tâche planifiée d'archivage. La fréquence est définie par {@code orders.archive.cron}.
+     */
+    @Scheduled(cron = "${orders.archive.cron:0 0 3 * * *}")
+    public void scheduledArchive() {
+        if (!enabled) {
+            return;
+        }
+        archiveOlderThan(LocalDateTime.now().minus(retention));
+    }
+
+    /**
+     * Archive toutes les commandes terminées non modifiées depuis la date donnée.
+     * @param cutoff date limite de dernière modification
+     * @return nombre total de commandes archivées
+     */
+    public int archiveOlderThan(LocalDateTime cutoff) {
+        log.info("Archivage des commandes terminées antérieures au {}", cutoff);
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved;
+        } while (moved == batchSize);
+
+        log.info("Archivage terminé: {} commandes déplacées", total);
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = orderRepository.findIdsByStatusInAndUpdatedAtBefore(
+                TERMINAL_STATUSES, cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        archivedOrderRepository.copyOrdersToArchive(ids);
+        archivedOrderRepository.copyOrderItemsToArchive(ids);
+        orderRepository.deleteItemsByOrderIdIn(ids);
+        orderRepository.deleteByIdIn(ids);
+
+        ordersArchivedCounter.increment(ids.size());
+        log.debug("Lot archivé: {} commandes ({} -> {})", ids.size(), ids.get(0), ids.get(ids.size() - 1));
+        return ids.size();
+    }
+}
@@ -5,6 +5,7 @@ import com.ecommerce.order.application.mapper.OrderMapper;
 import com.ecommerce.order.domain.entity.Order;
 import com.ecommerce.order.domain.entity.OrderItem;
 import com.ecommerce.order.domain.enumerate.OrderStatus;
+import com.ecommerce.order.domain.repository.ArchivedOrderRepository;
 import com.ecommerce.order.domain.repository.OrderRepository;
 import com.ecommerce.order.domain.repository.OrderItemRepository;
 import com.ecommerce.order.infrastructure.client.IProductClient;
@@ -14,23 +15,30 @@ import com.ecommerce.order.infrastructure.client.IUserClient;
 import com.ecommerce.order.infrastructure.client.ProductClient;
 import com.ecommerce.order.infrastructure.client.UserDTO;
 import com.ecommerce.order.infrastructure.exception.*;
+import com.ecommerce.order.security.CallerContext;
+import com.ecommerce.order.security.CallerTokenResolver;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
-import jakarta.servlet.http.HttpServletRequest;
+import io.micrometer.core.instrument.Timer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -65,6 +73,7 @@ import java.util.stream.Collectors;
  * <ul>
  * <li>orders.created.total - Compteur des commandes créées</li>
  * <li>orders.cancelled.total - Compteur des commandes annulées</li>
+ * <li>orders.create.phase - Durée des phases distante et locale de la création</li>
  * </ul>
  * 
  * @author E-commerce Team
@@ -82,21 +91,35 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
     private final OrderMapper orderMapper;
+    private final OrderStatusHistoryService statusHistoryService;
     private final IUserClient userClient;
     private final IProductClient productClient;
     private final Counter ordersCreatedCounter;
     private final Counter ordersCancelledCounter;
+    private final Timer remotePhaseTimer;
+    private final Timer localPhaseTimer;
+    private final TransactionTemplate transactionTemplate;
+    private final CallerTokenResolver callerTokenResolver;
+    private final StockRestoreService stockRestoreService;
 
     public OrderService(OrderRepository orderRepository,
             OrderItemRepository orderItemRepository,
+            ArchivedOrderRepository archivedOrderRepository,
             OrderMapper orderMapper,
+            OrderStatusHistoryService statusHistoryService,
             IUserClient userClient,
             IProductClient productClient,
+            PlatformTransactionManager transactionManager,
+            CallerTokenResolver callerTokenResolver,
+            StockRestoreService stockRestoreService,
             MeterRegistry meterRegistry) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
         this.orderMapper = orderMapper;
+        this.statusHistoryService = statusHistoryService;
         this.userClient = userClient;
         this.productClient = productClient;
         this.ordersCreatedCounter = Counter.builder("orders.created.total")
@@ -105,6 +128,17 @@ public class OrderService {
         this.ordersCancelledCounter = Counter.builder("orders.cancelled.total")
                 .description("Nombre total de commandes annulées")
                 .register(meterRegistry);
+        this.remotePhaseTimer = Timer.builder("orders.create.phase")
+                .description("Durée des phases de création de commande")
+                .tag("phase", "remote")
+                .register(meterRegistry);
+        this.localPhaseTimer = Timer.builder("orders.create.phase")
+                .description("Durée des phases de création de commande")
+                .tag("phase", "local")
+                .register(meterRegistry);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.callerTokenResolver = callerTokenResolver;
+        this.stockRestoreService = stockRestoreService;
     }
 
     public List<OrderResponseDTO> getAllOrders() {
@@ -115,17 +149,50 @@ public class OrderService {
     }
 
     public OrderResponseDTO getOrderById(Long id) {
+        return getOrderById(id, false);
+    }
+
+    /**
+     * Récupère une commande par son identifiant.
+     * @param id Identifiant de la commande
+     * @param includeArchived si vrai, recherche aussi dans l'archive lorsque la commande n'est plus dans la table chaude
+     * @return DTO de la commande
+     */
+    public OrderResponseDTO getOrderById(Long id, boolean includeArchived) {
         log.info("Récupération de la commande avec l'id: {}", id);
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Commande", id));
-        return orderMapper.toResponseDTO(order);
+        Optional<Order> order = orderRepository.findById(id);
+        if (order.isPresent()) {
+            return orderMapper.toResponseDTO(order.get());
+        }
+        if (includeArchived) {
+            return archivedOrderRepository.findById(id)
+                    .map(orderMapper::toResponseDTO)
+                    .orElseThrow(() -> new ResourceNotFoundException("Commande", id));
+        }
+        throw new ResourceNotFoundException("Commande", id);
     }
 
     public List<OrderResponseDTO> getOrdersByUserId(Long userId) {
+        return getOrdersByUserId(userId, false);
+    }
+
+    /**
+     * Récupère les commandes d'un utilisateur.
+     * @param userId Identifiant de l'utilisateur
+     * @param includeArchived si vrai, ajoute les commandes archivées à la suite des commandes actives
+     * @return liste des commandes
+     */
+    public List<OrderResponseDTO> getOrdersByUserId(Long userId, boolean includeArchived) {
         log.info("Récupération des commandes pour l'utilisateur: {}", userId);
-        return orderRepository.findByUserId(userId).stream()
+        List<OrderResponseDTO> orders = orderRepository.findByUserId(userId).stream()
                 .map(orderMapper::toResponseDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (includeArchived) {
+            archivedOrderRepository.findByUserId(userId).stream()
+                    .map(orderMapper::toResponseDTO)
+                    .forEach(orders::add);
+        }
+        return orders;
     }
 
     public List<OrderResponseDTO> getOrdersByStatus(OrderStatus status) {
@@ -135,10 +202,27 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Crée une commande en trois phases, sans transaction ouverte pendant les appels distants.
+     *
+     * <ol>
+     * <li>Validation distante : utilisateur et produits (aucune connexion JDBC tenue)</li>
+     * <li>Réservation du stock : un seul appel groupé, conditionnel, au service Product</li>
+     * <li>Écriture locale : transaction courte ; en cas d'échec, le stock réservé est restauré</li>
+     * </ol>
+     *
+     * @param requestDTO DTO de la commande à créer
+     * @return DTO de la commande créée
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderResponseDTO createOrder(OrderRequestDTO requestDTO) {
         log.info("Création d'une nouvelle commande pour l'utilisateur: {}", requestDTO.getUserId());
 
-        String jwtToken = getJwtFromRequest();
+        CallerContext caller = callerTokenResolver.currentContext();
+        CallerContext stockWriter = stockWriteContext();
+
+        // Phase 1 : validation distante, hors transaction
+        Timer.Sample remoteSample = Timer.start();
 
         // Vérifier que l'utilisateur existe
         UserDTO user = userClient.getUserById(requestDTO.getUserId())
@@ -152,12 +236,14 @@ public class OrderService {
                 .orderDate(LocalDateTime.now())
                 .status(OrderStatus.PENDING)
                 .shippingAddress(requestDTO.getShippingAddress())
+                .reservationReference("order-" + UUID.randomUUID())
                 .build();
 
         // Ajouter les items et vérifier le stock
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
         for (OrderItemRequestDTO itemDTO : requestDTO.getItems()) {
             // Vérifier que le produit existe et a du stock
-            ProductDTO product = productClient.getProductById(itemDTO.getProductId(), jwtToken)
+            ProductDTO product = productClient.getProductById(itemDTO.getProductId(), caller)
                     .orElseThrow(() -> new BusinessException(
                             "Produit avec l'id " + itemDTO.getProductId() + " n'existe pas"));
 
@@ -174,76 +260,117 @@ public class OrderService {
                     .build();
 
             order.addItem(orderItem);
-
-            // Mettre à jour le stock
-            int newStock = product.getStock() - itemDTO.getQuantity();
-            productClient.updateStock(itemDTO.getProductId(), newStock, jwtToken);
-            log.debug("Stock mis à jour pour le produit {}: {} -> {}",
-                    itemDTO.getProductId(), product.getStock(), newStock);
+            quantities.merge(itemDTO.getProductId(), itemDTO.getQuantity(), Integer::sum);
         }
 
+        // Phase 2 : réservation du stock (décrément conditionnel, tout ou rien)
+        productClient.reserveStock(quantities, order.getReservationReference(), stockWriter);
+        remoteSample.stop(remotePhaseTimer);
+        log.debug("Stock réservé pour {} produits", quantities.size());
+
         // Calculer le montant total
         order.calculateTotalAmount();
 
-        // Sauvegarder la commande
-        Order savedOrder = orderRepository.save(order);
-        log.info("Commande créée avec succès: id={}, total={}", savedOrder.getId(), savedOrder.getTotalAmount());
+        // Phase 3 : écriture locale dans une transaction courte, avec compensation
+        Timer.Sample localSample = Timer.start();
+        OrderResponseDTO response;
+        try {
+            response = transactionTemplate.execute(status -> {
+                Order savedOrder = orderRepository.save(order);
+                statusHistoryService.record(savedOrder.getId(), null, OrderStatus.PENDING, null);
+                return orderMapper.toResponseDTO(savedOrder);
+            });
+        } catch (RuntimeException e) {
+            log.error("Échec de l'enregistrement de la commande, restauration du stock réservé: {}", e.getMessage());
+            if (!productClient.restoreStock(quantities, order.getReservationReference(), stockWriter)) {
+                enqueueCompensation(order, quantities);
+            }
+            throw e;
+        } finally {
+            localSample.stop(localPhaseTimer);
+        }
+        log.info("Commande créée avec succès: id={}, total={}", response.getId(), response.getTotalAmount());
 
         // Incrémenter le compteur
         ordersCreatedCounter.increment();
 
-        return orderMapper.toResponseDTO(savedOrder);
+        return response;
     }
 
     /**
      * Met à jour le statut d'une commande.
+     *
+     * <p>Une annulation inscrit la restauration du stock dans la même transaction que le
+     * changement de statut ; l'appel à ms-product a lieu après le commit, hors transaction, et
+     * est retenté par {@link StockRestoreService} s'il échoue.</p>
+     *
      * @param id Identifiant de la commande à mettre à jour
      * @param statusDTO DTO contenant le nouveau statut
      * @return DTO de la commande mise à jour
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderResponseDTO updateOrderStatus(Long id, StatusUpdateDTO statusDTO) {
         log.info("Mise à jour du statut de la commande {}: {}", id, statusDTO.getStatus());
 
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Commande", id));
+        Long[] pendingRestore = new Long[1];
+        OrderResponseDTO response = transactionTemplate.execute(status -> {
+            Order order = orderRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Commande", id));
 
-        OrderStatus newStatus = statusDTO.getStatus();
-        OrderStatus currentStatus = order.getStatus();
+            OrderStatus newStatus = statusDTO.getStatus();
+            OrderStatus currentStatus = order.getStatus();
+            // La commande n'est modifiée que par les changements de statut : updatedAt = entrée dans le statut courant
+            LocalDateTime enteredCurrentAt = order.getUpdatedAt() != null ? order.getUpdatedAt() : order.getCreatedAt();
 
-        // Valider la transition de statut
-        validateStatusTransition(currentStatus, newStatus);
+            // Valider la transition de statut
+            validateStatusTransition(currentStatus, newStatus);
 
-        // Si annulation, restaurer le stock
-        if (newStatus == OrderStatus.CANCELLED && currentStatus != OrderStatus.CANCELLED) {
-            restoreStock(order);
-            ordersCancelledCounter.increment();
-        }
+            // Si annulation, inscrire la restauration du stock avec le changement de statut
+            if (newStatus == OrderStatus.CANCELLED && currentStatus != OrderStatus.CANCELLED) {
+                pendingRestore[0] = stockRestoreService.enqueue(order);
+            }
+
+            order.setStatus(newStatus);
+            Order updatedOrder = orderRepository.save(order);
+            log.info("Statut de la commande {} mis à jour: {} -> {}", id, currentStatus, newStatus);
+            statusHistoryService.record(id, currentStatus, newStatus, enteredCurrentAt);
 
-        order.setStatus(newStatus);
-        Order updatedOrder = orderRepository.save(order);
-        log.info("Statut de la commande {} mis à jour: {} -> {}", id, currentStatus, newStatus);
+            return orderMapper.toResponseDTO(updatedOrder);
+        });
 
-        return orderMapper.toResponseDTO(updatedOrder);
+        if (statusDTO.getStatus() == OrderStatus.CANCELLED) {
+            ordersCancelledCounter.increment();
+            stockRestoreService.attempt(pendingRestore[0]);
+        }
+        return response;
     }
 
     /**
      * Supprime une commande par son identifiant.
+     *
+     * <p>Si la commande n'était pas annulée, la restauration de son stock est inscrite dans la
+     * transaction de suppression, puis envoyée à ms-product après le commit.</p>
+     *
      * @param id Identifiant de la commande à supprimer
      * @throws ResourceNotFoundException si la commande n'existe pas
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteOrder(Long id) {
         log.info("Suppression de la commande: {}", id);
 
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Commande", id));
+        Long pendingRestore = transactionTemplate.execute(status -> {
+            Order order = orderRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Commande", id));
 
-        // Si la commande n'est pas annulée, restaurer le stock
-        if (order.getStatus() != OrderStatus.CANCELLED) {
-            restoreStock(order);
-        }
+            // Si la commande n'est pas annulée, inscrire la restauration du stock
+            Long restore = order.getStatus() != OrderStatus.CANCELLED ? stockRestoreService.enqueue(order) : null;
 
-        orderRepository.delete(order);
+            orderRepository.delete(order);
+            return restore;
+        });
         log.info("Commande {} supprimée avec succès", id);
+
+        stockRestoreService.attempt(pendingRestore);
     }
 
     /**
@@ -259,57 +386,51 @@ public class OrderService {
         return total != null ? total : BigDecimal.ZERO;
     }
 
+    /**
+     * Retourne l'historique des transitions de statut d'une commande.
+     * @param id Identifiant de la commande
+     * @return liste chronologique des transitions
+     * @throws ResourceNotFoundException si la commande n'existe ni en table chaude ni dans l'archive
+     */
+    public List<OrderStatusHistoryDTO> getOrderStatusHistory(Long id) {
+        log.info("Récupération de l'historique des statuts de la commande: {}", id);
+        List<OrderStatusHistoryDTO> history = statusHistoryService.getHistory(id);
+        if (history.isEmpty() && !orderRepository.existsById(id) && !archivedOrderRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Commande", id);
+        }
+        return history;
+    }
+
     private void validateStatusTransition(OrderStatus current, OrderStatus next) {
-        // Règles de transition de statut
-        boolean valid = switch (current) {
-            case PENDING -> next == OrderStatus.CONFIRMED || next == OrderStatus.CANCELLED;
-            case CONFIRMED -> next == OrderStatus.SHIPPED || next == OrderStatus.CANCELLED;
-            case SHIPPED -> next == OrderStatus.DELIVERED;
-            case DELIVERED, CANCELLED -> false; // États finaux
-        };
-
-        if (!valid) {
+        // Règles de transition de statut (table précalculée dans OrderStatus)
+        if (!current.canTransitionTo(next)) {
             throw new BusinessException(
                     String.format("Transition de statut invalide: %s -> %s", current, next));
         }
     }
 
     /**
-     * Restaure le stock des produits d'une commande annulée.
-     * @param order la commande dont le stock doit être restauré
+     * Inscrit la compensation d'une réservation que l'écriture de la commande n'a pas suivie, pour
+     * qu'elle soit retentée : la commande n'existe pas, seule la référence de réservation la porte.
      */
-    private void restoreStock(Order order) {
-        String jwtToken = getJwtFromRequest();
-        log.info("Restauration du stock pour la commande: {}", order.getId());
-        for (OrderItem item : order.getItems()) {
-            try {
-                Optional<ProductDTO> productOpt = productClient.getProductById(item.getProductId(), jwtToken);
-                if (productOpt.isPresent()) {
-                    ProductDTO product = productOpt.get();
-                    int newStock = product.getStock() + item.getQuantity();
-                    productClient.updateStock(item.getProductId(), newStock, jwtToken);
-                    log.debug("Stock restauré pour le produit {}: {} -> {}",
-                            item.getProductId(), product.getStock(), newStock);
-                }
-            } catch (Exception e) {
-                log.error("Erreur lors de la restauration du stock pour le produit {}: {}",
-                        item.getProductId(), e.getMessage());
-            }
+    private void enqueueCompensation(Order order, Map<Long, Integer> quantities) {
+        try {
+            Long restore = transactionTemplate.execute(status ->
+                    stockRestoreService.enqueue(null, order.getReservationReference(), quantities));
+            log.warn("Compensation de la réservation {} retentée plus tard (restauration {})",
+                    order.getReservationReference(), restore);
+        } catch (RuntimeException e) {
+            log.error("Compensation impossible, stock à restaurer manuellement ({}): {}",
+                    order.getReservationReference(), quantities);
         }
     }
 
     /**
-     * Récupère le token JWT de la requête HTTP courante.
+     * Identité des écritures de stock : l'ajustement groupé de ms-product est réservé au rôle SERVICE,
+     * quel que soit l'utilisateur à l'origine de la commande.
+     * @throws ServiceUnavailableException si le token de service ne peut pas être obtenu
      */
-    public String getJwtFromRequest() {
-        ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-        if (attrs == null)
-            return null;
-        HttpServletRequest request = attrs.getRequest();
-        String header = request.getHeader("Authorization");
-        if (header != null && header.startsWith("Bearer ")) {
-            return header.substring(7);
-        }
-        return null;
+    private CallerContext stockWriteContext() {
+        return callerTokenResolver.serviceContext();
     }
 }
@@ -0,0 +1,252 @@
+package com.ecommerce.order.application.service;
+
+import com.ecommerce.order.application.dto.OrderStatusHistoryDTO;
+import com.ecommerce.order.domain.entity.OrderStatusHistory;
+import com.ecommerce.order.domain.enumerate.OrderStatus;
+import com.ecommerce.order.domain.repository.OrderStatusHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Service du journal des transitions de statut des commandes.
+ *
+ * <p>
+ * Les transitions sont mises en tampon en mémoire après le commit de la
+ * transaction métier, puis écrites par lots (JDBC batch) dans
+ * {@code order_status_history} par une tâche planifiée. Le chemin critique
+ * de {@code updateOrderStatus} ne fait donc aucune écriture supplémentaire.
+ * </p>
+ *
+ * <p>
+ * Le tampon est borné à {@code orders.status-history.max-pending} transitions :
+ * au-delà, le thread qui enregistre la transition vide lui-même le tampon avant
+ * de rendre la main. Si la base reste indisponible, les transitions les plus
+ * anciennes sont abandonnées (et comptées) plutôt que d'épuiser la mémoire.
+ * </p>
+ *
+ * <p>
+ * <b>Métriques Prometheus :</b>
+ * </p>
+ * <ul>
+ * <li>orders.status.time_in_state - Histogramme du temps passé dans un statut (tags from/to)</li>
+ * <li>orders.status_history.pending - Nombre de transitions en attente d'écriture</li>
+ * <li>orders.status_history.dropped - Transitions abandonnées, tampon plein et base indisponible</li>
+ * </ul>
+ *
+ * @author E-commerce Team
+ * @version 1.0
+ * @since 2024-12
+ * @see OrderStatusHistory
+ */
+@Service
+public class OrderStatusHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatusHistoryService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO order_status_history "
+            + "(order_id, from_status, to_status, changed_at, time_in_previous_ms) VALUES (?, ?, ?, ?, ?)";
+
+    private final OrderStatusHistoryRepository historyRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final int maxPending;
+    private final Queue<OrderStatusHistory> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Timer[][] timeInStateTimers;
+    private final Counter droppedCounter;
+
+    public OrderStatusHistoryService(OrderStatusHistoryRepository historyRepository,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${orders.status-history.batch-size:500}") int batchSize,
+            @Value("${orders.status-history.max-pending:10000}") int maxPending) {
+        if (maxPending < batchSize) {
+            throw new IllegalArgumentException(
+                    "orders.status-history.max-pending doit être au moins égal à orders.status-history.batch-size");
+        }
+        this.historyRepository = historyRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+
+        OrderStatus[] statuses = OrderStatus.values();
+        this.timeInStateTimers = new Timer[statuses.length][statuses.length];
+        for (OrderStatus from : statuses) {
+            for (OrderStatus to : statuses) {
+                if (from.canTransitionTo(to)) {
+                    timeInStateTimers[from.ordinal()][to.ordinal()] = Timer.builder("orders.status.time_in_state")
+                            .description("Temps passé dans un statut avant la transition")
+                            .tag("from", from.name())
+                            .tag("to", to.name())
+                            .publishPercentileHistogram()
+                            .register(meterRegistry);
+                }
+            }
+        }
+
+        Gauge.builder("orders.status_history.pending", pending, AtomicInteger::get)
+                .description("Nombre de transitions de statut en attente d'écriture")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("orders.status_history.dropped")
+                .description("Transitions de statut abandonnées, tampon plein et base indisponible")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enregistre une transition de statut. L'écriture est différée et n'a lieu
+     * qu'après le commit de la transaction courante (si elle existe).
+     *
+     * @param orderId identifiant de la commande
+     * @param from statut précédent (null à la création)
+     * @param to nouveau statut
+     * @param enteredPreviousAt date d'entrée dans le statut précédent (null à la création)
+     */
+    public void record(Long orderId, OrderStatus from, OrderStatus to, LocalDateTime enteredPreviousAt) {
+        LocalDateTime now = LocalDateTime.now();
+        Long timeInPreviousMs = enteredPreviousAt != null
+                ? Duration.between(enteredPreviousAt, now).toMillis()
+                : null;
+
+        OrderStatusHistory entry = OrderStatusHistory.builder()
+                .orderId(orderId)
+                .fromStatus(from)
+                .toStatus(to)
+                .changedAt(now)
+                .timeInPreviousMs(timeInPreviousMs)
+                .build();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(entry);
+                }
+            });
+        } else {
+            enqueue(entry);
+        }
+    }
+
+    /**
+     * Retourne l'historique d'une commande. Les transitions encore en tampon
+     * (au plus {@code orders.status-history.flush-interval-ms}) n'y figurent pas.
+     */
+    public List<OrderStatusHistoryDTO> getHistory(Long orderId) {
+        return historyRepository.findByOrderIdOrderByChangedAtAsc(orderId).stream()
+                .map(h -> OrderStatusHistoryDTO.builder()
+                        .fromStatus(h.getFromStatus())
+                        .toStatus(h.getToStatus())
+                        .changedAt(h.getChangedAt())
+                        .timeInPreviousMs(h.getTimeInPreviousMs())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Écrit le contenu du tampon par lots de {@code orders.status-history.batch-size}.
+     * Appelé périodiquement, et par un appelant de {@link #record} quand le tampon est plein.
+     */
+    @Scheduled(fixedDelayString = "${orders.status-history.flush-interval-ms:1000}")
+    @PreDestroy
+    public synchronized void flush() {
+        List<OrderStatusHistory> batch = new ArrayList<>(batchSize);
+        OrderStatusHistory entry;
+        while ((entry = buffer.poll()) != null) {
+            batch.add(entry);
+            if (batch.size() == batchSize) {
+                if (!writeBatch(batch)) {
+                    return;
+                }
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void enqueue(OrderStatusHistory entry) {
+        buffer.add(entry);
+        int size = pending.incrementAndGet();
+        if (entry.getFromStatus() != null && entry.getTimeInPreviousMs() != null) {
+            Timer timer = timeInStateTimers[entry.getFromStatus().ordinal()][entry.getToStatus().ordinal()];
+            if (timer != null) {
+                timer.record(Duration.ofMillis(entry.getTimeInPreviousMs()));
+            }
+        }
+        if (size > maxPending) {
+            flush();
+            discardOverflow();
+        }
+    }
+
+    /**
+     * Abandonne les transitions les plus anciennes au-delà de {@code max-pending},
+     * quand le tampon n'a pas pu être écrit.
+     */
+    private void discardOverflow() {
+        int dropped = 0;
+        while (pending.get() > maxPending && buffer.poll() != null) {
+            pending.decrementAndGet();
+            dropped++;
+        }
+        if (dropped > 0) {
+            droppedCounter.increment(dropped);
+            log.error("Historique des statuts: tampon plein, {} transitions abandonnées", dropped);
+        }
+    }
+
+    /**
+     * Écrit un lot ; en cas d'échec, le lot est remis en tampon pour le prochain passage.
+     * @return true si le lot a été écrit
+     */
+    private boolean writeBatch(List<OrderStatusHistory> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, h) -> {
+                ps.setLong(1, h.getOrderId());
+                if (h.getFromStatus() != null) {
+                    ps.setString(2, h.getFromStatus().name());
+                } else {
+                    ps.setNull(2, Types.VARCHAR);
+                }
+                ps.setString(3, h.getToStatus().name());
+                ps.setTimestamp(4, Timestamp.valueOf(h.getChangedAt()));
+                if (h.getTimeInPreviousMs() != null) {
+                    ps.setLong(5, h.getTimeInPreviousMs());
+                } else {
+                    ps.setNull(5, Types.BIGINT);
+                }
+            });
+            pending.addAndGet(-batch.size());
+            log.debug("Historique des statuts: {} transitions écrites", batch.size());
+            return true;
+        } catch (Exception e) {
+            log.error("Erreur lors de l'écriture de l'historique des statuts, nouvel essai au prochain passage: {}",
+                    e.getMessage());
+            buffer.addAll(batch);
+            return false;
+        }
+    }
+}
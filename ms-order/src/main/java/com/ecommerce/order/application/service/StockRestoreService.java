@@ -0,0 +1,167 @@
+package com.ecommerce.order.application.service;
+
+import com.ecommerce.order.domain.entity.Order;
+import com.ecommerce.order.domain.entity.OrderItem;
+import com.ecommerce.order.domain.entity.PendingStockRestore;
+import com.ecommerce.order.domain.repository.PendingStockRestoreRepository;
+import com.ecommerce.order.infrastructure.client.IProductClient;
+import com.ecommerce.order.security.CallerTokenResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Restaurations de stock des commandes annulées ou supprimées, garanties même si ms-product
+ * est indisponible.
+ *
+ * <p>
+ * La restauration est d'abord inscrite dans {@code pending_stock_restore}, dans la transaction
+ * qui annule ou supprime la commande ({@link #enqueue}). L'appel à ms-product a lieu après le
+ * commit, hors transaction ({@link #attempt}) ; la ligne n'est supprimée que si ms-product a
+ * accepté la restauration. Sinon elle est retentée périodiquement, avec un délai croissant
+ * borné par {@code orders.stock-restore.max-backoff}. ms-product n'applique qu'une fois la
+ * restauration d'une référence : un nouvel essai après une issue inconnue est sans risque.
+ * </p>
+ *
+ * <p>
+ * <b>Métriques Prometheus :</b>
+ * </p>
+ * <ul>
+ * <li>orders.stock.restore.failed - Essais de restauration en échec (retentés)</li>
+ * </ul>
+ *
+ * @author E-commerce Team
+ * @version 1.0
+ * @since 2024-12
+ * @see PendingStockRestore
+ */
+@Service
+public class StockRestoreService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockRestoreService.class);
+
+    private final PendingStockRestoreRepository pendingStockRestoreRepository;
+    private final IProductClient productClient;
+    private final CallerTokenResolver callerTokenResolver;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter failedCounter;
+    private final Duration retryInterval;
+    private final Duration maxBackoff;
+    private final int batchSize;
+
+    public StockRestoreService(PendingStockRestoreRepository pendingStockRestoreRepository,
+            IProductClient productClient,
+            CallerTokenResolver callerTokenResolver,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${orders.stock-restore.retry-interval-ms:30000}") long retryIntervalMs,
+            @Value("${orders.stock-restore.max-backoff:PT30M}") Duration maxBackoff,
+            @Value("${orders.stock-restore.batch-size:100}") int batchSize) {
+        this.pendingStockRestoreRepository = pendingStockRestoreRepository;
+        this.productClient = productClient;
+        this.callerTokenResolver = callerTokenResolver;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retryInterval = Duration.ofMillis(retryIntervalMs);
+        this.maxBackoff = maxBackoff;
+        this.batchSize = batchSize;
+        this.failedCounter = Counter.builder("orders.stock.restore.failed")
+                .description("Essais de restauration de stock en échec, retentés")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Inscrit la restauration du stock d'une commande, dans la transaction de l'appelant.
+     * @param order commande annulée ou supprimée (lignes chargées)
+     * @return identifiant de la restauration à tenter après le commit, ou null si la commande n'a pas de ligne
+     */
+    public Long enqueue(Order order) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return enqueue(order.getId(), order.getReservationReference(), quantities);
+    }
+
+    /**
+     * Inscrit une restauration, dans la transaction de l'appelant.
+     * @return identifiant de la restauration, ou null si aucune quantité n'est à restituer
+     */
+    public Long enqueue(Long orderId, String reference, Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return null;
+        }
+        PendingStockRestore restore = pendingStockRestoreRepository.save(PendingStockRestore.builder()
+                .orderId(orderId)
+                .reservationReference(reference)
+                .quantities(new LinkedHashMap<>(quantities))
+                .nextAttemptAt(LocalDateTime.now().plus(retryInterval))
+                .build());
+        return restore.getId();
+    }
+
+    /**
+     * Envoie une restauration inscrite à ms-product, hors transaction, et la supprime si elle est acceptée.
+     * @param id identifiant de la restauration (null accepté : rien à faire)
+     * @return true si la restauration est faite (ou n'existe plus), false si elle sera retentée
+     */
+    public boolean attempt(Long id) {
+        if (id == null) {
+            return true;
+        }
+        PendingStockRestore restore = pendingStockRestoreRepository.findById(id).orElse(null);
+        if (restore == null) {
+            return true;
+        }
+        boolean restored;
+        try {
+            restored = productClient.restoreStock(restore.getQuantities(), restore.getReservationReference(),
+                    callerTokenResolver.serviceContext());
+        } catch (RuntimeException e) {
+            log.error("Restauration du stock {} impossible: {}", restore.getReservationReference(), e.getMessage());
+            restored = false;
+        }
+        if (restored) {
+            pendingStockRestoreRepository.deleteById(id);
+            log.info("Stock de la commande {} restauré ({})", restore.getOrderId(), restore.getReservationReference());
+            return true;
+        }
+
+        failedCounter.increment();
+        int attempts = restore.getAttempts() + 1;
+        Duration backoff = retryInterval.multipliedBy(1L << Math.min(attempts - 1, 10));
+        transactionTemplate.executeWithoutResult(status -> pendingStockRestoreRepository.findById(id)
+                .ifPresent(pending -> {
+                    pending.setAttempts(attempts);
+                    pending.setNextAttemptAt(LocalDateTime.now()
+                            .plus(backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff));
+                    pendingStockRestoreRepository.save(pending);
+                }));
+        log.warn("Restauration du stock {} retentée plus tard (essai {})", restore.getReservationReference(),
+                attempts);
+        return false;
+    }
+
+    /**
+     * Retente les restaurations échues, par lots de {@code orders.stock-restore.batch-size}.
+     */
+    @Scheduled(fixedDelayString = "${orders.stock-restore.retry-interval-ms:30000}")
+    public void retryPending() {
+        List<Long> due = pendingStockRestoreRepository.findIdsDue(LocalDateTime.now(), PageRequest.of(0, batchSize));
+        for (Long id : due) {
+            attempt(id);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.order.domain.entity;
+
+import com.ecommerce.order.domain.enumerate.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entité JPA représentant une commande archivée (partition "froide").
+ *
+ * <p>Les commandes dans un état final (DELIVERED ou CANCELLED) au-delà d'une
+ * certaine ancienneté sont déplacées de la table {@code orders} vers
+ * {@code orders_archive} par {@link com.ecommerce.order.application.service.OrderArchivalService}.
+ * La table chaude reste ainsi petite et ses index tiennent en mémoire.</p>
+ *
+ * <p>L'identifiant est conservé tel quel lors de l'archivage (pas de génération).</p>
+ *
+ * @author E-commerce Team
+ * @version 1.0
+ * @since 2024-12
+ * @see Order
+ * @see ArchivedOrderItem
+ */
+@Entity
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_user_id", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedOrder {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    @Column(name = "total_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "shipping_address", nullable = false)
+    private String shippingAddress;
+
+    /** Référence de la réservation de stock, conservée pour rapprocher l'archive du journal de ms-product */
+    @Column(name = "reservation_reference", length = 64)
+    private String reservationReference;
+
+    @OneToMany(mappedBy = "order", fetch = FetchType.LAZY)
+    @Builder.Default
+    private List<ArchivedOrderItem> items = new ArrayList<>();
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
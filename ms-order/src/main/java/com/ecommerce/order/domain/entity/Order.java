@@ -27,7 +27,10 @@ import java.util.List;
  * @see OrderStatus
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_id", columnList = "user_id"),
+        @Index(name = "idx_orders_status_updated_at", columnList = "status, updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -54,6 +57,10 @@ public class Order {
     @Column(name = "shipping_address", nullable = false)
     private String shippingAddress;
 
+    /** Référence de la réservation de stock auprès de ms-product (réservation et restauration idempotentes) */
+    @Column(name = "reservation_reference", length = 64)
+    private String reservationReference;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @Builder.Default
     private List<OrderItem> items = new ArrayList<>();
@@ -0,0 +1,54 @@
+package com.ecommerce.order.domain.entity;
+
+import com.ecommerce.order.domain.enumerate.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entité JPA représentant une transition de statut d'une commande (journal d'audit).
+ *
+ * <p>La table {@code order_status_history} est en ajout seul : chaque changement
+ * de statut y est inscrit avec son horodatage et la durée passée dans l'état
+ * précédent. Les lignes sont écrites par lots via
+ * {@link com.ecommerce.order.application.service.OrderStatusHistoryService}.</p>
+ *
+ * @author E-commerce Team
+ * @version 1.0
+ * @since 2024-12
+ * @see OrderStatus
+ */
+@Entity
+@Table(name = "order_status_history", indexes = {
+        @Index(name = "idx_order_status_history_order_id", columnList = "order_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    /** Statut précédent, null pour la création de la commande */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", length = 20)
+    private OrderStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false, length = 20)
+    private OrderStatus toStatus;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    /** Durée passée dans le statut précédent, en millisecondes */
+    @Column(name = "time_in_previous_ms")
+    private Long timeInPreviousMs;
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.order.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Entité JPA représentant une restauration de stock à envoyer à ms-product.
+ *
+ * <p>Écrite dans la transaction qui annule ou supprime la commande, puis supprimée une fois la
+ * restauration acceptée par ms-product : une annulation commitée ne peut donc pas perdre son
+ * stock, même si ms-product est indisponible. Les quantités sont recopiées ici car la commande
+ * peut avoir été supprimée.</p>
+ *
+ * @author E-commerce Team
+ * @version 1.0
+ * @since 2024-12
+ * @see com.ecommerce.order.application.service.StockRestoreService
+ */
+@Entity
+@Table(name = "pending_stock_restore", indexes = {
+        @Index(name = "idx_pending_stock_restore_next_attempt", columnList = "next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PendingStockRestore {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Commande d'origine, null pour la compensation d'une commande qui n'a pas pu être enregistrée */
+    @Column(name = "order_id")
+    private Long orderId;
+
+    /** Référence de la réservation à restaurer (null pour une commande antérieure aux références) */
+    @Column(name = "reservation_reference", length = 64)
+    private String reservationReference;
+
+    /** Quantités à restituer par identifiant de produit */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "pending_stock_restore_items", joinColumns = @JoinColumn(name = "restore_id"))
+    @MapKeyColumn(name = "product_id")
+    @Column(name = "quantity", nullable = false)
+    @Builder.Default
+    private Map<Long, Integer> quantities = new HashMap<>();
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
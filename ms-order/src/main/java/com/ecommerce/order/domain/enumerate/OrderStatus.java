@@ -32,5 +32,47 @@ public enum OrderStatus {
     /** Commande livrée au client - État final */
     DELIVERED,
     /** Commande annulée - État final */
-    CANCELLED
+    CANCELLED;
+
+    /**
+     * Table des transitions autorisées, précalculée une seule fois :
+     * {@code TRANSITIONS[from.ordinal()][to.ordinal()]}.
+     */
+    private static final boolean[][] TRANSITIONS;
+
+    static {
+        OrderStatus[] values = values();
+        TRANSITIONS = new boolean[values.length][values.length];
+        allow(PENDING, CONFIRMED);
+        allow(PENDING, CANCELLED);
+        allow(CONFIRMED, SHIPPED);
+        allow(CONFIRMED, CANCELLED);
+        allow(SHIPPED, DELIVERED);
+    }
+
+    private static void allow(OrderStatus from, OrderStatus to) {
+        TRANSITIONS[from.ordinal()][to.ordinal()] = true;
+    }
+
+    /**
+     * Indique si la transition vers le statut donné est autorisée.
+     * @param next statut cible
+     * @return true si la transition est valide
+     */
+    public boolean canTransitionTo(OrderStatus next) {
+        return TRANSITIONS[ordinal()][next.ordinal()];
+    }
+
+    /**
+     * Indique si le statut est final (aucune transition possible).
+     * Les commandes dans un état final sont éligibles à l'archivage.
+     */
+    public boolean isTerminal() {
+        for (boolean allowed : TRANSITIONS[ordinal()]) {
+            if (allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
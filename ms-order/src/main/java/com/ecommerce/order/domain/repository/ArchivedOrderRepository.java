@@ -0,0 +1,38 @@
+package com.ecommerce.order.domain.repository;
+
+import com.ecommerce.order.domain.entity.ArchivedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    List<ArchivedOrder> findByUserId(Long userId);
+
+    /**
+     * Copie les commandes données de la table chaude vers l'archive.
+     * @param ids identifiants des commandes à copier
+     * @return nombre de lignes insérées
+     */
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive (id, user_id, order_date, status, total_amount, shipping_address, reservation_reference, created_at, updated_at, archived_at) "
+            + "SELECT id, user_id, order_date, status, total_amount, shipping_address, reservation_reference, created_at, updated_at, CURRENT_TIMESTAMP "
+            + "FROM orders WHERE id IN (:ids)", nativeQuery = true)
+    int copyOrdersToArchive(@Param("ids") List<Long> ids);
+
+    /**
+     * Copie les articles des commandes données vers l'archive.
+     * @param ids identifiants des commandes dont les articles sont copiés
+     * @return nombre de lignes insérées
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_items_archive (id, order_id, product_id, product_name, quantity, unit_price, subtotal) "
+            + "SELECT id, order_id, product_id, product_name, quantity, unit_price, subtotal "
+            + "FROM order_items WHERE order_id IN (:ids)", nativeQuery = true)
+    int copyOrderItemsToArchive(@Param("ids") List<Long> ids);
+}
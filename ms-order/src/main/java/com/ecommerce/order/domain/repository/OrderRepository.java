@@ -2,13 +2,16 @@ package com.ecommerce.order.domain.repository;
 
 import com.ecommerce.order.domain.entity.Order;
 import com.ecommerce.order.domain.enumerate.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -24,4 +27,20 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     BigDecimal getTotalAmountForDay(@Param("startOfDay") LocalDateTime startOfDay, @Param("endOfDay") LocalDateTime endOfDay);
 
     List<Order> findByOrderDateBetween(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Identifiants des commandes archivables : statut final et non modifiées depuis la date donnée.
+     * La taille du lot est bornée par le {@link Pageable}.
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.updatedAt < :before ORDER BY o.id")
+    List<Long> findIdsByStatusInAndUpdatedAtBefore(@Param("statuses") Collection<OrderStatus> statuses,
+            @Param("before") LocalDateTime before, Pageable pageable);
+
+    @Modifying
+    @Query(value = "DELETE FROM order_items WHERE order_id IN (:ids)", nativeQuery = true)
+    int deleteItemsByOrderIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM orders WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
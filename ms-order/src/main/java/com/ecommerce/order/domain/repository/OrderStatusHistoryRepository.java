@@ -0,0 +1,13 @@
+package com.ecommerce.order.domain.repository;
+
+import com.ecommerce.order.domain.entity.OrderStatusHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OrderStatusHistoryRepository extends JpaRepository<OrderStatusHistory, Long> {
+
+    List<OrderStatusHistory> findByOrderIdOrderByChangedAtAsc(Long orderId);
+}
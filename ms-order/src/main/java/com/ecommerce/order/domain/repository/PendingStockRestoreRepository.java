@@ -0,0 +1,22 @@
+package com.ecommerce.order.domain.repository;
+
+import com.ecommerce.order.domain.entity.PendingStockRestore;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PendingStockRestoreRepository extends JpaRepository<PendingStockRestore, Long> {
+
+    /**
+     * Identifiants des restaurations dont le prochain essai est échu, les plus anciennes d'abord.
+     * La taille du lot est bornée par le {@link Pageable}.
+     */
+    @Query("SELECT r.id FROM PendingStockRestore r WHERE r.nextAttemptAt <= :now ORDER BY r.id")
+    List<Long> findIdsDue(@Param("now") LocalDateTime now, Pageable pageable);
+}
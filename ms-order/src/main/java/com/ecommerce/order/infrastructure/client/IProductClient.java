@@ -1,5 +1,8 @@
 package com.ecommerce.order.infrastructure.client;
 
+import com.ecommerce.order.security.CallerContext;
+
+import java.util.Map;
 import java.util.Optional;
 
 public interface IProductClient {
@@ -8,20 +11,38 @@ public interface IProductClient {
      * Récupère un produit par son identifiant.
      *
      * @param productId Identifiant du produit
-     * @param jwtToken  Token JWT à passer dans l'appel HTTP
+     * @param caller    Identité transmise à ms-product (en-tête Authorization)
      * @return Optional contenant le produit si trouvé
      */
-    Optional<ProductDTO> getProductById(Long productId, String jwtToken);
+    Optional<ProductDTO> getProductById(Long productId, CallerContext caller);
 
     /**
-     * Met à jour le stock d'un produit.
+     * Réserve (décrémente) le stock de plusieurs produits en un seul appel.
+     * La réservation est atomique : soit toutes les quantités sont décrémentées, soit aucune.
+     * Elle est idempotente par référence : un nouvel essai n'est pas réappliqué par ms-product.
+     * Si son issue est inconnue (timeout, erreur serveur), elle est compensée par
+     * {@link #restoreStock} avec la même référence avant de lever l'exception.
      *
-     * @param productId Identifiant du produit
-     * @param newStock  Nouvelle quantité de stock
-     * @param jwtToken  Token JWT à passer dans l'appel HTTP
-     * @return true si la mise à jour a réussi
+     * @param quantities Quantités à réserver par identifiant de produit
+     * @param reference  Référence de la réservation (unique par commande)
+     * @param caller     Identité transmise à ms-product (en-tête Authorization)
+     * @throws com.ecommerce.order.infrastructure.exception.InsufficientStockException si le stock est insuffisant
+     * @throws com.ecommerce.order.infrastructure.exception.ServiceUnavailableException si le service est indisponible
+     */
+    void reserveStock(Map<Long, Integer> quantities, String reference, CallerContext caller);
+
+    /**
+     * Restaure le stock de plusieurs produits en un seul appel.
+     * Les quantités sont appliquées comme des incréments relatifs, atomiquement.
+     * Avec une référence, ms-product ne restitue que ce qui a été réservé sous cette
+     * référence, une seule fois, et écarte une réservation arrivée après la restauration.
+     *
+     * @param quantities Quantités à restaurer par identifiant de produit
+     * @param reference  Référence de la réservation à restaurer (null pour une restauration simple)
+     * @param caller     Identité transmise à ms-product (en-tête Authorization)
+     * @return true si la restauration a réussi
      */
-    boolean updateStock(Long productId, Integer newStock, String jwtToken);
+    boolean restoreStock(Map<Long, Integer> quantities, String reference, CallerContext caller);
 
     /**
      * Vérifie si le service Product est disponible.
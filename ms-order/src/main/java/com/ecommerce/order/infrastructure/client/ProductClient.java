@@ -1,14 +1,21 @@
 package com.ecommerce.order.infrastructure.client;
 
+import com.ecommerce.order.infrastructure.exception.InsufficientStockException;
 import com.ecommerce.order.infrastructure.exception.ServiceUnavailableException;
+import com.ecommerce.order.security.CallerContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -17,13 +24,15 @@ import java.util.Optional;
  * <p>Ce client utilise WebClient (Spring WebFlux) pour effectuer des appels REST
  * synchrones vers le service Product sur le port 8082.</p>
  *
- * <p>Ce client accepte maintenant un token JWT à passer dans l'en-tête Authorization
- * pour tous les appels authentifiés.</p>
+ * <p>Chaque appel authentifié reçoit le {@link CallerContext} à transmettre : il est placé
+ * dans le contexte Reactor de l'appel ({@link CallerContext#asReactorContext()}) et un filtre
+ * du WebClient en tire l'en-tête Authorization ({@link CallerContext#fromReactor()}), quel que
+ * soit le thread qui exécute la requête.</p>
  *
  * <p><b>Fonctionnalités :</b></p>
  * <ul>
  *   <li>Récupération d'un produit par son ID</li>
- *   <li>Mise à jour du stock d'un produit (PATCH)</li>
+ *   <li>Réservation et restauration groupées du stock (PATCH /stock)</li>
  *   <li>Vérification de la disponibilité du service (health check)</li>
  *   <li>Gestion des timeouts et des erreurs de connexion</li>
  * </ul>
@@ -51,7 +60,9 @@ public class ProductClient implements IProductClient {
             WebClient.Builder webClientBuilder,
             @Value("${services.product.url}") String productServiceUrl,
             @Value("${services.product.timeout:5}") int timeoutSeconds) {
-        this.webClient = webClientBuilder.baseUrl(productServiceUrl).build();
+        this.webClient = webClientBuilder.baseUrl(productServiceUrl)
+                .filter(callerAuthorization())
+                .build();
         this.timeout = Duration.ofSeconds(timeoutSeconds);
     }
 
@@ -59,20 +70,20 @@ public class ProductClient implements IProductClient {
      * Récupère un produit par son identifiant.
      *
      * @param productId Identifiant du produit
-     * @param jwtToken  Token JWT à passer dans l'appel HTTP
+     * @param caller    Identité transmise à ms-product (en-tête Authorization)
      * @return Optional contenant le produit si trouvé
      */
     @Override
-    public Optional<ProductDTO> getProductById(Long productId, String jwtToken) {
+    public Optional<ProductDTO> getProductById(Long productId, CallerContext caller) {
         log.info("Appel au service Product pour récupérer le produit {}", productId);
 
         try {
             ProductDTO product = webClient.get()
                     .uri("/api/v1/products/{id}", productId)
-                    .header("Authorization", "Bearer " + jwtToken)
                     .retrieve()
                     .bodyToMono(ProductDTO.class)
                     .timeout(timeout)
+                    .contextWrite(caller.asReactorContext())
                     .block();
 
             return Optional.ofNullable(product);
@@ -86,34 +97,95 @@ public class ProductClient implements IProductClient {
     }
 
     /**
-     * Met à jour le stock d'un produit.
+     * Réserve (décrémente) le stock de plusieurs produits en un seul appel.
      *
-     * @param productId Identifiant du produit
-     * @param newStock  Nouvelle quantité de stock
-     * @param jwtToken  Token JWT à passer dans l'appel HTTP
-     * @return true si la mise à jour a réussi
+     * <p>Un refus de ms-product (4xx) garantit que rien n'a été réservé. Un timeout, une coupure
+     * ou une erreur serveur laissent l'issue inconnue : la réservation est alors compensée par
+     * une restauration de la même référence, que ms-product n'applique que si la réservation
+     * l'a été (et qui écarte la réservation si elle arrive après).</p>
+     *
+     * @param quantities Quantités à réserver par identifiant de produit
+     * @param reference  Référence de la réservation (unique par commande)
+     * @param caller     Identité transmise à ms-product (en-tête Authorization)
      */
     @Override
-    public boolean updateStock(Long productId, Integer newStock, String jwtToken) {
-        log.info("Mise à jour du stock du produit {} à {}", productId, newStock);
+    public void reserveStock(Map<Long, Integer> quantities, String reference, CallerContext caller) {
+        log.info("Réservation groupée du stock de {} produits ({})", quantities.size(), reference);
 
         try {
-            webClient.patch()
-                    .uri("/api/v1/products/{id}/stock", productId)
-                    .header("Authorization", "Bearer " + jwtToken)
-                    .bodyValue(java.util.Map.of("quantity", newStock))
-                    .retrieve()
-                    .bodyToMono(ProductDTO.class)
-                    .timeout(timeout)
-                    .block();
+            adjustStock(quantities, -1, "ORDER_RESERVE", reference, caller);
+        } catch (WebClientResponseException.Conflict e) {
+            log.warn("Stock insuffisant lors de la réservation: {}", e.getResponseBodyAsString());
+            throw new InsufficientStockException("Stock insuffisant pour au moins un produit de la commande");
+        } catch (WebClientResponseException.NotFound e) {
+            throw new InsufficientStockException("Un produit de la commande n'existe plus");
+        } catch (WebClientResponseException e) {
+            if (e.getStatusCode().is4xxClientError()) {
+                log.error("Réservation du stock refusée ({}): {}", e.getStatusCode(), e.getMessage());
+                throw new ServiceUnavailableException("Service Product indisponible");
+            }
+            compensateUnknownReservation(quantities, reference, caller, e);
+        } catch (Exception e) {
+            compensateUnknownReservation(quantities, reference, caller, e);
+        }
+    }
 
+    private void compensateUnknownReservation(Map<Long, Integer> quantities, String reference, CallerContext caller,
+            Exception cause) {
+        log.error("Issue inconnue de la réservation {}, compensation: {}", reference, cause.getMessage());
+        if (!restoreStock(quantities, reference, caller)) {
+            log.error("Compensation de la réservation {} impossible, stock à vérifier: {}", reference, quantities);
+        }
+        throw new ServiceUnavailableException("Service Product indisponible");
+    }
+
+    /**
+     * Restaure le stock de plusieurs produits en un seul appel.
+     *
+     * @param quantities Quantités à restaurer par identifiant de produit
+     * @param reference  Référence de la réservation à restaurer (null pour une restauration simple)
+     * @param caller     Identité transmise à ms-product (en-tête Authorization)
+     * @return true si la restauration a réussi
+     */
+    @Override
+    public boolean restoreStock(Map<Long, Integer> quantities, String reference, CallerContext caller) {
+        log.info("Restauration groupée du stock de {} produits ({})", quantities.size(), reference);
+
+        try {
+            adjustStock(quantities, 1, "ORDER_CANCEL", reference, caller);
             return true;
         } catch (Exception e) {
-            log.error("Erreur lors de la mise à jour du stock: {}", e.getMessage());
+            log.error("Erreur lors de la restauration groupée du stock: {}", e.getMessage());
             return false;
         }
     }
 
+    /**
+     * Envoie des variations relatives de stock (quantité × signe) au service Product,
+     * avec le motif et la référence inscrits dans son journal des mouvements de stock.
+     */
+    private void adjustStock(Map<Long, Integer> quantities, int sign, String reason, String reference,
+            CallerContext caller) {
+        List<Map<String, Object>> items = quantities.entrySet().stream()
+                .map(e -> Map.<String, Object>of("productId", e.getKey(), "delta", sign * e.getValue()))
+                .toList();
+        Map<String, Object> body = new HashMap<>();
+        body.put("items", items);
+        body.put("reason", reason);
+        if (reference != null) {
+            body.put("reference", reference);
+        }
+
+        webClient.patch()
+                .uri("/api/v1/products/stock")
+                .bodyValue(body)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(timeout)
+                .contextWrite(caller.asReactorContext())
+                .block();
+    }
+
     /**
      * Vérifie si le service Product est disponible.
      *
@@ -123,7 +195,7 @@ public class ProductClient implements IProductClient {
     public boolean isServiceAvailable() {
         try {
             webClient.get()
-                    .uri("/actuator/health")
+                    .uri("/actuator/health/readiness")
                     .retrieve()
                     .bodyToMono(String.class)
                     .timeout(Duration.ofSeconds(2))
@@ -134,4 +206,18 @@ public class ProductClient implements IProductClient {
             return false;
         }
     }
+
+    /**
+     * Ajoute l'en-tête Authorization du {@link CallerContext} transporté par le contexte Reactor.
+     * Sans contexte (health check), la requête part sans en-tête.
+     */
+    private static ExchangeFilterFunction callerAuthorization() {
+        return (request, next) -> CallerContext.fromReactor()
+                .mapNotNull(CallerContext::getToken)
+                .map(token -> ClientRequest.from(request)
+                        .headers(headers -> headers.setBearerAuth(token))
+                        .build())
+                .defaultIfEmpty(request)
+                .flatMap(next::exchange);
+    }
 }
@@ -75,7 +75,7 @@ public class UserClient implements IUserClient {
     public boolean isServiceAvailable() {
         try {
             webClient.get()
-                    .uri("/actuator/health")
+                    .uri("/actuator/health/readiness")
                     .retrieve()
                     .bodyToMono(String.class)
                     .timeout(Duration.ofSeconds(2))
@@ -0,0 +1,51 @@
+package com.ecommerce.order.infrastructure.health;
+
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Health Indicator dont la vérification tourne en tâche de fond.
+ *
+ * <p>{@link #health()} renvoie le dernier résultat en mémoire : un appel à
+ * {@code /actuator/health} (sondes des load balancers, Kubernetes) ne déclenche aucune
+ * requête ni appel distant. {@link #check()} est exécuté toutes les {@code health.refresh-interval-ms} ;
+ * l'horodatage du dernier contrôle est ajouté aux détails.</p>
+ */
+public abstract class CachedHealthIndicator implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(CachedHealthIndicator.class);
+
+    private volatile Health cached = Health.unknown()
+            .withDetail("status", "Premier contrôle en attente")
+            .build();
+
+    /**
+     * Vérification réelle, appelée en tâche de fond uniquement.
+     */
+    protected abstract Health check();
+
+    @Override
+    public Health health() {
+        return cached;
+    }
+
+    @Scheduled(fixedDelayString = "${health.refresh-interval-ms:10000}")
+    public void refresh() {
+        Health health;
+        try {
+            health = check();
+        } catch (Exception e) {
+            log.error("Health check {} failed", getClass().getSimpleName(), e);
+            health = Health.down().withDetail("error", e.getMessage()).build();
+        }
+        cached = Health.status(health.getStatus())
+                .withDetails(health.getDetails())
+                .withDetail("checkedAt", Instant.now().toString())
+                .build();
+    }
+}
@@ -5,7 +5,6 @@ import com.ecommerce.order.infrastructure.client.IUserClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.health.Health;
-import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.stereotype.Component;
 
 /**
@@ -14,6 +13,10 @@ import org.springframework.stereotype.Component;
  * <p>Ce composant est utilisé par Spring Boot Actuator pour exposer l'état de santé
  * des services User et Product via l'endpoint /actuator/health.</p>
  * 
+ * <p>Les deux appels HTTP sont faits en tâche de fond ({@link CachedHealthIndicator}) :
+ * l'endpoint renvoie le dernier résultat connu. Ce contrôle ne fait pas partie du groupe
+ * readiness, pour qu'une panne d'un service distant ne retire pas ms-order du load balancer.</p>
+ * 
  * <p><b>Services vérifiés :</b></p>
  * <ul>
  *   <li>User Service (ms-membership) sur le port 8081</li>
@@ -35,7 +38,7 @@ import org.springframework.stereotype.Component;
  * @see ProductClient
  */
 @Component
-public class ServicesHealthIndicator implements HealthIndicator {
+public class ServicesHealthIndicator extends CachedHealthIndicator {
 
     private static final Logger log = LoggerFactory.getLogger(ServicesHealthIndicator.class);
 
@@ -48,7 +51,7 @@ public class ServicesHealthIndicator implements HealthIndicator {
     }
 
     @Override
-    public Health health() {
+    protected Health check() {
         boolean userServiceUp = checkUserService();
         boolean productServiceUp = checkProductService();
 
@@ -63,7 +66,7 @@ public class ServicesHealthIndicator implements HealthIndicator {
     }
 
     /**
-     * Vérifie la disponibilité du service User via son endpoint /actuator/health.
+     * Vérifie la disponibilité du service User via sa sonde readiness.
      * 
      * @return true si le service User est accessible, false sinon
      */
@@ -77,7 +80,7 @@ public class ServicesHealthIndicator implements HealthIndicator {
     }
 
     /**
-     * Vérifie la disponibilité du service Product via son endpoint /actuator/health.
+     * Vérifie la disponibilité du service Product via sa sonde readiness.
      * 
      * @return true si le service Product est accessible, false sinon
      */
@@ -52,9 +52,11 @@ public class OrderController {
             @ApiResponse(responseCode = "404", description = "Commande non trouvée")
     })
     public ResponseEntity<OrderResponseDTO> getOrderById(
-            @Parameter(description = "ID de la commande") @PathVariable Long id) {
+            @Parameter(description = "ID de la commande") @PathVariable Long id,
+            @Parameter(description = "Rechercher aussi dans les commandes archivées")
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         log.info("GET /api/orders/{} - Récupération de la commande", id);
-        OrderResponseDTO order = orderService.getOrderById(id);
+        OrderResponseDTO order = orderService.getOrderById(id, includeArchived);
         return ResponseEntity.ok(order);
     }
 
@@ -65,9 +67,11 @@ public class OrderController {
             @ApiResponse(responseCode = "200", description = "Liste des commandes de l'utilisateur récupérée")
     })
     public ResponseEntity<List<OrderResponseDTO>> getOrdersByUserId(
-            @Parameter(description = "ID de l'utilisateur") @PathVariable Long userId) {
+            @Parameter(description = "ID de l'utilisateur") @PathVariable Long userId,
+            @Parameter(description = "Inclure les commandes archivées")
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         log.info("GET /api/orders/user/{} - Récupération des commandes de l'utilisateur", userId);
-        List<OrderResponseDTO> orders = orderService.getOrdersByUserId(userId);
+        List<OrderResponseDTO> orders = orderService.getOrdersByUserId(userId, includeArchived);
         return ResponseEntity.ok(orders);
     }
 
@@ -120,6 +124,20 @@ public class OrderController {
         return ResponseEntity.ok(updatedOrder);
     }
 
+    @GetMapping("/{id}/history")
+    @Operation(summary = "Historique des statuts d'une commande",
+               description = "Retourne la liste chronologique des transitions de statut d'une commande")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Historique récupéré avec succès"),
+            @ApiResponse(responseCode = "404", description = "Commande non trouvée")
+    })
+    public ResponseEntity<List<OrderStatusHistoryDTO>> getOrderStatusHistory(
+            @Parameter(description = "ID de la commande") @PathVariable Long id) {
+        log.info("GET /api/orders/{}/history - Récupération de l'historique des statuts", id);
+        List<OrderStatusHistoryDTO> history = orderService.getOrderStatusHistory(id);
+        return ResponseEntity.ok(history);
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Supprimer une commande", 
                description = "Supprime une commande et restaure le stock si nécessaire")
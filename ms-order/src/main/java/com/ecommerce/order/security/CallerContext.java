@@ -0,0 +1,143 @@
+package com.ecommerce.order.security;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Instantané immuable du contexte de l'appelant (SecurityContext + token JWT).
+ *
+ * <p>
+ * Le {@link SecurityContextHolder} et le {@code RequestContextHolder} sont liés au
+ * thread de la requête HTTP : sur un executor, un thread virtuel ou un scheduler
+ * Reactor, ils sont vides. Cet instantané est capturé sur le thread appelant puis
+ * réinstallé sur le thread d'exécution via {@link #wrap(Runnable)}, ou transporté
+ * dans le contexte Reactor via {@link #asReactorContext()}.
+ * </p>
+ *
+ * <p>
+ * Le token brut est porté par {@link Authentication#getCredentials()} (voir
+ * {@link JwtAuthentificationFilter}), il suit donc naturellement le SecurityContext.
+ * </p>
+ */
+public final class CallerContext {
+
+    /** Clé du contexte Reactor */
+    public static final String REACTOR_KEY = CallerContext.class.getName();
+
+    private static final String SERVICE_PRINCIPAL = "ms-order";
+
+    private final SecurityContext securityContext;
+
+    private CallerContext(SecurityContext securityContext) {
+        this.securityContext = securityContext;
+    }
+
+    /**
+     * Capture le contexte de sécurité du thread courant.
+     * @return instantané (éventuellement sans authentification)
+     */
+    public static CallerContext capture() {
+        SecurityContext copy = SecurityContextHolder.createEmptyContext();
+        copy.setAuthentication(SecurityContextHolder.getContext().getAuthentication());
+        return new CallerContext(copy);
+    }
+
+    /**
+     * Construit un contexte d'identité de service, pour les traitements sans utilisateur.
+     * @param serviceToken token JWT du service
+     * @return instantané authentifié avec le rôle ROLE_SERVICE
+     */
+    public static CallerContext ofServiceToken(String serviceToken) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(
+                SERVICE_PRINCIPAL, serviceToken, List.<GrantedAuthority>of(() -> "ROLE_SERVICE")));
+        return new CallerContext(context);
+    }
+
+    /**
+     * Lit le contexte de l'appelant depuis le contexte Reactor.
+     * @return Mono vide si aucun contexte n'a été transporté
+     */
+    public static Mono<CallerContext> fromReactor() {
+        return Mono.deferContextual(ctx -> Mono.justOrEmpty(ctx.<CallerContext>getOrEmpty(REACTOR_KEY)));
+    }
+
+    /**
+     * @return le token JWT de l'appelant, ou null s'il n'est pas authentifié par JWT
+     */
+    public String getToken() {
+        Authentication authentication = securityContext.getAuthentication();
+        if (authentication != null && authentication.getCredentials() instanceof String token) {
+            return token;
+        }
+        return null;
+    }
+
+    public SecurityContext getSecurityContext() {
+        return securityContext;
+    }
+
+    /**
+     * @return contexte Reactor à passer à {@code contextWrite(...)}
+     */
+    public Context asReactorContext() {
+        return Context.of(REACTOR_KEY, this);
+    }
+
+    public Runnable wrap(Runnable task) {
+        return () -> {
+            SecurityContext previous = install();
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public <T> Callable<T> wrap(Callable<T> task) {
+        return () -> {
+            SecurityContext previous = install();
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public <T> Supplier<T> wrap(Supplier<T> task) {
+        return () -> {
+            SecurityContext previous = install();
+            try {
+                return task.get();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private SecurityContext install() {
+        SecurityContext previous = SecurityContextHolder.getContext();
+        SecurityContextHolder.setContext(securityContext);
+        return previous;
+    }
+
+    private static void restore(SecurityContext previous) {
+        if (previous == null || previous.getAuthentication() == null) {
+            SecurityContextHolder.clearContext();
+        } else {
+            SecurityContextHolder.setContext(previous);
+        }
+    }
+}
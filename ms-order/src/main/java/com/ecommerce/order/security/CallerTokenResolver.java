@@ -0,0 +1,55 @@
+package com.ecommerce.order.security;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Résout l'identité à transmettre aux services appelés.
+ *
+ * <p>
+ * Deux identités, toujours choisies explicitement par l'appelant :
+ * </p>
+ * <ol>
+ * <li>{@link #currentContext()} : l'utilisateur à l'origine de la requête, porté par le
+ * SecurityContext du thread courant (installé par {@link JwtAuthentificationFilter} ou propagé
+ * par {@link CallerContext})</li>
+ * <li>{@link #serviceContext()} : le token de service délivré par ms-membership
+ * ({@link ServiceTokenProvider}), pour les traitements sans utilisateur et les écritures
+ * réservées au rôle SERVICE</li>
+ * </ol>
+ *
+ * <p>
+ * Il n'y a pas de repli de l'un vers l'autre : un traitement sans utilisateur qui appelle
+ * {@link #currentContext()} échoue au lieu d'agir silencieusement avec les droits du service.
+ * </p>
+ */
+@Component
+public class CallerTokenResolver {
+
+    private final ServiceTokenProvider serviceTokenProvider;
+
+    public CallerTokenResolver(ServiceTokenProvider serviceTokenProvider) {
+        this.serviceTokenProvider = serviceTokenProvider;
+    }
+
+    /**
+     * Contexte de l'utilisateur à l'origine du traitement.
+     * @throws IllegalStateException si le thread courant ne porte aucun token d'appelant
+     */
+    public CallerContext currentContext() {
+        CallerContext caller = CallerContext.capture();
+        if (caller.getToken() == null) {
+            throw new IllegalStateException(
+                    "Aucun appelant authentifié sur ce thread (utiliser serviceContext() sans utilisateur)");
+        }
+        return caller;
+    }
+
+    /**
+     * Contexte d'identité de service, pour les tâches de fond et les écritures de stock.
+     * @throws com.ecommerce.order.infrastructure.exception.ServiceUnavailableException si le token
+     *         de service ne peut pas être obtenu
+     */
+    public CallerContext serviceContext() {
+        return CallerContext.ofServiceToken(serviceTokenProvider.token());
+    }
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.order.security;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Propagation du contexte de l'appelant vers les executors Spring.
+ *
+ * <p>
+ * Le {@link TaskDecorator} est appliqué automatiquement par Spring Boot à
+ * l'executor applicatif ({@code applicationTaskExecutor}, utilisé par @Async) :
+ * chaque tâche soumise s'exécute avec le SecurityContext, et donc le token JWT,
+ * du thread qui l'a soumise.
+ * </p>
+ */
+@Configuration
+public class ContextPropagationConfig {
+
+    @Bean
+    public TaskDecorator callerContextTaskDecorator() {
+        return runnable -> CallerContext.capture().wrap(runnable);
+    }
+}
@@ -63,8 +63,9 @@ public class JwtAuthentificationFilter extends OncePerRequestFilter {
                     .map(role -> (GrantedAuthority) () -> role)
                     .toList();
 
+            // Le token brut est conservé comme credentials pour être propagé (voir CallerContext)
             Authentication authentication = new UsernamePasswordAuthenticationToken(
-                    user.getId(), null, authorities);
+                    user.getId(), token, authorities);
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
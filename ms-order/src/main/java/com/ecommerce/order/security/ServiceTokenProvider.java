@@ -0,0 +1,91 @@
+package com.ecommerce.order.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.ecommerce.order.infrastructure.exception.ServiceUnavailableException;
+
+/**
+ * Token JWT de service de ms-order, obtenu auprès de ms-membership
+ * ({@code POST /api/v1/auth/service-token}) avec l'identifiant et le secret du service.
+ *
+ * <p>
+ * Le token (rôle ROLE_SERVICE, durée de vie courte) est gardé en mémoire et renouvelé
+ * {@value #REFRESH_MARGIN_SECONDS} secondes avant son expiration, au premier appel qui en a
+ * besoin. Sans secret configuré ({@code security.service-client.secret}), le démarrage échoue :
+ * les écritures de stock en dépendent.
+ * </p>
+ */
+@Component
+public class ServiceTokenProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceTokenProvider.class);
+
+    private static final long REFRESH_MARGIN_SECONDS = 60;
+
+    /** Réponse de ms-membership */
+    record TokenResponse(String token, long expiresIn) {
+    }
+
+    private final WebClient webClient;
+    private final Duration timeout;
+    private final Map<String, String> credentials;
+
+    private String token;
+    private Instant refreshAt = Instant.MIN;
+
+    public ServiceTokenProvider(
+            WebClient.Builder webClientBuilder,
+            @Value("${services.user.url}") String membershipUrl,
+            @Value("${services.user.timeout:5}") int timeoutSeconds,
+            @Value("${security.service-client.id:ms-order}") String clientId,
+            @Value("${security.service-client.secret:}") String clientSecret) {
+        if (clientSecret == null || clientSecret.isBlank()) {
+            throw new IllegalStateException(
+                    "Aucun secret de service configuré (security.service-client.secret / SERVICE_CLIENT_SECRET)");
+        }
+        this.webClient = webClientBuilder.baseUrl(membershipUrl).build();
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+        this.credentials = Map.of("clientId", clientId, "clientSecret", clientSecret);
+    }
+
+    /**
+     * @return un token de service valide encore au moins {@value #REFRESH_MARGIN_SECONDS} secondes
+     * @throws ServiceUnavailableException si ms-membership ne délivre pas de token
+     */
+    public synchronized String token() {
+        if (token == null || !Instant.now().isBefore(refreshAt)) {
+            refresh();
+        }
+        return token;
+    }
+
+    private void refresh() {
+        TokenResponse response;
+        try {
+            response = webClient.post()
+                    .uri("/api/v1/auth/service-token")
+                    .bodyValue(credentials)
+                    .retrieve()
+                    .bodyToMono(TokenResponse.class)
+                    .timeout(timeout)
+                    .block();
+        } catch (Exception e) {
+            log.error("Impossible d'obtenir le token de service: {}", e.getMessage());
+            throw new ServiceUnavailableException("Service Membership indisponible : token de service non obtenu");
+        }
+        if (response == null || response.token() == null) {
+            throw new ServiceUnavailableException("Service Membership indisponible : token de service non obtenu");
+        }
+        token = response.token();
+        refreshAt = Instant.now().plusSeconds(Math.max(0, response.expiresIn() - REFRESH_MARGIN_SECONDS));
+        log.info("Token de service renouvelé, valable {} s", response.expiresIn());
+    }
+}
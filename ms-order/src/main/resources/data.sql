@@ -9,6 +9,7 @@ CREATE TABLE IF NOT EXISTS orders (
     status VARCHAR(20) NOT NULL,
     total_amount DECIMAL(10, 2) NOT NULL,
     shipping_address VARCHAR(255) NOT NULL,
+    reservation_reference VARCHAR(64),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
@@ -0,0 +1,242 @@
+package com.ecommerce.order.application.service;
+
+import com.ecommerce.order.application.dto.OrderItemRequestDTO;
+import com.ecommerce.order.application.dto.OrderRequestDTO;
+import com.ecommerce.order.application.dto.OrderStatusHistoryDTO;
+import com.ecommerce.order.application.dto.StatusUpdateDTO;
+import com.ecommerce.order.application.mapper.OrderMapper;
+import com.ecommerce.order.domain.entity.Order;
+import com.ecommerce.order.domain.entity.OrderItem;
+import com.ecommerce.order.domain.enumerate.OrderStatus;
+import com.ecommerce.order.domain.repository.ArchivedOrderRepository;
+import com.ecommerce.order.domain.repository.OrderItemRepository;
+import com.ecommerce.order.domain.repository.OrderRepository;
+import com.ecommerce.order.infrastructure.client.IProductClient;
+import com.ecommerce.order.infrastructure.client.IUserClient;
+import com.ecommerce.order.infrastructure.client.ProductDTO;
+import com.ecommerce.order.infrastructure.client.UserDTO;
+import com.ecommerce.order.infrastructure.exception.BusinessException;
+import com.ecommerce.order.infrastructure.exception.ResourceNotFoundException;
+import com.ecommerce.order.security.CallerContext;
+import com.ecommerce.order.security.CallerTokenResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour OrderService
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    @Mock
+    private OrderStatusHistoryService statusHistoryService;
+
+    @Mock
+    private IUserClient userClient;
+
+    @Mock
+    private IProductClient productClient;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CallerTokenResolver callerTokenResolver;
+
+    @Mock
+    private StockRestoreService stockRestoreService;
+
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        orderService = new OrderService(orderRepository, orderItemRepository, archivedOrderRepository, orderMapper,
+                statusHistoryService, userClient, productClient, transactionManager, callerTokenResolver,
+                stockRestoreService, new SimpleMeterRegistry());
+    }
+
+    /*
+     * getOrderStatusHistory
+     */
+    @Test
+    @DisplayName("Doit retourner l'historique d'une commande")
+    void getOrderStatusHistory_ShouldReturnHistory() {
+        // Given
+        OrderStatusHistoryDTO created = OrderStatusHistoryDTO.builder().toStatus(OrderStatus.PENDING).build();
+        when(statusHistoryService.getHistory(1L)).thenReturn(List.of(created));
+
+        // When / Then
+        assertThat(orderService.getOrderStatusHistory(1L)).containsExactly(created);
+        verifyNoInteractions(orderRepository, archivedOrderRepository);
+    }
+
+    @Test
+    @DisplayName("Doit retourner un historique vide pour une commande dont la création est encore en tampon")
+    void getOrderStatusHistory_WhenOrderExistsWithoutHistory_ShouldReturnEmpty() {
+        // Given
+        when(statusHistoryService.getHistory(1L)).thenReturn(List.of());
+        when(orderRepository.existsById(1L)).thenReturn(true);
+
+        // When / Then
+        assertThat(orderService.getOrderStatusHistory(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Doit retourner l'historique (vide) d'une commande archivée")
+    void getOrderStatusHistory_WhenOrderArchived_ShouldNotThrow() {
+        // Given
+        when(statusHistoryService.getHistory(1L)).thenReturn(List.of());
+        when(orderRepository.existsById(1L)).thenReturn(false);
+        when(archivedOrderRepository.existsById(1L)).thenReturn(true);
+
+        // When / Then
+        assertThat(orderService.getOrderStatusHistory(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Doit lever une exception si la commande n'existe pas")
+    void getOrderStatusHistory_WhenOrderUnknown_ShouldThrow() {
+        // Given
+        when(statusHistoryService.getHistory(99L)).thenReturn(List.of());
+        when(orderRepository.existsById(99L)).thenReturn(false);
+        when(archivedOrderRepository.existsById(99L)).thenReturn(false);
+
+        // When / Then
+        assertThatThrownBy(() -> orderService.getOrderStatusHistory(99L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("99");
+    }
+
+    /*
+     * createOrder
+     */
+    @Test
+    @DisplayName("Doit restaurer le stock avec la référence de la réservation si l'écriture locale échoue")
+    void createOrder_WhenLocalWriteFails_ShouldRestoreSameReference() {
+        // Given
+        CallerContext caller = CallerContext.ofServiceToken("user-token");
+        CallerContext service = CallerContext.ofServiceToken("service-token");
+        when(callerTokenResolver.currentContext()).thenReturn(caller);
+        when(callerTokenResolver.serviceContext()).thenReturn(service);
+        when(userClient.getUserById(1L)).thenReturn(Optional.of(UserDTO.builder().id(1L).build()));
+        when(productClient.getProductById(10L, caller)).thenReturn(Optional.of(ProductDTO.builder()
+                .id(10L).name("Clavier").price(BigDecimal.TEN).stock(5).build()));
+        when(orderRepository.save(any())).thenThrow(new DataAccessResourceFailureException("base indisponible"));
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .userId(1L)
+                .shippingAddress("1 rue de la Paix")
+                .items(List.of(OrderItemRequestDTO.builder().productId(10L).quantity(2).build()))
+                .build();
+
+        // When
+        assertThatThrownBy(() -> orderService.createOrder(request))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+
+        // Then
+        ArgumentCaptor<String> reference = ArgumentCaptor.forClass(String.class);
+        verify(productClient).reserveStock(eq(Map.of(10L, 2)), reference.capture(), same(service));
+        assertThat(reference.getValue()).startsWith("order-");
+        verify(productClient).restoreStock(Map.of(10L, 2), reference.getValue(), service);
+        // Compensation refusée : inscrite pour être retentée
+        verify(stockRestoreService).enqueue(null, reference.getValue(), Map.of(10L, 2));
+    }
+
+    /*
+     * updateOrderStatus / deleteOrder
+     */
+    @Test
+    @DisplayName("L'annulation doit inscrire la restauration du stock avec le statut, puis l'envoyer après le commit")
+    void updateOrderStatus_WhenCancelled_ShouldEnqueueThenAttemptRestore() {
+        // Given
+        Order order = pendingOrder();
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(order)).thenReturn(order);
+        when(stockRestoreService.enqueue(order)).thenReturn(7L);
+        when(stockRestoreService.attempt(7L)).thenReturn(false);
+
+        // When
+        orderService.updateOrderStatus(1L, new StatusUpdateDTO(OrderStatus.CANCELLED));
+
+        // Then : l'annulation est commitée même si ms-product ne répond pas, la restauration reste inscrite
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        InOrder inOrder = inOrder(stockRestoreService, orderRepository, transactionManager);
+        inOrder.verify(stockRestoreService).enqueue(order);
+        inOrder.verify(orderRepository).save(order);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(stockRestoreService).attempt(7L);
+        verifyNoInteractions(productClient);
+    }
+
+    @Test
+    @DisplayName("Une transition invalide ne doit inscrire aucune restauration")
+    void updateOrderStatus_WhenTransitionInvalid_ShouldNotRestore() {
+        // Given
+        Order order = pendingOrder();
+        order.setStatus(OrderStatus.DELIVERED);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+        // When / Then
+        assertThatThrownBy(() -> orderService.updateOrderStatus(1L, new StatusUpdateDTO(OrderStatus.CANCELLED)))
+                .isInstanceOf(BusinessException.class);
+        verifyNoInteractions(stockRestoreService);
+    }
+
+    @Test
+    @DisplayName("La suppression d'une commande active doit inscrire la restauration de son stock")
+    void deleteOrder_WhenActive_ShouldEnqueueThenAttemptRestore() {
+        // Given
+        Order order = pendingOrder();
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(stockRestoreService.enqueue(order)).thenReturn(7L);
+
+        // When
+        orderService.deleteOrder(1L);
+
+        // Then
+        verify(orderRepository).delete(order);
+        verify(stockRestoreService).attempt(7L);
+    }
+
+    private Order pendingOrder() {
+        Order order = Order.builder()
+                .id(1L)
+                .userId(1L)
+                .status(OrderStatus.PENDING)
+                .reservationReference("order-1")
+                .build();
+        order.addItem(OrderItem.builder().productId(10L).quantity(2).build());
+        return order;
+    }
+}
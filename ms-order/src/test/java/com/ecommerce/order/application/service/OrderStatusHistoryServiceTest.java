@@ -0,0 +1,147 @@
+package com.ecommerce.order.application.service;
+
+import com.ecommerce.order.domain.enumerate.OrderStatus;
+import com.ecommerce.order.domain.repository.OrderStatusHistoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour OrderStatusHistoryService
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderStatusHistoryServiceTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final int MAX_PENDING = 4;
+
+    @Mock
+    private OrderStatusHistoryRepository historyRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private MeterRegistry meterRegistry;
+    private OrderStatusHistoryService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new OrderStatusHistoryService(historyRepository, jdbcTemplate, meterRegistry,
+                BATCH_SIZE, MAX_PENDING);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Doit écrire le tampon par lots lors du passage planifié")
+    void flush_ShouldWriteBufferInBatches() {
+        // Given
+        for (long id = 1; id <= 3; id++) {
+            service.record(id, null, OrderStatus.PENDING, null);
+        }
+        verifyNoInteractions(jdbcTemplate);
+
+        // When
+        service.flush();
+
+        // Then
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("Ne doit mettre en tampon une transition qu'après le commit")
+    void record_InTransaction_ShouldEnqueueAfterCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        service.record(1L, OrderStatus.PENDING, OrderStatus.CONFIRMED, LocalDateTime.now().minusMinutes(5));
+
+        // Then
+        assertThat(pending()).isZero();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(pending()).isEqualTo(1);
+        assertThat(meterRegistry.get("orders.status.time_in_state")
+                .tag("from", "PENDING").tag("to", "CONFIRMED").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Doit écrire de façon synchrone quand le tampon est plein")
+    void record_WhenBufferFull_ShouldFlushSynchronously() {
+        // When
+        for (long id = 1; id <= MAX_PENDING + 1; id++) {
+            service.record(id, null, OrderStatus.PENDING, null);
+        }
+
+        // Then
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        assertThat(pending()).isZero();
+        assertThat(dropped()).isZero();
+    }
+
+    @Test
+    @DisplayName("Doit rester borné et compter les transitions abandonnées si la base est indisponible")
+    void record_WhenBufferFullAndDatabaseDown_ShouldDropOldest() {
+        // Given
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenThrow(new DataAccessResourceFailureException("base indisponible"));
+
+        // When
+        for (long id = 1; id <= MAX_PENDING + 3; id++) {
+            service.record(id, null, OrderStatus.PENDING, null);
+        }
+
+        // Then
+        assertThat(pending()).isEqualTo(MAX_PENDING);
+        assertThat(dropped()).isEqualTo(3);
+
+        // La base revient : le tampon restant est écrit
+        reset(jdbcTemplate);
+        service.flush();
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("Doit refuser un tampon plus petit qu'un lot")
+    void constructor_WhenMaxPendingBelowBatchSize_ShouldThrow() {
+        assertThatThrownBy(() -> new OrderStatusHistoryService(historyRepository, jdbcTemplate,
+                new SimpleMeterRegistry(), 10, 5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private double pending() {
+        return meterRegistry.get("orders.status_history.pending").gauge().value();
+    }
+
+    private double dropped() {
+        return meterRegistry.get("orders.status_history.dropped").counter().count();
+    }
+}
@@ -0,0 +1,128 @@
+package com.ecommerce.order.application.service;
+
+import com.ecommerce.order.domain.entity.PendingStockRestore;
+import com.ecommerce.order.domain.repository.PendingStockRestoreRepository;
+import com.ecommerce.order.infrastructure.client.IProductClient;
+import com.ecommerce.order.infrastructure.exception.ServiceUnavailableException;
+import com.ecommerce.order.security.CallerContext;
+import com.ecommerce.order.security.CallerTokenResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour StockRestoreService
+ */
+@ExtendWith(MockitoExtension.class)
+class StockRestoreServiceTest {
+
+    private static final CallerContext SERVICE = CallerContext.ofServiceToken("service-token");
+
+    @Mock
+    private PendingStockRestoreRepository pendingStockRestoreRepository;
+
+    @Mock
+    private IProductClient productClient;
+
+    @Mock
+    private CallerTokenResolver callerTokenResolver;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StockRestoreService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StockRestoreService(pendingStockRestoreRepository, productClient, callerTokenResolver,
+                transactionManager, new SimpleMeterRegistry(), 1000, Duration.ofMinutes(30), 100);
+    }
+
+    @Test
+    @DisplayName("Une restauration acceptée par ms-product doit être supprimée")
+    void attempt_WhenRestored_ShouldDeletePending() {
+        // Given
+        PendingStockRestore restore = pending();
+        when(pendingStockRestoreRepository.findById(7L)).thenReturn(Optional.of(restore));
+        when(callerTokenResolver.serviceContext()).thenReturn(SERVICE);
+        when(productClient.restoreStock(Map.of(10L, 2), "order-1", SERVICE)).thenReturn(true);
+
+        // When / Then
+        assertThat(service.attempt(7L)).isTrue();
+        verify(pendingStockRestoreRepository).deleteById(7L);
+    }
+
+    @Test
+    @DisplayName("Une restauration refusée doit être conservée et replanifiée")
+    void attempt_WhenRestoreFails_ShouldReschedule() {
+        // Given
+        PendingStockRestore restore = pending();
+        when(pendingStockRestoreRepository.findById(7L)).thenReturn(Optional.of(restore));
+        when(callerTokenResolver.serviceContext()).thenReturn(SERVICE);
+        when(productClient.restoreStock(any(), any(), any())).thenReturn(false);
+
+        // When / Then
+        assertThat(service.attempt(7L)).isFalse();
+        verify(pendingStockRestoreRepository, never()).deleteById(any());
+        verify(pendingStockRestoreRepository).save(restore);
+        assertThat(restore.getAttempts()).isEqualTo(1);
+        assertThat(restore.getNextAttemptAt()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Sans token de service, la restauration doit être replanifiée et non perdue")
+    void attempt_WhenServiceTokenUnavailable_ShouldReschedule() {
+        // Given
+        PendingStockRestore restore = pending();
+        when(pendingStockRestoreRepository.findById(7L)).thenReturn(Optional.of(restore));
+        when(callerTokenResolver.serviceContext())
+                .thenThrow(new ServiceUnavailableException("Service Membership indisponible"));
+
+        // When / Then
+        assertThat(service.attempt(7L)).isFalse();
+        verifyNoInteractions(productClient);
+        verify(pendingStockRestoreRepository).save(restore);
+    }
+
+    @Test
+    @DisplayName("Le passage périodique doit retenter les restaurations échues")
+    void retryPending_ShouldAttemptDueRestores() {
+        // Given
+        PendingStockRestore restore = pending();
+        when(pendingStockRestoreRepository.findIdsDue(any(), any())).thenReturn(List.of(7L));
+        when(pendingStockRestoreRepository.findById(7L)).thenReturn(Optional.of(restore));
+        when(callerTokenResolver.serviceContext()).thenReturn(SERVICE);
+        when(productClient.restoreStock(Map.of(10L, 2), "order-1", SERVICE)).thenReturn(true);
+
+        // When
+        service.retryPending();
+
+        // Then
+        verify(pendingStockRestoreRepository).deleteById(7L);
+    }
+
+    private PendingStockRestore pending() {
+        return PendingStockRestore.builder()
+                .id(7L)
+                .orderId(1L)
+                .reservationReference("order-1")
+                .quantities(Map.of(10L, 2))
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.ecommerce.order.domain.enumerate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires des transitions de OrderStatus
+ */
+class OrderStatusTest {
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource({
+            "PENDING, CONFIRMED",
+            "PENDING, CANCELLED",
+            "CONFIRMED, SHIPPED",
+            "CONFIRMED, CANCELLED",
+            "SHIPPED, DELIVERED"
+    })
+    @DisplayName("Doit autoriser les transitions du cycle de vie")
+    void canTransitionTo_ShouldAllowLifecycleTransitions(OrderStatus from, OrderStatus to) {
+        assertThat(from.canTransitionTo(to)).isTrue();
+    }
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource({
+            "PENDING, SHIPPED",
+            "PENDING, DELIVERED",
+            "CONFIRMED, PENDING",
+            "CONFIRMED, DELIVERED",
+            "SHIPPED, PENDING",
+            "SHIPPED, CONFIRMED",
+            "SHIPPED, CANCELLED",
+            "DELIVERED, CANCELLED",
+            "CANCELLED, PENDING"
+    })
+    @DisplayName("Doit refuser les retours en arrière, les sauts d'étape et l'annulation après expédition")
+    void canTransitionTo_ShouldRejectInvalidTransitions(OrderStatus from, OrderStatus to) {
+        assertThat(from.canTransitionTo(to)).isFalse();
+    }
+
+    @ParameterizedTest
+    @EnumSource(OrderStatus.class)
+    @DisplayName("Doit refuser la transition vers le même statut")
+    void canTransitionTo_ShouldRejectSameStatus(OrderStatus status) {
+        assertThat(status.canTransitionTo(status)).isFalse();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = OrderStatus.class, names = { "DELIVERED", "CANCELLED" })
+    @DisplayName("Un statut final ne doit permettre aucune transition")
+    void canTransitionTo_FromTerminalStatus_ShouldRejectAll(OrderStatus terminal) {
+        assertThat(OrderStatus.values()).noneMatch(terminal::canTransitionTo);
+    }
+
+    @Test
+    @DisplayName("Seuls DELIVERED et CANCELLED doivent être finaux")
+    void isTerminal_ShouldMatchStatusesWithoutTransitions() {
+        assertThat(Arrays.stream(OrderStatus.values()).filter(OrderStatus::isTerminal))
+                .containsExactlyInAnyOrder(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+    }
+}
@@ -0,0 +1,112 @@
+package com.ecommerce.order.infrastructure.client;
+
+import com.ecommerce.order.infrastructure.exception.InsufficientStockException;
+import com.ecommerce.order.infrastructure.exception.ServiceUnavailableException;
+import com.ecommerce.order.security.CallerContext;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntUnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitaires pour ProductClient (serveur HTTP local simulant ms-product)
+ */
+class ProductClientTest {
+
+    private static final CallerContext SERVICE = CallerContext.ofServiceToken("service-token");
+
+    private HttpServer server;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    /** Statut renvoyé selon le rang (0, 1, ...) de la requête reçue */
+    private volatile IntUnaryOperator statusByRank = rank -> 200;
+
+    private ProductClient productClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/products/stock", exchange -> {
+            authorizations.add(String.valueOf(exchange.getRequestHeaders().getFirst("Authorization")));
+            requests.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(statusByRank.applyAsInt(requests.size() - 1), -1);
+            exchange.close();
+        });
+        server.start();
+        productClient = new ProductClient(WebClient.builder(),
+                "http://localhost:" + server.getAddress().getPort(), 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Doit transmettre la référence de la réservation")
+    void reserveStock_ShouldSendReference() {
+        // When
+        productClient.reserveStock(Map.of(1L, 2), "order-1", SERVICE);
+
+        // Then
+        assertThat(requests).singleElement().satisfies(body -> assertThat(body)
+                .contains("\"reference\":\"order-1\"")
+                .contains("\"reason\":\"ORDER_RESERVE\"")
+                .contains("\"delta\":-2"));
+        assertThat(authorizations).containsExactly("Bearer service-token");
+    }
+
+    @Test
+    @DisplayName("Doit compenser avec la même référence quand l'issue de la réservation est inconnue")
+    void reserveStock_WhenOutcomeUnknown_ShouldRestoreSameReference() {
+        // Given
+        statusByRank = rank -> rank == 0 ? 503 : 200;
+
+        // When / Then
+        assertThatThrownBy(() -> productClient.reserveStock(Map.of(1L, 2), "order-1", SERVICE))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(1))
+                .contains("\"reference\":\"order-1\"")
+                .contains("\"reason\":\"ORDER_CANCEL\"")
+                .contains("\"delta\":2");
+        assertThat(authorizations).containsOnly("Bearer service-token");
+    }
+
+    @Test
+    @DisplayName("Ne doit pas compenser une réservation refusée pour stock insuffisant")
+    void reserveStock_WhenConflict_ShouldNotRestore() {
+        // Given
+        statusByRank = rank -> 409;
+
+        // When / Then
+        assertThatThrownBy(() -> productClient.reserveStock(Map.of(1L, 2), "order-1", SERVICE))
+                .isInstanceOf(InsufficientStockException.class);
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Ne doit pas compenser une réservation refusée par ms-product")
+    void reserveStock_WhenForbidden_ShouldNotRestore() {
+        // Given
+        statusByRank = rank -> 403;
+
+        // When / Then
+        assertThatThrownBy(() -> productClient.reserveStock(Map.of(1L, 2), "order-1", SERVICE))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(requests).hasSize(1);
+    }
+}
@@ -0,0 +1,75 @@
+package com.ecommerce.order.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour CallerTokenResolver
+ */
+@ExtendWith(MockitoExtension.class)
+class CallerTokenResolverTest {
+
+    @Mock
+    private ServiceTokenProvider serviceTokenProvider;
+
+    private CallerTokenResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new CallerTokenResolver(serviceTokenProvider);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Doit retourner le contexte de l'appelant authentifié")
+    void currentContext_WhenAuthenticated_ShouldReturnCaller() {
+        // Given
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                1L, "user-token", List.<GrantedAuthority>of(() -> "ROLE_USER")));
+
+        // When / Then
+        assertThat(resolver.currentContext().getToken()).isEqualTo("user-token");
+    }
+
+    @Test
+    @DisplayName("Ne doit pas se replier sur le token de service sans appelant")
+    void currentContext_WithoutCaller_ShouldNotFallBackToServiceToken() {
+        assertThatThrownBy(resolver::currentContext).isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(serviceTokenProvider);
+    }
+
+    @Test
+    @DisplayName("Doit retourner une identité de service portant le token délivré par ms-membership")
+    void serviceContext_ShouldCarryServiceRole() {
+        // Given
+        when(serviceTokenProvider.token()).thenReturn("service-token");
+
+        // When
+        CallerContext service = resolver.serviceContext();
+
+        // Then
+        assertThat(service.getToken()).isEqualTo("service-token");
+        assertThat(service.getSecurityContext().getAuthentication().getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_SERVICE");
+    }
+}
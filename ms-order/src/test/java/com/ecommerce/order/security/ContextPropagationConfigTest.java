@@ -0,0 +1,88 @@
+package com.ecommerce.order.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires pour ContextPropagationConfig (TaskDecorator de l'executor applicatif)
+ */
+class ContextPropagationConfigTest {
+
+    private final TaskDecorator decorator = new ContextPropagationConfig().callerContextTaskDecorator();
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("La tâche doit s'exécuter avec le token de l'appelant qui l'a soumise")
+    void decorate_ShouldPropagateCallerToken() throws Exception {
+        // Given
+        authenticate("user-token");
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        // When
+        executor.submit(decorator.decorate(() -> seen.set(CallerContext.capture().getToken()))).get();
+
+        // Then
+        assertThat(seen.get()).isEqualTo("user-token");
+    }
+
+    @Test
+    @DisplayName("Le thread de l'executor ne doit pas conserver le contexte après la tâche")
+    void decorate_ShouldClearContextAfterTask() throws Exception {
+        // Given
+        authenticate("user-token");
+        executor.submit(decorator.decorate(() -> { })).get();
+        SecurityContextHolder.clearContext();
+        AtomicReference<String> seen = new AtomicReference<>("non lu");
+
+        // When
+        executor.submit(() -> seen.set(CallerContext.capture().getToken())).get();
+
+        // Then
+        assertThat(seen.get()).isNull();
+    }
+
+    @Test
+    @DisplayName("Le contexte capturé est celui de la soumission, pas celui de l'exécution")
+    void decorate_ShouldCaptureAtSubmission() throws Exception {
+        // Given
+        authenticate("premier-token");
+        AtomicReference<String> seen = new AtomicReference<>();
+        Runnable decorated = decorator.decorate(() -> seen.set(CallerContext.capture().getToken()));
+
+        // When
+        authenticate("second-token");
+        executor.submit(decorated).get();
+
+        // Then
+        assertThat(seen.get()).isEqualTo("premier-token");
+    }
+
+    private static void authenticate(String token) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                1L, token, List.<GrantedAuthority>of(() -> "ROLE_USER")));
+    }
+}
@@ -0,0 +1,100 @@
+package com.ecommerce.order.security;
+
+import com.ecommerce.order.infrastructure.exception.ServiceUnavailableException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitaires pour ServiceTokenProvider (serveur HTTP local simulant ms-membership)
+ */
+class ServiceTokenProviderTest {
+
+    private HttpServer server;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    /** Durée de validité renvoyée par le serveur simulé */
+    private volatile long expiresIn = 900;
+    private volatile int status = 200;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/auth/service-token", exchange -> {
+            requests.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] body = ("{\"token\":\"token-" + requests.size() + "\",\"expiresIn\":" + expiresIn + "}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, status == 200 ? body.length : -1);
+            if (status == 200) {
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Doit refuser de démarrer sans secret de service")
+    void constructor_WithoutSecret_ShouldFailFast() {
+        assertThatThrownBy(() -> provider("")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Doit obtenir le token avec les identifiants du service et le réutiliser tant qu'il est valide")
+    void token_ShouldBeCachedUntilRefreshMargin() {
+        // Given
+        ServiceTokenProvider provider = provider("secret");
+
+        // When / Then
+        assertThat(provider.token()).isEqualTo("token-1");
+        assertThat(provider.token()).isEqualTo("token-1");
+        assertThat(requests).singleElement().satisfies(body -> assertThat(body)
+                .contains("\"clientId\":\"ms-order\"")
+                .contains("\"clientSecret\":\"secret\""));
+    }
+
+    @Test
+    @DisplayName("Doit renouveler le token à l'approche de son expiration")
+    void token_WhenExpiring_ShouldRefresh() {
+        // Given : token valable moins longtemps que la marge de renouvellement
+        expiresIn = 30;
+        ServiceTokenProvider provider = provider("secret");
+
+        // When / Then
+        assertThat(provider.token()).isEqualTo("token-1");
+        assertThat(provider.token()).isEqualTo("token-2");
+    }
+
+    @Test
+    @DisplayName("Doit signaler le service indisponible si le token est refusé")
+    void token_WhenRejected_ShouldThrowServiceUnavailable() {
+        // Given
+        status = 401;
+        ServiceTokenProvider provider = provider("wrong");
+
+        // When / Then
+        assertThatThrownBy(provider::token).isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    private ServiceTokenProvider provider(String secret) {
+        return new ServiceTokenProvider(WebClient.builder(), "http://localhost:" + server.getAddress().getPort(), 5,
+                "ms-order", secret);
+    }
+}
@@ -0,0 +1,323 @@
+package com.episen.ms_product.application.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.episen.ms_product.application.dto.ProductResponseDTO;
+import com.episen.ms_product.application.event.ProductChangedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache mémoire borné des {@link ProductResponseDTO} par ID (cache-aside).
+ *
+ * <p><b>Structure :</b> LRU segmenté. Les IDs sont répartis sur {@value #SEGMENTS}
+ * {@link LinkedHashMap} en ordre d'accès, chacune protégée par son propre verrou :
+ * les lectures concurrentes sur des produits différents ne se bloquent pas. Chaque
+ * entrée expire après {@code products.cache.ttl}.</p>
+ *
+ * <p><b>Cohérence :</b> les entrées sont invalidées après commit par les
+ * {@link ProductChangedEvent}. Pour éviter qu'un chargement lancé avant une
+ * invalidation ne réinsère une valeur périmée, chaque chargement note l'horloge de son
+ * segment à son début, et chaque invalidation laisse une marque datée sur son ID : le
+ * résultat n'est mis en cache que si son ID (ou tout le cache) n'a pas été invalidé
+ * depuis. L'invalidation d'un produit n'écarte donc pas les chargements concurrents des
+ * autres produits du segment. Les marques ne sont conservées que tant qu'un chargement
+ * antérieur est en cours.</p>
+ *
+ * <p><b>Regroupement :</b> les absences simultanées pour un même ID (entrée expirée d'un
+ * produit très lu, démarrage à froid) partagent un seul chargement ({@link SingleFlight}),
+ * même cache désactivé. Une invalidation détache le chargement en cours : une lecture qui
+ * suit une écriture commitée relance toujours son propre chargement.</p>
+ *
+ * <p><b>Métriques Prometheus :</b></p>
+ * <ul>
+ * <li>products.cache.requests - Lectures du cache (tag result=hit|miss)</li>
+ * <li>products.cache.load - Temps de chargement depuis la base en cas d'absence</li>
+ * <li>products.cache.evictions - Entrées évincées (taille ou expiration)</li>
+ * <li>products.cache.size - Nombre d'entrées en cache</li>
+ * <li>products.cache.coalesced - Absences servies par le chargement d'un autre appelant</li>
+ * <li>products.cache.loads.in_flight - Chargements en cours</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class ProductCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final SingleFlight<Long, ProductResponseDTO> loads = new SingleFlight<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Timer loadTimer;
+
+    public ProductCache(MeterRegistry meterRegistry,
+            @Value("${products.cache.enabled:true}") boolean enabled,
+            @Value("${products.cache.max-size:10000}") int maxSize,
+            @Value("${products.cache.ttl:10m}") Duration ttl) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        int segmentCapacity = Math.max(1, maxSize / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+
+        this.hits = Counter.builder("products.cache.requests")
+                .description("Lectures du cache produit")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("products.cache.requests")
+                .description("Lectures du cache produit")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("products.cache.evictions")
+                .description("Entrées évincées du cache produit (taille ou expiration)")
+                .register(meterRegistry);
+        this.loadTimer = Timer.builder("products.cache.load")
+                .description("Temps de chargement d'un produit absent du cache")
+                .register(meterRegistry);
+        Gauge.builder("products.cache.size", this, ProductCache::size)
+                .description("Nombre de produits en cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("products.cache.coalesced", loads, SingleFlight::coalesced)
+                .description("Lectures absentes du cache servies par un chargement déjà en cours")
+                .register(meterRegistry);
+        Gauge.builder("products.cache.loads.in_flight", loads, SingleFlight::inFlight)
+                .description("Chargements de produits en cours depuis la base")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Renvoie le produit en cache ou le charge avec {@code loader} puis le met en cache.
+     * @param id identifiant du produit
+     * @param loader chargement depuis la base (peut lever une exception, rien n'est alors mis en cache)
+     * @return ProductResponseDTO
+     */
+    public ProductResponseDTO get(Long id, Function<Long, ProductResponseDTO> loader) {
+        if (!enabled) {
+            return loads.execute(id, loader);
+        }
+        Segment segment = segmentFor(id);
+        ProductResponseDTO cached = segment.get(id, System.nanoTime());
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        return loads.execute(id, key -> {
+            long loadStart = segment.beginLoad();
+            Entry entry = null;
+            try {
+                ProductResponseDTO loaded = loadTimer.record(() -> loader.apply(key));
+                entry = new Entry(loaded, System.nanoTime() + ttlNanos);
+                return loaded;
+            } finally {
+                segment.endLoad(key, entry, loadStart);
+            }
+        });
+    }
+
+    /**
+     * Variante groupée de {@link #get} : les produits absents du cache sont chargés
+     * en un seul appel à {@code loader}, puis mis en cache.
+     * @param ids identifiants des produits
+     * @param loader chargement groupé depuis la base (les IDs inconnus sont absents du résultat)
+     * @return les produits trouvés, par ID
+     */
+    public Map<Long, ProductResponseDTO> getAll(Collection<Long> ids,
+            Function<Collection<Long>, Map<Long, ProductResponseDTO>> loader) {
+        if (!enabled) {
+            return loader.apply(ids);
+        }
+        Map<Long, ProductResponseDTO> found = new HashMap<>();
+        Map<Long, Long> missing = new HashMap<>();
+        long now = System.nanoTime();
+        for (Long id : ids) {
+            Segment segment = segmentFor(id);
+            ProductResponseDTO cached = segment.get(id, now);
+            if (cached != null) {
+                hits.increment();
+                found.put(id, cached);
+            } else {
+                misses.increment();
+                missing.put(id, segment.beginLoad());
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        Map<Long, ProductResponseDTO> loaded = Map.of();
+        try {
+            loaded = loadTimer.record(() -> loader.apply(missing.keySet()));
+            found.putAll(loaded);
+        } finally {
+            long expiresAt = System.nanoTime() + ttlNanos;
+            for (Map.Entry<Long, Long> load : missing.entrySet()) {
+                ProductResponseDTO value = loaded.get(load.getKey());
+                segmentFor(load.getKey()).endLoad(load.getKey(),
+                        value != null ? new Entry(value, expiresAt) : null, load.getValue());
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Invalide les produits donnés.
+     */
+    public void invalidate(Collection<Long> ids) {
+        for (Long id : ids) {
+            segmentFor(id).invalidate(id);
+            loads.forget(id);
+        }
+    }
+
+    /**
+     * Vide entièrement le cache.
+     * @return nombre d'entrées supprimées
+     */
+    public int invalidateAll() {
+        int removed = 0;
+        for (Segment segment : segments) {
+            removed += segment.invalidateAll();
+        }
+        loads.forgetAll();
+        log.info("Cache produit vidé: {} entrées supprimées", removed);
+        return removed;
+    }
+
+    /**
+     * Invalide après commit les produits modifiés.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.productIds());
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segmentFor(Long id) {
+        return segments[Long.hashCode(id * 0x9E3779B97F4A7C15L) & (SEGMENTS - 1)];
+    }
+
+    private record Entry(ProductResponseDTO value, long expiresAt) {
+    }
+
+    /**
+     * Segment LRU : {@link LinkedHashMap} en ordre d'accès évinçant l'entrée la plus ancienne
+     * au-delà de sa capacité, avec une horloge avancée à chaque invalidation et la date de la
+     * dernière invalidation de chaque ID encore utile à un chargement en cours.
+     * Toutes les opérations sont synchronisées sur le segment.
+     */
+    private final class Segment {
+
+        private final Map<Long, Entry> entries;
+        private long clock;
+        /** Horloge du dernier vidage complet. */
+        private long clearedAt;
+        /** Dernière invalidation par ID, dans l'ordre de l'horloge. */
+        private final Map<Long, Long> invalidatedAt = new LinkedHashMap<>();
+        /** Chargements en cours, par horloge de début. */
+        private final TreeMap<Long, Integer> activeLoads = new TreeMap<>();
+
+        Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(Math.min(capacity, 1024), 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized ProductResponseDTO get(Long id, long now) {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() - now < 0) {
+                entries.remove(id);
+                evictions.increment();
+                return null;
+            }
+            return entry.value();
+        }
+
+        /**
+         * Inscrit un chargement.
+         * @return l'horloge de début, à rendre à {@link #endLoad}
+         */
+        synchronized long beginLoad() {
+            activeLoads.merge(clock, 1, Integer::sum);
+            return clock;
+        }
+
+        /**
+         * Termine un chargement et met son résultat en cache si ni son ID ni le segment n'ont
+         * été invalidés depuis son début.
+         * @param entry résultat du chargement, ou null en cas d'échec
+         */
+        synchronized void endLoad(Long id, Entry entry, long loadStart) {
+            if (entry != null && clearedAt <= loadStart && invalidatedAt.getOrDefault(id, 0L) <= loadStart) {
+                entries.put(id, entry);
+            }
+            activeLoads.computeIfPresent(loadStart, (start, count) -> count > 1 ? count - 1 : null);
+            // Une marque antérieure au plus ancien chargement en cours ne peut plus rien écarter
+            long oldest = activeLoads.isEmpty() ? clock : activeLoads.firstKey();
+            Iterator<Long> marks = invalidatedAt.values().iterator();
+            while (marks.hasNext() && marks.next() <= oldest) {
+                marks.remove();
+            }
+        }
+
+        synchronized void invalidate(Long id) {
+            entries.remove(id);
+            if (!activeLoads.isEmpty()) {
+                invalidatedAt.remove(id);
+                invalidatedAt.put(id, ++clock);
+            }
+        }
+
+        synchronized int invalidateAll() {
+            clearedAt = ++clock;
+            invalidatedAt.clear();
+            int removed = entries.size();
+            entries.clear();
+            return removed;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
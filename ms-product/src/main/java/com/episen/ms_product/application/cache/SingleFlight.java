@@ -0,0 +1,90 @@
+package com.episen.ms_product.application.cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Regroupement des chargements concurrents d'une même clé (single-flight).
+ *
+ * <p>Le premier appelant d'une clé exécute le chargement ; ceux qui arrivent pendant qu'il
+ * est en cours attendent son résultat au lieu de relancer la même requête. Une exception
+ * du chargement est renvoyée à tous les appelants regroupés. Rien n'est conservé une fois
+ * le chargement terminé : ce n'est pas un cache.</p>
+ *
+ * <p>{@link #forget} détache le chargement en cours d'une clé : un appelant arrivé après une
+ * écriture commitée ne doit pas recevoir le résultat d'un chargement lancé avant elle.</p>
+ *
+ * @param <K> type des clés
+ * @param <V> type des valeurs chargées
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Charge {@code key} avec {@code loader}, ou attend le chargement déjà en cours.
+     */
+    public V execute(K key, Function<K, V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+        try {
+            V value = loader.apply(key);
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Les appelants suivants de {@code key} lancent un nouveau chargement ; ceux qui
+     * attendent déjà reçoivent le résultat en cours.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    /**
+     * Nombre total d'appels servis par le chargement d'un autre appelant.
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Nombre de chargements en cours.
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.episen.ms_product.application.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import com.episen.ms_product.application.dto.ProductResponseDTO;
+import com.episen.ms_product.domain.enumerate.Category;
+
+/**
+ * Copie immuable de tout le catalogue, indexée par catégorie, par nom et par disponibilité.
+ *
+ * <p><b>Structure :</b> un segment par catégorie, découpé en blocs couvrant chacun une plage
+ * de {@value #BLOCK_SIZE} IDs. Chaque bloc porte ses produits triés par ID, ceux disponibles
+ * (actifs et en stock) et un index par nom exact. Les listes d'une catégorie sont la
+ * concaténation de ses blocs, calculée à la première lecture puis conservée ; les listes
+ * toutes catégories sont obtenues par fusion des segments, déjà triés.</p>
+ *
+ * <p><b>Copie sur écriture :</b> {@link #apply} renvoie un nouveau snapshot dans lequel seuls
+ * les blocs touchés (ancien et nouveau bloc de chaque produit modifié) sont reconstruits ; les
+ * autres blocs et les segments des catégories non touchées sont partagés avec le snapshot
+ * précédent. Le changement d'un produit coûte ainsi le tri d'un bloc, pas celui de toute sa
+ * catégorie. Un snapshot publié n'est plus jamais modifié : les lectures ne prennent aucun
+ * verrou.</p>
+ *
+ * <p>Les {@link ProductResponseDTO} sont partagés entre les lecteurs, comme ceux de
+ * {@code ProductCache} : ils ne doivent pas être modifiés.</p>
+ */
+public final class CatalogSnapshot {
+
+    /** Nombre d'IDs couverts par un bloc. */
+    static final int BLOCK_SIZE = 1024;
+
+    private static final Category[] CATEGORIES = Category.values();
+    private static final Comparator<ProductResponseDTO> BY_ID = Comparator.comparing(ProductResponseDTO::getId);
+
+    /** Bloc d'une catégorie. */
+    private record BlockKey(Category category, long block) {
+    }
+
+    private final long version;
+    private final Map<Category, Segment> segments;
+
+    private CatalogSnapshot(long version, Map<Category, Segment> segments) {
+        this.version = version;
+        this.segments = segments;
+    }
+
+    /**
+     * Construit un snapshot complet.
+     * @param version position du flux de changements couverte par les produits fournis
+     */
+    public static CatalogSnapshot of(long version, Collection<ProductResponseDTO> products) {
+        Map<BlockKey, Map<Long, ProductResponseDTO>> byBlock = new HashMap<>();
+        for (ProductResponseDTO product : products) {
+            byBlock.computeIfAbsent(keyOf(product.getCategory(), product.getId()), key -> new HashMap<>())
+                    .put(product.getId(), product);
+        }
+        Map<Category, TreeMap<Long, Block>> blocks = new EnumMap<>(Category.class);
+        byBlock.forEach((key, byId) -> blocks.computeIfAbsent(key.category(), category -> new TreeMap<>())
+                .put(key.block(), new Block(byId)));
+        Map<Category, Segment> segments = new EnumMap<>(Category.class);
+        for (Category category : CATEGORIES) {
+            TreeMap<Long, Block> categoryBlocks = blocks.get(category);
+            segments.put(category, categoryBlocks != null ? new Segment(categoryBlocks) : Segment.EMPTY);
+        }
+        return new CatalogSnapshot(version, segments);
+    }
+
+    /**
+     * Renvoie un nouveau snapshot avec les produits modifiés et sans les produits supprimés.
+     * Le snapshot courant reste inchangé.
+     * @param version position du flux de changements couverte par le nouveau snapshot
+     * @param changed état courant des produits créés ou modifiés
+     * @param removed identifiants des produits qui n'existent plus
+     */
+    public CatalogSnapshot apply(long version, Collection<ProductResponseDTO> changed, Collection<Long> removed) {
+        Map<BlockKey, Map<Long, ProductResponseDTO>> touched = new HashMap<>();
+        for (Long id : removed) {
+            detach(id, touched);
+        }
+        for (ProductResponseDTO product : changed) {
+            if (product.equals(find(product.getId(), touched))) {
+                continue;
+            }
+            detach(product.getId(), touched);
+            copyOf(keyOf(product.getCategory(), product.getId()), touched).put(product.getId(), product);
+        }
+        if (touched.isEmpty()) {
+            return new CatalogSnapshot(version, segments);
+        }
+        Map<Category, TreeMap<Long, Block>> blocks = new EnumMap<>(Category.class);
+        touched.forEach((key, byId) -> {
+            TreeMap<Long, Block> categoryBlocks = blocks.computeIfAbsent(key.category(),
+                    category -> new TreeMap<>(segments.get(category).blocks));
+            if (byId.isEmpty()) {
+                categoryBlocks.remove(key.block());
+            } else {
+                categoryBlocks.put(key.block(), new Block(byId));
+            }
+        });
+        Map<Category, Segment> next = new EnumMap<>(segments);
+        blocks.forEach((category, categoryBlocks) -> next.put(category,
+                categoryBlocks.isEmpty() ? Segment.EMPTY : new Segment(categoryBlocks)));
+        return new CatalogSnapshot(version, next);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments.values()) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * Tous les produits, actifs ou non, par ID croissant.
+     */
+    public List<ProductResponseDTO> all() {
+        return merge(Segment::products);
+    }
+
+    /**
+     * Produits d'une catégorie, actifs ou non, par ID croissant.
+     */
+    public List<ProductResponseDTO> byCategory(Category category) {
+        return segments.get(category).products();
+    }
+
+    /**
+     * Produits actifs en stock, par ID croissant.
+     */
+    public List<ProductResponseDTO> available() {
+        return merge(Segment::available);
+    }
+
+    /**
+     * Produits portant exactement ce nom, par ID croissant.
+     */
+    public List<ProductResponseDTO> byName(String name) {
+        return merge(segment -> segment.byName(name));
+    }
+
+    private static BlockKey keyOf(Category category, Long id) {
+        return new BlockKey(category, Math.floorDiv(id, BLOCK_SIZE));
+    }
+
+    private ProductResponseDTO find(Long id, Map<BlockKey, Map<Long, ProductResponseDTO>> touched) {
+        for (Category category : CATEGORIES) {
+            BlockKey key = keyOf(category, id);
+            Map<Long, ProductResponseDTO> byId = touched.get(key);
+            if (byId == null) {
+                Block block = segments.get(category).blocks.get(key.block());
+                byId = block != null ? block.byId : Map.of();
+            }
+            ProductResponseDTO product = byId.get(id);
+            if (product != null) {
+                return product;
+            }
+        }
+        return null;
+    }
+
+    private void detach(Long id, Map<BlockKey, Map<Long, ProductResponseDTO>> touched) {
+        ProductResponseDTO current = find(id, touched);
+        if (current != null) {
+            copyOf(keyOf(current.getCategory(), id), touched).remove(id);
+        }
+    }
+
+    private Map<Long, ProductResponseDTO> copyOf(BlockKey key, Map<BlockKey, Map<Long, ProductResponseDTO>> touched) {
+        return touched.computeIfAbsent(key, k -> {
+            Block block = segments.get(k.category()).blocks.get(k.block());
+            return block != null ? new HashMap<>(block.byId) : new HashMap<>();
+        });
+    }
+
+    /**
+     * Fusionne les listes triées par ID de chaque segment.
+     */
+    private List<ProductResponseDTO> merge(Function<Segment, List<ProductResponseDTO>> list) {
+        List<List<ProductResponseDTO>> parts = new ArrayList<>(CATEGORIES.length);
+        int total = 0;
+        for (Category category : CATEGORIES) {
+            List<ProductResponseDTO> part = list.apply(segments.get(category));
+            if (!part.isEmpty()) {
+                parts.add(part);
+                total += part.size();
+            }
+        }
+        if (parts.size() <= 1) {
+            return parts.isEmpty() ? List.of() : parts.get(0);
+        }
+        List<ProductResponseDTO> merged = new ArrayList<>(total);
+        int[] positions = new int[parts.size()];
+        for (int n = 0; n < total; n++) {
+            int best = -1;
+            for (int i = 0; i < positions.length; i++) {
+                if (positions[i] < parts.get(i).size() && (best < 0
+                        || parts.get(i).get(positions[i]).getId() < parts.get(best).get(positions[best]).getId())) {
+                    best = i;
+                }
+            }
+            merged.add(parts.get(best).get(positions[best]++));
+        }
+        return Collections.unmodifiableList(merged);
+    }
+
+    private static boolean isAvailable(ProductResponseDTO product) {
+        return product.isActive() && product.getStock() != null && product.getStock() > 0;
+    }
+
+    /**
+     * Blocs d'une catégorie, par plage d'IDs croissante. Les listes de la catégorie sont
+     * calculées à la première lecture : un calcul concurrent donne le même résultat.
+     */
+    private static final class Segment {
+
+        static final Segment EMPTY = new Segment(new TreeMap<>());
+
+        final NavigableMap<Long, Block> blocks;
+        final int size;
+        private volatile List<ProductResponseDTO> products;
+        private volatile List<ProductResponseDTO> available;
+
+        Segment(TreeMap<Long, Block> blocks) {
+            this.blocks = Collections.unmodifiableNavigableMap(blocks);
+            int total = 0;
+            for (Block block : blocks.values()) {
+                total += block.byId.size();
+            }
+            this.size = total;
+        }
+
+        List<ProductResponseDTO> products() {
+            List<ProductResponseDTO> list = products;
+            if (list == null) {
+                list = concat(block -> block.products);
+                products = list;
+            }
+            return list;
+        }
+
+        List<ProductResponseDTO> available() {
+            List<ProductResponseDTO> list = available;
+            if (list == null) {
+                list = concat(block -> block.available);
+                available = list;
+            }
+            return list;
+        }
+
+        List<ProductResponseDTO> byName(String name) {
+            List<ProductResponseDTO> found = null;
+            for (Block block : blocks.values()) {
+                List<ProductResponseDTO> part = block.byName.get(name);
+                if (part != null) {
+                    if (found == null) {
+                        found = part;
+                    } else {
+                        found = new ArrayList<>(found);
+                        found.addAll(part);
+                    }
+                }
+            }
+            return found != null ? List.copyOf(found) : List.of();
+        }
+
+        private List<ProductResponseDTO> concat(Function<Block, List<ProductResponseDTO>> list) {
+            if (blocks.size() == 1) {
+                return list.apply(blocks.firstEntry().getValue());
+            }
+            List<ProductResponseDTO> all = new ArrayList<>(size);
+            for (Block block : blocks.values()) {
+                all.addAll(list.apply(block));
+            }
+            return Collections.unmodifiableList(all);
+        }
+    }
+
+    /**
+     * Produits d'un bloc et leurs index, construits une fois puis partagés.
+     */
+    private static final class Block {
+
+        final Map<Long, ProductResponseDTO> byId;
+        final List<ProductResponseDTO> products;
+        final List<ProductResponseDTO> available;
+        final Map<String, List<ProductResponseDTO>> byName;
+
+        Block(Map<Long, ProductResponseDTO> byId) {
+            this.byId = byId;
+            ProductResponseDTO[] sorted = byId.values().toArray(new ProductResponseDTO[0]);
+            Arrays.sort(sorted, BY_ID);
+            this.products = List.of(sorted);
+            this.available = Arrays.stream(sorted).filter(CatalogSnapshot::isAvailable).toList();
+            Map<String, List<ProductResponseDTO>> names = new HashMap<>();
+            for (ProductResponseDTO product : sorted) {
+                names.computeIfAbsent(product.getName(), name -> new ArrayList<>(1)).add(product);
+            }
+            names.replaceAll((name, products) -> List.copyOf(products));
+            this.byName = names;
+        }
+    }
+}
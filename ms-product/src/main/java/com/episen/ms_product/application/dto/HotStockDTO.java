@@ -0,0 +1,22 @@
+package com.episen.ms_product.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de l'état d'un compteur de stock en mémoire (mode vente flash).
+ * {@code version} est incrémentée à chaque variation ; {@code flushedVersion} est la
+ * dernière version écrite en base.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotStockDTO {
+    private Long productId;
+    private int stock;
+    private long version;
+    private long flushedVersion;
+}
@@ -0,0 +1,30 @@
+package com.episen.ms_product.application.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO du stock d'un produit reconstitué à partir du journal des mouvements.
+ * {@code currentStock} (stock courant du produit) n'est renseigné que pour l'instant
+ * présent : un écart avec {@code stock} signale une écriture hors journal.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InventoryLevelDTO {
+    private Long productId;
+    private LocalDateTime at;
+    private int stock;
+    private long seq;
+    private long snapshotSeq;
+    private int replayedMovements;
+    private Integer currentStock;
+}
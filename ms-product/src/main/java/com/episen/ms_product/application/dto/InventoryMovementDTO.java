@@ -0,0 +1,28 @@
+package com.episen.ms_product.application.dto;
+
+import java.time.LocalDateTime;
+
+import com.episen.ms_product.domain.enumerate.StockMovementReason;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO d'un mouvement du journal de stock.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InventoryMovementDTO {
+    private long seq;
+    private Long productId;
+    private int delta;
+    private StockMovementReason reason;
+    private String reference;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,32 @@
+package com.episen.ms_product.application.dto;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO d'une ligne de mise à jour en masse : nouveau prix et/ou nouveau stock d'un produit.
+ * Un champ absent (null) n'est pas modifié.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBulkUpdateDTO {
+    @NotNull(message = "L'ID du produit est obligatoire")
+    private Long id;
+
+    @DecimalMin(value = "0.01", inclusive = true, message = "Le prix doit être supérieur à 0")
+    @Digits(integer = 10, fraction = 2, message = "Le prix doit avoir au maximum 2 décimales")
+    private BigDecimal price;
+
+    @Min(value = 0, message = "Le stock doit être positif")
+    private Integer stock;
+}
@@ -0,0 +1,23 @@
+package com.episen.ms_product.application.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO pour la mise à jour en masse des prix et stocks (synchronisation ERP).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBulkUpdateRequestDTO {
+    @NotEmpty(message = "La liste des mises à jour ne peut pas être vide")
+    @Valid
+    private List<ProductBulkUpdateDTO> items;
+}
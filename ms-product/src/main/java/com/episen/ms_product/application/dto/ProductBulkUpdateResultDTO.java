@@ -0,0 +1,24 @@
+package com.episen.ms_product.application.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO du bilan d'une mise à jour en masse.
+ * {@code unchanged} compte les produits dont les valeurs envoyées étaient déjà en base.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBulkUpdateResultDTO {
+    private int received;
+    private int updated;
+    private int unchanged;
+    private List<Long> notFound;
+    private long durationMs;
+}
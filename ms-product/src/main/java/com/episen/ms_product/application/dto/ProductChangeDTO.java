@@ -0,0 +1,27 @@
+package com.episen.ms_product.application.dto;
+
+import com.episen.ms_product.application.event.ProductChangedEvent.ChangeType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO d'un changement du flux catalogue.
+ * Le contenu dépend du type : {@code product} (état courant complet) pour CREATED et
+ * UPDATED, {@code stock} seul pour STOCK, rien pour DELETED.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductChangeDTO {
+    private long seq;
+    private Long productId;
+    private ChangeType type;
+    private ProductResponseDTO product;
+    private Integer stock;
+}
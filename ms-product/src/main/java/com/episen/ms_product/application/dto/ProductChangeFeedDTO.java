@@ -0,0 +1,23 @@
+package com.episen.ms_product.application.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO d'une page du flux de changements du catalogue.
+ * {@code cursor} est à renvoyer dans {@code since} pour lire la suite ; il ne change pas
+ * si la page est vide.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangeFeedDTO {
+    private List<ProductChangeDTO> changes;
+    private long cursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,26 @@
+package com.episen.ms_product.application.dto;
+
+import java.util.Map;
+
+import com.episen.ms_product.domain.enumerate.Category;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO des compteurs de facettes calculés sur le résultat d'une requête.
+ * {@code priceRanges} est ordonné par tranche croissante.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductFacetsDTO {
+    private int total;
+    private Map<Category, Integer> categories;
+    private Map<String, Integer> priceRanges;
+    private int inStock;
+    private int outOfStock;
+}
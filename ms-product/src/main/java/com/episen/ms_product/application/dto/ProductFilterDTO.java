@@ -0,0 +1,26 @@
+package com.episen.ms_product.application.dto;
+
+import java.math.BigDecimal;
+
+import com.episen.ms_product.domain.enumerate.Category;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO regroupant les filtres combinables du catalogue.
+ * Un champ null signifie "pas de filtre" sur ce critère.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductFilterDTO {
+    private Category category;
+    private Boolean active;
+    private Boolean inStock;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+}
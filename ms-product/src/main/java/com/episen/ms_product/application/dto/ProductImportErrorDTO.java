@@ -0,0 +1,21 @@
+package com.episen.ms_product.application.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO d'une ligne rejetée lors d'un import en masse.
+ * {@code line} est le numéro de ligne dans le fichier envoyé (en-tête CSV compris).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportErrorDTO {
+    private long line;
+    private List<String> errors;
+}
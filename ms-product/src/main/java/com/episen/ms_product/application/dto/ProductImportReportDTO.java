@@ -0,0 +1,20 @@
+package com.episen.ms_product.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO du bilan d'un import en masse, envoyé en dernière ligne de la réponse.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportReportDTO {
+    private String format;
+    private long imported;
+    private long rejected;
+    private long durationMs;
+}
@@ -0,0 +1,24 @@
+package com.episen.ms_product.application.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO d'une page du listing produits (pagination par curseur).
+ * {@code nextCursor} est opaque et doit être renvoyé tel quel pour obtenir la page suivante ;
+ * il vaut null sur la dernière page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductPageDTO {
+    private List<ProductResponseDTO> items;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,24 @@
+package com.episen.ms_product.application.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO d'un produit populaire : consultations cumulées et score de tendance, c'est-à-dire
+ * les consultations pondérées par leur ancienneté (une consultation compte pour moitié
+ * après une demi-vie).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductPopularityDTO {
+    private ProductResponseDTO product;
+    private long views;
+    private double trendingScore;
+    private LocalDateTime lastViewedAt;
+}
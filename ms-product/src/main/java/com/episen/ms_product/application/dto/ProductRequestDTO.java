@@ -49,4 +49,7 @@ public class ProductRequestDTO {
     private Category category;
 
     private String imageUrl;
+
+    @Min(value = 0, message = "Le seuil de réapprovisionnement doit être positif")
+    private Integer reorderThreshold;
 }
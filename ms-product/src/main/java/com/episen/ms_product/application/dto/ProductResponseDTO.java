@@ -20,7 +20,7 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class ProductResponseDTO {
     private Long id;
     private String name;
@@ -29,7 +29,9 @@ public class ProductResponseDTO {
     private Integer stock;
     private Category category;
     private String imageUrl;
+    private Integer reorderThreshold;
     private boolean active;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
@@ -0,0 +1,26 @@
+package com.episen.ms_product.application.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO du résultat d'une recherche plein texte.
+ * Les produits sont triés par pertinence décroissante ; {@code facets} n'est renseigné
+ * que si les facettes ont été demandées.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSearchResultDTO {
+    private String query;
+    private int total;
+    private int page;
+    private int size;
+    private List<ProductResponseDTO> items;
+    private ProductFacetsDTO facets;
+}
@@ -0,0 +1,23 @@
+package com.episen.ms_product.application.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO représentant une variation relative du stock d'un produit.
+ * Un delta positif restaure du stock, un delta négatif en consomme.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockAdjustmentDTO {
+    @NotNull(message = "L'ID du produit est obligatoire")
+    private Long productId;
+
+    @NotNull(message = "La variation de stock est obligatoire")
+    private Integer delta;
+}
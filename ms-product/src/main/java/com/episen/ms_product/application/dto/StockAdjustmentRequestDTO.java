@@ -0,0 +1,34 @@
+package com.episen.ms_product.application.dto;
+
+import java.util.List;
+
+import com.episen.ms_product.domain.enumerate.StockMovementReason;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO pour l'ajustement groupé du stock de plusieurs produits.
+ * Toutes les variations sont appliquées atomiquement (tout ou rien).
+ * {@code reason} (MANUAL_ADJUST par défaut) et {@code reference} sont inscrits au journal
+ * des mouvements de stock.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockAdjustmentRequestDTO {
+    @NotEmpty(message = "La liste des ajustements ne peut pas être vide")
+    @Valid
+    private List<StockAdjustmentDTO> items;
+
+    private StockMovementReason reason;
+
+    @Size(max = 64, message = "La référence ne peut pas dépasser 64 caractères")
+    private String reference;
+}
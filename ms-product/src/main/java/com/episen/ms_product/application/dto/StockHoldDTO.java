@@ -0,0 +1,26 @@
+package com.episen.ms_product.application.dto;
+
+import java.time.LocalDateTime;
+
+import com.episen.ms_product.domain.enumerate.StockHoldStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO d'une réservation de stock.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHoldDTO {
+    private String id;
+    private Long ownerId;
+    private Long productId;
+    private int quantity;
+    private StockHoldStatus status;
+    private LocalDateTime expiresAt;
+}
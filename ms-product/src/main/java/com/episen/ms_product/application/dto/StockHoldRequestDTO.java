@@ -0,0 +1,28 @@
+package com.episen.ms_product.application.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de création d'une réservation de stock.
+ * Sans {@code ttlSeconds}, la durée par défaut {@code products.holds.ttl} s'applique.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHoldRequestDTO {
+    @NotNull(message = "L'ID du produit est obligatoire")
+    private Long productId;
+
+    @NotNull(message = "La quantité est obligatoire")
+    @Min(value = 1, message = "La quantité doit être au moins 1")
+    private Integer quantity;
+
+    @Min(value = 1, message = "La durée de réservation doit être d'au moins 1 seconde")
+    private Integer ttlSeconds;
+}
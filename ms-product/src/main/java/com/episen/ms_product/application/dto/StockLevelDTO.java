@@ -0,0 +1,19 @@
+package com.episen.ms_product.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO du niveau de stock d'un produit par rapport à son seuil de réapprovisionnement.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockLevelDTO {
+    private Long productId;
+    private int stock;
+    private int reorderThreshold;
+}
@@ -0,0 +1,40 @@
+package com.episen.ms_product.application.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Événement applicatif publié par {@link com.episen.ms_product.application.service.ProductService}
+ * à chaque écriture sur le catalogue.
+ *
+ * <p>Les composants en mémoire (index de recherche, caches...) l'écoutent avec
+ * {@code @TransactionalEventListener} : ils ne voient ainsi que les changements
+ * effectivement commités.</p>
+ *
+ * @param type nature du changement
+ * @param productIds identifiants des produits concernés
+ */
+public record ProductChangedEvent(ChangeType type, List<Long> productIds) {
+
+    /**
+     * Nature d'un changement sur le catalogue.
+     */
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED,
+        STOCK
+    }
+
+    public ProductChangedEvent {
+        productIds = List.copyOf(productIds);
+    }
+
+    public static ProductChangedEvent of(ChangeType type, Long productId) {
+        return new ProductChangedEvent(type, List.of(productId));
+    }
+
+    public static ProductChangedEvent of(ChangeType type, Collection<Long> productIds) {
+        return new ProductChangedEvent(type, List.copyOf(productIds));
+    }
+}
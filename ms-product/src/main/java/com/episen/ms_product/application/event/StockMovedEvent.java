@@ -0,0 +1,39 @@
+package com.episen.ms_product.application.event;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.episen.ms_product.domain.enumerate.StockMovementReason;
+
+/**
+ * Événement applicatif publié à chaque variation de stock, dans la transaction qui
+ * l'applique. {@link com.episen.ms_product.application.service.InventoryLedgerService}
+ * l'inscrit au journal des mouvements après le commit. Les variations des produits en vente
+ * flash sont publiées agrégées par {@link com.episen.ms_product.application.service.HotStockService}.
+ *
+ * @param movements variations appliquées, une par produit
+ */
+public record StockMovedEvent(List<Movement> movements) {
+
+    /**
+     * Variation du stock d'un produit.
+     * @param productId identifiant du produit
+     * @param delta variation appliquée (négative pour une sortie)
+     * @param reason origine du mouvement
+     * @param reference identifiant métier associé (commande, réservation...), ou null
+     */
+    public record Movement(Long productId, int delta, StockMovementReason reason, String reference) {
+    }
+
+    public StockMovedEvent {
+        movements = List.copyOf(movements);
+    }
+
+    public static StockMovedEvent of(Long productId, int delta, StockMovementReason reason, String reference) {
+        return new StockMovedEvent(List.of(new Movement(productId, delta, reason, reference)));
+    }
+
+    public static StockMovedEvent of(Collection<Movement> movements) {
+        return new StockMovedEvent(List.copyOf(movements));
+    }
+}
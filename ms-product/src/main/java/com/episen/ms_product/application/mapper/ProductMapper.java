@@ -27,6 +27,7 @@ public class ProductMapper {
                 .stock(productRequestDTO.getStock())
                 .category(productRequestDTO.getCategory())
                 .imageUrl(productRequestDTO.getImageUrl())
+                .reorderThreshold(productRequestDTO.getReorderThreshold())
                 .build();
     }
 
@@ -42,8 +43,10 @@ public class ProductMapper {
                 .description(product.getDescription())
                 .category(product.getCategory())
                 .imageUrl(product.getImageUrl())
+                .reorderThreshold(product.getReorderThreshold())
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
+                .version(product.getVersion())
                 .active(product.isActive())
                 .build();
     }
@@ -0,0 +1,81 @@
+package com.episen.ms_product.application.search;
+
+import java.util.Arrays;
+
+/**
+ * Liste de postings immuable d'un terme : numéros de documents triés et poids associés.
+ * Les modifications renvoient une nouvelle liste (copie), ce qui permet des lectures sans verrou.
+ */
+final class PostingList {
+
+    private final int[] docs;
+    private final float[] weights;
+
+    private PostingList(int[] docs, float[] weights) {
+        this.docs = docs;
+        this.weights = weights;
+    }
+
+    int size() {
+        return docs.length;
+    }
+
+    /** Numéros de documents triés ; le tableau ne doit pas être modifié. */
+    int[] docs() {
+        return docs;
+    }
+
+    float weight(int index) {
+        return weights[index];
+    }
+
+    /**
+     * Copie complétée par les documents de {@code more}, tous de numéro supérieur
+     * au dernier document de la liste (ajout en fin, une seule copie).
+     */
+    PostingList append(Builder more) {
+        int[] newDocs = Arrays.copyOf(docs, docs.length + more.size);
+        float[] newWeights = Arrays.copyOf(weights, docs.length + more.size);
+        System.arraycopy(more.docs, 0, newDocs, docs.length, more.size);
+        System.arraycopy(more.weights, 0, newWeights, docs.length, more.size);
+        return new PostingList(newDocs, newWeights);
+    }
+
+    /** Copie sans le document (la liste elle-même s'il n'y figure pas). */
+    PostingList without(int doc) {
+        int index = Arrays.binarySearch(docs, doc);
+        if (index < 0) {
+            return this;
+        }
+        int[] newDocs = new int[docs.length - 1];
+        float[] newWeights = new float[docs.length - 1];
+        System.arraycopy(docs, 0, newDocs, 0, index);
+        System.arraycopy(weights, 0, newWeights, 0, index);
+        System.arraycopy(docs, index + 1, newDocs, index, docs.length - index - 1);
+        System.arraycopy(weights, index + 1, newWeights, index, docs.length - index - 1);
+        return new PostingList(newDocs, newWeights);
+    }
+
+    /**
+     * Construction séquentielle d'une liste, documents ajoutés par numéro croissant.
+     */
+    static final class Builder {
+
+        private int[] docs = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        void add(int doc, float weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size++] = weight;
+        }
+
+        PostingList build() {
+            return new PostingList(Arrays.copyOf(docs, size), Arrays.copyOf(weights, size));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.episen.ms_product.application.search;
+
+/**
+ * Tranches de prix utilisées par la facette de prix (bornes en centimes, inférieure incluse).
+ */
+public enum PriceBucket {
+    UNDER_10("0-10", 0, 1_000),
+    FROM_10_TO_25("10-25", 1_000, 2_500),
+    FROM_25_TO_50("25-50", 2_500, 5_000),
+    FROM_50_TO_100("50-100", 5_000, 10_000),
+    FROM_100_TO_250("100-250", 10_000, 25_000),
+    FROM_250_TO_500("250-500", 25_000, 50_000),
+    OVER_500("500+", 50_000, Long.MAX_VALUE);
+
+    private final String label;
+    private final long minCents;
+    private final long maxCents;
+
+    PriceBucket(String label, long minCents, long maxCents) {
+        this.label = label;
+        this.minCents = minCents;
+        this.maxCents = maxCents;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    static PriceBucket of(long priceCents) {
+        for (PriceBucket bucket : values()) {
+            if (priceCents >= bucket.minCents && priceCents < bucket.maxCents) {
+                return bucket;
+            }
+        }
+        return UNDER_10;
+    }
+}
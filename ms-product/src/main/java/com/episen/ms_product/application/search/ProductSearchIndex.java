@@ -0,0 +1,588 @@
+package com.episen.ms_product.application.search;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.episen.ms_product.application.dto.ProductFacetsDTO;
+import com.episen.ms_product.application.dto.ProductFilterDTO;
+import com.episen.ms_product.domain.entity.Product;
+import com.episen.ms_product.domain.enumerate.Category;
+
+/**
+ * Index inversé en mémoire sur le nom et la description des produits actifs.
+ *
+ * <p><b>Structure :</b> chaque produit reçoit un identifiant de document dense ({@code int}) ;
+ * le dictionnaire trié associe chaque terme à une {@link PostingList} immuable (documents
+ * triés + poids précalculé). Le dictionnaire étant trié, la recherche par préfixe est un
+ * simple parcours de sous-arbre.</p>
+ *
+ * <p><b>Concurrence :</b> les écritures (indexation, suppression) sont sérialisées ;
+ * elles remplacent les listes de postings par copie, si bien que les lectures
+ * ne prennent jamais de verrou.</p>
+ *
+ * <p><b>Pertinence :</b> score de type BM25 simplifié. Pour chaque terme de la requête,
+ * {@code idf(terme) x tf saturé}, où une occurrence dans le nom compte pour
+ * {@value #NAME_BOOST} occurrences dans la description. Une correspondance par préfixe
+ * seul ("clav" → "clavier") vaut {@value #PREFIX_FACTOR} d'une correspondance exacte.
+ * Tous les termes de la requête doivent correspondre (ET logique).</p>
+ *
+ * <p><b>Facettes :</b> un {@link DocBitSet} par catégorie, par {@link PriceBucket} et pour
+ * "en stock". Le résultat d'une requête est matérialisé en bitset ; les filtres et les
+ * compteurs de facettes sont des opérations mot à mot sur ces bitsets, sans accès base.</p>
+ */
+public class ProductSearchIndex {
+
+    static final float NAME_BOOST = 3f;
+    static final float PREFIX_FACTOR = 0.5f;
+    private static final float K1 = 1.2f;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final Category[] CATEGORIES = Category.values();
+    private static final PriceBucket[] PRICE_BUCKETS = PriceBucket.values();
+
+    private volatile Segment segment = Segment.empty();
+    private volatile int liveDocuments;
+
+    private final Map<Long, Integer> docByProductId = new HashMap<>();
+    private final Map<Integer, String[]> termsByDoc = new HashMap<>();
+    private int nextDoc;
+
+    /**
+     * Résultat d'une recherche : nombre total de correspondances, identifiants
+     * des produits de la page demandée par pertinence décroissante, et compteurs
+     * de facettes (null s'ils n'ont pas été demandés).
+     */
+    public record Hits(int total, List<Long> productIds, ProductFacetsDTO facets) {
+    }
+
+    /**
+     * Reconstruit entièrement l'index à partir des lots de produits fournis.
+     * Les lectures continuent de voir l'ancien index jusqu'à la bascule finale.
+     */
+    public synchronized void rebuild(Iterable<? extends Collection<Product>> batches) {
+        Map<String, PostingList.Builder> builders = new HashMap<>();
+        Map<Long, Integer> docs = new HashMap<>();
+        Map<Integer, String[]> docTerms = new HashMap<>();
+        long[] ids = new long[1024];
+        long[] prices = new long[1024];
+        DocBitSet.Builder live = new DocBitSet.Builder();
+        DocBitSet.Builder inStock = new DocBitSet.Builder();
+        DocBitSet.Builder[] byCategory = newBuilders(CATEGORIES.length);
+        DocBitSet.Builder[] byPriceBucket = newBuilders(PRICE_BUCKETS.length);
+        int doc = 0;
+
+        for (Collection<Product> batch : batches) {
+            for (Product product : batch) {
+                if (!product.isActive()) {
+                    continue;
+                }
+                if (doc == ids.length) {
+                    ids = Arrays.copyOf(ids, ids.length * 2);
+                    prices = Arrays.copyOf(prices, prices.length * 2);
+                }
+                long priceCents = toCents(product.getPrice());
+                ids[doc] = product.getId();
+                prices[doc] = priceCents;
+                live.set(doc);
+                byCategory[product.getCategory().ordinal()].set(doc);
+                byPriceBucket[PriceBucket.of(priceCents).ordinal()].set(doc);
+                if (product.getStock() > 0) {
+                    inStock.set(doc);
+                }
+                docs.put(product.getId(), doc);
+                Map<String, Float> weights = weigh(product);
+                docTerms.put(doc, weights.keySet().toArray(String[]::new));
+                for (Map.Entry<String, Float> entry : weights.entrySet()) {
+                    builders.computeIfAbsent(entry.getKey(), t -> new PostingList.Builder()).add(doc, entry.getValue());
+                }
+                doc++;
+            }
+        }
+
+        ConcurrentSkipListMap<String, PostingList> rebuilt = new ConcurrentSkipListMap<>();
+        builders.forEach((term, builder) -> rebuilt.put(term, builder.build()));
+
+        docByProductId.clear();
+        docByProductId.putAll(docs);
+        termsByDoc.clear();
+        termsByDoc.putAll(docTerms);
+        nextDoc = doc;
+        segment = new Segment(rebuilt, ids, prices, live.build(), inStock.build(),
+                build(byCategory), build(byPriceBucket));
+        liveDocuments = docs.size();
+    }
+
+    /**
+     * Indexe ou réindexe un produit. Un produit inactif est retiré de l'index.
+     */
+    public synchronized void index(Product product) {
+        indexAll(List.of(product));
+    }
+
+    /**
+     * Indexe ou réindexe un lot de produits ; les produits inactifs sont retirés de l'index.
+     * Chaque liste de postings et chaque bitset n'est recopié qu'une fois par lot, ce qui rend
+     * l'ajout de N produits linéaire (import en masse) au lieu de quadratique.
+     */
+    public synchronized void indexAll(Collection<Product> products) {
+        List<Product> active = new ArrayList<>(products.size());
+        for (Product product : products) {
+            remove(product.getId());
+            if (product.isActive()) {
+                active.add(product);
+            }
+        }
+        if (active.isEmpty()) {
+            return;
+        }
+        Segment current = segment;
+        long[] ids = current.productIdByDoc;
+        long[] prices = current.priceCentsByDoc;
+        int required = nextDoc + active.size();
+        if (required > ids.length) {
+            int capacity = Math.max(required, ids.length * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+        }
+
+        int[] newDocs = new int[active.size()];
+        int[][] byCategory = new int[CATEGORIES.length][active.size()];
+        int[] categoryCounts = new int[CATEGORIES.length];
+        int[][] byPriceBucket = new int[PRICE_BUCKETS.length][active.size()];
+        int[] priceBucketCounts = new int[PRICE_BUCKETS.length];
+        int[] inStock = new int[active.size()];
+        int inStockCount = 0;
+        Map<String, PostingList.Builder> postings = new HashMap<>();
+
+        for (int i = 0; i < active.size(); i++) {
+            Product product = active.get(i);
+            int doc = nextDoc++;
+            long priceCents = toCents(product.getPrice());
+            ids[doc] = product.getId();
+            prices[doc] = priceCents;
+            newDocs[i] = doc;
+            int category = product.getCategory().ordinal();
+            byCategory[category][categoryCounts[category]++] = doc;
+            int bucket = PriceBucket.of(priceCents).ordinal();
+            byPriceBucket[bucket][priceBucketCounts[bucket]++] = doc;
+            if (product.getStock() > 0) {
+                inStock[inStockCount++] = doc;
+            }
+            Map<String, Float> weights = weigh(product);
+            for (Map.Entry<String, Float> entry : weights.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), t -> new PostingList.Builder()).add(doc, entry.getValue());
+            }
+            docByProductId.put(product.getId(), doc);
+            termsByDoc.put(doc, weights.keySet().toArray(String[]::new));
+        }
+
+        // Publiés avant les postings : un lecteur qui voit un document voit aussi ses attributs
+        current.productIdByDoc = ids;
+        current.priceCentsByDoc = prices;
+        current.byCategory = withAll(current.byCategory, byCategory, categoryCounts);
+        current.byPriceBucket = withAll(current.byPriceBucket, byPriceBucket, priceBucketCounts);
+        current.inStock = current.inStock.withAll(inStock, inStockCount);
+        current.live = current.live.withAll(newDocs, newDocs.length);
+        postings.forEach((term, added) -> current.terms.merge(term, added.build(),
+                (existing, built) -> existing.append(added)));
+        liveDocuments += active.size();
+    }
+
+    /**
+     * Met à jour la facette "en stock" d'un produit indexé, sans le réindexer.
+     * Le bitset n'est recopié que si le produit passe de disponible à épuisé ou inversement.
+     */
+    public synchronized void updateStock(Long productId, int stock) {
+        Integer doc = docByProductId.get(productId);
+        if (doc == null) {
+            return;
+        }
+        Segment current = segment;
+        current.inStock = stock > 0 ? current.inStock.with(doc) : current.inStock.without(doc);
+    }
+
+    /**
+     * Retire un produit de l'index (sans effet s'il n'y figure pas).
+     */
+    public synchronized void remove(Long productId) {
+        Integer doc = docByProductId.remove(productId);
+        if (doc == null) {
+            return;
+        }
+        Segment current = segment;
+        // Retiré des documents vivants en premier : les lectures filtrent sur ce bitset
+        current.live = current.live.without(doc);
+        current.inStock = current.inStock.without(doc);
+        current.byCategory = withoutDoc(current.byCategory, doc);
+        current.byPriceBucket = withoutDoc(current.byPriceBucket, doc);
+        for (String term : termsByDoc.remove(doc)) {
+            current.terms.computeIfPresent(term, (t, postings) -> {
+                PostingList remaining = postings.without(doc);
+                return remaining.size() == 0 ? null : remaining;
+            });
+        }
+        liveDocuments--;
+    }
+
+    /**
+     * Recherche les produits correspondant à tous les termes de la requête et aux filtres.
+     * @param query texte libre
+     * @param filter filtres (catégorie, en stock, fourchette de prix) ; le filtre "actif" est implicite
+     * @param offset rang du premier résultat renvoyé
+     * @param limit nombre maximum de résultats renvoyés
+     * @param withFacets calculer les compteurs de facettes sur l'ensemble du résultat
+     */
+    public Hits search(String query, ProductFilterDTO filter, int offset, int limit, boolean withFacets) {
+        Segment current = segment;
+        ScoredDocs matches = match(current, query);
+        if (matches.size() == 0) {
+            return new Hits(0, List.of(), withFacets ? facets(current, new long[0]) : null);
+        }
+
+        long[] result = new long[current.live.wordCount()];
+        for (int i = 0; i < matches.size(); i++) {
+            int doc = matches.docs[i];
+            if ((doc >>> 6) < result.length) {
+                result[doc >>> 6] |= 1L << doc;
+            }
+        }
+        applyFilter(current, result, filter);
+
+        int[] candidates = new int[matches.size()];
+        int total = 0;
+        for (int i = 0; i < matches.size(); i++) {
+            int doc = matches.docs[i];
+            if ((doc >>> 6) < result.length && (result[doc >>> 6] & (1L << doc)) != 0) {
+                candidates[total++] = i;
+            }
+        }
+
+        int wanted = Math.min(offset + limit, total);
+        PriorityQueue<Integer> top = new PriorityQueue<>(wanted + 1, (a, b) -> compareRank(matches, b, a));
+        for (int c = 0; c < total; c++) {
+            top.add(candidates[c]);
+            if (top.size() > wanted) {
+                top.poll();
+            }
+        }
+        Integer[] ranked = top.toArray(Integer[]::new);
+        Arrays.sort(ranked, (a, b) -> compareRank(matches, a, b));
+
+        long[] ids = current.productIdByDoc;
+        List<Long> page = new ArrayList<>(Math.max(0, wanted - offset));
+        for (int i = offset; i < ranked.length; i++) {
+            page.add(ids[matches.docs[ranked[i]]]);
+        }
+        return new Hits(total, page, withFacets ? facets(current, result) : null);
+    }
+
+    /**
+     * Compteurs de facettes pour une requête (optionnelle) et des filtres.
+     * Sans requête, le résultat est l'ensemble des produits actifs filtrés (page catégorie).
+     */
+    public ProductFacetsDTO facets(String query, ProductFilterDTO filter) {
+        Segment current = segment;
+        long[] result;
+        if (query == null || query.isBlank()) {
+            result = current.live.copyWords(current.live.wordCount());
+        } else {
+            ScoredDocs matches = match(current, query);
+            result = new long[current.live.wordCount()];
+            for (int i = 0; i < matches.size(); i++) {
+                int doc = matches.docs[i];
+                if ((doc >>> 6) < result.length) {
+                    result[doc >>> 6] |= 1L << doc;
+                }
+            }
+        }
+        applyFilter(current, result, filter);
+        return facets(current, result);
+    }
+
+    public int documentCount() {
+        return liveDocuments;
+    }
+
+    public int termCount() {
+        return segment.terms.size();
+    }
+
+    /**
+     * Restreint le résultat aux documents vivants et aux filtres demandés.
+     * Catégorie et disponibilité sont des intersections de bitsets ; la fourchette de prix,
+     * arbitraire, est vérifiée document par document sur les seuls bits restants.
+     */
+    private static void applyFilter(Segment current, long[] result, ProductFilterDTO filter) {
+        current.live.andInto(result);
+        if (filter == null) {
+            return;
+        }
+        if (filter.getCategory() != null) {
+            current.byCategory[filter.getCategory().ordinal()].andInto(result);
+        }
+        if (filter.getInStock() != null) {
+            if (filter.getInStock()) {
+                current.inStock.andInto(result);
+            } else {
+                current.inStock.andNotInto(result);
+            }
+        }
+        if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+            long min = filter.getMinPrice() != null ? toCents(filter.getMinPrice()) : Long.MIN_VALUE;
+            long max = filter.getMaxPrice() != null ? toCents(filter.getMaxPrice()) : Long.MAX_VALUE;
+            long[] prices = current.priceCentsByDoc;
+            for (int word = 0; word < result.length; word++) {
+                long bits = result[word];
+                while (bits != 0) {
+                    int doc = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    if (doc >= prices.length || prices[doc] < min || prices[doc] > max) {
+                        result[word] &= ~(1L << doc);
+                    }
+                }
+            }
+        }
+    }
+
+    private static ProductFacetsDTO facets(Segment current, long[] result) {
+        Map<Category, Integer> categories = new EnumMap<>(Category.class);
+        DocBitSet[] byCategory = current.byCategory;
+        for (Category category : CATEGORIES) {
+            categories.put(category, byCategory[category.ordinal()].andCardinality(result));
+        }
+        Map<String, Integer> priceRanges = new LinkedHashMap<>();
+        DocBitSet[] byPriceBucket = current.byPriceBucket;
+        for (PriceBucket bucket : PRICE_BUCKETS) {
+            priceRanges.put(bucket.getLabel(), byPriceBucket[bucket.ordinal()].andCardinality(result));
+        }
+        int total = 0;
+        for (long word : result) {
+            total += Long.bitCount(word);
+        }
+        int inStock = current.inStock.andCardinality(result);
+        return ProductFacetsDTO.builder()
+                .total(total)
+                .categories(categories)
+                .priceRanges(priceRanges)
+                .inStock(inStock)
+                .outOfStock(total - inStock)
+                .build();
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static DocBitSet.Builder[] newBuilders(int count) {
+        DocBitSet.Builder[] builders = new DocBitSet.Builder[count];
+        for (int i = 0; i < count; i++) {
+            builders[i] = new DocBitSet.Builder();
+        }
+        return builders;
+    }
+
+    private static DocBitSet[] build(DocBitSet.Builder[] builders) {
+        DocBitSet[] sets = new DocBitSet[builders.length];
+        for (int i = 0; i < builders.length; i++) {
+            sets[i] = builders[i].build();
+        }
+        return sets;
+    }
+
+    private static DocBitSet[] withAll(DocBitSet[] sets, int[][] docs, int[] counts) {
+        DocBitSet[] copy = sets.clone();
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = sets[i].withAll(docs[i], counts[i]);
+        }
+        return copy;
+    }
+
+    private static DocBitSet[] withoutDoc(DocBitSet[] sets, int doc) {
+        DocBitSet[] copy = sets.clone();
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = sets[i].without(doc);
+        }
+        return copy;
+    }
+
+    /**
+     * Calcule l'ensemble des documents correspondant à la requête et leur score,
+     * triés par numéro de document.
+     */
+    ScoredDocs match(Segment current, String query) {
+        Set<String> queryTerms = new LinkedHashSet<>(TextAnalyzer.tokenize(query));
+        if (queryTerms.isEmpty()) {
+            return ScoredDocs.EMPTY;
+        }
+        NavigableMap<String, PostingList> dictionary = current.terms;
+        int documents = Math.max(1, liveDocuments);
+
+        List<ScoredDocs> perTerm = new ArrayList<>(queryTerms.size());
+        for (String queryTerm : queryTerms) {
+            ScoredDocs scored = ScoredDocs.EMPTY;
+            int expansions = 0;
+            for (Map.Entry<String, PostingList> entry
+                    : dictionary.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, true).entrySet()) {
+                float factor = entry.getKey().equals(queryTerm) ? 1f : PREFIX_FACTOR;
+                scored = scored.union(ScoredDocs.of(entry.getValue(), idf(documents, entry.getValue().size()) * factor));
+                if (++expansions == MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+            }
+            if (scored.size() == 0) {
+                return ScoredDocs.EMPTY;
+            }
+            perTerm.add(scored);
+        }
+
+        perTerm.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        ScoredDocs result = perTerm.get(0);
+        for (int i = 1; i < perTerm.size() && result.size() > 0; i++) {
+            result = result.intersect(perTerm.get(i));
+        }
+        return result;
+    }
+
+    private static int compareRank(ScoredDocs matches, int a, int b) {
+        int byScore = Float.compare(matches.scores[b], matches.scores[a]);
+        return byScore != 0 ? byScore : Integer.compare(matches.docs[a], matches.docs[b]);
+    }
+
+    private static float idf(int documents, int documentFrequency) {
+        return (float) Math.log(1 + (documents - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    /**
+     * Calcule le poids (tf saturé) de chaque terme distinct d'un produit.
+     */
+    private static Map<String, Float> weigh(Product product) {
+        Map<String, Float> frequencies = new HashMap<>();
+        for (String term : TextAnalyzer.tokenize(product.getName())) {
+            frequencies.merge(term, NAME_BOOST, Float::sum);
+        }
+        for (String term : TextAnalyzer.tokenize(product.getDescription())) {
+            frequencies.merge(term, 1f, Float::sum);
+        }
+        frequencies.replaceAll((term, tf) -> tf * (K1 + 1) / (tf + K1));
+        return frequencies;
+    }
+
+    /**
+     * État lu par les recherches : dictionnaire, attributs par document et bitsets de facettes.
+     * Une reconstruction remplace le segment d'un bloc ; l'indexation incrémentale remplace
+     * ses tableaux et bitsets (immuables) un par un.
+     */
+    static final class Segment {
+
+        final ConcurrentSkipListMap<String, PostingList> terms;
+        volatile long[] productIdByDoc;
+        volatile long[] priceCentsByDoc;
+        volatile DocBitSet live;
+        volatile DocBitSet inStock;
+        volatile DocBitSet[] byCategory;
+        volatile DocBitSet[] byPriceBucket;
+
+        Segment(ConcurrentSkipListMap<String, PostingList> terms, long[] productIdByDoc, long[] priceCentsByDoc,
+                DocBitSet live, DocBitSet inStock, DocBitSet[] byCategory, DocBitSet[] byPriceBucket) {
+            this.terms = terms;
+            this.productIdByDoc = productIdByDoc;
+            this.priceCentsByDoc = priceCentsByDoc;
+            this.live = live;
+            this.inStock = inStock;
+            this.byCategory = byCategory;
+            this.byPriceBucket = byPriceBucket;
+        }
+
+        static Segment empty() {
+            DocBitSet[] byCategory = new DocBitSet[CATEGORIES.length];
+            DocBitSet[] byPriceBucket = new DocBitSet[PRICE_BUCKETS.length];
+            Arrays.fill(byCategory, DocBitSet.EMPTY);
+            Arrays.fill(byPriceBucket, DocBitSet.EMPTY);
+            return new Segment(new ConcurrentSkipListMap<>(), new long[1024], new long[1024],
+                    DocBitSet.EMPTY, DocBitSet.EMPTY, byCategory, byPriceBucket);
+        }
+    }
+
+    /**
+     * Liste de documents triés par numéro, avec le score associé à chacun.
+     */
+    static final class ScoredDocs {
+
+        static final ScoredDocs EMPTY = new ScoredDocs(new int[0], new float[0], 0);
+
+        final int[] docs;
+        final float[] scores;
+        private final int size;
+
+        private ScoredDocs(int[] docs, float[] scores, int size) {
+            this.docs = docs;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        static ScoredDocs of(PostingList postings, float factor) {
+            float[] scores = new float[postings.size()];
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = postings.weight(i) * factor;
+            }
+            return new ScoredDocs(postings.docs(), scores, scores.length);
+        }
+
+        int size() {
+            return size;
+        }
+
+        /** Union triée ; un document présent des deux côtés garde le meilleur score. */
+        ScoredDocs union(ScoredDocs other) {
+            if (size == 0) {
+                return other;
+            }
+            int[] docs = new int[size + other.size];
+            float[] scores = new float[size + other.size];
+            int i = 0, j = 0, n = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && this.docs[i] < other.docs[j])) {
+                    docs[n] = this.docs[i];
+                    scores[n++] = this.scores[i++];
+                } else if (i == size || other.docs[j] < this.docs[i]) {
+                    docs[n] = other.docs[j];
+                    scores[n++] = other.scores[j++];
+                } else {
+                    docs[n] = this.docs[i];
+                    scores[n++] = Math.max(this.scores[i++], other.scores[j++]);
+                }
+            }
+            return new ScoredDocs(docs, scores, n);
+        }
+
+        /** Intersection triée ; les scores des deux côtés s'additionnent. */
+        ScoredDocs intersect(ScoredDocs other) {
+            int[] docs = new int[Math.min(size, other.size)];
+            float[] scores = new float[docs.length];
+            int i = 0, j = 0, n = 0;
+            while (i < size && j < other.size) {
+                if (this.docs[i] < other.docs[j]) {
+                    i++;
+                } else if (other.docs[j] < this.docs[i]) {
+                    j++;
+                } else {
+                    docs[n] = this.docs[i];
+                    scores[n++] = this.scores[i++] + other.scores[j++];
+                }
+            }
+            return new ScoredDocs(docs, scores, n);
+        }
+    }
+}
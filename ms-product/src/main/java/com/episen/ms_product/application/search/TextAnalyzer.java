@@ -0,0 +1,54 @@
+package com.episen.ms_product.application.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Analyseur de texte utilisé par l'index de recherche.
+ *
+ * <p>Découpe un texte en termes : décomposition Unicode et suppression des accents
+ * ("écran" → "ecran"), passage en minuscules, découpage sur tout caractère non
+ * alphanumérique et suppression des mots vides les plus fréquents (FR/EN), qui
+ * produiraient des listes de postings énormes sans aucun pouvoir discriminant.</p>
+ */
+final class TextAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+", Pattern.UNICODE_CHARACTER_CLASS);
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "au", "aux", "avec", "ce", "ces", "d", "dans", "de", "des", "du", "en", "et", "l", "la", "le",
+            "les", "par", "pour", "sur", "un", "une", "vos", "votre",
+            "an", "and", "for", "of", "the", "to", "with");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Normalise un texte : suppression des accents et passage en minuscules.
+     */
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Découpe un texte en termes normalisés (doublons conservés, pour le calcul des fréquences).
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        for (String token : SEPARATORS.split(fold(text))) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+}
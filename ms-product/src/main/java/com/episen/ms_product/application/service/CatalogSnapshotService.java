@@ -0,0 +1,223 @@
+package com.episen.ms_product.application.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.episen.ms_product.application.catalog.CatalogSnapshot;
+import com.episen.ms_product.application.dto.ProductResponseDTO;
+import com.episen.ms_product.application.event.ProductChangedEvent;
+import com.episen.ms_product.application.mapper.ProductMapper;
+import com.episen.ms_product.application.service.ProductChangeFeedService.ChangedProducts;
+import com.episen.ms_product.domain.repository.ProductRepository;
+import com.episen.ms_product.infrastructure.exception.ChangeFeedCursorExpiredException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Catalogue complet en mémoire, servi sans accès base aux lectures de listes
+ * ({@link ProductService#getAllProducts}, par catégorie, par nom, produits disponibles).
+ *
+ * <p>Le catalogue est un {@link CatalogSnapshot} immuable, publié par une simple écriture
+ * volatile : les lecteurs ne prennent aucun verrou et ne partagent aucun état modifiable.
+ * Il est chargé au démarrage par lots de {@value #LOAD_BATCH_SIZE} produits, puis suit le
+ * flux des changements ({@link ProductChangeFeedService}) : après chaque commit, un
+ * rafraîchissement est demandé à un unique thread d'arrière-plan, qui relit les produits
+ * touchés depuis la version du snapshot et publie un nouveau snapshot en ne reconstruisant que
+ * les blocs concernés. Les demandes sont regroupées : un rafraîchissement couvre tous les
+ * changements commités avant lui, si bien que des écritures concurrentes ne provoquent pas une
+ * reconstruction chacune, et le thread de l'écriture n'attend jamais la reconstruction. Une
+ * lecture qui suit immédiatement une écriture peut donc encore voir l'état précédent.</p>
+ *
+ * <p>Un rafraîchissement périodique ({@code products.catalog-snapshot.refresh-interval-ms})
+ * rattrape un échec ; un snapshot trop en retard sur la rétention du flux est rechargé en
+ * entier. Désactivé ({@code products.catalog-snapshot.enabled=false}), {@link #current()}
+ * renvoie null et les lectures passent par la base.</p>
+ *
+ * <p><b>Métriques Prometheus :</b></p>
+ * <ul>
+ * <li>products.catalog_snapshot.products - Nombre de produits en mémoire</li>
+ * <li>products.catalog_snapshot.version - Position du flux de changements couverte</li>
+ * <li>products.catalog_snapshot.refresh - Temps de construction d'un nouveau snapshot</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class CatalogSnapshotService {
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+    private static final int CHANGES_BATCH_SIZE = 5000;
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ProductChangeFeedService changeFeedService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Timer refreshTimer;
+
+    private volatile CatalogSnapshot snapshot;
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CatalogSnapshotService(ProductRepository productRepository,
+            ProductMapper productMapper,
+            ProductChangeFeedService changeFeedService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${products.catalog-snapshot.enabled:true}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.changeFeedService = changeFeedService;
+        // Appelé après le commit d'une écriture : les lectures ne doivent pas réutiliser
+        // la transaction (et le contexte de persistance) de cette écriture
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+
+        this.refreshTimer = Timer.builder("products.catalog_snapshot.refresh")
+                .description("Temps de construction d'un nouveau snapshot du catalogue")
+                .register(meterRegistry);
+        Gauge.builder("products.catalog_snapshot.products", this, service -> {
+                    CatalogSnapshot current = service.snapshot;
+                    return current != null ? current.size() : 0;
+                })
+                .description("Nombre de produits du catalogue en mémoire")
+                .register(meterRegistry);
+        Gauge.builder("products.catalog_snapshot.version", this, service -> {
+                    CatalogSnapshot current = service.snapshot;
+                    return current != null ? current.version() : 0;
+                })
+                .description("Position du flux de changements couverte par le catalogue en mémoire")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Snapshot courant du catalogue.
+     * @return le snapshot, ou null si le catalogue en mémoire est désactivé ou pas encore chargé
+     */
+    public CatalogSnapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * Charge tout le catalogue au démarrage. La position du flux est lue avant les produits :
+     * un changement commité pendant le chargement est rejoué par le rafraîchissement suivant.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long version = changeFeedService.currentCursor();
+        List<ProductResponseDTO> products = new ArrayList<>();
+        long lastId = 0;
+        List<ProductResponseDTO> batch;
+        do {
+            long after = lastId;
+            batch = transactionTemplate.execute(status -> productRepository
+                    .findByIdGreaterThanOrderByIdAsc(after, Limit.of(LOAD_BATCH_SIZE)).stream()
+                    .map(productMapper::toDTO)
+                    .toList());
+            products.addAll(batch);
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        snapshot = CatalogSnapshot.of(version, products);
+        log.info("Catalogue en mémoire chargé: {} produits (version {}) en {} ms",
+                products.size(), version, System.currentTimeMillis() - start);
+        refresh();
+    }
+
+    /**
+     * Demande un rafraîchissement après le commit, sans l'attendre : les demandes arrivées
+     * avant que le thread d'arrière-plan ne commence sont regroupées en un seul. Un échec est
+     * rattrapé par le rafraîchissement périodique.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (snapshot == null || !refreshPending.compareAndSet(false, true)) {
+            return;
+        }
+        refresher.execute(() -> {
+            refreshPending.set(false);
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                log.warn("Catalogue en mémoire: changements non appliqués, rattrapage au prochain rafraîchissement", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Applique les changements commités depuis la version du snapshot courant.
+     */
+    @Scheduled(fixedDelayString = "${products.catalog-snapshot.refresh-interval-ms:5000}")
+    public synchronized void refresh() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        CatalogSnapshot next;
+        try {
+            next = refreshTimer.record(() -> transactionTemplate.execute(status -> catchUp(current)));
+        } catch (ChangeFeedCursorExpiredException e) {
+            log.warn("Catalogue en mémoire: version {} sortie du flux de changements, rechargement complet",
+                    current.version());
+            load();
+            return;
+        }
+        if (next != current) {
+            snapshot = next;
+            log.debug("Catalogue en mémoire: version {} -> {}", current.version(), next.version());
+        }
+    }
+
+    private CatalogSnapshot catchUp(CatalogSnapshot current) {
+        CatalogSnapshot next = current;
+        ChangedProducts changes;
+        do {
+            changes = changeFeedService.changedProducts(next.version(), CHANGES_BATCH_SIZE);
+            if (changes.productIds().isEmpty()) {
+                break;
+            }
+            List<ProductResponseDTO> products = productRepository.findAllById(changes.productIds()).stream()
+                    .map(productMapper::toDTO)
+                    .toList();
+            Set<Long> removed = new HashSet<>(changes.productIds());
+            products.forEach(product -> removed.remove(product.getId()));
+            next = next.apply(changes.cursor(), products, removed);
+        } while (changes.hasMore());
+        return next;
+    }
+}
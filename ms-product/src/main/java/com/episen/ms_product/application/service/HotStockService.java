@@ -0,0 +1,559 @@
+package com.episen.ms_product.application.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.episen.ms_product.application.dto.HotStockDTO;
+import com.episen.ms_product.application.dto.ProductResponseDTO;
+import com.episen.ms_product.application.event.ProductChangedEvent;
+import com.episen.ms_product.application.event.ProductChangedEvent.ChangeType;
+import com.episen.ms_product.application.event.StockMovedEvent;
+import com.episen.ms_product.application.event.StockMovedEvent.Movement;
+import com.episen.ms_product.domain.enumerate.StockMovementReason;
+import com.episen.ms_product.infrastructure.exception.ResourceNotFoundException;
+import com.episen.ms_product.infrastructure.wal.StockWriteAheadLog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mode "vente flash" : stock des produits chauds tenu en mémoire.
+ *
+ * <p>Pour un produit signalé comme chaud (table {@code hot_sku}), le stock fait foi dans un
+ * compteur en mémoire : chaque variation est une comparaison-échange (CAS) sur un niveau
+ * immuable {@code (version, stock)}, journalisée dans le {@link StockWriteAheadLog}. Les
+ * réservations concurrentes ne se disputent plus le verrou de la ligne {@code product}, ni
+ * un verrou du journal : leurs enregistrements sont écrits par lots par l'unique rédacteur du
+ * journal (validation groupée). Une variation n'est acquittée qu'une fois son lot écrit, et
+ * forcé sur disque si {@code products.hot-stock.wal-fsync} (voir la fenêtre de durabilité
+ * décrite dans {@link StockWriteAheadLog}).</p>
+ *
+ * <p>Toutes les {@code products.hot-stock.flush-interval-ms}, le journal change de segment,
+ * les compteurs modifiés sont écrits par lot dans {@code product.stock}, un point de contrôle
+ * de chaque compteur est journalisé, puis les segments précédents sont supprimés.</p>
+ *
+ * <p>Le journal porte aussi l'ensemble des produits chauds : la sortie du mode vente flash y
+ * est inscrite ({@link StockWriteAheadLog#appendReleased}), si bien que la table
+ * {@code hot_sku}, perdue au redémarrage d'une base en mémoire, n'est pas nécessaire à la
+ * reprise. Au démarrage, le niveau de plus haute version de chaque produit encore chaud dans
+ * le journal est réécrit en base, complété par les produits de {@code hot_sku} absents du
+ * journal ; les segments relus ne sont supprimés qu'une fois cette reprise validée et les
+ * niveaux rejournalisés. Les versions d'un produit ne repartent jamais en arrière, y compris
+ * lorsqu'il repasse en mode vente flash.</p>
+ *
+ * <p>Les variations commitées sont transmises au journal des mouvements
+ * ({@link InventoryLedgerService}) à chaque écriture périodique, agrégées par produit et par
+ * motif ({@link #recordMovements}) : le chemin de réservation n'écrit rien d'autre que le
+ * compteur et le WAL. Les références (commandes) de ces variations ne sont pas journalisées.</p>
+ *
+ * <p><b>Métriques Prometheus :</b></p>
+ * <ul>
+ * <li>products.hot_stock.operations - Variations en mémoire (tag result=applied|insufficient)</li>
+ * <li>products.hot_stock.flush - Durée d'une écriture des compteurs en base</li>
+ * <li>products.hot_stock.skus - Nombre de produits en mode vente flash</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class HotStockService {
+
+    private static final String UPDATE_STOCK_SQL =
+            "UPDATE product SET stock = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+    private static final String COMPENSATE_STOCK_SQL = "UPDATE product SET stock = stock + ?, "
+            + "updated_at = CURRENT_TIMESTAMP WHERE id = ? AND stock + ? >= 0";
+    private static final String MERGE_HOT_SKU_SQL = "MERGE INTO hot_sku (product_id) KEY (product_id) VALUES (?)";
+
+    /**
+     * Résultat d'une tentative de variation en mémoire.
+     */
+    public enum AdjustResult {
+        APPLIED,
+        INSUFFICIENT,
+        /** Le produit n'est pas (ou plus) en mode vente flash : passer par la base. */
+        NOT_HOT
+    }
+
+    /** Niveau immuable d'un compteur. */
+    private record Level(long version, int stock) {
+    }
+
+    private record MovementKey(long productId, StockMovementReason reason) {
+    }
+
+    /**
+     * Variations commitées d'un produit pour un motif : total en mémoire, et part déjà
+     * publiée au journal (lue et modifiée seulement sous le moniteur du service).
+     */
+    private static final class MovementTotal {
+        private final LongAdder delta = new LongAdder();
+        private long journaled;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    /** Compensations en base : commitées même si la transaction appelante est annulée. */
+    private final TransactionTemplate compensationTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Path walDirectory;
+    private final boolean walFsync;
+
+    /** Compteurs par produit ; un niveau null signale un compteur en cours de retrait. */
+    private final Map<Long, AtomicReference<Level>> counters = new ConcurrentHashMap<>();
+    /** Dernière version écrite en base, par produit (accès sous le moniteur du service). */
+    private final Map<Long, Long> flushedVersions = new HashMap<>();
+    /** Version de sortie des produits sortis du mode vente flash (accès sous le moniteur du service). */
+    private final Map<Long, Long> releasedVersions = new HashMap<>();
+    /** Variations commitées en attente de publication au journal des mouvements. */
+    private final Map<MovementKey, MovementTotal> movements = new ConcurrentHashMap<>();
+    private StockWriteAheadLog wal;
+
+    private final Counter applied;
+    private final Counter insufficient;
+    private final Timer flushTimer;
+
+    public HotStockService(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${products.hot-stock.wal-dir:data/hot-stock-wal}") String walDirectory,
+            @Value("${products.hot-stock.wal-fsync:true}") boolean walFsync) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.compensationTemplate = new TransactionTemplate(transactionManager);
+        this.compensationTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+        this.walDirectory = Path.of(walDirectory);
+        this.walFsync = walFsync;
+
+        this.applied = Counter.builder("products.hot_stock.operations")
+                .description("Variations de stock traitées en mémoire")
+                .tag("result", "applied")
+                .register(meterRegistry);
+        this.insufficient = Counter.builder("products.hot_stock.operations")
+                .description("Variations de stock traitées en mémoire")
+                .tag("result", "insufficient")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("products.hot_stock.flush")
+                .description("Durée d'écriture des compteurs en mémoire vers la base")
+                .register(meterRegistry);
+        Gauge.builder("products.hot_stock.skus", counters, Map::size)
+                .description("Nombre de produits en mode vente flash")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ouvre le journal, réécrit en base les niveaux journalisés des produits chauds,
+     * puis charge les compteurs. En cas d'échec, le démarrage est interrompu et les
+     * segments sont conservés pour la reprise suivante.
+     */
+    @PostConstruct
+    synchronized void recover() throws IOException {
+        wal = new StockWriteAheadLog(walDirectory, walFsync);
+
+        Map<Long, Level> levels = new TreeMap<>();
+        wal.recover().forEach((productId, entry) -> {
+            if (entry.released()) {
+                releasedVersions.put(productId, entry.version());
+            } else {
+                levels.put(productId, new Level(entry.version(), entry.stock()));
+            }
+        });
+        int journaled = levels.size();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            replay(levels);
+            jdbcTemplate.query("SELECT h.product_id, p.stock FROM hot_sku h JOIN product p ON p.id = h.product_id",
+                    rs -> {
+                        long productId = rs.getLong(1);
+                        levels.putIfAbsent(productId, new Level(nextVersion(productId), rs.getInt(2)));
+                    });
+        });
+
+        levels.forEach((productId, level) -> {
+            counters.put(productId, new AtomicReference<>(level));
+            flushedVersions.put(productId, level.version());
+        });
+        wal.appendAll(entries(levels));
+        wal.sync();
+        wal.deleteSegmentsUpTo(wal.currentSegment() - 1);
+        if (journaled > 0) {
+            log.warn("Vente flash: {} niveaux de stock rejoués depuis le journal", journaled);
+        }
+        log.info("Vente flash: {} produits chargés en mémoire", counters.size());
+    }
+
+    /**
+     * Réécrit en base le stock des produits journalisés et les réinscrit dans {@code hot_sku}.
+     * Un produit qui n'existe plus est retiré des niveaux à charger.
+     */
+    private void replay(Map<Long, Level> levels) {
+        if (levels.isEmpty()) {
+            return;
+        }
+        List<Long> productIds = new ArrayList<>(levels.keySet());
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_STOCK_SQL, productIds.stream()
+                .map(productId -> new Object[] { levels.get(productId).stock(), productId })
+                .toList());
+        for (int i = 0; i < productIds.size(); i++) {
+            Long productId = productIds.get(i);
+            if (updated[i] == 0) {
+                log.warn("Vente flash: produit {} du journal introuvable, ignoré", productId);
+                levels.remove(productId);
+            } else {
+                jdbcTemplate.update(MERGE_HOT_SKU_SQL, productId);
+            }
+        }
+    }
+
+    /**
+     * Première version d'un compteur : après la dernière version journalisée du produit.
+     */
+    private long nextVersion(Long productId) {
+        Long released = releasedVersions.get(productId);
+        return released != null ? released + 1 : 0;
+    }
+
+    public boolean isHot(Long productId) {
+        return counters.containsKey(productId);
+    }
+
+    /**
+     * Stock courant d'un produit en mode vente flash (vide sinon).
+     */
+    public Optional<Integer> currentStock(Long productId) {
+        AtomicReference<Level> counter = counters.get(productId);
+        Level level = counter != null ? counter.get() : null;
+        return level == null ? Optional.empty() : Optional.of(level.stock());
+    }
+
+    /**
+     * Remplace le stock d'un DTO par le compteur en mémoire si le produit est chaud.
+     * Le DTO reçu (éventuellement partagé par le cache) n'est jamais modifié.
+     */
+    public ProductResponseDTO overlay(ProductResponseDTO product) {
+        return currentStock(product.getId())
+                .map(stock -> product.toBuilder().stock(stock).build())
+                .orElse(product);
+    }
+
+    /**
+     * Applique une variation au compteur d'un produit chaud, sans verrou.
+     * @param productId identifiant du produit
+     * @param delta variation (négative pour une réservation)
+     * @return le résultat de la tentative
+     */
+    public AdjustResult tryAdjust(Long productId, int delta) {
+        AtomicReference<Level> counter = counters.get(productId);
+        if (counter == null) {
+            return AdjustResult.NOT_HOT;
+        }
+        while (true) {
+            Level current = counter.get();
+            if (current == null) {
+                return AdjustResult.NOT_HOT;
+            }
+            int next = current.stock() + delta;
+            if (next < 0) {
+                insufficient.increment();
+                return AdjustResult.INSUFFICIENT;
+            }
+            Level updated = new Level(current.version() + 1, next);
+            if (counter.compareAndSet(current, updated)) {
+                wal.append(productId, updated.version(), next);
+                applied.increment();
+                return AdjustResult.APPLIED;
+            }
+        }
+    }
+
+    /**
+     * Annule des variations appliquées en mémoire (transaction appelante annulée). Un produit
+     * sorti du mode vente flash entre-temps a emporté la variation dans {@code product.stock} :
+     * elle y est annulée, dans une transaction propre.
+     * @param deltas variations appliquées, par produit
+     */
+    public void compensate(Map<Long, Integer> deltas) {
+        deltas.forEach((productId, delta) -> {
+            AdjustResult result = tryAdjust(productId, -delta);
+            if (result == AdjustResult.NOT_HOT) {
+                compensateInDatabase(productId, -delta);
+            } else if (result != AdjustResult.APPLIED) {
+                log.error("Vente flash: compensation impossible pour le produit {} (variation {})",
+                        productId, -delta);
+            }
+        });
+    }
+
+    /**
+     * Annule une variation dans {@code product.stock}. La sortie du mode vente flash verrouille
+     * la ligne avant de figer le compteur : cette mise à jour s'applique après l'écriture du
+     * stock final.
+     */
+    private void compensateInDatabase(Long productId, int delta) {
+        try {
+            Integer updated = compensationTemplate.execute(status ->
+                    jdbcTemplate.update(COMPENSATE_STOCK_SQL, delta, productId, delta));
+            if (updated == null || updated == 0) {
+                log.error("Vente flash: compensation impossible en base pour le produit {} (variation {})",
+                        productId, delta);
+                return;
+            }
+            log.warn("Vente flash: produit {} sorti du mode entre-temps, variation {} compensée en base",
+                    productId, delta);
+            eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.STOCK, productId));
+        } catch (RuntimeException e) {
+            log.error("Vente flash: échec de la compensation en base du produit {} (variation {}): {}",
+                    productId, delta, e.getMessage());
+        }
+    }
+
+    /**
+     * Comptabilise des variations commitées pour le journal des mouvements, sans verrou.
+     * Elles sont publiées agrégées par produit et par motif à l'écriture périodique suivante.
+     * @param deltas variations appliquées en mémoire, par produit
+     * @param reason origine des variations
+     */
+    public void recordMovements(Map<Long, Integer> deltas, StockMovementReason reason) {
+        deltas.forEach((productId, delta) -> {
+            MovementKey key = new MovementKey(productId, reason);
+            MovementTotal total = movements.get(key);
+            if (total == null) {
+                total = movements.computeIfAbsent(key, k -> new MovementTotal());
+            }
+            total.delta.add(delta);
+        });
+    }
+
+    /**
+     * Remplace le stock d'un produit chaud (mise à jour en masse).
+     * @return le stock remplacé, vide si le produit n'est pas en mode vente flash
+     */
+    public Optional<Integer> set(Long productId, int stock) {
+        AtomicReference<Level> counter = counters.get(productId);
+        if (counter == null) {
+            return Optional.empty();
+        }
+        while (true) {
+            Level current = counter.get();
+            if (current == null) {
+                return Optional.empty();
+            }
+            Level updated = new Level(current.version() + 1, stock);
+            if (counter.compareAndSet(current, updated)) {
+                wal.append(productId, updated.version(), stock);
+                return Optional.of(current.stock());
+            }
+        }
+    }
+
+    /**
+     * Passe un produit en mode vente flash. Le stock initial est lu sous verrou de ligne,
+     * après la fin des variations SQL en cours.
+     * @throws ResourceNotFoundException si le produit n'existe pas
+     */
+    public synchronized HotStockDTO enable(Long productId) {
+        if (!counters.containsKey(productId)) {
+            int stock = transactionTemplate.execute(status -> {
+                Integer current;
+                try {
+                    current = jdbcTemplate.queryForObject(
+                            "SELECT stock FROM product WHERE id = ? FOR UPDATE", Integer.class, productId);
+                } catch (EmptyResultDataAccessException e) {
+                    throw new ResourceNotFoundException("Produit", "id", productId);
+                }
+                jdbcTemplate.update(MERGE_HOT_SKU_SQL, productId);
+                return current;
+            });
+            long version = nextVersion(productId);
+            wal.append(productId, version, stock);
+            releasedVersions.remove(productId);
+            flushedVersions.put(productId, version);
+            counters.put(productId, new AtomicReference<>(new Level(version, stock)));
+            log.info("Produit {} passé en mode vente flash (stock {})", productId, stock);
+        }
+        return describe(productId);
+    }
+
+    /**
+     * Sort un produit du mode vente flash. La ligne {@code product} est verrouillée avant de
+     * figer le compteur : une variation SQL arrivant entre-temps attend l'écriture du stock final.
+     * La sortie est journalisée après le commit : si elle est perdue, le produit repasse
+     * simplement en mode vente flash à la reprise, avec son stock final.
+     * @return false si le produit n'était pas en mode vente flash
+     */
+    public synchronized boolean disable(Long productId) {
+        AtomicReference<Level> counter = counters.get(productId);
+        if (counter == null) {
+            return false;
+        }
+        Level last = transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT id FROM product WHERE id = ? FOR UPDATE", Long.class, productId);
+            Level frozen = counter.getAndSet(null);
+            try {
+                jdbcTemplate.update(UPDATE_STOCK_SQL, frozen.stock(), productId);
+                jdbcTemplate.update("DELETE FROM hot_sku WHERE product_id = ?", productId);
+            } catch (RuntimeException e) {
+                counter.set(frozen);
+                throw e;
+            }
+            return frozen;
+        });
+        counters.remove(productId);
+        flushedVersions.remove(productId);
+        long releasedVersion = last.version() + 1;
+        releasedVersions.put(productId, releasedVersion);
+        try {
+            wal.appendReleased(productId, releasedVersion);
+            wal.sync();
+        } catch (IOException | RuntimeException e) {
+            log.error("Vente flash: sortie du produit {} non journalisée: {}", productId, e.getMessage());
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.STOCK, productId));
+        log.info("Produit {} sorti du mode vente flash (stock final {})", productId, last.stock());
+        return true;
+    }
+
+    /**
+     * État des compteurs en mémoire, par ID croissant.
+     */
+    public synchronized List<HotStockDTO> list() {
+        return counters.keySet().stream().sorted().map(this::describe).toList();
+    }
+
+    /**
+     * Écrit en base les compteurs modifiés depuis le dernier passage, journalise un point de
+     * contrôle de chaque compteur puis supprime les segments précédents, et publie les
+     * variations commitées au journal des mouvements. En cas d'échec, les segments sont
+     * conservés et l'écriture est retentée au passage suivant.
+     */
+    @Scheduled(fixedDelayString = "${products.hot-stock.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (!counters.isEmpty()) {
+            flushTimer.record(this::writeCounters);
+        }
+        publishMovements();
+    }
+
+    private void writeCounters() {
+        try {
+            long closedSegment = wal.roll();
+
+            Map<Long, Level> snapshot = new HashMap<>();
+            counters.forEach((productId, counter) -> {
+                Level level = counter.get();
+                if (level != null) {
+                    snapshot.put(productId, level);
+                }
+            });
+
+            List<Object[]> updates = new ArrayList<>();
+            List<Long> changed = new ArrayList<>();
+            snapshot.forEach((productId, level) -> {
+                if (level.version() != flushedVersions.getOrDefault(productId, -1L)) {
+                    updates.add(new Object[] { level.stock(), productId });
+                    changed.add(productId);
+                }
+            });
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_STOCK_SQL, updates);
+            }
+
+            wal.appendAll(entries(snapshot));
+            snapshot.forEach((productId, level) -> flushedVersions.put(productId, level.version()));
+            wal.sync();
+            wal.deleteSegmentsUpTo(closedSegment);
+
+            if (!changed.isEmpty()) {
+                eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.STOCK, changed));
+                log.debug("Vente flash: stock de {} produits écrit en base", changed.size());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Vente flash: échec de l'écriture des compteurs, nouvel essai au prochain passage: {}",
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Publie au journal des mouvements les variations commitées depuis le passage précédent,
+     * une par produit et par motif, puis retire les totaux entièrement publiés.
+     */
+    private void publishMovements() {
+        List<Movement> pending = new ArrayList<>();
+        Map<MovementKey, Long> published = new HashMap<>();
+        movements.forEach((key, total) -> {
+            long delta = total.delta.sum() - total.journaled;
+            if (delta != 0) {
+                pending.add(new Movement(key.productId(), Math.toIntExact(delta), key.reason(), null));
+                published.put(key, delta);
+            }
+        });
+        if (!pending.isEmpty()) {
+            try {
+                eventPublisher.publishEvent(StockMovedEvent.of(pending));
+                published.forEach((key, delta) -> movements.get(key).journaled += delta);
+            } catch (RuntimeException e) {
+                log.error("Vente flash: échec de la publication des mouvements, nouvel essai au prochain passage: {}",
+                        e.getMessage());
+            }
+        }
+        movements.forEach((key, total) -> {
+            if (total.delta.sum() == total.journaled && movements.remove(key, total)) {
+                long late = total.delta.sum() - total.journaled;
+                if (late != 0) {
+                    movements.computeIfAbsent(key, k -> new MovementTotal()).delta.add(late);
+                }
+            }
+        });
+    }
+
+    /**
+     * Écrit les derniers compteurs en base et ferme le journal à l'arrêt.
+     */
+    @PreDestroy
+    synchronized void shutdown() throws IOException {
+        flush();
+        wal.close();
+    }
+
+    private static List<StockWriteAheadLog.Entry> entries(Map<Long, Level> levels) {
+        List<StockWriteAheadLog.Entry> entries = new ArrayList<>(levels.size());
+        levels.forEach((productId, level) ->
+                entries.add(new StockWriteAheadLog.Entry(productId, level.version(), level.stock())));
+        return entries;
+    }
+
+    private HotStockDTO describe(Long productId) {
+        AtomicReference<Level> counter = counters.get(productId);
+        Level level = counter != null ? counter.get() : null;
+        return HotStockDTO.builder()
+                .productId(productId)
+                .stock(level != null ? level.stock() : 0)
+                .version(level != null ? level.version() : 0)
+                .flushedVersion(flushedVersions.getOrDefault(productId, 0L))
+                .build();
+    }
+}
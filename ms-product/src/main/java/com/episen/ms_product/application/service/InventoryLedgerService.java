@@ -0,0 +1,349 @@
+package com.episen.ms_product.application.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.episen.ms_product.application.dto.InventoryLevelDTO;
+import com.episen.ms_product.application.dto.InventoryMovementDTO;
+import com.episen.ms_product.application.event.StockMovedEvent;
+import com.episen.ms_product.application.event.StockMovedEvent.Movement;
+import com.episen.ms_product.domain.enumerate.StockMovementReason;
+import com.episen.ms_product.infrastructure.exception.ResourceNotFoundException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Journal append-only des mouvements de stock (réservations et annulations de commande,
+ * ajustements manuels, imports, mises à jour en masse, réservations temporaires).
+ *
+ * <p>Les mouvements d'un {@link StockMovedEvent} sont mis en file après le commit de la
+ * transaction qui a modifié le stock (un mouvement annulé n'est donc jamais journalisé), puis
+ * écrits par un seul rédacteur toutes les {@code products.inventory.append-interval-ms}, par
+ * lots de {@value #APPEND_BATCH}, dans sa propre transaction courte. Le verrou de
+ * {@code inventory_movement_head} qui attribue les séquences n'est tenu que par ce rédacteur,
+ * le temps d'un lot : les transactions qui modifient le stock ne l'attendent jamais. Les
+ * séquences suivent l'ordre de mise en file, c'est-à-dire des commits, et l'horodatage est
+ * pris à la mise en file. Le journal a au plus un intervalle de retard sur le stock ; les
+ * lectures du journal écrivent d'abord la file. Un lot en échec est retenté au passage suivant.</p>
+ *
+ * <p>Les variations des produits en vente flash ne passent pas par ici une à une :
+ * {@link HotStockService} les agrège par produit et par motif et les publie à chaque écriture
+ * périodique de ses compteurs.</p>
+ *
+ * <p>Le stock d'un produit à un instant donné est reconstitué à partir du dernier snapshot
+ * antérieur ({@code inventory_snapshot}) et des seuls mouvements qui le suivent. Les
+ * snapshots sont calculés périodiquement, pour les produits ayant bougé depuis le passage
+ * précédent, à partir du snapshot précédent : le rejeu ne porte jamais sur plus d'un
+ * intervalle de mouvements par produit. Au démarrage, les produits sans mouvement (données
+ * antérieures au journal) reçoivent un mouvement d'ouverture égal à leur stock.</p>
+ *
+ * <p><b>Métriques Prometheus :</b></p>
+ * <ul>
+ * <li>products.inventory.movements - Mouvements journalisés (tag reason)</li>
+ * <li>products.inventory.pending - Mouvements en attente d'écriture</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class InventoryLedgerService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+    /** Nombre maximal de séquences agrégées par transaction de snapshot. */
+    private static final int SNAPSHOT_WINDOW = 50_000;
+    /** Nombre maximal de mouvements écrits par transaction du rédacteur. */
+    private static final int APPEND_BATCH = 1000;
+
+    private static final String NEXT_SEQ_SQL = "UPDATE inventory_movement_head SET seq = seq + ? WHERE id = 1";
+    private static final String HEAD_SQL = "SELECT seq FROM inventory_movement_head WHERE id = 1";
+    private static final String INSERT_SQL = "INSERT INTO inventory_movement "
+            + "(seq, product_id, delta, reason, reference, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SNAPSHOT_AT_SQL = "SELECT seq, stock FROM inventory_snapshot "
+            + "WHERE product_id = ? AND created_at <= ? ORDER BY seq DESC LIMIT 1";
+    private static final String TAIL_SQL = "SELECT COALESCE(SUM(delta), 0), COUNT(*), MAX(seq) FROM inventory_movement "
+            + "WHERE product_id = ? AND seq > ? AND created_at <= ?";
+    private static final String MOVEMENTS_SQL = "SELECT seq, product_id, delta, reason, reference, created_at "
+            + "FROM inventory_movement WHERE product_id = ? AND seq < ? ORDER BY seq DESC LIMIT ?";
+    private static final String SNAPSHOT_TAILS_SQL = "SELECT t.product_id, t.total, m.seq, m.created_at FROM "
+            + "(SELECT product_id, SUM(delta) total, MAX(seq) last_seq FROM inventory_movement "
+            + "WHERE seq > ? AND seq <= ? GROUP BY product_id) t "
+            + "JOIN inventory_movement m ON m.seq = t.last_seq";
+    private static final String LAST_SNAPSHOTS_SQL = "SELECT s.product_id, s.stock FROM inventory_snapshot s "
+            + "WHERE s.product_id IN (:ids) AND s.seq = "
+            + "(SELECT MAX(seq) FROM inventory_snapshot WHERE product_id = s.product_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final HotStockService hotStockService;
+    private final Map<StockMovementReason, Counter> movementCounters = new EnumMap<>(StockMovementReason.class);
+
+    /** Mouvement commité en attente d'écriture, horodaté à sa mise en file. */
+    private record PendingMovement(Movement movement, Timestamp createdAt) {
+    }
+
+    private final Queue<PendingMovement> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    /** Lot retiré de la file et pas encore écrit (accès sous le moniteur du service). */
+    private final List<PendingMovement> inflight = new ArrayList<>();
+
+    public InventoryLedgerService(JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            HotStockService hotStockService,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hotStockService = hotStockService;
+
+        for (StockMovementReason reason : StockMovementReason.values()) {
+            movementCounters.put(reason, Counter.builder("products.inventory.movements")
+                    .description("Mouvements inscrits au journal de stock")
+                    .tag("reason", reason.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("products.inventory.pending", pending, AtomicInteger::get)
+                .description("Mouvements de stock en attente d'écriture au journal")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Met en file les mouvements après le commit de la transaction qui les a produits
+     * (immédiatement pour une écriture hors transaction), sans accès base. Les variations
+     * nulles ne sont pas journalisées, sauf à la création d'un produit.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void record(StockMovedEvent event) {
+        List<Movement> movements = event.movements().stream()
+                .filter(movement -> movement.delta() != 0 || opensProduct(movement.reason()))
+                .toList();
+        if (movements.isEmpty()) {
+            return;
+        }
+        // Horodatage et ordre de file pris ensemble : created_at croît avec les séquences
+        synchronized (queue) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            movements.forEach(movement -> queue.add(new PendingMovement(movement, now)));
+        }
+        pending.addAndGet(movements.size());
+        movements.forEach(movement -> movementCounters.get(movement.reason()).increment());
+    }
+
+    /**
+     * Écrit les mouvements en file, par lots, dans des transactions courtes. En cas d'échec,
+     * le lot en cours est conservé et retenté au passage suivant, avant le reste de la file.
+     */
+    @Scheduled(fixedDelayString = "${products.inventory.append-interval-ms:200}")
+    public synchronized void flush() {
+        try {
+            while (true) {
+                PendingMovement next;
+                while (inflight.size() < APPEND_BATCH && (next = queue.poll()) != null) {
+                    inflight.add(next);
+                }
+                if (inflight.isEmpty()) {
+                    return;
+                }
+                transactionTemplate.executeWithoutResult(status -> append(inflight));
+                pending.addAndGet(-inflight.size());
+                inflight.clear();
+            }
+        } catch (RuntimeException e) {
+            log.error("Journal de stock: échec de l'écriture de {} mouvements, nouvel essai au prochain passage: {}",
+                    inflight.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Publie les derniers mouvements des produits en vente flash puis écrit la file à l'arrêt.
+     */
+    @PreDestroy
+    void shutdown() {
+        hotStockService.flush();
+        flush();
+    }
+
+    /**
+     * Ouvre le journal des produits qui n'y figurent pas encore (catalogue initial, données
+     * antérieures au journal) avec un mouvement égal à leur stock courant.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void openBalances() {
+        List<Movement> openings = new ArrayList<>();
+        jdbcTemplate.query("SELECT p.id, p.stock FROM product p WHERE NOT EXISTS "
+                + "(SELECT 1 FROM inventory_movement m WHERE m.product_id = p.id) ORDER BY p.id", rs -> {
+                    long productId = rs.getLong(1);
+                    int stock = hotStockService.currentStock(productId).orElse(rs.getInt(2));
+                    openings.add(new Movement(productId, stock, StockMovementReason.OPENING_BALANCE, null));
+                });
+        if (!openings.isEmpty()) {
+            record(StockMovedEvent.of(openings));
+            flush();
+            log.info("Journal de stock: {} produits ouverts avec leur stock courant", openings.size());
+        }
+    }
+
+    /**
+     * Calcule les snapshots des produits ayant bougé depuis le passage précédent, par
+     * fenêtres de séquences. Le verrou de {@code inventory_snapshot_head} empêche deux
+     * instances de calculer la même fenêtre.
+     */
+    @Scheduled(fixedDelayString = "${products.inventory.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        long movements = 0;
+        long window;
+        while ((window = transactionTemplate.execute(status -> snapshotWindow())) > 0) {
+            movements += window;
+        }
+        if (movements > 0) {
+            log.info("Journal de stock: {} mouvements agrégés en snapshots", movements);
+        }
+    }
+
+    /**
+     * Stock d'un produit reconstitué à partir du journal.
+     * @param productId identifiant du produit
+     * @param at instant demandé, ou null pour l'état courant (comparé au stock du produit)
+     * @throws ResourceNotFoundException si le produit n'existe pas
+     */
+    public InventoryLevelDTO stockAt(Long productId, LocalDateTime at) {
+        flush();
+        Integer currentStock = at == null ? currentStock(productId) : null;
+        if (at != null && !productExists(productId)) {
+            throw new ResourceNotFoundException("Produit", "id", productId);
+        }
+        Timestamp until = Timestamp.valueOf(at != null ? at : LocalDateTime.now());
+
+        long[] snapshot = jdbcTemplate.query(SNAPSHOT_AT_SQL,
+                rs -> rs.next() ? new long[] { rs.getLong(1), rs.getInt(2) } : new long[] { 0, 0 },
+                productId, until);
+        long snapshotSeq = snapshot[0];
+        return jdbcTemplate.queryForObject(TAIL_SQL, (rs, rowNum) -> {
+            long lastSeq = rs.getLong(3);
+            boolean replayed = !rs.wasNull();
+            return InventoryLevelDTO.builder()
+                    .productId(productId)
+                    .at(until.toLocalDateTime())
+                    .stock((int) (snapshot[1] + rs.getLong(1)))
+                    .seq(replayed ? lastSeq : snapshotSeq)
+                    .snapshotSeq(snapshotSeq)
+                    .replayedMovements(rs.getInt(2))
+                    .currentStock(currentStock)
+                    .build();
+        }, productId, snapshotSeq, until);
+    }
+
+    /**
+     * Mouvements d'un produit, du plus récent au plus ancien.
+     * @param beforeSeq séquence à partir de laquelle lire (exclue), ou null pour les plus récents
+     * @param limit nombre maximal de mouvements (max 500)
+     * @throws ResourceNotFoundException si le produit n'existe pas
+     */
+    public List<InventoryMovementDTO> movements(Long productId, Long beforeSeq, int limit) {
+        flush();
+        if (!productExists(productId)) {
+            throw new ResourceNotFoundException("Produit", "id", productId);
+        }
+        return jdbcTemplate.query(MOVEMENTS_SQL, (rs, rowNum) -> InventoryMovementDTO.builder()
+                .seq(rs.getLong(1))
+                .productId(rs.getLong(2))
+                .delta(rs.getInt(3))
+                .reason(StockMovementReason.fromCode(rs.getShort(4)))
+                .reference(rs.getString(5))
+                .createdAt(rs.getTimestamp(6).toLocalDateTime())
+                .build(),
+                productId, beforeSeq != null ? beforeSeq : Long.MAX_VALUE, Math.clamp(limit, 1, MAX_PAGE_SIZE));
+    }
+
+    private void append(List<PendingMovement> movements) {
+        jdbcTemplate.update(NEXT_SEQ_SQL, movements.size());
+        long last = jdbcTemplate.queryForObject(HEAD_SQL, Long.class);
+        long first = last - movements.size() + 1;
+        List<Object[]> rows = new ArrayList<>(movements.size());
+        for (int i = 0; i < movements.size(); i++) {
+            Movement movement = movements.get(i).movement();
+            rows.add(new Object[] { first + i, movement.productId(), movement.delta(),
+                    movement.reason().getCode(), movement.reference(), movements.get(i).createdAt() });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * Agrège la fenêtre suivante de mouvements commités en un snapshot par produit.
+     * @return le nombre de mouvements agrégés (0 si le journal est entièrement couvert)
+     */
+    private long snapshotWindow() {
+        long from = jdbcTemplate.queryForObject("SELECT seq FROM inventory_snapshot_head WHERE id = 1 FOR UPDATE",
+                Long.class);
+        // Une séquence visible en tête est commitée, ainsi que toutes les précédentes
+        long head = jdbcTemplate.queryForObject(HEAD_SQL, Long.class);
+        long to = Math.min(head, from + SNAPSHOT_WINDOW);
+        if (to <= from) {
+            return 0;
+        }
+
+        List<Object[]> tails = jdbcTemplate.query(SNAPSHOT_TAILS_SQL, (rs, rowNum) -> new Object[] {
+                rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getTimestamp(4) }, from, to);
+        Map<Long, Integer> previous = new HashMap<>();
+        List<Long> ids = tails.stream().map(tail -> (Long) tail[0]).toList();
+        for (int i = 0; i < ids.size(); i += 1000) {
+            namedJdbcTemplate.query(LAST_SNAPSHOTS_SQL, Map.of("ids", ids.subList(i, Math.min(i + 1000, ids.size()))),
+                    rs -> {
+                        previous.put(rs.getLong(1), rs.getInt(2));
+                    });
+        }
+
+        List<Object[]> rows = new ArrayList<>(tails.size());
+        for (Object[] tail : tails) {
+            long stock = previous.getOrDefault((Long) tail[0], 0) + (Long) tail[1];
+            rows.add(new Object[] { tail[0], tail[2], (int) stock, tail[3] });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO inventory_snapshot (product_id, seq, stock, created_at) "
+                + "VALUES (?, ?, ?, ?)", rows);
+        jdbcTemplate.update("UPDATE inventory_snapshot_head SET seq = ? WHERE id = 1", to);
+        return to - from;
+    }
+
+    private Integer currentStock(Long productId) {
+        try {
+            int stock = jdbcTemplate.queryForObject("SELECT stock FROM product WHERE id = ?", Integer.class, productId);
+            return hotStockService.currentStock(productId).orElse(stock);
+        } catch (EmptyResultDataAccessException e) {
+            throw new ResourceNotFoundException("Produit", "id", productId);
+        }
+    }
+
+    private boolean productExists(Long productId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM product WHERE id = ?)", Boolean.class, productId));
+    }
+
+    private static boolean opensProduct(StockMovementReason reason) {
+        return reason == StockMovementReason.CREATION || reason == StockMovementReason.IMPORT
+                || reason == StockMovementReason.OPENING_BALANCE;
+    }
+}
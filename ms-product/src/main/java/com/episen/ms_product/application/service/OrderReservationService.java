@@ -0,0 +1,106 @@
+package com.episen.ms_product.application.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.episen.ms_product.domain.enumerate.StockMovementReason;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Idempotence des réservations de stock des commandes ({@code ORDER_RESERVE} / {@code ORDER_CANCEL}
+ * avec une référence), pour {@link ProductService#adjustStock}.
+ *
+ * <p>ms-order ne sait pas si une réservation interrompue (timeout, coupure) a été appliquée : il
+ * la compense en envoyant la restauration de la même référence. Chaque référence a donc une ligne
+ * dans {@code order_reservation}, écrite dans la transaction de l'ajustement :</p>
+ * <ul>
+ * <li>une réservation crée la ligne RESERVED ; si elle existe déjà (nouvel essai, ou restauration
+ * arrivée avant elle), la réservation n'est pas réappliquée ;</li>
+ * <li>une restauration passe la ligne RESERVED à RELEASED ; sans ligne RESERVED (réservation jamais
+ * appliquée, ou déjà restaurée), rien n'est restitué et une ligne RELEASED est créée, qui écarte
+ * une réservation retardée arrivant après.</li>
+ * </ul>
+ *
+ * <p>Les lignes RELEASED sont purgées après {@code products.order-reservations.retention} ; les
+ * lignes RESERVED sont conservées tant qu'une annulation reste possible.</p>
+ */
+@Slf4j
+@Service
+public class OrderReservationService {
+
+    /**
+     * Insertion conditionnelle (MERGE standard, H2 et PostgreSQL 15+) : une référence déjà présente
+     * donne 0 ligne modifiée au lieu d'une violation de clé, qui annulerait la transaction de
+     * l'ajustement sur PostgreSQL.
+     */
+    private static final String INSERT_IF_ABSENT_SQL = "MERGE INTO order_reservation r "
+            + "USING (VALUES (CAST(? AS VARCHAR(64)), CAST(? AS VARCHAR(10)))) AS s (reference, status) "
+            + "ON r.reference = s.reference "
+            + "WHEN NOT MATCHED THEN INSERT (reference, status) VALUES (s.reference, s.status)";
+    private static final String RELEASE_SQL = "UPDATE order_reservation SET status = 'RELEASED', "
+            + "updated_at = CURRENT_TIMESTAMP WHERE reference = ? AND status = 'RESERVED'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration retention;
+
+    public OrderReservationService(JdbcTemplate jdbcTemplate,
+            @Value("${products.order-reservations.retention:30d}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retention = retention;
+    }
+
+    /**
+     * Enregistre la référence d'un ajustement de stock, dans la transaction de cet ajustement.
+     * @param reason origine de l'ajustement
+     * @param reference référence de la commande (null pour un ajustement non idempotent)
+     * @return true si les variations doivent être appliquées, false si la référence a déjà été traitée
+     */
+    public boolean claim(StockMovementReason reason, String reference) {
+        if (reference == null) {
+            return true;
+        }
+        if (reason == StockMovementReason.ORDER_RESERVE) {
+            if (insert(reference, "RESERVED")) {
+                return true;
+            }
+            log.info("Réservation {} déjà traitée, non réappliquée", reference);
+            return false;
+        }
+        if (reason == StockMovementReason.ORDER_CANCEL) {
+            if (jdbcTemplate.update(RELEASE_SQL, reference) == 1) {
+                return true;
+            }
+            if (insert(reference, "RELEASED")) {
+                log.info("Restauration {} sans réservation appliquée : rien à restituer", reference);
+            } else {
+                log.info("Réservation {} déjà restaurée, non réappliquée", reference);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Supprime les références restaurées depuis plus de {@code products.order-reservations.retention}.
+     */
+    @Scheduled(fixedDelayString = "${products.order-reservations.purge-interval-ms:3600000}")
+    public void purge() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        int removed = jdbcTemplate.update("DELETE FROM order_reservation WHERE status = 'RELEASED' AND updated_at < ?",
+                cutoff);
+        if (removed > 0) {
+            log.info("Réservations de commandes: {} références restaurées de plus de {} purgées", removed, retention);
+        }
+    }
+
+    private boolean insert(String reference, String status) {
+        return jdbcTemplate.update(INSERT_IF_ABSENT_SQL, reference, status) == 1;
+    }
+}
@@ -0,0 +1,267 @@
+package com.episen.ms_product.application.service;
+
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.episen.ms_product.application.dto.ProductBulkUpdateDTO;
+import com.episen.ms_product.application.dto.ProductBulkUpdateResultDTO;
+import com.episen.ms_product.application.event.ProductChangedEvent;
+import com.episen.ms_product.application.event.ProductChangedEvent.ChangeType;
+import com.episen.ms_product.application.event.StockMovedEvent;
+import com.episen.ms_product.application.event.StockMovedEvent.Movement;
+import com.episen.ms_product.domain.enumerate.StockMovementReason;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mise à jour en masse des prix et des stocks (synchronisation ERP).
+ *
+ * <p>Les lignes sont regroupées par forme (prix et stock, prix seul, stock seul) et
+ * appliquées par lots JDBC d'{@code UPDATE} ne touchant que les colonnes envoyées, sans
+ * chargement des entités. La condition {@code <>} sur les valeurs envoyées évite d'écrire
+ * (et d'invalider) les produits déjà à jour, cas le plus fréquent d'une synchronisation
+ * nocturne. Chaque lot de {@code products.bulk-update.batch-size} produits est appliqué
+ * dans sa propre transaction, par ID croissant, et publie un seul {@link ProductChangedEvent}
+ * par type de changement (caches, index de recherche). Un changement de prix incrémente la
+ * version du produit (verrouillage optimiste), pas un changement de stock.</p>
+ *
+ * <p>Le stock des produits en mode vente flash est appliqué au compteur en mémoire
+ * ({@link HotStockService}) après validation du lot.</p>
+ *
+ * <p>Les nouveaux stocks sont inscrits au journal des mouvements comme des variations
+ * (nouveau stock moins stock remplacé) : les stocks remplacés sont lus sous verrou de ligne
+ * dans la transaction du lot.</p>
+ *
+ * <p><b>Métriques Prometheus :</b></p>
+ * <ul>
+ * <li>products.bulk_update.rows - Lignes traitées (tag result=updated|unchanged|not_found)</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class ProductBulkUpdateService {
+
+    private static final String UPDATE_PRICE_AND_STOCK_SQL = "UPDATE product SET "
+            + "version = CASE WHEN price <> ? THEN version + 1 ELSE version END, price = ?, stock = ?, "
+            + "updated_at = CURRENT_TIMESTAMP WHERE id = ? AND (price <> ? OR stock <> ?)";
+    private static final String UPDATE_PRICE_SQL = "UPDATE product SET price = ?, version = version + 1, "
+            + "updated_at = CURRENT_TIMESTAMP WHERE id = ? AND price <> ?";
+    private static final String UPDATE_STOCK_SQL = "UPDATE product SET stock = ?, "
+            + "updated_at = CURRENT_TIMESTAMP WHERE id = ? AND stock <> ?";
+    private static final String LOCK_STOCK_SQL = "SELECT id, stock FROM product WHERE id IN (:ids) FOR UPDATE";
+
+    /** Bilan d'un lot. */
+    private record BatchResult(Set<Long> updated, Set<Long> unchanged, List<Long> notFound) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HotStockService hotStockService;
+    private final int batchSize;
+
+    private final Counter updatedRows;
+    private final Counter unchangedRows;
+    private final Counter notFoundRows;
+
+    public ProductBulkUpdateService(JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            HotStockService hotStockService,
+            MeterRegistry meterRegistry,
+            @Value("${products.bulk-update.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.hotStockService = hotStockService;
+        this.batchSize = Math.max(1, batchSize);
+
+        this.updatedRows = rowCounter(meterRegistry, "updated");
+        this.unchangedRows = rowCounter(meterRegistry, "unchanged");
+        this.notFoundRows = rowCounter(meterRegistry, "not_found");
+    }
+
+    /**
+     * Applique les nouveaux prix et stocks. Pour un même ID envoyé plusieurs fois,
+     * la dernière valeur de chaque champ l'emporte.
+     * @param items lignes (id, prix?, stock?)
+     * @return le bilan de la mise à jour
+     * @throws IllegalArgumentException si une ligne ne contient ni prix ni stock
+     */
+    public ProductBulkUpdateResultDTO bulkUpdate(List<ProductBulkUpdateDTO> items) {
+        long start = System.currentTimeMillis();
+        Map<Long, ProductBulkUpdateDTO> byId = new TreeMap<>();
+        for (ProductBulkUpdateDTO item : items) {
+            if (item.getPrice() == null && item.getStock() == null) {
+                throw new IllegalArgumentException("Aucun prix ni stock fourni pour le produit " + item.getId());
+            }
+            byId.merge(item.getId(), item, (previous, next) -> new ProductBulkUpdateDTO(next.getId(),
+                    next.getPrice() != null ? next.getPrice() : previous.getPrice(),
+                    next.getStock() != null ? next.getStock() : previous.getStock()));
+        }
+
+        int updated = 0;
+        int unchanged = 0;
+        List<Long> notFound = new ArrayList<>();
+        List<ProductBulkUpdateDTO> all = new ArrayList<>(byId.values());
+        for (int from = 0; from < all.size(); from += batchSize) {
+            List<ProductBulkUpdateDTO> batch = all.subList(from, Math.min(from + batchSize, all.size()));
+            BatchResult result = applyBatch(batch);
+            updated += result.updated().size();
+            unchanged += result.unchanged().size();
+            notFound.addAll(result.notFound());
+        }
+
+        updatedRows.increment(updated);
+        unchangedRows.increment(unchanged);
+        notFoundRows.increment(notFound.size());
+        long duration = System.currentTimeMillis() - start;
+        log.info("Mise à jour en masse: {} produits reçus, {} modifiés, {} inchangés, {} inconnus en {} ms",
+                byId.size(), updated, unchanged, notFound.size(), duration);
+
+        return ProductBulkUpdateResultDTO.builder()
+                .received(byId.size())
+                .updated(updated)
+                .unchanged(unchanged)
+                .notFound(notFound)
+                .durationMs(duration)
+                .build();
+    }
+
+    private BatchResult applyBatch(List<ProductBulkUpdateDTO> batch) {
+        List<Object[]> priceAndStock = new ArrayList<>();
+        List<Long> priceAndStockIds = new ArrayList<>();
+        List<Object[]> priceOnly = new ArrayList<>();
+        List<Long> priceOnlyIds = new ArrayList<>();
+        List<Object[]> stockOnly = new ArrayList<>();
+        List<Long> stockOnlyIds = new ArrayList<>();
+        Map<Long, Integer> hotStocks = new TreeMap<>();
+        Map<Long, Integer> coldStocks = new TreeMap<>();
+
+        for (ProductBulkUpdateDTO item : batch) {
+            Integer stock = item.getStock();
+            if (stock != null && hotStockService.isHot(item.getId())) {
+                hotStocks.put(item.getId(), stock);
+                stock = null;
+            }
+            if (stock != null) {
+                coldStocks.put(item.getId(), stock);
+            }
+            BigDecimal price = item.getPrice();
+            if (price != null && stock != null) {
+                priceAndStock.add(new Object[] { price, price, stock, item.getId(), price, stock });
+                priceAndStockIds.add(item.getId());
+            } else if (price != null) {
+                priceOnly.add(new Object[] { price, item.getId(), price });
+                priceOnlyIds.add(item.getId());
+            } else if (stock != null) {
+                stockOnly.add(new Object[] { stock, item.getId(), stock });
+                stockOnlyIds.add(item.getId());
+            }
+        }
+
+        BatchResult result = transactionTemplate.execute(status -> {
+            List<Long> priceChanged = new ArrayList<>();
+            List<Long> stockChanged = new ArrayList<>();
+            List<Long> untouched = new ArrayList<>();
+            Map<Long, Integer> previousStocks = lockStocks(coldStocks.keySet());
+            apply(UPDATE_PRICE_AND_STOCK_SQL, priceAndStock, priceAndStockIds, priceChanged, untouched);
+            apply(UPDATE_PRICE_SQL, priceOnly, priceOnlyIds, priceChanged, untouched);
+            apply(UPDATE_STOCK_SQL, stockOnly, stockOnlyIds, stockChanged, untouched);
+
+            // Une ligne non modifiée est soit déjà à jour, soit inconnue
+            Set<Long> existing = untouched.isEmpty() ? Set.of() : new HashSet<>(namedJdbcTemplate.queryForList(
+                    "SELECT id FROM product WHERE id IN (:ids)", Map.of("ids", untouched), Long.class));
+            List<Long> missing = untouched.stream().filter(id -> !existing.contains(id)).toList();
+            Set<Long> upToDate = new HashSet<>(untouched);
+            missing.forEach(upToDate::remove);
+
+            if (!priceChanged.isEmpty()) {
+                eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.UPDATED, priceChanged));
+            }
+            if (!stockChanged.isEmpty()) {
+                eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.STOCK, stockChanged));
+            }
+            eventPublisher.publishEvent(StockMovedEvent.of(previousStocks.entrySet().stream()
+                    .map(entry -> new Movement(entry.getKey(), coldStocks.get(entry.getKey()) - entry.getValue(),
+                            StockMovementReason.BULK_UPDATE, null))
+                    .toList()));
+            Set<Long> changed = new HashSet<>(priceChanged);
+            changed.addAll(stockChanged);
+            return new BatchResult(changed, upToDate, missing);
+        });
+
+        List<Movement> hotMovements = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : hotStocks.entrySet()) {
+            Long id = entry.getKey();
+            int stock = entry.getValue();
+            hotStockService.set(id, stock).ifPresentOrElse(
+                    previous -> hotMovements.add(new Movement(id, stock - previous, StockMovementReason.BULK_UPDATE, null)),
+                    // Sorti du mode vente flash entre-temps : le stock est de nouveau en base
+                    () -> transactionTemplate.executeWithoutResult(status -> {
+                        lockStocks(Set.of(id)).forEach((productId, previous) -> eventPublisher.publishEvent(
+                                StockMovedEvent.of(productId, stock - previous, StockMovementReason.BULK_UPDATE, null)));
+                        jdbcTemplate.update(UPDATE_STOCK_SQL, stock, id, stock);
+                        eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.STOCK, id));
+                    }));
+            result.updated().add(id);
+            result.unchanged().remove(id);
+        }
+        // Hors transaction : inscrit au journal dans une transaction dédiée
+        eventPublisher.publishEvent(StockMovedEvent.of(hotMovements));
+        return result;
+    }
+
+    /**
+     * Verrouille les lignes des produits et renvoie leur stock courant.
+     */
+    private Map<Long, Integer> lockStocks(Set<Long> ids) {
+        Map<Long, Integer> stocks = new TreeMap<>();
+        if (!ids.isEmpty()) {
+            namedJdbcTemplate.query(LOCK_STOCK_SQL, Map.of("ids", ids), rs -> {
+                stocks.put(rs.getLong(1), rs.getInt(2));
+            });
+        }
+        return stocks;
+    }
+
+    private void apply(String sql, List<Object[]> rows, List<Long> ids, List<Long> changed, List<Long> untouched) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(sql, rows);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                changed.add(ids.get(i));
+            } else {
+                untouched.add(ids.get(i));
+            }
+        }
+    }
+
+    private static Counter rowCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("products.bulk_update.rows")
+                .description("Lignes traitées par la mise à jour en masse")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,424 @@
+package com.episen.ms_product.application.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.episen.ms_product.application.dto.ProductChangeDTO;
+import com.episen.ms_product.application.dto.ProductChangeFeedDTO;
+import com.episen.ms_product.application.dto.ProductResponseDTO;
+import com.episen.ms_product.application.event.ProductChangedEvent;
+import com.episen.ms_product.application.event.ProductChangedEvent.ChangeType;
+import com.episen.ms_product.application.mapper.ProductMapper;
+import com.episen.ms_product.domain.entity.Product;
+import com.episen.ms_product.domain.repository.ProductRepository;
+import com.episen.ms_product.infrastructure.exception.ChangeFeedCursorExpiredException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Flux des changements du catalogue, pour les consommateurs qui en tiennent une copie
+ * locale (ms-order, recherche, pricing) sans relire tout le catalogue.
+ *
+ * <p>Chaque {@link ProductChangedEvent} est mis en file après le commit de la transaction qui
+ * l'a produit (un changement annulé n'est donc jamais publié), puis écrit dans
+ * {@code product_change} par un seul rédacteur, dans sa propre transaction courte, dès qu'il
+ * est mis en file (et au plus tard toutes les {@code products.changes.append-interval-ms} après
+ * un échec). Le numéro de séquence est la colonne identité de {@code product_change} : les
+ * écritures du catalogue ne prennent aucun verrou commun, et comme un seul rédacteur insère,
+ * les séquences croissent dans l'ordre des commits du journal. Le curseur courant est la plus
+ * grande séquence écrite : un consommateur qui lit {@code seq > curseur} ne peut pas sauter un
+ * changement. Un changement commité mais pas encore écrit est perdu si le service s'arrête
+ * brutalement ; à l'arrêt normal, la file est écrite.</p>
+ *
+ * <p>Une page contient au plus un changement par produit (le plus récent), avec l'état
+ * courant du produit : complet pour CREATED/UPDATED, le stock seul pour STOCK. Une page vide
+ * peut être attendue (long-poll) : la requête est suspendue jusqu'au prochain commit ou
+ * jusqu'au délai demandé, sans occuper de thread du serveur.</p>
+ *
+ * <p><b>Métriques Prometheus :</b></p>
+ * <ul>
+ * <li>products.changes.waiters - Requêtes long-poll en attente</li>
+ * <li>products.changes.pending - Changements en attente d'écriture au journal</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class ProductChangeFeedService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+    /** Nombre maximal de changements écrits par transaction du rédacteur. */
+    private static final int APPEND_BATCH = 1000;
+
+    private static final String HEAD_SQL = "SELECT COALESCE(MAX(seq), 0) FROM product_change";
+    private static final String INSERT_SQL = "INSERT INTO product_change (product_id, change_type, changed_at) "
+            + "VALUES (?, ?, ?)";
+    private static final String PAGE_SQL = "SELECT seq, product_id, change_type FROM product_change "
+            + "WHERE seq > ? ORDER BY seq LIMIT ?";
+    private static final String BOUNDS_SQL = "SELECT COALESCE(MAX(seq), 0), MIN(seq) FROM product_change";
+    /** La dernière ligne est conservée : elle porte le curseur courant. */
+    private static final String PURGE_SQL = "DELETE FROM product_change WHERE changed_at < ? "
+            + "AND seq < (SELECT MAX(seq) FROM product_change)";
+
+    /** Ligne du journal. */
+    private record ChangeRow(long seq, long productId, ChangeType type) {
+    }
+
+    /** Changement commité en attente d'écriture, horodaté à sa mise en file. */
+    private record PendingChange(long productId, ChangeType type, Timestamp changedAt) {
+    }
+
+    /** Requête long-poll suspendue. */
+    private record Waiter(long since, int limit, DeferredResult<ProductChangeFeedDTO> result) {
+    }
+
+    /** Lecture partagée par les requêtes sur le même curseur. */
+    private record PageKey(long since, int limit) {
+    }
+
+    /**
+     * Produits touchés par une tranche du journal.
+     * @param cursor dernier changement lu (égal au curseur demandé si aucun)
+     * @param productIds produits concernés, sans doublon
+     * @param hasMore vrai si d'autres changements suivent la tranche
+     */
+    public record ChangedProducts(long cursor, Set<Long> productIds, boolean hasMore) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final HotStockService hotStockService;
+    private final Duration maxWait;
+    private final int maxWaiters;
+    private final Duration retention;
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waiterCount = new AtomicInteger();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+    private final AtomicBoolean appendPending = new AtomicBoolean();
+    private final Queue<PendingChange> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    /** Lot retiré de la file et pas encore écrit (accès sous le moniteur du service). */
+    private final List<PendingChange> inflight = new ArrayList<>();
+    /** Rédacteur du journal, qui réveille aussi les requêtes long-poll. */
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProductChangeFeedService(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ProductRepository productRepository,
+            ProductMapper productMapper,
+            HotStockService hotStockService,
+            MeterRegistry meterRegistry,
+            @Value("${products.changes.max-wait:30s}") Duration maxWait,
+            @Value("${products.changes.max-waiters:1000}") int maxWaiters,
+            @Value("${products.changes.retention:7d}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.hotStockService = hotStockService;
+        this.maxWait = maxWait;
+        this.maxWaiters = maxWaiters;
+        this.retention = retention;
+
+        Gauge.builder("products.changes.waiters", waiterCount, AtomicInteger::get)
+                .description("Requêtes long-poll du flux de changements en attente")
+                .register(meterRegistry);
+        Gauge.builder("products.changes.pending", pending, AtomicInteger::get)
+                .description("Changements du catalogue en attente d'écriture au journal")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Met en file les changements après le commit de la transaction qui les a produits
+     * (immédiatement pour une écriture hors transaction), sans accès base, et réveille le
+     * rédacteur.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void record(ProductChangedEvent event) {
+        List<Long> ids = event.productIds();
+        if (ids.isEmpty()) {
+            return;
+        }
+        // Horodatage et ordre de file pris ensemble : changed_at croît avec les séquences
+        synchronized (queue) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            ids.forEach(id -> queue.add(new PendingChange(id, event.type(), now)));
+        }
+        pending.addAndGet(ids.size());
+        if (appendPending.compareAndSet(false, true)) {
+            writer.execute(() -> {
+                appendPending.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Écrit les changements en file, par lots, dans des transactions courtes, puis réveille
+     * les requêtes long-poll. En cas d'échec, le lot en cours est conservé et retenté au
+     * passage suivant, avant le reste de la file.
+     */
+    @Scheduled(fixedDelayString = "${products.changes.append-interval-ms:1000}")
+    public synchronized void flush() {
+        boolean written = false;
+        try {
+            while (true) {
+                PendingChange next;
+                while (inflight.size() < APPEND_BATCH && (next = queue.poll()) != null) {
+                    inflight.add(next);
+                }
+                if (inflight.isEmpty()) {
+                    return;
+                }
+                List<Object[]> rows = inflight.stream()
+                        .map(change -> new Object[] { change.productId(), change.type().name(), change.changedAt() })
+                        .toList();
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+                pending.addAndGet(-inflight.size());
+                inflight.clear();
+                written = true;
+            }
+        } catch (RuntimeException e) {
+            log.error("Flux de changements: échec de l'écriture de {} changements, nouvel essai au prochain passage: {}",
+                    inflight.size(), e.getMessage());
+        } finally {
+            if (written) {
+                commits.incrementAndGet();
+                dispatch();
+            }
+        }
+    }
+
+    /**
+     * Lit les changements postérieurs au curseur, en attendant au plus {@code wait} s'il n'y
+     * en a aucun.
+     * @param since dernier curseur reçu, ou null pour obtenir le curseur courant (page vide)
+     * @param limit nombre maximal de lignes du journal lues (max 500)
+     * @param wait attente maximale si aucun changement (plafonnée à products.changes.max-wait)
+     * @throws ChangeFeedCursorExpiredException si le curseur ne peut plus être repris
+     */
+    public DeferredResult<ProductChangeFeedDTO> poll(Long since, int limit, Duration wait) {
+        int size = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        if (since == null) {
+            DeferredResult<ProductChangeFeedDTO> result = new DeferredResult<>();
+            result.setResult(emptyPage(currentCursor()));
+            return result;
+        }
+
+        long observedCommits = commits.get();
+        ProductChangeFeedDTO page = read(since, size);
+        Duration timeout = wait.compareTo(maxWait) > 0 ? maxWait : wait;
+        DeferredResult<ProductChangeFeedDTO> result = new DeferredResult<>(timeout.toMillis(), page);
+        if (!page.getChanges().isEmpty() || timeout.isZero() || timeout.isNegative()
+                || waiterCount.get() >= maxWaiters) {
+            result.setResult(page);
+            return result;
+        }
+
+        Waiter waiter = new Waiter(since, size, result);
+        waiters.add(waiter);
+        waiterCount.incrementAndGet();
+        result.onCompletion(() -> {
+            if (waiters.remove(waiter)) {
+                waiterCount.decrementAndGet();
+            }
+        });
+        // Un commit arrivé entre la lecture et l'inscription n'a pas vu cette requête
+        if (commits.get() != observedCommits) {
+            dispatch();
+        }
+        return result;
+    }
+
+    /**
+     * Curseur du dernier changement écrit au journal, qui sert aussi de version du catalogue.
+     */
+    public long currentCursor() {
+        return jdbcTemplate.queryForObject(HEAD_SQL, Long.class);
+    }
+
+    /**
+     * Identifiants des produits modifiés après {@code since}, sans charger les produits :
+     * pour les copies locales tenues dans ce service (ex. {@link CatalogSnapshotService}).
+     * La file est d'abord écrite : les changements déjà commités sont tous vus.
+     * @param limit nombre maximal de lignes du journal lues
+     * @throws ChangeFeedCursorExpiredException si le curseur ne peut plus être repris
+     */
+    public ChangedProducts changedProducts(long since, int limit) {
+        flush();
+        checkCursor(since);
+        List<ChangeRow> rows = jdbcTemplate.query(PAGE_SQL,
+                (rs, rowNum) -> new ChangeRow(rs.getLong(1), rs.getLong(2), ChangeType.valueOf(rs.getString(3))),
+                since, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+        Set<Long> productIds = new LinkedHashSet<>();
+        rows.forEach(row -> productIds.add(row.productId()));
+        long cursor = rows.isEmpty() ? since : rows.get(rows.size() - 1).seq();
+        return new ChangedProducts(cursor, productIds, hasMore);
+    }
+
+    /**
+     * Purge les changements plus anciens que products.changes.retention. Un consommateur
+     * resté en arrière reçoit alors 410 et doit recharger le catalogue.
+     */
+    @Scheduled(fixedDelayString = "${products.changes.purge-interval-ms:3600000}")
+    public void purge() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        int removed = jdbcTemplate.update(PURGE_SQL, cutoff);
+        if (removed > 0) {
+            log.info("Flux de changements: {} changements de plus de {} purgés", removed, retention);
+        }
+    }
+
+    /**
+     * Écrit la file à l'arrêt.
+     */
+    @PreDestroy
+    void shutdown() {
+        flush();
+        writer.shutdownNow();
+    }
+
+    private ProductChangeFeedDTO read(long since, int limit) {
+        checkCursor(since);
+        List<ChangeRow> rows = jdbcTemplate.query(PAGE_SQL,
+                (rs, rowNum) -> new ChangeRow(rs.getLong(1), rs.getLong(2), ChangeType.valueOf(rs.getString(3))),
+                since, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+        if (rows.isEmpty()) {
+            return emptyPage(since);
+        }
+
+        // Un seul changement par produit : le plus récent, sans rétrograder un
+        // CREATED/UPDATED/DELETED en simple STOCK
+        Map<Long, ChangeRow> latest = new LinkedHashMap<>();
+        for (ChangeRow row : rows) {
+            ChangeRow previous = latest.remove(row.productId());
+            ChangeType type = previous != null && row.type() == ChangeType.STOCK ? previous.type() : row.type();
+            latest.put(row.productId(), new ChangeRow(row.seq(), row.productId(), type));
+        }
+
+        List<Long> toLoad = latest.values().stream()
+                .filter(row -> row.type() != ChangeType.DELETED)
+                .map(ChangeRow::productId)
+                .toList();
+        Map<Long, Product> products = productRepository.findAllById(toLoad).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<ProductChangeDTO> changes = new ArrayList<>(latest.size());
+        for (ChangeRow row : latest.values()) {
+            changes.add(toChange(row, products.get(row.productId())));
+        }
+        return ProductChangeFeedDTO.builder()
+                .changes(changes)
+                .cursor(rows.get(rows.size() - 1).seq())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Curseurs repris : entre le dernier changement purgé et la tête du journal.
+     */
+    private void checkCursor(long since) {
+        long[] bounds = jdbcTemplate.queryForObject(BOUNDS_SQL, (rs, rowNum) -> {
+            long head = rs.getLong(1);
+            long oldest = rs.getLong(2);
+            return new long[] { rs.wasNull() ? head : oldest - 1, head };
+        });
+        if (since < bounds[0] || since > bounds[1]) {
+            throw new ChangeFeedCursorExpiredException(since);
+        }
+    }
+
+    private ProductChangeDTO toChange(ChangeRow row, Product product) {
+        ProductChangeDTO.ProductChangeDTOBuilder change = ProductChangeDTO.builder()
+                .seq(row.seq())
+                .productId(row.productId());
+        if (row.type() == ChangeType.DELETED || product == null) {
+            return change.type(ChangeType.DELETED).build();
+        }
+        ProductResponseDTO current = hotStockService.overlay(productMapper.toDTO(product));
+        if (row.type() == ChangeType.STOCK) {
+            return change.type(ChangeType.STOCK).stock(current.getStock()).build();
+        }
+        return change.type(row.type()).product(current).build();
+    }
+
+    private void dispatch() {
+        if (waiters.isEmpty() || !dispatchPending.compareAndSet(false, true)) {
+            return;
+        }
+        writer.execute(() -> {
+            dispatchPending.set(false);
+            // Les requêtes sur le même curseur partagent la même lecture
+            Map<PageKey, ProductChangeFeedDTO> pages = new HashMap<>();
+            for (Waiter waiter : waiters) {
+                if (waiter.result().isSetOrExpired()) {
+                    continue;
+                }
+                PageKey key = new PageKey(waiter.since(), waiter.limit());
+                try {
+                    ProductChangeFeedDTO page = pages.computeIfAbsent(key, k -> read(k.since(), k.limit()));
+                    if (!page.getChanges().isEmpty()) {
+                        waiter.result().setResult(page);
+                    }
+                } catch (ChangeFeedCursorExpiredException e) {
+                    waiter.result().setErrorResult(e);
+                } catch (RuntimeException e) {
+                    log.warn("Flux de changements: échec du réveil d'une requête long-poll: {}", e.getMessage());
+                }
+            }
+        });
+    }
+
+    private static ProductChangeFeedDTO emptyPage(long cursor) {
+        return ProductChangeFeedDTO.builder()
+                .changes(List.of())
+                .cursor(cursor)
+                .hasMore(false)
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.episen.ms_product.application.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.data.domain.Sort;
+
+import com.episen.ms_product.domain.entity.Product;
+import com.episen.ms_product.domain.enumerate.ProductSortField;
+
+/**
+ * Curseur opaque de la pagination par clé du listing produits.
+ *
+ * <p>Encode le tri utilisé ainsi que le couple (valeur de tri, id) du dernier élément
+ * renvoyé, en Base64 URL-safe : {@code FIELD|DIRECTION|id|valeur}.</p>
+ */
+final class ProductCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final ProductSortField field;
+    private final Sort.Direction direction;
+    private final Long id;
+    private final Comparable<?> value;
+
+    private ProductCursor(ProductSortField field, Sort.Direction direction, Long id, Comparable<?> value) {
+        this.field = field;
+        this.direction = direction;
+        this.id = id;
+        this.value = value;
+    }
+
+    static ProductCursor of(Product last, ProductSortField field, Sort.Direction direction) {
+        return new ProductCursor(field, direction, last.getId(), field.valueOf(last));
+    }
+
+    /**
+     * Décode un curseur et vérifie qu'il correspond au tri demandé.
+     * @throws IllegalArgumentException si le curseur est invalide ou issu d'un autre tri
+     */
+    static ProductCursor decode(String cursor, ProductSortField field, Sort.Direction direction) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur invalide");
+        }
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Curseur invalide");
+        }
+        if (!field.name().equals(parts[0]) || !direction.name().equals(parts[1])) {
+            throw new IllegalArgumentException("Le curseur ne correspond pas au tri demandé");
+        }
+        try {
+            return new ProductCursor(field, direction, Long.valueOf(parts[2]), field.parse(parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Curseur invalide");
+        }
+    }
+
+    String encode() {
+        String raw = value instanceof BigDecimal decimal ? decimal.toPlainString() : String.valueOf(value);
+        String payload = field.name() + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + raw;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    Long getId() {
+        return id;
+    }
+
+    Comparable<?> getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,390 @@
+package com.episen.ms_product.application.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.episen.ms_product.application.dto.ProductImportErrorDTO;
+import com.episen.ms_product.application.dto.ProductImportReportDTO;
+import com.episen.ms_product.application.dto.ProductRequestDTO;
+import com.episen.ms_product.application.event.ProductChangedEvent;
+import com.episen.ms_product.application.event.ProductChangedEvent.ChangeType;
+import com.episen.ms_product.application.event.StockMovedEvent;
+import com.episen.ms_product.application.event.StockMovedEvent.Movement;
+import com.episen.ms_product.domain.enumerate.Category;
+import com.episen.ms_product.domain.enumerate.StockMovementReason;
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Import en masse du catalogue, en flux.
+ *
+ * <p>Le fichier (NDJSON : un {@link ProductRequestDTO} JSON par ligne, ou CSV avec
+ * en-tête) est lu ligne à ligne et chaque ligne est validée comme pour
+ * {@code POST /api/v1/products}. Les lignes valides sont insérées par lots JDBC de
+ * {@code products.import.batch-size}, chaque lot dans sa propre transaction : la mémoire
+ * utilisée ne dépend que de la taille d'un lot, pas de celle du fichier.</p>
+ *
+ * <p>La réponse est elle-même un flux NDJSON : une ligne {@link ProductImportErrorDTO}
+ * par ligne rejetée, écrite au fil de l'eau, puis un {@link ProductImportReportDTO} final.</p>
+ *
+ * <p><b>Métriques Prometheus :</b></p>
+ * <ul>
+ * <li>products.import.rows - Lignes importées (tag result=imported|rejected)</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    private static final String INSERT_SQL = "INSERT INTO product "
+            + "(name, description, price, stock, category, imageUrl, reorder_threshold, active, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    private static final Set<String> CSV_COLUMNS = Set.of("name", "description", "price", "stock", "category", "imageurl",
+            "reorderthreshold");
+    private static final Set<String> OPTIONAL_CSV_COLUMNS = Set.of("imageurl", "reorderthreshold");
+
+    /**
+     * Formats de fichier acceptés.
+     */
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    /** Ligne valide en attente d'insertion. */
+    private record Row(long line, ProductRequestDTO product) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader productReader;
+    private final int batchSize;
+
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    public ProductImportService(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            Validator validator,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${products.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.productReader = objectMapper.readerFor(ProductRequestDTO.class);
+        this.batchSize = Math.max(1, batchSize);
+
+        this.importedRows = Counter.builder("products.import.rows")
+                .description("Lignes traitées par l'import en masse")
+                .tag("result", "imported")
+                .register(meterRegistry);
+        this.rejectedRows = Counter.builder("products.import.rows")
+                .description("Lignes traitées par l'import en masse")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Importe un fichier de produits et écrit le compte rendu en NDJSON.
+     * @param input contenu du fichier (UTF-8)
+     * @param format format du fichier
+     * @param output flux de réponse : erreurs par ligne puis bilan
+     * @return le bilan de l'import
+     * @throws IOException en cas d'erreur de lecture ou d'écriture des flux
+     */
+    public ProductImportReportDTO importProducts(InputStream input, Format format, OutputStream output)
+            throws IOException {
+        long start = System.currentTimeMillis();
+        long[] counts = new long[2];
+        List<Row> batch = new ArrayList<>(batchSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Map<String, Integer> csvHeader = null;
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && csvHeader == null) {
+                csvHeader = parseCsvHeader(line, lineNumber, output);
+                if (csvHeader == null) {
+                    counts[1]++;
+                    break;
+                }
+                continue;
+            }
+
+            List<String> errors = new ArrayList<>();
+            ProductRequestDTO product = format == Format.CSV
+                    ? parseCsvRow(line, csvHeader, errors)
+                    : parseJsonRow(line, errors);
+            if (product != null) {
+                // Un champ illisible n'est pas signalé une seconde fois comme absent
+                Set<String> unreadable = new HashSet<>();
+                errors.forEach(error -> unreadable.add(error.substring(0, error.indexOf(':'))));
+                for (ConstraintViolation<ProductRequestDTO> violation : validator.validate(product)) {
+                    String field = violation.getPropertyPath().toString();
+                    if (!unreadable.contains(field)) {
+                        errors.add(field + ": " + violation.getMessage());
+                    }
+                }
+            }
+            if (!errors.isEmpty()) {
+                errors.sort(Comparator.naturalOrder());
+                reject(lineNumber, errors, output, counts);
+                continue;
+            }
+
+            batch.add(new Row(lineNumber, product));
+            if (batch.size() == batchSize) {
+                insertBatch(batch, output, counts);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertBatch(batch, output, counts);
+        }
+
+        ProductImportReportDTO report = ProductImportReportDTO.builder()
+                .format(format.name())
+                .imported(counts[0])
+                .rejected(counts[1])
+                .durationMs(System.currentTimeMillis() - start)
+                .build();
+        write(report, output);
+        output.flush();
+
+        log.info("Import {} terminé: {} produits importés, {} lignes rejetées en {} ms",
+                format, report.getImported(), report.getRejected(), report.getDurationMs());
+        return report;
+    }
+
+    /**
+     * Insère un lot en une transaction et publie la création des produits (index, caches).
+     * Si le lot échoue en base, toutes ses lignes sont rejetées.
+     */
+    private void insertBatch(List<Row> batch, OutputStream output, long[] counts) throws IOException {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                KeyHolder keys = new GeneratedKeyHolder();
+                jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[] { "id" }),
+                        new BatchPreparedStatementSetter() {
+                            @Override
+                            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                                ProductRequestDTO product = batch.get(i).product();
+                                ps.setString(1, product.getName());
+                                ps.setString(2, product.getDescription());
+                                ps.setBigDecimal(3, product.getPrice());
+                                ps.setInt(4, product.getStock());
+                                ps.setString(5, product.getCategory().name());
+                                if (product.getImageUrl() != null) {
+                                    ps.setString(6, product.getImageUrl());
+                                } else {
+                                    ps.setNull(6, Types.VARCHAR);
+                                }
+                                if (product.getReorderThreshold() != null) {
+                                    ps.setInt(7, product.getReorderThreshold());
+                                } else {
+                                    ps.setNull(7, Types.INTEGER);
+                                }
+                            }
+
+                            @Override
+                            public int getBatchSize() {
+                                return batch.size();
+                            }
+                        }, keys);
+                List<Long> ids = keys.getKeyList().stream()
+                        .map(key -> ((Number) key.values().iterator().next()).longValue())
+                        .toList();
+                eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.CREATED, ids));
+                List<Movement> movements = new ArrayList<>(ids.size());
+                for (int i = 0; i < ids.size(); i++) {
+                    movements.add(new Movement(ids.get(i), batch.get(i).product().getStock(),
+                            StockMovementReason.IMPORT, null));
+                }
+                eventPublisher.publishEvent(StockMovedEvent.of(movements));
+            });
+            counts[0] += batch.size();
+            importedRows.increment(batch.size());
+        } catch (DataAccessException e) {
+            log.error("Import: échec d'un lot de {} lignes (lignes {} à {}): {}", batch.size(),
+                    batch.get(0).line(), batch.get(batch.size() - 1).line(), e.getMostSpecificCause().getMessage());
+            for (Row row : batch) {
+                reject(row.line(), List.of("Insertion refusée: " + e.getMostSpecificCause().getMessage()), output, counts);
+            }
+        }
+        output.flush();
+    }
+
+    private ProductRequestDTO parseJsonRow(String line, List<String> errors) {
+        try {
+            return productReader.readValue(line);
+        } catch (JacksonException e) {
+            errors.add("JSON invalide: " + e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Lit l'en-tête CSV : position de chaque colonne connue (noms insensibles à la casse).
+     * @return null si l'en-tête est invalide (l'erreur est écrite dans la réponse)
+     */
+    private Map<String, Integer> parseCsvHeader(String line, long lineNumber, OutputStream output) throws IOException {
+        List<String> columns = splitCsv(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i).trim().toLowerCase(Locale.ROOT);
+            if (CSV_COLUMNS.contains(column)) {
+                header.put(column, i);
+            }
+        }
+        List<String> missing = CSV_COLUMNS.stream()
+                .filter(column -> !OPTIONAL_CSV_COLUMNS.contains(column) && !header.containsKey(column))
+                .sorted()
+                .toList();
+        if (!missing.isEmpty()) {
+            write(new ProductImportErrorDTO(lineNumber, List.of("En-tête CSV incomplet, colonnes manquantes: " + missing)),
+                    output);
+            return null;
+        }
+        return header;
+    }
+
+    private ProductRequestDTO parseCsvRow(String line, Map<String, Integer> header, List<String> errors) {
+        List<String> values = splitCsv(line);
+        ProductRequestDTO product = new ProductRequestDTO();
+        product.setName(column(values, header, "name"));
+        product.setDescription(column(values, header, "description"));
+        product.setImageUrl(column(values, header, "imageurl"));
+
+        String price = column(values, header, "price");
+        if (price != null) {
+            try {
+                product.setPrice(new BigDecimal(price.trim()));
+            } catch (NumberFormatException e) {
+                errors.add("price: valeur numérique invalide '" + price + "'");
+            }
+        }
+        String stock = column(values, header, "stock");
+        if (stock != null) {
+            try {
+                product.setStock(Integer.parseInt(stock.trim()));
+            } catch (NumberFormatException e) {
+                errors.add("stock: valeur entière invalide '" + stock + "'");
+            }
+        }
+        String reorderThreshold = column(values, header, "reorderthreshold");
+        if (reorderThreshold != null) {
+            try {
+                product.setReorderThreshold(Integer.parseInt(reorderThreshold.trim()));
+            } catch (NumberFormatException e) {
+                errors.add("reorderThreshold: valeur entière invalide '" + reorderThreshold + "'");
+            }
+        }
+        String category = column(values, header, "category");
+        if (category != null) {
+            try {
+                product.setCategory(Category.valueOf(category.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                errors.add("category: catégorie inconnue '" + category + "'");
+            }
+        }
+        return product;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        if (index == null || index >= values.size() || values.get(index).isEmpty()) {
+            return null;
+        }
+        return values.get(index);
+    }
+
+    /**
+     * Découpe une ligne CSV (séparateur virgule, champs entre guillemets doubles,
+     * {@code ""} pour un guillemet). Les champs multilignes ne sont pas acceptés.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private void reject(long line, List<String> errors, OutputStream output, long[] counts) throws IOException {
+        counts[1]++;
+        rejectedRows.increment();
+        write(new ProductImportErrorDTO(line, errors), output);
+    }
+
+    private void write(Object value, OutputStream output) throws IOException {
+        output.write(objectMapper.writeValueAsBytes(value));
+        output.write('\n');
+    }
+}
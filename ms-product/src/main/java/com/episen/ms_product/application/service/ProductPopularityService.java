@@ -0,0 +1,266 @@
+package com.episen.ms_product.application.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.episen.ms_product.application.dto.ProductPopularityDTO;
+import com.episen.ms_product.application.dto.ProductResponseDTO;
+import com.episen.ms_product.domain.enumerate.Category;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Popularité des produits : consultations cumulées et tendance avec décroissance dans le temps.
+ *
+ * <p><b>Chemin de lecture :</b> une consultation incrémente le {@link LongAdder} du produit,
+ * sans verrou ni accès base ; les incréments concurrents sur un même produit sont répartis
+ * sur des cellules distinctes et ne se disputent pas une ligne de cache.</p>
+ *
+ * <p><b>Écriture :</b> périodiquement ({@code products.popularity.flush-interval-ms}), les
+ * consultations accumulées depuis le passage précédent sont ajoutées à
+ * {@code product_popularity} en un lot JDBC. Les compteurs ne sont jamais remis à zéro : seul
+ * l'écart avec le total déjà écrit est envoyé, si bien qu'un incrément concurrent du passage
+ * n'est jamais perdu et qu'un échec est simplement retenté au passage suivant. En fin de
+ * passage, les compteurs entièrement écrits (aucune consultation depuis) sont retirés de la
+ * mémoire : seuls les produits consultés récemment y restent.</p>
+ *
+ * <p><b>Tendance :</b> décroissance exponentielle "vers l'avant". Une consultation au temps
+ * {@code t} ajoute {@code 2^((t - landmark) / demi-vie)} au score du produit : les scores
+ * restent comparables entre eux sans jamais être recalculés, et le score ramené à
+ * l'instant présent est {@code score x 2^(-(maintenant - landmark) / demi-vie)}. Quand les
+ * poids dépassent {@value #REBASE_AFTER_HALF_LIVES} demi-vies, tous les scores sont
+ * ramenés à un nouveau landmark en une requête.</p>
+ *
+ * <p><b>Métriques Prometheus :</b></p>
+ * <ul>
+ * <li>products.popularity.flush - Temps d'écriture des consultations en base</li>
+ * <li>products.popularity.tracked - Produits suivis en mémoire</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class ProductPopularityService {
+
+    /** Nombre de demi-vies au-delà duquel les scores sont ramenés à un nouveau landmark. */
+    private static final int REBASE_AFTER_HALF_LIVES = 32;
+    private static final int MAX_LIMIT = 100;
+
+    private static final String LANDMARK_SQL = "SELECT landmark FROM product_popularity_head WHERE id = 1";
+    private static final String REBASE_SQL = "UPDATE product_popularity SET score = score * ?";
+    private static final String SET_LANDMARK_SQL = "UPDATE product_popularity_head SET landmark = ? WHERE id = 1";
+    private static final String UPDATE_SQL = "UPDATE product_popularity "
+            + "SET views = views + ?, score = score + ?, last_viewed_at = ? WHERE product_id = ?";
+    private static final String INSERT_SQL = "INSERT INTO product_popularity "
+            + "(views, score, last_viewed_at, product_id) VALUES (?, ?, ?, ?)";
+    private static final String TOP_SQL = "SELECT pp.product_id, pp.views, pp.score, pp.last_viewed_at "
+            + "FROM product_popularity pp JOIN product p ON p.id = pp.product_id "
+            + "WHERE p.active = TRUE%s ORDER BY pp.%s DESC LIMIT ?";
+
+    /** Ligne de product_popularity. */
+    private record PopularityRow(long productId, long views, double score, Timestamp lastViewedAt) {
+    }
+
+    /**
+     * Consultations d'un produit : total en mémoire, et part déjà écrite en base
+     * (lue et modifiée seulement par {@link #flush()}, synchronisée).
+     */
+    private static final class ViewCounter {
+        private final LongAdder views = new LongAdder();
+        private long flushed;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductService productService;
+    private final boolean enabled;
+    private final long halfLifeMillis;
+    private final Map<Long, ViewCounter> counters = new ConcurrentHashMap<>();
+    private final Timer flushTimer;
+
+    public ProductPopularityService(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ProductService productService,
+            MeterRegistry meterRegistry,
+            @Value("${products.popularity.enabled:true}") boolean enabled,
+            @Value("${products.popularity.half-life:24h}") Duration halfLife) {
+        if (halfLife.isZero() || halfLife.isNegative()) {
+            throw new IllegalArgumentException("products.popularity.half-life doit être positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.productService = productService;
+        this.enabled = enabled;
+        this.halfLifeMillis = halfLife.toMillis();
+
+        this.flushTimer = Timer.builder("products.popularity.flush")
+                .description("Temps d'écriture des consultations de produits en base")
+                .register(meterRegistry);
+        Gauge.builder("products.popularity.tracked", counters, Map::size)
+                .description("Nombre de produits dont les consultations sont suivies en mémoire")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Compte une consultation du produit. Appelé sur le chemin de lecture : ni verrou ni
+     * accès base, l'écriture est différée au prochain passage de {@link #flush()}.
+     */
+    public void recordView(Long productId) {
+        if (!enabled) {
+            return;
+        }
+        ViewCounter counter = counters.get(productId);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(productId, id -> new ViewCounter());
+        }
+        counter.views.increment();
+    }
+
+    /**
+     * Produits actifs les plus consultés depuis toujours.
+     * @param category catégorie (null pour toutes)
+     * @param limit nombre maximal de produits (borné à {@value #MAX_LIMIT})
+     */
+    public List<ProductPopularityDTO> popular(Category category, int limit) {
+        return top("views", category, limit);
+    }
+
+    /**
+     * Produits actifs en tendance : consultations pondérées par leur ancienneté.
+     * @param category catégorie (null pour toutes)
+     * @param limit nombre maximal de produits (borné à {@value #MAX_LIMIT})
+     */
+    public List<ProductPopularityDTO> trending(Category category, int limit) {
+        return top("score", category, limit);
+    }
+
+    /**
+     * Ajoute en base les consultations accumulées depuis le passage précédent.
+     */
+    @Scheduled(fixedDelayString = "${products.popularity.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        Map<Long, Long> viewsByProduct = new HashMap<>();
+        counters.forEach((productId, counter) -> {
+            long delta = counter.views.sum() - counter.flushed;
+            if (delta > 0) {
+                viewsByProduct.put(productId, delta);
+            }
+        });
+        if (!viewsByProduct.isEmpty()) {
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> write(viewsByProduct)));
+                viewsByProduct.forEach((productId, delta) -> counters.get(productId).flushed += delta);
+                log.debug("Popularité: consultations de {} produits écrites en base", viewsByProduct.size());
+            } catch (RuntimeException e) {
+                log.error("Popularité: échec de l'écriture des consultations, nouvel essai au prochain passage: {}",
+                        e.getMessage());
+            }
+        }
+        evictFlushed();
+    }
+
+    /**
+     * Retire les compteurs entièrement écrits en base. Une consultation arrivée sur un compteur
+     * pendant son retrait est reportée sur le compteur qui le remplace.
+     */
+    private void evictFlushed() {
+        counters.forEach((productId, counter) -> {
+            if (counter.views.sum() == counter.flushed && counters.remove(productId, counter)) {
+                long late = counter.views.sum() - counter.flushed;
+                if (late > 0) {
+                    counters.computeIfAbsent(productId, id -> new ViewCounter()).views.add(late);
+                }
+            }
+        });
+    }
+
+    /**
+     * Écrit les dernières consultations à l'arrêt.
+     */
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private void write(Map<Long, Long> viewsByProduct) {
+        long now = System.currentTimeMillis();
+        long landmark = jdbcTemplate.queryForObject(LANDMARK_SQL, Long.class);
+        if (now - landmark > REBASE_AFTER_HALF_LIVES * halfLifeMillis) {
+            jdbcTemplate.update(REBASE_SQL, decay(now - landmark));
+            jdbcTemplate.update(SET_LANDMARK_SQL, now);
+            landmark = now;
+        }
+        double weight = 1 / decay(now - landmark);
+        Timestamp viewedAt = new Timestamp(now);
+
+        List<Object[]> rows = new ArrayList<>(viewsByProduct.size());
+        viewsByProduct.forEach((productId, views) ->
+                rows.add(new Object[] { views, views * weight, viewedAt, productId }));
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (updated[i] == 0) {
+                inserts.add(rows.get(i));
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+    }
+
+    private List<ProductPopularityDTO> top(String column, Category category, int limit) {
+        int bounded = Math.clamp(limit, 1, MAX_LIMIT);
+        List<PopularityRow> rows = category != null
+                ? jdbcTemplate.query(TOP_SQL.formatted(" AND p.category = ?", column), this::mapRow,
+                        category.name(), bounded)
+                : jdbcTemplate.query(TOP_SQL.formatted("", column), this::mapRow, bounded);
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        double toNow = decay(System.currentTimeMillis() - jdbcTemplate.queryForObject(LANDMARK_SQL, Long.class));
+        Map<Long, ProductResponseDTO> products = productService.getProductsByIds(
+                rows.stream().map(PopularityRow::productId).toList()).stream()
+                .collect(Collectors.toMap(ProductResponseDTO::getId, Function.identity()));
+        return rows.stream()
+                .filter(row -> products.containsKey(row.productId()))
+                .map(row -> ProductPopularityDTO.builder()
+                        .product(products.get(row.productId()))
+                        .views(row.views())
+                        .trendingScore(row.score() * toNow)
+                        .lastViewedAt(row.lastViewedAt().toLocalDateTime())
+                        .build())
+                .toList();
+    }
+
+    private PopularityRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new PopularityRow(rs.getLong(1), rs.getLong(2), rs.getDouble(3), rs.getTimestamp(4));
+    }
+
+    /**
+     * Facteur de décroissance après {@code elapsedMillis} : {@code 2^(-elapsed / demi-vie)}.
+     */
+    private double decay(long elapsedMillis) {
+        return Math.pow(2, -(double) elapsedMillis / halfLifeMillis);
+    }
+}
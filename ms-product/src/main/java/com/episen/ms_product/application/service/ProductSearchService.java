@@ -0,0 +1,175 @@
+package com.episen.ms_product.application.service;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.episen.ms_product.application.dto.ProductFacetsDTO;
+import com.episen.ms_product.application.dto.ProductFilterDTO;
+import com.episen.ms_product.application.dto.ProductResponseDTO;
+import com.episen.ms_product.application.dto.ProductSearchResultDTO;
+import com.episen.ms_product.application.event.ProductChangedEvent;
+import com.episen.ms_product.application.search.ProductSearchIndex;
+import com.episen.ms_product.domain.entity.Product;
+import com.episen.ms_product.domain.repository.ProductRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service de recherche plein texte sur le catalogue.
+ *
+ * <p>L'index ({@link ProductSearchIndex}) est construit au démarrage en parcourant les
+ * produits actifs par lots, puis maintenu à jour à partir des {@link ProductChangedEvent}
+ * publiés par {@link ProductService}, après commit. Seuls les identifiants sont résolus par
+ * l'index ; les produits de la page sont ensuite chargés par clé primaire.</p>
+ *
+ * <p>Les compteurs de facettes (catégorie, tranche de prix, disponibilité) sont calculés
+ * sur les bitsets de l'index, sans requête en base.</p>
+ *
+ * <p><b>Métriques Prometheus :</b></p>
+ * <ul>
+ * <li>products.search.latency - Temps de recherche dans l'index</li>
+ * <li>products.search.index.documents - Nombre de produits indexés</li>
+ * <li>products.search.index.terms - Nombre de termes distincts</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductSearchService {
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final MeterRegistry meterRegistry;
+    private final ProductSearchIndex index = new ProductSearchIndex();
+    private Timer searchTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        searchTimer = Timer.builder("products.search.latency")
+                .description("Temps de recherche dans l'index plein texte")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("products.search.index.documents", index, ProductSearchIndex::documentCount)
+                .description("Nombre de produits indexés")
+                .register(meterRegistry);
+        Gauge.builder("products.search.index.terms", index, ProductSearchIndex::termCount)
+                .description("Nombre de termes distincts dans l'index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Construit l'index au démarrage, par lots de {@value #LOAD_BATCH_SIZE} produits actifs.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        long start = System.currentTimeMillis();
+        Iterable<List<Product>> batches = ActiveProductBatches::new;
+        index.rebuild(batches);
+        log.info("Index de recherche construit: {} produits, {} termes en {} ms",
+                index.documentCount(), index.termCount(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Répercute dans l'index les créations, modifications et désactivations commitées.
+     * Une variation de stock ne touche que la facette "en stock", pas le texte indexé.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        List<Product> products = productRepository.findAllById(event.productIds());
+        if (event.type() == ProductChangedEvent.ChangeType.STOCK) {
+            products.forEach(product -> index.updateStock(product.getId(), product.getStock()));
+            return;
+        }
+        Set<Long> found = products.stream().map(Product::getId).collect(Collectors.toSet());
+        index.indexAll(products);
+        event.productIds().stream().filter(id -> !found.contains(id)).forEach(index::remove);
+        log.debug("Index de recherche mis à jour pour {} produits ({})", event.productIds().size(), event.type());
+    }
+
+    /**
+     * Recherche plein texte paginée, par pertinence décroissante.
+     * @param query texte libre (accents et casse ignorés, préfixes acceptés)
+     * @param filter filtres optionnels (catégorie, en stock, fourchette de prix)
+     * @param page numéro de page (à partir de 0)
+     * @param size taille de la page (bornée à {@link ProductService#MAX_PAGE_SIZE})
+     * @param withFacets inclure les compteurs de facettes du résultat complet
+     * @return ProductSearchResultDTO
+     */
+    public ProductSearchResultDTO search(String query, ProductFilterDTO filter, int page, int size, boolean withFacets) {
+        int pageSize = Math.max(1, Math.min(size, ProductService.MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+
+        ProductSearchIndex.Hits hits = searchTimer.record(
+                () -> index.search(query, filter, pageNumber * pageSize, pageSize, withFacets));
+        List<ProductResponseDTO> items = productService.getProductsByIds(hits.productIds());
+
+        log.debug("Recherche '{}': {} résultats", query, hits.total());
+
+        return ProductSearchResultDTO.builder()
+                .query(query)
+                .total(hits.total())
+                .page(pageNumber)
+                .size(items.size())
+                .items(items)
+                .facets(hits.facets())
+                .build();
+    }
+
+    /**
+     * Compteurs de facettes pour une requête optionnelle et des filtres.
+     * Sans requête, porte sur tous les produits actifs filtrés (ex. page catégorie).
+     * @return ProductFacetsDTO
+     */
+    public ProductFacetsDTO facets(String query, ProductFilterDTO filter) {
+        return index.facets(query, filter);
+    }
+
+    /**
+     * Parcours des produits actifs par lots, par ID croissant (pagination par clé).
+     */
+    private class ActiveProductBatches implements Iterator<List<Product>> {
+
+        private long lastId = 0;
+        private List<Product> next = fetch();
+
+        private List<Product> fetch() {
+            List<Product> batch = productRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(
+                    lastId, Limit.of(LOAD_BATCH_SIZE));
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+            return batch;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !next.isEmpty();
+        }
+
+        @Override
+        public List<Product> next() {
+            if (next.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            List<Product> current = next;
+            next = current.size() < LOAD_BATCH_SIZE ? List.of() : fetch();
+            return current;
+        }
+    }
+}
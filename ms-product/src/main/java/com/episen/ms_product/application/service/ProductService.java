@@ -1,17 +1,46 @@
 package com.episen.ms_product.application.service;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.episen.ms_product.application.cache.ProductCache;
+import com.episen.ms_product.application.catalog.CatalogSnapshot;
+import com.episen.ms_product.application.dto.ProductFilterDTO;
+import com.episen.ms_product.application.dto.ProductPageDTO;
 import com.episen.ms_product.application.dto.ProductRequestDTO;
 import com.episen.ms_product.application.dto.ProductResponseDTO;
+import com.episen.ms_product.application.dto.StockAdjustmentDTO;
+import com.episen.ms_product.application.event.ProductChangedEvent;
+import com.episen.ms_product.application.event.ProductChangedEvent.ChangeType;
+import com.episen.ms_product.application.event.StockMovedEvent;
 import com.episen.ms_product.application.mapper.ProductMapper;
+import com.episen.ms_product.application.service.HotStockService.AdjustResult;
 import com.episen.ms_product.domain.entity.Product;
 import com.episen.ms_product.domain.enumerate.Category;
+import com.episen.ms_product.domain.enumerate.ProductSortField;
+import com.episen.ms_product.domain.enumerate.StockMovementReason;
 import com.episen.ms_product.domain.repository.ProductRepository;
+import com.episen.ms_product.domain.repository.ProductSpecifications;
+import com.episen.ms_product.infrastructure.exception.InsufficientStockException;
+import com.episen.ms_product.infrastructure.exception.ProductVersionMismatchException;
+import com.episen.ms_product.infrastructure.exception.ResourceNotFoundException;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -26,6 +55,10 @@ import lombok.extern.slf4j.Slf4j;
  * - Métriques personnalisées avec Micrometer
  * - Gestion d'erreurs explicite avec exceptions métier
  * - Séparation de la logique métier du contrôleur
+ * - Publication d'un {@link ProductChangedEvent} à chaque écriture, pour les index en mémoire
+ * - Publication d'un {@link StockMovedEvent} à chaque variation de stock, pour le journal des mouvements
+ * - Stock des produits en mode vente flash lu et modifié via {@link HotStockService}
+ * - Listes (tout le catalogue, catégorie, nom, disponibles) servies par {@link CatalogSnapshotService} s'il est chargé
  */
 @Slf4j
 @Service
@@ -33,9 +66,23 @@ import lombok.extern.slf4j.Slf4j;
 @Transactional(readOnly = true)
 public class ProductService {
 
+    /** Taille maximale d'une page du listing, quelle que soit la taille demandée. */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /** Plus grand prix représentable par la colonne price (DECIMAL(10, 2)). */
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
     private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductCache productCache;
+    private final HotStockService hotStockService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final OrderReservationService orderReservationService;
+
+    /** Compteurs "product.created" par catégorie, enregistrés une seule fois. */
+    private final Map<Category, Counter> createdCounters = new ConcurrentHashMap<>();
     
     /** 
      * Renvoie la liste de tous les produits
@@ -43,22 +90,98 @@ public class ProductService {
      */
     public List<ProductResponseDTO> getAllProducts() {
         log.debug("Récupération de tous les produits");
-        
-        List<Product> products = productRepository.findAll();
-        
-        log.info("Nombre de produits récupérés: {}", products.size());
-        
-        return products.stream()
-                .map(productMapper::toDTO)
+
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        List<ProductResponseDTO> products = (snapshot != null
+                ? snapshot.all().stream()
+                : productRepository.findAll().stream().map(productMapper::toDTO))
+                .map(hotStockService::overlay)
                 .collect(Collectors.toList());
+
+        log.info("Nombre de produits récupérés: {}", products.size());
+
+        return products;
     }
 
     /**
-     * Renvoie un produit à partir de son ID
+     * Renvoie une page du catalogue, filtrée et triée, avec pagination par clé (keyset).
+     *
+     * <p>Contrairement à un OFFSET, la page suivante est obtenue par une condition
+     * {@code (tri, id) > (dernier tri, dernier id)} servie par les index de {@code data.sql} :
+     * le coût d'une page reste constant quelle que soit sa profondeur dans le catalogue.
+     * Une ligne supplémentaire est lue pour savoir s'il existe une page suivante, sans COUNT.</p>
+     *
+     * @param filter filtres combinables (catégorie, actif, en stock, fourchette de prix)
+     * @param sortField champ de tri
+     * @param direction sens du tri
+     * @param cursor curseur renvoyé par la page précédente (null pour la première page)
+     * @param size nombre d'éléments demandés (borné à {@link #MAX_PAGE_SIZE})
+     * @return ProductPageDTO
+     * @throws IllegalArgumentException si le curseur est invalide ou ne correspond pas au tri
+     */
+    public ProductPageDTO listProducts(ProductFilterDTO filter, ProductSortField sortField,
+            Sort.Direction direction, String cursor, int size) {
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null
+                && filter.getMinPrice().compareTo(filter.getMaxPrice()) > 0) {
+            throw new IllegalArgumentException("Le prix minimum doit être inférieur ou égal au prix maximum");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        List<Specification<Product>> specifications = new ArrayList<>();
+        specifications.add(ProductSpecifications.hasCategory(filter.getCategory()));
+        specifications.add(ProductSpecifications.isActive(filter.getActive()));
+        specifications.add(ProductSpecifications.inStock(filter.getInStock()));
+        specifications.add(ProductSpecifications.priceBetween(filter.getMinPrice(), filter.getMaxPrice()));
+        if (cursor != null && !cursor.isBlank()) {
+            ProductCursor position = ProductCursor.decode(cursor, sortField, direction);
+            specifications.add(ProductSpecifications.after(sortField, direction, position.getValue(), position.getId()));
+        }
+
+        Sort sort = Sort.by(direction, sortField.getAttribute()).and(Sort.by(direction, "id"));
+        // Colonnes constantes ajoutées en tête : le tri suit alors exactement un index
+        // (category, active, tri, id) et la lecture s'arrête après pageSize + 1 lignes,
+        // au lieu de trier toute la catégorie.
+        Sort indexedSort = filter.getCategory() != null && filter.getActive() != null
+                ? Sort.by(direction, "category", "active").and(sort)
+                : sort;
+        List<Product> products = productRepository.findBy(Specification.allOf(specifications),
+                query -> query.sortBy(indexedSort).limit(pageSize + 1).all());
+
+        boolean hasNext = products.size() > pageSize;
+        if (hasNext) {
+            products = products.subList(0, pageSize);
+        }
+        String nextCursor = hasNext
+                ? ProductCursor.of(products.get(products.size() - 1), sortField, direction).encode()
+                : null;
+
+        log.debug("Listing produits: {} éléments (tri {} {}, page suivante: {})",
+                products.size(), sortField, direction, hasNext);
+
+        return ProductPageDTO.builder()
+                .items(products.stream()
+                        .map(productMapper::toDTO)
+                        .map(hotStockService::overlay)
+                        .collect(Collectors.toList()))
+                .size(products.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Renvoie un produit à partir de son ID.
+     * <p>Servi par {@link ProductCache} ; la base n'est interrogée (et une transaction ouverte)
+     * qu'en cas d'absence du cache, et une seule fois pour des lectures simultanées du même ID.</p>
      * @param id
      * @return ProductResponseDTO
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ProductResponseDTO getProductById(Long id) {
+        return hotStockService.overlay(productCache.get(id, this::loadProduct));
+    }
+
+    private ProductResponseDTO loadProduct(Long id) {
         log.debug("Récupération du produit avec l'ID: {}", id);
         
         Product product = productRepository.findById(id)
@@ -72,6 +195,27 @@ public class ProductService {
         return productMapper.toDTO(product);
     }
     
+    /**
+     * Renvoie les produits correspondant aux IDs donnés, dans l'ordre des IDs.
+     * Les IDs inconnus sont ignorés. Les produits absents du cache sont chargés en une requête.
+     * @param ids
+     * @return List<ProductResponseDTO>
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ProductResponseDTO> getProductsByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductResponseDTO> products = productCache.getAll(ids, missing ->
+                productRepository.findAllById(missing).stream()
+                        .collect(Collectors.toMap(Product::getId, productMapper::toDTO)));
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(hotStockService::overlay)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Créé un nouveau produit à partir des informations fournies
      * @param productRequestDTO
@@ -85,11 +229,14 @@ public class ProductService {
         Product savedProduct = productRepository.save(product);
         
         log.info("Produit créé avec succès: {}", savedProduct.getName());
+        eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.CREATED, savedProduct.getId()));
+        eventPublisher.publishEvent(StockMovedEvent.of(savedProduct.getId(), savedProduct.getStock(),
+                StockMovementReason.CREATION, null));
 
-        Counter.builder("product.created")
+        createdCounters.computeIfAbsent(productRequestDTO.getCategory(), category -> Counter.builder("product.created")
                 .description("Nombre de produits créés")
-                .tag("type", productRequestDTO.getCategory().name())
-                .register(meterRegistry)
+                .tag("type", category.name())
+                .register(meterRegistry))
                 .increment();
 
         return productMapper.toDTO(savedProduct);
@@ -103,6 +250,27 @@ public class ProductService {
      */
     @Transactional
     public ProductResponseDTO updateProduct(Long id, ProductRequestDTO productRequestDTO) {
+        return updateProduct(id, productRequestDTO, null);
+    }
+
+    /**
+     * Met à jour les données descriptives d'un produit (nom, description, prix, catégorie,
+     * image, seuil de réapprovisionnement), sous verrouillage optimiste.
+     *
+     * <p>Le stock n'est pas modifié : il ne change que par variations relatives
+     * ({@link #adjustStock}), qui n'écrivent pas les mêmes colonnes et ne changent pas la
+     * version. Une modification du catalogue et une commande ne peuvent donc ni s'annuler
+     * l'une l'autre ni s'attendre ; seules deux modifications du catalogue concurrentes sont
+     * en conflit.</p>
+     *
+     * @param id identifiant du produit
+     * @param productRequestDTO nouvelles données (le stock est ignoré)
+     * @param expectedVersion version sur laquelle porte la modification (If-Match), ou null
+     * @return ProductResponseDTO le produit avec sa nouvelle version
+     * @throws ProductVersionMismatchException si la version courante n'est pas {@code expectedVersion}
+     */
+    @Transactional
+    public ProductResponseDTO updateProduct(Long id, ProductRequestDTO productRequestDTO, Long expectedVersion) {
         log.debug("Mise à jour du produit avec l'ID: {}", id);
         
         Product existingProduct = productRepository.findById(id)
@@ -110,17 +278,23 @@ public class ProductService {
                     log.error("Produit non trouvé avec l'ID: {}", id);
                     return new RuntimeException("Produit non trouvé");
                 });
+        if (expectedVersion != null && !expectedVersion.equals(existingProduct.getVersion())) {
+            throw new ProductVersionMismatchException(id, expectedVersion, existingProduct.getVersion());
+        }
         
         existingProduct.setName(productRequestDTO.getName());
         existingProduct.setDescription(productRequestDTO.getDescription());
         existingProduct.setPrice(productRequestDTO.getPrice());
-        existingProduct.setStock(productRequestDTO.getStock());
         existingProduct.setCategory(productRequestDTO.getCategory());
         existingProduct.setImageUrl(productRequestDTO.getImageUrl());
+        existingProduct.setReorderThreshold(productRequestDTO.getReorderThreshold());
+        // Écrit maintenant : la réponse porte la nouvelle version, un conflit est levé ici
+        Product savedProduct = productRepository.saveAndFlush(existingProduct);
         
-        log.info("Produit mis à jour avec succès: {}", existingProduct.getName());
+        log.info("Produit mis à jour avec succès: {} (version {})", savedProduct.getName(), savedProduct.getVersion());
+        eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.UPDATED, id));
         
-        return productMapper.toDTO(existingProduct);
+        return hotStockService.overlay(productMapper.toDTO(savedProduct));
     }
 
     /**
@@ -150,6 +324,7 @@ public class ProductService {
         productRepository.save(product);
         
         log.info("Produit désactivé avec succès avec l'ID: {}", id);
+        eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.DELETED, id));
     }
 
     /**
@@ -160,20 +335,21 @@ public class ProductService {
     public List<ProductResponseDTO> getProductByName(String name) {
         log.debug("Récupération du produit avec le nom: {}", name);
         
-        List<Product> products = productRepository.findByName(name);
-        
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        List<ProductResponseDTO> products = (snapshot != null
+                ? snapshot.byName(name).stream()
+                : productRepository.findByName(name).stream().map(productMapper::toDTO))
+                .map(hotStockService::overlay)
+                .collect(Collectors.toList());
+
         if (products.isEmpty()) {
             log.error("Produit non trouvé avec le nom: {}", name);
             throw new RuntimeException("Produit non trouvé");
         }
-        
-        Product product = products.get(0);
-        
-        log.info("Produit récupéré avec succès: {}", product.getName());
-        
-        return products.stream()
-                .map(productMapper::toDTO)
-                .collect(Collectors.toList());
+
+        log.info("Produit récupéré avec succès: {}", name);
+
+        return products;
     }
 
     /**
@@ -184,13 +360,17 @@ public class ProductService {
     public List<ProductResponseDTO> getProductsByCategory(String category) {
         log.debug("Récupération des produits dans la catégorie: {}", category);
         
-        List<Product> products = productRepository.findByCategory(Category.valueOf(category));
-        
-        log.info("Nombre de produits récupérés dans la catégorie {}: {}", category, products.size());
-        
-        return products.stream()
-                .map(productMapper::toDTO)
+        Category value = Category.valueOf(category);
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        List<ProductResponseDTO> products = (snapshot != null
+                ? snapshot.byCategory(value).stream()
+                : productRepository.findByCategory(value).stream().map(productMapper::toDTO))
+                .map(hotStockService::overlay)
                 .collect(Collectors.toList());
+
+        log.info("Nombre de produits récupérés dans la catégorie {}: {}", category, products.size());
+
+        return products;
     }
 
     /**
@@ -200,35 +380,187 @@ public class ProductService {
     public List<ProductResponseDTO> getAvailableProducts() {
         log.debug("Récupération des produits disponibles");
         
-        List<Product> products = productRepository.findAvailable();
-        
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        // Un produit en vente flash épuisé en mémoire n'est plus disponible, même si la base
+        // n'a pas encore reçu son stock
+        List<ProductResponseDTO> products = (snapshot != null
+                ? snapshot.available().stream()
+                : productRepository.findAvailable().stream().map(productMapper::toDTO))
+                .map(hotStockService::overlay)
+                .filter(product -> product.getStock() > 0)
+                .collect(Collectors.toList());
+
         log.info("Nombre de produits disponibles récupérés: {}", products.size());
-        
+
+        return products;
+    }
+
+    /**
+     * Renvoie les produits actifs en stock dans une fourchette de prix, éventuellement
+     * restreints à une catégorie, du moins cher au plus cher.
+     * @param category catégorie (null pour toutes)
+     * @param minPrice prix minimum inclus (null pour aucun)
+     * @param maxPrice prix maximum inclus (null pour aucun)
+     * @param limit nombre maximal de produits (borné à {@link #MAX_PAGE_SIZE})
+     * @return List<ProductResponseDTO>
+     * @throws IllegalArgumentException si le prix minimum dépasse le prix maximum
+     */
+    public List<ProductResponseDTO> getAvailableProducts(Category category, BigDecimal minPrice,
+            BigDecimal maxPrice, int limit) {
+        BigDecimal min = minPrice != null ? minPrice : BigDecimal.ZERO;
+        BigDecimal max = maxPrice != null ? maxPrice : MAX_PRICE;
+        if (min.compareTo(max) > 0) {
+            throw new IllegalArgumentException("Le prix minimum doit être inférieur ou égal au prix maximum");
+        }
+        Limit bounded = Limit.of(Math.clamp(limit, 1, MAX_PAGE_SIZE));
+        log.debug("Récupération des produits disponibles entre {} et {} (catégorie: {})", min, max, category);
+
+        List<Product> products = category != null
+                ? productRepository.findAvailableByCategoryAndPriceBetween(category, min, max, bounded)
+                : productRepository.findAvailableByPriceBetween(min, max, bounded);
+
+        log.info("Nombre de produits disponibles récupérés entre {} et {}: {}", min, max, products.size());
+
         return products.stream()
                 .map(productMapper::toDTO)
+                .map(hotStockService::overlay)
+                .filter(product -> product.getStock() > 0)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Met à jour le stock d'un produit à partir de son ID et de la quantité à ajouter
+     * Met à jour le stock d'un produit à partir de son ID et de la quantité à ajouter.
+     * La variation est un UPDATE relatif ({@link #adjustStock}) : elle n'entre pas en conflit
+     * avec une modification concurrente des données du produit.
      * @param id
      * @param quantity
      * @return ProductResponseDTO
+     * @throws ResourceNotFoundException si le produit n'existe pas
+     * @throws InsufficientStockException si la variation rendrait le stock négatif
      */
     @Transactional
     public ProductResponseDTO updateStock(Long id, int quantity) {
         log.debug("Mise à jour du stock pour le produit avec l'ID: {}", id);
-        
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> {
-                    log.error("Produit non trouvé avec l'ID: {}", id);
-                    return new RuntimeException("Produit non trouvé");
+
+        return adjustStock(List.of(new StockAdjustmentDTO(id, quantity))).get(0);
+    }
+
+    /**
+     * Applique atomiquement des variations relatives de stock à plusieurs produits.
+     *
+     * <p>Chaque variation est un {@code UPDATE ... SET stock = stock + delta} conditionnel :
+     * aucune lecture préalable, donc pas de mise à jour perdue en cas d'accès concurrents.
+     * Les variations d'un même produit sont cumulées et appliquées par ID croissant pour
+     * éviter les interblocages. Si une variation échoue, toute l'opération est annulée.</p>
+     *
+     * <p>Les produits en mode vente flash sont traités en dernier, en mémoire, par
+     * {@link HotStockService} : leurs variations sont annulées si la transaction n'est pas validée,
+     * et transmises au journal des mouvements par son écriture périodique, agrégées par motif et
+     * sans référence.</p>
+     *
+     * <p>Une réservation ou restauration de commande avec référence n'est appliquée qu'une fois
+     * ({@link OrderReservationService}) : un nouvel essai renvoie l'état courant sans rien modifier.</p>
+     *
+     * @param adjustments les variations à appliquer
+     * @param reason origine des variations, inscrite au journal des mouvements
+     * @param reference identifiant métier associé (commande, réservation...), ou null
+     * @return List<ProductResponseDTO> les produits après mise à jour
+     * @throws ResourceNotFoundException si un produit n'existe pas
+     * @throws InsufficientStockException si une variation rendrait le stock négatif
+     */
+    @Transactional
+    public List<ProductResponseDTO> adjustStock(List<StockAdjustmentDTO> adjustments, StockMovementReason reason,
+            String reference) {
+        Map<Long, Integer> deltas = new TreeMap<>();
+        for (StockAdjustmentDTO adjustment : adjustments) {
+            deltas.merge(adjustment.getProductId(), adjustment.getDelta(), Integer::sum);
+        }
+
+        log.debug("Ajustement groupé du stock pour {} produits", deltas.size());
+
+        if (!orderReservationService.claim(reason, reference)) {
+            return currentStock(deltas.keySet());
+        }
+
+        Map<Long, Integer> hotDeltas = new TreeMap<>();
+        List<Long> coldIds = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : deltas.entrySet()) {
+            if (hotStockService.isHot(entry.getKey())) {
+                hotDeltas.put(entry.getKey(), entry.getValue());
+            } else {
+                incrementStock(entry.getKey(), entry.getValue());
+                coldIds.add(entry.getKey());
+            }
+        }
+
+        Map<Long, Integer> applied = new TreeMap<>();
+        for (Map.Entry<Long, Integer> entry : hotDeltas.entrySet()) {
+            AdjustResult result = hotStockService.tryAdjust(entry.getKey(), entry.getValue());
+            if (result == AdjustResult.APPLIED) {
+                applied.put(entry.getKey(), entry.getValue());
+            } else if (result == AdjustResult.INSUFFICIENT) {
+                hotStockService.compensate(applied);
+                throw new InsufficientStockException(entry.getKey(), entry.getValue());
+            } else {
+                // Sorti du mode vente flash entre-temps : le stock final est en base
+                incrementStock(entry.getKey(), entry.getValue());
+                coldIds.add(entry.getKey());
+            }
+        }
+        if (!applied.isEmpty()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED) {
+                            hotStockService.recordMovements(applied, reason);
+                        } else {
+                            hotStockService.compensate(applied);
+                        }
+                    }
                 });
-        
-        product.setStock(quantity + product.getStock());
-        
-        log.info("Stock mis à jour avec succès pour le produit: {}", product.getName());
-        
-        return productMapper.toDTO(product);
+            } else {
+                hotStockService.recordMovements(applied, reason);
+            }
+        }
+
+        log.info("Stock ajusté avec succès pour {} produits ({} en mémoire)", deltas.size(), applied.size());
+        if (!coldIds.isEmpty()) {
+            eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.STOCK, coldIds));
+        }
+        List<StockMovedEvent.Movement> movements = deltas.entrySet().stream()
+                .filter(entry -> !applied.containsKey(entry.getKey()))
+                .map(entry -> new StockMovedEvent.Movement(entry.getKey(), entry.getValue(), reason, reference))
+                .toList();
+        if (!movements.isEmpty()) {
+            eventPublisher.publishEvent(StockMovedEvent.of(movements));
+        }
+
+        return currentStock(deltas.keySet());
+    }
+
+    private List<ProductResponseDTO> currentStock(Collection<Long> ids) {
+        return productRepository.findAllById(ids).stream()
+                .map(productMapper::toDTO)
+                .map(hotStockService::overlay)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Ajustement manuel : {@link #adjustStock(List, StockMovementReason, String)} sans référence.
+     */
+    @Transactional
+    public List<ProductResponseDTO> adjustStock(List<StockAdjustmentDTO> adjustments) {
+        return adjustStock(adjustments, StockMovementReason.MANUAL_ADJUST, null);
+    }
+
+    private void incrementStock(Long id, int delta) {
+        int updated = productRepository.incrementStock(id, delta);
+        if (updated == 0) {
+            if (!productRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Produit", "id", id);
+            }
+            throw new InsufficientStockException(id, delta);
+        }
     }
 }
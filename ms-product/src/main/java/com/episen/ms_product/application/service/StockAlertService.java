@@ -0,0 +1,189 @@
+package com.episen.ms_product.application.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.episen.ms_product.application.dto.StockLevelDTO;
+import com.episen.ms_product.application.event.ProductChangedEvent;
+import com.episen.ms_product.application.stock.StockAlert;
+import com.episen.ms_product.application.stock.StockAlertSink;
+import com.episen.ms_product.application.stock.StockLevelIndex;
+import com.episen.ms_product.application.stock.StockLevelIndex.Crossing;
+import com.episen.ms_product.application.stock.StockLevelIndex.Level;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Suivi des seuils de réapprovisionnement.
+ *
+ * <p>Le {@link StockLevelIndex} est construit au démarrage à partir des produits actifs, puis
+ * tenu à jour à chaque {@link ProductChangedEvent} commité : les niveaux des seuls produits
+ * concernés sont relus en une requête. Le stock des produits en vente flash est pris dans
+ * {@link HotStockService} ; il est relu à chaque écriture périodique de leurs compteurs.</p>
+ *
+ * <p>Quand un produit passe sous son seuil (ou revient au-dessus), une {@link StockAlert}
+ * est transmise à tous les {@link StockAlertSink}, sur un thread dédié.</p>
+ *
+ * <p><b>Métriques Prometheus :</b></p>
+ * <ul>
+ * <li>products.stock.below_threshold - Produits actifs sous leur seuil</li>
+ * <li>products.stock.alerts - Alertes émises (tag type=LOW_STOCK|RESTOCKED)</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class StockAlertService {
+
+    private static final int REFRESH_BATCH_SIZE = 1000;
+
+    private static final String LOAD_ALL_SQL =
+            "SELECT id, stock, reorder_threshold FROM product WHERE active = TRUE";
+    private static final String LOAD_SQL =
+            "SELECT id, stock, reorder_threshold FROM product WHERE active = TRUE AND id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final HotStockService hotStockService;
+    private final List<StockAlertSink> sinks;
+    private final int defaultThreshold;
+    private final StockLevelIndex index = new StockLevelIndex();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-alerts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter lowStockAlerts;
+    private final Counter restockedAlerts;
+
+    public StockAlertService(JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            HotStockService hotStockService,
+            List<StockAlertSink> sinks,
+            MeterRegistry meterRegistry,
+            @Value("${products.stock-alerts.default-threshold:5}") int defaultThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.hotStockService = hotStockService;
+        this.sinks = sinks;
+        this.defaultThreshold = defaultThreshold;
+
+        Gauge.builder("products.stock.below_threshold", index, StockLevelIndex::belowThresholdCount)
+                .description("Produits actifs dont le stock est sous le seuil de réapprovisionnement")
+                .register(meterRegistry);
+        this.lowStockAlerts = alertCounter(meterRegistry, StockAlert.Type.LOW_STOCK);
+        this.restockedAlerts = alertCounter(meterRegistry, StockAlert.Type.RESTOCKED);
+    }
+
+    /**
+     * Construit l'index au démarrage, sans émettre d'alerte pour les produits déjà sous
+     * leur seuil.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        long start = System.currentTimeMillis();
+        jdbcTemplate.query(LOAD_ALL_SQL, rs -> {
+            index.update(level(rs.getLong(1), rs.getInt(2), (Integer) rs.getObject(3)));
+        });
+        log.info("Index des stocks construit: {} produits, {} sous leur seuil en {} ms",
+                index.size(), index.belowThresholdCount(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Relit le niveau des produits modifiés une fois l'écriture commitée.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        try {
+            refresh(event.productIds());
+        } catch (RuntimeException e) {
+            log.error("Index des stocks: échec de la mise à jour de {} produits: {}",
+                    event.productIds().size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Produits actifs sous leur seuil, du plus critique au moins critique.
+     * @param limit nombre maximal de produits
+     */
+    public List<StockLevelDTO> belowThreshold(int limit) {
+        return index.belowThreshold(limit).stream()
+                .map(level -> StockLevelDTO.builder()
+                        .productId(level.productId())
+                        .stock(level.stock())
+                        .reorderThreshold(level.threshold())
+                        .build())
+                .toList();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    private void refresh(Collection<Long> productIds) {
+        List<Long> ids = new ArrayList<>(productIds);
+        for (int from = 0; from < ids.size(); from += REFRESH_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + REFRESH_BATCH_SIZE, ids.size()));
+            Set<Long> active = new HashSet<>();
+            namedJdbcTemplate.query(LOAD_SQL, Map.of("ids", batch), rs -> {
+                long productId = rs.getLong(1);
+                active.add(productId);
+                Level level = level(productId, rs.getInt(2), (Integer) rs.getObject(3));
+                Crossing crossing = index.update(level);
+                if (crossing != Crossing.NONE) {
+                    publish(crossing, level);
+                }
+            });
+            // Produits désactivés : plus suivis
+            batch.stream().filter(id -> !active.contains(id)).forEach(index::remove);
+        }
+    }
+
+    private Level level(long productId, int stock, Integer threshold) {
+        int current = hotStockService.currentStock(productId).orElse(stock);
+        return new Level(productId, current, threshold != null ? threshold : defaultThreshold);
+    }
+
+    private void publish(Crossing crossing, Level level) {
+        StockAlert.Type type = crossing == Crossing.BELOW ? StockAlert.Type.LOW_STOCK : StockAlert.Type.RESTOCKED;
+        (type == StockAlert.Type.LOW_STOCK ? lowStockAlerts : restockedAlerts).increment();
+        StockAlert alert = new StockAlert(type, level.productId(), level.stock(), level.threshold(), Instant.now());
+        dispatcher.execute(() -> {
+            for (StockAlertSink sink : sinks) {
+                try {
+                    sink.onAlert(alert);
+                } catch (RuntimeException e) {
+                    log.error("Alerte de stock: échec de {} pour le produit {}: {}",
+                            sink.getClass().getSimpleName(), alert.productId(), e.getMessage());
+                }
+            }
+        });
+    }
+
+    private static Counter alertCounter(MeterRegistry meterRegistry, StockAlert.Type type) {
+        return Counter.builder("products.stock.alerts")
+                .description("Alertes de franchissement du seuil de réapprovisionnement")
+                .tag("type", type.name())
+                .register(meterRegistry);
+    }
+}
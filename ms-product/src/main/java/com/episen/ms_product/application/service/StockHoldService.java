@@ -0,0 +1,361 @@
+package com.episen.ms_product.application.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.episen.ms_product.application.dto.StockAdjustmentDTO;
+import com.episen.ms_product.application.dto.StockHoldDTO;
+import com.episen.ms_product.application.stock.TimingWheel;
+import com.episen.ms_product.domain.enumerate.StockHoldStatus;
+import com.episen.ms_product.domain.enumerate.StockMovementReason;
+import com.episen.ms_product.infrastructure.exception.ResourceNotFoundException;
+import com.episen.ms_product.infrastructure.exception.StockHoldAccessDeniedException;
+import com.episen.ms_product.infrastructure.exception.StockHoldLimitExceededException;
+import com.episen.ms_product.infrastructure.exception.StockHoldStateException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Réservations de stock à durée limitée (tunnel de commande).
+ *
+ * <p>Créer une réservation retire sa quantité du stock vendable par
+ * {@link ProductService#adjustStock} (mêmes garanties que les commandes : jamais de stock
+ * négatif, compteurs en mémoire des produits en vente flash). Le stock du produit reste
+ * donc directement le stock disponible, lu en O(1) par le cache produit ; les unités
+ * réservées sont la différence avec le stock physique. Confirmer rend la sortie définitive,
+ * libérer ou laisser expirer restitue la quantité.</p>
+ *
+ * <p>Les réservations sont enregistrées dans {@code stock_hold} ; une transition ne
+ * s'applique qu'à une réservation encore HELD ({@code UPDATE ... WHERE status = 'HELD'}, ou
+ * verrou de ligne pour les expirations par lots), si bien qu'une confirmation et une
+ * expiration concurrentes ne peuvent réussir toutes les deux. Les échéances sont tenues par une
+ * {@link TimingWheel} avancée à chaque tick : aucune table n'est parcourue pour trouver les
+ * réservations expirées. Au démarrage, les réservations en cours sont relues et replanifiées.</p>
+ *
+ * <p>Chaque réservation enregistre son propriétaire : seul lui, ou un appelant ADMIN/SERVICE,
+ * peut la consulter, la confirmer ou la libérer. Une réservation est bornée à
+ * {@code products.holds.max-quantity} unités, et les réservations en cours d'un même
+ * utilisateur à {@code products.holds.max-units-per-user} unités (les appelants ADMIN/SERVICE,
+ * qui réservent pour le compte de plusieurs clients, n'ont pas ce second plafond). Le contrôle
+ * du plafond par utilisateur et l'insertion sont sérialisés par propriétaire dans l'instance.</p>
+ *
+ * <p><b>Métriques Prometheus :</b></p>
+ * <ul>
+ * <li>products.holds.active - Réservations en cours</li>
+ * <li>products.holds.reserved_units - Unités réservées</li>
+ * <li>products.holds.transitions - Fins de réservation (tag status=CONFIRMED|RELEASED|EXPIRED)</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class StockHoldService {
+
+    private static final int EXPIRY_BATCH_SIZE = 500;
+    private static final int OWNER_LOCK_STRIPES = 64;
+
+    private static final String SELECT_SQL = "SELECT id, owner_id, product_id, quantity, status, expires_at FROM stock_hold";
+    private static final RowMapper<StockHoldDTO> HOLD_MAPPER = (rs, rowNum) -> StockHoldDTO.builder()
+            .id(rs.getString("id"))
+            .ownerId(rs.getLong("owner_id"))
+            .productId(rs.getLong("product_id"))
+            .quantity(rs.getInt("quantity"))
+            .status(StockHoldStatus.valueOf(rs.getString("status")))
+            .expiresAt(rs.getTimestamp("expires_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductService productService;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final Duration retention;
+    private final int maxQuantity;
+    private final int maxUnitsPerUser;
+    private final TimingWheel<String> wheel;
+    private final Object[] ownerLocks = new Object[OWNER_LOCK_STRIPES];
+    private final AtomicLong reservedUnits = new AtomicLong();
+
+    private final Counter confirmed;
+    private final Counter released;
+    private final Counter expired;
+
+    public StockHoldService(JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ProductService productService,
+            MeterRegistry meterRegistry,
+            @Value("${products.holds.ttl:10m}") Duration defaultTtl,
+            @Value("${products.holds.max-ttl:1h}") Duration maxTtl,
+            @Value("${products.holds.retention:1d}") Duration retention,
+            @Value("${products.holds.max-quantity:10}") int maxQuantity,
+            @Value("${products.holds.max-units-per-user:20}") int maxUnitsPerUser,
+            @Value("${products.holds.tick-ms:1000}") long tickMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.productService = productService;
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+        this.retention = retention;
+        this.maxQuantity = maxQuantity;
+        this.maxUnitsPerUser = maxUnitsPerUser;
+        for (int i = 0; i < OWNER_LOCK_STRIPES; i++) {
+            ownerLocks[i] = new Object();
+        }
+        this.wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+
+        Gauge.builder("products.holds.active", wheel, TimingWheel::size)
+                .description("Réservations de stock en cours")
+                .register(meterRegistry);
+        Gauge.builder("products.holds.reserved_units", reservedUnits, AtomicLong::get)
+                .description("Unités de stock réservées")
+                .register(meterRegistry);
+        this.confirmed = transitionCounter(meterRegistry, StockHoldStatus.CONFIRMED);
+        this.released = transitionCounter(meterRegistry, StockHoldStatus.RELEASED);
+        this.expired = transitionCounter(meterRegistry, StockHoldStatus.EXPIRED);
+    }
+
+    /**
+     * Replanifie les réservations en cours ; celles dont l'échéance est passée expirent
+     * au premier tick.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reloadHolds() {
+        List<StockHoldDTO> holds = jdbcTemplate.query(SELECT_SQL + " WHERE status = 'HELD'", HOLD_MAPPER);
+        for (StockHoldDTO hold : holds) {
+            wheel.schedule(hold.getId(), Timestamp.valueOf(hold.getExpiresAt()).getTime());
+            reservedUnits.addAndGet(hold.getQuantity());
+        }
+        log.info("Réservations de stock: {} réservations en cours replanifiées", holds.size());
+    }
+
+    /**
+     * Réserve du stock pour une durée limitée.
+     * @param productId identifiant du produit
+     * @param quantity quantité réservée, au plus {@code products.holds.max-quantity}
+     * @param ttlSeconds durée en secondes (null pour {@code products.holds.ttl}), bornée à {@code products.holds.max-ttl}
+     * @param ownerId identifiant de l'utilisateur propriétaire de la réservation
+     * @param privileged true pour un appelant ADMIN/SERVICE (pas de plafond par utilisateur)
+     * @return la réservation créée
+     * @throws IllegalArgumentException si la quantité ou la durée n'est pas strictement positive, ou si la quantité dépasse {@code products.holds.max-quantity}
+     * @throws StockHoldLimitExceededException si l'utilisateur dépasserait {@code products.holds.max-units-per-user} unités réservées
+     * @throws com.episen.ms_product.infrastructure.exception.InsufficientStockException si le stock disponible est insuffisant
+     * @throws ResourceNotFoundException si le produit n'existe pas
+     */
+    public StockHoldDTO hold(Long productId, int quantity, Integer ttlSeconds, Long ownerId, boolean privileged) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("La quantité réservée doit être positive");
+        }
+        if (quantity > maxQuantity) {
+            throw new IllegalArgumentException(
+                    String.format("Une réservation est limitée à %d unités", maxQuantity));
+        }
+        if (ttlSeconds != null && ttlSeconds <= 0) {
+            throw new IllegalArgumentException("La durée de réservation doit être positive");
+        }
+        Duration ttl = ttlSeconds == null ? defaultTtl : Duration.ofSeconds(ttlSeconds);
+        if (ttl.compareTo(maxTtl) > 0) {
+            ttl = maxTtl;
+        }
+        StockHoldDTO hold = StockHoldDTO.builder()
+                .id(UUID.randomUUID().toString())
+                .ownerId(ownerId)
+                .productId(productId)
+                .quantity(quantity)
+                .status(StockHoldStatus.HELD)
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .build();
+
+        if (privileged) {
+            insert(hold);
+        } else {
+            // Sérialisé par propriétaire : deux réservations concurrentes ne voient pas
+            // l'insertion non commitée de l'autre et dépasseraient ensemble le plafond
+            synchronized (ownerLocks[Math.floorMod(ownerId.hashCode(), OWNER_LOCK_STRIPES)]) {
+                Long held = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity), 0) FROM stock_hold "
+                        + "WHERE owner_id = ? AND status = 'HELD'", Long.class, ownerId);
+                if (held + quantity > maxUnitsPerUser) {
+                    throw new StockHoldLimitExceededException(ownerId, held, maxUnitsPerUser);
+                }
+                insert(hold);
+            }
+        }
+        wheel.schedule(hold.getId(), Timestamp.valueOf(hold.getExpiresAt()).getTime());
+        reservedUnits.addAndGet(quantity);
+
+        log.info("Réservation {} créée: {} unités du produit {} jusqu'à {}",
+                hold.getId(), quantity, productId, hold.getExpiresAt());
+        return hold;
+    }
+
+    /**
+     * Renvoie une réservation.
+     * @throws ResourceNotFoundException si la réservation n'existe pas (ou a été purgée)
+     * @throws StockHoldAccessDeniedException si l'appelant n'est ni le propriétaire ni ADMIN/SERVICE
+     */
+    public StockHoldDTO getHold(String holdId, Long callerId, boolean privileged) {
+        StockHoldDTO hold = findHold(holdId);
+        checkOwner(hold, callerId, privileged);
+        return hold;
+    }
+
+    /**
+     * Confirme une réservation : la quantité sort définitivement du stock. Idempotent.
+     * @throws StockHoldStateException si la réservation a été libérée ou a expiré
+     * @throws StockHoldAccessDeniedException si l'appelant n'est ni le propriétaire ni ADMIN/SERVICE
+     */
+    public StockHoldDTO confirm(String holdId, Long callerId, boolean privileged) {
+        checkOwner(findHold(holdId), callerId, privileged);
+        return finish(holdId, StockHoldStatus.CONFIRMED);
+    }
+
+    /**
+     * Libère une réservation : la quantité est restituée au stock. Idempotent.
+     * @throws StockHoldStateException si la réservation a été confirmée
+     * @throws StockHoldAccessDeniedException si l'appelant n'est ni le propriétaire ni ADMIN/SERVICE
+     */
+    public StockHoldDTO release(String holdId, Long callerId, boolean privileged) {
+        checkOwner(findHold(holdId), callerId, privileged);
+        return finish(holdId, StockHoldStatus.RELEASED);
+    }
+
+    /**
+     * Fait expirer les réservations arrivées à échéance, par lots de
+     * {@value #EXPIRY_BATCH_SIZE} : un lot coûte une transaction et un seul ajustement
+     * de stock, quel que soit le nombre de réservations qui expirent au même tick.
+     */
+    @Scheduled(fixedDelayString = "${products.holds.tick-ms:1000}")
+    public void expireDue() {
+        List<String> due = wheel.advance(System.currentTimeMillis());
+        for (int from = 0; from < due.size(); from += EXPIRY_BATCH_SIZE) {
+            List<String> batch = due.subList(from, Math.min(from + EXPIRY_BATCH_SIZE, due.size()));
+            try {
+                expire(batch);
+            } catch (RuntimeException e) {
+                // Replanifiées : le stock n'est restitué qu'une fois la transition réussie
+                log.error("Réservations de stock: échec de l'expiration de {} réservations, nouvel essai dans 1 min: {}",
+                        batch.size(), e.getMessage());
+                long retryAt = System.currentTimeMillis() + Duration.ofMinutes(1).toMillis();
+                batch.forEach(holdId -> wheel.schedule(holdId, retryAt));
+            }
+        }
+    }
+
+    /**
+     * Supprime les réservations terminées depuis plus de {@code products.holds.retention}.
+     */
+    @Scheduled(fixedDelayString = "${products.holds.purge-interval-ms:3600000}")
+    public void purge() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        int removed = jdbcTemplate.update("DELETE FROM stock_hold WHERE status <> 'HELD' AND updated_at < ?", cutoff);
+        if (removed > 0) {
+            log.info("Réservations de stock: {} réservations terminées de plus de {} purgées", removed, retention);
+        }
+    }
+
+    private void insert(StockHoldDTO hold) {
+        transactionTemplate.executeWithoutResult(status -> {
+            productService.adjustStock(List.of(new StockAdjustmentDTO(hold.getProductId(), -hold.getQuantity())),
+                    StockMovementReason.HOLD, hold.getId());
+            jdbcTemplate.update("INSERT INTO stock_hold (id, owner_id, product_id, quantity, status, expires_at) "
+                    + "VALUES (?, ?, ?, ?, 'HELD', ?)", hold.getId(), hold.getOwnerId(), hold.getProductId(),
+                    hold.getQuantity(), Timestamp.valueOf(hold.getExpiresAt()));
+        });
+    }
+
+    private StockHoldDTO findHold(String holdId) {
+        return jdbcTemplate.query(SELECT_SQL + " WHERE id = ?", HOLD_MAPPER, holdId).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Réservation", "id", holdId));
+    }
+
+    private static void checkOwner(StockHoldDTO hold, Long callerId, boolean privileged) {
+        if (!privileged && !hold.getOwnerId().equals(callerId)) {
+            throw new StockHoldAccessDeniedException(hold.getId());
+        }
+    }
+
+    private void expire(List<String> holdIds) {
+        List<StockHoldDTO> holds = transactionTemplate.execute(status -> {
+            // Verrouille les réservations encore en cours : une confirmation concurrente attend
+            // la fin de la transaction puis constate l'expiration
+            List<StockHoldDTO> held = namedJdbcTemplate.query(SELECT_SQL + " WHERE id IN (:ids) AND status = 'HELD' FOR UPDATE",
+                    Map.of("ids", holdIds), HOLD_MAPPER);
+            if (held.isEmpty()) {
+                return held;
+            }
+            namedJdbcTemplate.update("UPDATE stock_hold SET status = 'EXPIRED', updated_at = CURRENT_TIMESTAMP "
+                    + "WHERE id IN (:ids)", Map.of("ids", held.stream().map(StockHoldDTO::getId).toList()));
+            productService.adjustStock(held.stream()
+                    .map(hold -> new StockAdjustmentDTO(hold.getProductId(), hold.getQuantity()))
+                    .toList(), StockMovementReason.HOLD_EXPIRE, null);
+            return held;
+        });
+
+        long units = holds.stream().mapToLong(StockHoldDTO::getQuantity).sum();
+        reservedUnits.addAndGet(-units);
+        expired.increment(holds.size());
+        log.info("Réservations de stock: {} réservations expirées, {} unités restituées", holds.size(), units);
+    }
+
+    private StockHoldDTO finish(String holdId, StockHoldStatus target) {
+        StockHoldDTO hold = transactionTemplate.execute(status -> {
+            StockHoldDTO current = findHold(holdId);
+            int updated = jdbcTemplate.update("UPDATE stock_hold SET status = ?, updated_at = CURRENT_TIMESTAMP "
+                    + "WHERE id = ? AND status = 'HELD'", target.name(), holdId);
+            if (updated == 0) {
+                return null;
+            }
+            if (target == StockHoldStatus.RELEASED) {
+                productService.adjustStock(List.of(new StockAdjustmentDTO(current.getProductId(), current.getQuantity())),
+                        StockMovementReason.HOLD_RELEASE, holdId);
+            }
+            current.setStatus(target);
+            return current;
+        });
+
+        if (hold == null) {
+            // Transition déjà faite (requête rejouée) ou concurrente (expiration)
+            StockHoldDTO current = findHold(holdId);
+            boolean sameOutcome = current.getStatus() == target
+                    || (target == StockHoldStatus.RELEASED && current.getStatus() == StockHoldStatus.EXPIRED);
+            if (!sameOutcome) {
+                throw new StockHoldStateException(holdId, current.getStatus());
+            }
+            return current;
+        }
+
+        wheel.cancel(holdId);
+        reservedUnits.addAndGet(-hold.getQuantity());
+        (target == StockHoldStatus.CONFIRMED ? confirmed : released).increment();
+        log.info("Réservation {} {}: {} unités du produit {}", holdId, target, hold.getQuantity(), hold.getProductId());
+        return hold;
+    }
+
+    private static Counter transitionCounter(MeterRegistry meterRegistry, StockHoldStatus status) {
+        return Counter.builder("products.holds.transitions")
+                .description("Fins de réservation de stock")
+                .tag("status", status.name())
+                .register(meterRegistry);
+    }
+}
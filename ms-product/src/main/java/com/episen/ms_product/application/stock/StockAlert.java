@@ -0,0 +1,25 @@
+package com.episen.ms_product.application.stock;
+
+import java.time.Instant;
+
+/**
+ * Alerte émise lorsqu'un produit franchit son seuil de réapprovisionnement.
+ *
+ * @param type sens du franchissement
+ * @param productId identifiant du produit
+ * @param stock stock après la variation
+ * @param threshold seuil de réapprovisionnement du produit
+ * @param at instant de détection
+ */
+public record StockAlert(Type type, Long productId, int stock, int threshold, Instant at) {
+
+    /**
+     * Sens du franchissement.
+     */
+    public enum Type {
+        /** Le stock vient de passer sous le seuil. */
+        LOW_STOCK,
+        /** Le stock est revenu au niveau du seuil ou au-dessus. */
+        RESTOCKED
+    }
+}
@@ -0,0 +1,12 @@
+package com.episen.ms_product.application.stock;
+
+/**
+ * Destination des alertes de stock (journal, webhook, file de messages...).
+ *
+ * <p>Toutes les implémentations déclarées comme beans reçoivent chaque alerte, sur un
+ * thread dédié : une destination lente ne ralentit pas les écritures du catalogue.</p>
+ */
+public interface StockAlertSink {
+
+    void onAlert(StockAlert alert);
+}
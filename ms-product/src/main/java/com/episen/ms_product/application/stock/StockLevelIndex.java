@@ -0,0 +1,105 @@
+package com.episen.ms_product.application.stock;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Index en mémoire des niveaux de stock, trié par marge {@code stock - seuil}.
+ *
+ * <p>Les produits sous leur seuil de réapprovisionnement forment le début de l'ensemble
+ * trié : les {@code k} plus critiques se lisent en O(k + log n), sans parcours du catalogue.
+ * Une mise à jour coûte O(log n) et indique si le produit a franchi son seuil.</p>
+ *
+ * <p><b>Concurrence :</b> les écritures sont sérialisées ; les lectures parcourent une
+ * {@link ConcurrentSkipListSet} sans verrou.</p>
+ */
+public class StockLevelIndex {
+
+    /**
+     * Niveau de stock d'un produit.
+     */
+    public record Level(long productId, int stock, int threshold) {
+
+        public int margin() {
+            return stock - threshold;
+        }
+
+        public boolean belowThreshold() {
+            return stock < threshold;
+        }
+    }
+
+    /**
+     * Franchissement de seuil provoqué par une mise à jour.
+     */
+    public enum Crossing {
+        NONE,
+        BELOW,
+        RECOVERED
+    }
+
+    private static final Comparator<Level> BY_MARGIN = Comparator.comparingInt(Level::margin)
+            .thenComparingLong(Level::productId);
+
+    /** Borne exclusive : tous les niveaux de marge négative la précèdent. */
+    private static final Level ZERO_MARGIN = new Level(Long.MIN_VALUE, 0, 0);
+
+    private final ConcurrentSkipListSet<Level> byMargin = new ConcurrentSkipListSet<>(BY_MARGIN);
+    private final Map<Long, Level> levels = new ConcurrentHashMap<>();
+    private final AtomicInteger belowCount = new AtomicInteger();
+
+    /**
+     * Enregistre le niveau d'un produit.
+     * @return le franchissement de seuil, NONE pour un produit jusque-là absent de l'index
+     */
+    public synchronized Crossing update(Level level) {
+        Level previous = levels.put(level.productId(), level);
+        if (previous != null) {
+            byMargin.remove(previous);
+            if (previous.belowThreshold()) {
+                belowCount.decrementAndGet();
+            }
+        }
+        byMargin.add(level);
+        if (level.belowThreshold()) {
+            belowCount.incrementAndGet();
+        }
+
+        if (previous == null || previous.belowThreshold() == level.belowThreshold()) {
+            return Crossing.NONE;
+        }
+        return level.belowThreshold() ? Crossing.BELOW : Crossing.RECOVERED;
+    }
+
+    /**
+     * Retire un produit (désactivé ou supprimé).
+     */
+    public synchronized void remove(long productId) {
+        Level previous = levels.remove(productId);
+        if (previous != null) {
+            byMargin.remove(previous);
+            if (previous.belowThreshold()) {
+                belowCount.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Produits sous leur seuil, du plus critique (marge la plus négative) au moins critique.
+     */
+    public List<Level> belowThreshold(int limit) {
+        return byMargin.headSet(ZERO_MARGIN).stream().limit(limit).toList();
+    }
+
+    public int belowThresholdCount() {
+        return belowCount.get();
+    }
+
+    public int size() {
+        return levels.size();
+    }
+}
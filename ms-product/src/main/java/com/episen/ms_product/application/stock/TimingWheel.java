@@ -0,0 +1,142 @@
+package com.episen.ms_product.application.stock;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Roue temporelle hiérarchique (hierarchical timing wheel) pour l'expiration de clés.
+ *
+ * <p>{@value #LEVELS} niveaux de {@value #SLOTS} cases : une case du niveau {@code n} couvre
+ * {@code 64^n} ticks. Une échéance est rangée dans le niveau le plus fin qui la contient ;
+ * quand un niveau fait un tour complet, la case suivante du niveau supérieur est redistribuée
+ * vers les niveaux inférieurs. Planifier et annuler coûtent O(1), avancer d'un tick coûte
+ * O(1) plus le nombre d'échéances atteintes : aucun parcours de l'ensemble des clés.</p>
+ *
+ * <p>Avec un tick de 100 ms, les 4 niveaux couvrent environ 19 jours ; une échéance plus
+ * lointaine est rangée dans la dernière case puis replacée à chaque redistribution.</p>
+ *
+ * <p>L'annulation est paresseuse : la clé quitte l'index et son entrée est ignorée quand
+ * sa case est atteinte. <b>Concurrence :</b> toutes les opérations sont synchronisées.</p>
+ *
+ * @param <K> type des clés planifiées
+ */
+public class TimingWheel<K> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELAY_TICKS = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    /** Échéance d'une clé, en ticks absolus. */
+    private static final class Timeout<K> {
+        private final K key;
+        private final long expirationTick;
+
+        private Timeout(K key, long expirationTick) {
+            this.key = key;
+            this.expirationTick = expirationTick;
+        }
+    }
+
+    private final long tickMillis;
+    private final List<List<ArrayDeque<Timeout<K>>>> levels = new ArrayList<>(LEVELS);
+    private final Map<K, Timeout<K>> pending = new HashMap<>();
+    private long currentTick;
+
+    /**
+     * @param tickMillis résolution de la roue
+     * @param startMillis instant de départ (horloge murale, en ms)
+     */
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("La résolution de la roue doit être positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        for (int level = 0; level < LEVELS; level++) {
+            List<ArrayDeque<Timeout<K>>> slots = new ArrayList<>(SLOTS);
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots.add(new ArrayDeque<>());
+            }
+            levels.add(slots);
+        }
+    }
+
+    /**
+     * Planifie (ou replanifie) l'expiration de {@code key}. Une échéance déjà passée
+     * expire au prochain appel de {@link #advance}.
+     * @param deadlineMillis échéance (horloge murale, en ms), arrondie au tick supérieur
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        long expirationTick = Math.max(currentTick + 1, Math.ceilDiv(deadlineMillis, tickMillis));
+        Timeout<K> timeout = new Timeout<>(key, expirationTick);
+        pending.put(key, timeout);
+        place(timeout);
+    }
+
+    /**
+     * Annule l'expiration de {@code key}.
+     * @return vrai si la clé était planifiée
+     */
+    public synchronized boolean cancel(K key) {
+        return pending.remove(key) != null;
+    }
+
+    /**
+     * Avance la roue jusqu'à {@code nowMillis}.
+     * @return les clés arrivées à échéance, dans l'ordre de leurs échéances
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(1);
+            ArrayDeque<Timeout<K>> slot = levels.get(0).get((int) (currentTick & SLOT_MASK));
+            Timeout<K> timeout;
+            while ((timeout = slot.poll()) != null) {
+                if (pending.remove(timeout.key, timeout)) {
+                    expired.add(timeout.key);
+                }
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * Redistribue la case courante du niveau {@code level} quand le niveau inférieur
+     * termine un tour, en commençant par les niveaux supérieurs.
+     */
+    private void cascade(int level) {
+        if (level >= LEVELS || (currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+            return;
+        }
+        cascade(level + 1);
+        ArrayDeque<Timeout<K>> slot = levels.get(level).get((int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+        List<Timeout<K>> timeouts = new ArrayList<>(slot);
+        slot.clear();
+        for (Timeout<K> timeout : timeouts) {
+            if (pending.get(timeout.key) == timeout) {
+                place(timeout);
+            }
+        }
+    }
+
+    private void place(Timeout<K> timeout) {
+        long delay = Math.min(timeout.expirationTick - currentTick, MAX_DELAY_TICKS);
+        long tick = currentTick + delay;
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        levels.get(level).get((int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK)).add(timeout);
+    }
+}
@@ -16,6 +16,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -32,6 +33,8 @@ import lombok.NoArgsConstructor;
  * - Utilisation de Lombok pour réduire le boilerplate
  * - Validation avec Bean Validation
  * - Audit automatique avec @CreationTimestamp et @UpdateTimestamp
+ * - Verrouillage optimiste (@Version) des données descriptives ; le stock n'est jamais écrit
+ *   par l'entité mais par des UPDATE relatifs, qui ne touchent pas la version
  * - Builder pattern pour une construction flexible
  */
 @Entity
@@ -63,7 +66,7 @@ public class Product {
 
     @NotNull(message = "Le stock ne peut pas être nul")
     @Min(value = 0, message = "Le stock doit être positif")
-    @Column(name = "stock", nullable = false)
+    @Column(name = "stock", nullable = false, updatable = false)
     private Integer stock;
 
     @NotNull(message = "La catégorie ne peut pas être vide")
@@ -74,6 +77,15 @@ public class Product {
     @Column(name = "imageUrl")
     private String imageUrl;
 
+    /**
+     * Seuil de réapprovisionnement : une alerte est émise quand le stock passe en dessous.
+     * Null pour le seuil par défaut (products.stock-alerts.default-threshold).
+     */
+    @Min(value = 0, message = "Le seuil de réapprovisionnement doit être positif")
+    @Column(name = "reorder_threshold")
+    private Integer reorderThreshold;
+
+    @Builder.Default
     @Column(name = "active")
     private boolean active = true;
 
@@ -84,4 +96,8 @@ public class Product {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
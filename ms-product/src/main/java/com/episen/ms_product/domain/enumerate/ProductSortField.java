@@ -0,0 +1,58 @@
+package com.episen.ms_product.domain.enumerate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+import com.episen.ms_product.domain.entity.Product;
+
+/**
+ * Champs de tri autorisés pour le listing paginé des produits.
+ * Chaque champ est associé à l'attribut JPA correspondant, à son extracteur
+ * et à son parseur (pour relire la valeur encodée dans un curseur).
+ */
+public enum ProductSortField {
+    PRICE("price", Product::getPrice, BigDecimal::new),
+    NAME("name", Product::getName, Function.identity()),
+    CREATED_AT("createdAt", Product::getCreatedAt, LocalDateTime::parse),
+    STOCK("stock", Product::getStock, Integer::valueOf);
+
+    private final String attribute;
+    private final Function<Product, ? extends Comparable<?>> extractor;
+    private final Function<String, ? extends Comparable<?>> parser;
+
+    ProductSortField(String attribute,
+            Function<Product, ? extends Comparable<?>> extractor,
+            Function<String, ? extends Comparable<?>> parser) {
+        this.attribute = attribute;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public Comparable<?> valueOf(Product product) {
+        return extractor.apply(product);
+    }
+
+    public Comparable<?> parse(String value) {
+        return parser.apply(value);
+    }
+
+    /**
+     * Retrouve un champ de tri à partir du nom de l'attribut ({@code price}, {@code name},
+     * {@code createdAt}, {@code stock}), sans tenir compte de la casse.
+     * @throws IllegalArgumentException si le champ n'est pas triable
+     */
+    public static ProductSortField fromAttribute(String attribute) {
+        for (ProductSortField field : values()) {
+            if (field.attribute.equalsIgnoreCase(attribute)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Champ de tri non supporté: " + attribute
+                + " (valeurs possibles: price, name, createdAt, stock)");
+    }
+}
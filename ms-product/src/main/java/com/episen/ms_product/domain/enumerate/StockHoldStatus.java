@@ -0,0 +1,12 @@
+package com.episen.ms_product.domain.enumerate;
+
+/**
+ * Etats d'une réservation de stock.
+ * HELD est le seul état non terminal.
+ */
+public enum StockHoldStatus {
+    HELD,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
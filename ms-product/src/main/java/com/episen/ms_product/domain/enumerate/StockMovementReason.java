@@ -0,0 +1,37 @@
+package com.episen.ms_product.domain.enumerate;
+
+/**
+ * Origine d'un mouvement du journal de stock.
+ * Le code est la valeur stockée dans inventory_movement.reason : il ne doit jamais changer.
+ */
+public enum StockMovementReason {
+    OPENING_BALANCE(0),
+    CREATION(1),
+    IMPORT(2),
+    ORDER_RESERVE(3),
+    ORDER_CANCEL(4),
+    MANUAL_ADJUST(5),
+    BULK_UPDATE(6),
+    HOLD(7),
+    HOLD_RELEASE(8),
+    HOLD_EXPIRE(9);
+
+    private final short code;
+
+    StockMovementReason(int code) {
+        this.code = (short) code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    public static StockMovementReason fromCode(int code) {
+        for (StockMovementReason reason : values()) {
+            if (reason.code == code) {
+                return reason;
+            }
+        }
+        throw new IllegalArgumentException("Code de mouvement de stock inconnu: " + code);
+    }
+}
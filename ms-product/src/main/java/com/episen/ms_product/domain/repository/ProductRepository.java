@@ -1,9 +1,14 @@
 package com.episen.ms_product.domain.repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.episen.ms_product.domain.entity.Product;
@@ -13,13 +18,14 @@ import com.episen.ms_product.domain.enumerate.Category;
  * Repository JPA pour l'entité Product.
  * 
  * <p>Fournit les opérations CRUD et des requêtes personnalisées
- * pour la gestion des produits du catalogue.</p>
+ * pour la gestion des produits du catalogue. Les filtres combinables du listing
+ * passent par {@link JpaSpecificationExecutor} et {@link ProductSpecifications}.</p>
  * 
  * @author E-commerce Team
  * @version 1.0
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
 
     /**
      * Recherche les produits par nom (recherche exacte).
@@ -49,6 +55,37 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.stock > 0 AND p.active = true")
     List<Product> findAvailable();
 
+    /**
+     * Produits actifs en stock d'une catégorie dans une fourchette de prix, du moins cher
+     * au plus cher. Servi par l'index {@code (category, active, price, id)} : les colonnes
+     * constantes en tête du tri permettent de lire l'index dans l'ordre et de s'arrêter
+     * à {@code limit} lignes, sans tri de la catégorie.
+     * @param category la catégorie recherchée
+     * @param minPrice prix minimum (inclus)
+     * @param maxPrice prix maximum (inclus)
+     * @param limit nombre maximal de produits
+     * @return les produits correspondants, triés par prix puis ID
+     */
+    @Query("SELECT p FROM Product p WHERE p.category = :category AND p.active = true "
+            + "AND p.price BETWEEN :minPrice AND :maxPrice AND p.stock > 0 "
+            + "ORDER BY p.category, p.active, p.price, p.id")
+    List<Product> findAvailableByCategoryAndPriceBetween(@Param("category") Category category,
+            @Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice, Limit limit);
+
+    /**
+     * Produits actifs en stock dans une fourchette de prix, toutes catégories confondues,
+     * du moins cher au plus cher. Servi par l'index {@code (active, price, id)}.
+     * @param minPrice prix minimum (inclus)
+     * @param maxPrice prix maximum (inclus)
+     * @param limit nombre maximal de produits
+     * @return les produits correspondants, triés par prix puis ID
+     */
+    @Query("SELECT p FROM Product p WHERE p.active = true "
+            + "AND p.price BETWEEN :minPrice AND :maxPrice AND p.stock > 0 "
+            + "ORDER BY p.active, p.price, p.id")
+    List<Product> findAvailableByPriceBetween(@Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice, Limit limit);
+
     /**
      * Compte le nombre total de produits.
      * @return nombre de produits
@@ -57,18 +94,62 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     long count();
 
     /**
-     * Compte les produits dont le stock est inférieur à un seuil.
-     * Utilisé pour le health check des produits en rupture.
-     * @param amount le seuil de stock
-     * @return nombre de produits sous ce seuil
+     * Agrégats du catalogue par catégorie et statut, en une seule requête GROUP BY.
+     * Utilisé par {@code CatalogStatistics} pour les métriques, à la place de chargements complets.
+     * @param lowStockThreshold seuil de stock bas (exclu)
+     * @return une ligne par couple (catégorie, actif) présent en base
      */
-    long countByStockLessThanAndActiveTrue(int amount);
-    
-    long countByStockLessThan(int amount);
+    @Query("SELECT p.category AS category, p.active AS active, COUNT(p) AS total, "
+            + "SUM(CASE WHEN p.stock < :threshold THEN 1 ELSE 0 END) AS lowStock "
+            + "FROM Product p GROUP BY p.category, p.active")
+    List<CatalogStatsRow> aggregateCatalogStats(@Param("threshold") int lowStockThreshold);
+
+    /**
+     * Ligne d'agrégat renvoyée par {@link #aggregateCatalogStats(int)}.
+     */
+    interface CatalogStatsRow {
+        Category getCategory();
+
+        Boolean getActive();
+
+        long getTotal();
+
+        long getLowStock();
+    }
 
     /**
      * Retourne tous les produits actifs.
      * @return liste des produits actifs
      */
     List<Product> findByActiveTrue();
+
+    /**
+     * Parcours par lots des produits actifs, par ID croissant (pagination par clé).
+     * Utilisé pour construire les index en mémoire sans charger tout le catalogue d'un coup.
+     * @param id dernier ID du lot précédent (0 pour le premier lot)
+     * @param limit taille du lot
+     * @return les produits actifs d'ID strictement supérieur
+     */
+    List<Product> findByActiveTrueAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Parcours par lots de tous les produits, actifs ou non, par ID croissant.
+     * Utilisé pour charger le catalogue en mémoire ({@code CatalogSnapshotService}).
+     * @param id dernier ID du lot précédent (0 pour le premier lot)
+     * @param limit taille du lot
+     * @return les produits d'ID strictement supérieur
+     */
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Applique une variation relative au stock d'un produit, sans lecture préalable.
+     * La mise à jour n'a lieu que si le stock résultant reste positif ou nul.
+     * @param id l'identifiant du produit
+     * @param delta la variation à appliquer
+     * @return 1 si le stock a été mis à jour, 0 si le produit n'existe pas ou si le stock est insuffisant
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = p.stock + :delta, p.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE p.id = :id AND p.stock + :delta >= 0")
+    int incrementStock(@Param("id") Long id, @Param("delta") int delta);
 }
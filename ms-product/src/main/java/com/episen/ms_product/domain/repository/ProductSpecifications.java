@@ -0,0 +1,86 @@
+package com.episen.ms_product.domain.repository;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.episen.ms_product.domain.entity.Product;
+import com.episen.ms_product.domain.enumerate.Category;
+import com.episen.ms_product.domain.enumerate.ProductSortField;
+
+import jakarta.persistence.criteria.Path;
+
+/**
+ * Spécifications JPA composables pour le listing des produits.
+ *
+ * <p>Chaque méthode retourne {@code null} lorsque le critère est absent, ce qui permet
+ * de combiner librement les filtres avec {@link Specification#allOf}. Les index
+ * correspondants sont déclarés dans {@code data.sql}.</p>
+ *
+ * @author E-commerce Team
+ * @version 1.0
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> hasCategory(Category category) {
+        return category == null ? null : (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Product> isActive(Boolean active) {
+        return active == null ? null : (root, query, cb) -> cb.equal(root.get("active"), active);
+    }
+
+    public static Specification<Product> inStock(Boolean inStock) {
+        if (inStock == null) {
+            return null;
+        }
+        return inStock
+                ? (root, query, cb) -> cb.greaterThan(root.get("stock"), 0)
+                : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("stock"), 0);
+    }
+
+    public static Specification<Product> priceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (minPrice == null) {
+                return cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+            }
+            if (maxPrice == null) {
+                return cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+            }
+            return cb.between(root.get("price"), minPrice, maxPrice);
+        };
+    }
+
+    /**
+     * Condition de pagination par clé (keyset) : ne retient que les lignes situées
+     * strictement après le couple (valeur de tri, id) du dernier élément de la page précédente.
+     * L'id sert de départage pour garantir un ordre total.
+     *
+     * <p>La borne redondante {@code tri >= valeur} (ou {@code <=}) donne à la base le point
+     * d'entrée dans l'index : sans elle, la disjonction oblige à relire toutes les lignes
+     * des pages précédentes avant d'atteindre la page demandée.</p>
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static Specification<Product> after(ProductSortField field, Sort.Direction direction,
+            Comparable value, Long id) {
+        return (root, query, cb) -> {
+            Path<Comparable> sortPath = root.get(field.getAttribute());
+            Path<Long> idPath = root.get("id");
+            if (direction.isAscending()) {
+                return cb.and(cb.greaterThanOrEqualTo(sortPath, value),
+                        cb.or(cb.greaterThan(sortPath, value),
+                                cb.and(cb.equal(sortPath, value), cb.greaterThan(idPath, id))));
+            }
+            return cb.and(cb.lessThanOrEqualTo(sortPath, value),
+                    cb.or(cb.lessThan(sortPath, value),
+                            cb.and(cb.equal(sortPath, value), cb.lessThan(idPath, id))));
+        };
+    }
+}
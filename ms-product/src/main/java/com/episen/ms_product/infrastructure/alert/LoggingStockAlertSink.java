@@ -0,0 +1,27 @@
+package com.episen.ms_product.infrastructure.alert;
+
+import org.springframework.stereotype.Component;
+
+import com.episen.ms_product.application.stock.StockAlert;
+import com.episen.ms_product.application.stock.StockAlertSink;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Écrit les alertes de stock dans le journal applicatif.
+ */
+@Slf4j
+@Component
+public class LoggingStockAlertSink implements StockAlertSink {
+
+    @Override
+    public void onAlert(StockAlert alert) {
+        if (alert.type() == StockAlert.Type.LOW_STOCK) {
+            log.warn("Stock bas: produit {} à {} unités (seuil {})",
+                    alert.productId(), alert.stock(), alert.threshold());
+        } else {
+            log.info("Stock rétabli: produit {} à {} unités (seuil {})",
+                    alert.productId(), alert.stock(), alert.threshold());
+        }
+    }
+}
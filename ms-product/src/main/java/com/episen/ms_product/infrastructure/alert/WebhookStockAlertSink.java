@@ -0,0 +1,59 @@
+package com.episen.ms_product.infrastructure.alert;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.BufferingClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import com.episen.ms_product.application.stock.StockAlert;
+import com.episen.ms_product.application.stock.StockAlertSink;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Envoie chaque alerte de stock en JSON ({@link StockAlert}) par POST vers
+ * {@code products.stock-alerts.webhook-url} (service achats, outil de messagerie...).
+ * Actif uniquement si l'URL est configurée. Une alerte non délivrée est journalisée,
+ * sans nouvel essai.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "products.stock-alerts.webhook-url")
+public class WebhookStockAlertSink implements StockAlertSink {
+
+    private final RestClient restClient;
+    private final String url;
+
+    public WebhookStockAlertSink(RestClient.Builder restClientBuilder,
+            @Value("${products.stock-alerts.webhook-url}") String url,
+            @Value("${products.stock-alerts.webhook-timeout:2s}") Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        // Corps envoyé d'un bloc, avec Content-Length (pas d'encodage chunked)
+        this.restClient = restClientBuilder
+                .requestFactory(new BufferingClientHttpRequestFactory(requestFactory))
+                .build();
+        this.url = url;
+    }
+
+    @Override
+    public void onAlert(StockAlert alert) {
+        try {
+            restClient.post()
+                    .uri(url)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(alert)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RestClientException e) {
+            log.error("Alerte de stock du produit {} non délivrée à {}: {}", alert.productId(), url, e.getMessage());
+        }
+    }
+}
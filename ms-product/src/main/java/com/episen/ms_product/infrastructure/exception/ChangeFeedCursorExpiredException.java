@@ -0,0 +1,13 @@
+package com.episen.ms_product.infrastructure.exception;
+
+/**
+ * Exception levée lorsqu'un curseur du flux de changements ne peut plus être repris
+ * (changements purgés, ou curseur postérieur au journal après un redémarrage).
+ * Le consommateur doit recharger le catalogue complet.
+ */
+public class ChangeFeedCursorExpiredException extends RuntimeException {
+
+    public ChangeFeedCursorExpiredException(long cursor) {
+        super(String.format("Curseur %d expiré : recharger le catalogue puis reprendre depuis le curseur courant", cursor));
+    }
+}
@@ -0,0 +1,16 @@
+package com.episen.ms_product.infrastructure.exception;
+
+/**
+ * Exception levée lorsqu'une variation de stock rendrait le stock négatif.
+ * Best practice : Exceptions métier spécifiques
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+
+    public InsufficientStockException(Long productId, int delta) {
+        super(String.format("Stock insuffisant pour le produit %d : variation demandée %d", productId, delta));
+    }
+}
@@ -0,0 +1,13 @@
+package com.episen.ms_product.infrastructure.exception;
+
+/**
+ * Exception levée lorsqu'une modification porte sur une version d'un produit qui n'est plus
+ * la version courante (If-Match périmé ou modification concurrente).
+ */
+public class ProductVersionMismatchException extends RuntimeException {
+
+    public ProductVersionMismatchException(Long productId, long expectedVersion, long currentVersion) {
+        super(String.format("Le produit %d a été modifié entre-temps (version %d attendue, version courante %d)",
+                productId, expectedVersion, currentVersion));
+    }
+}
@@ -0,0 +1,12 @@
+package com.episen.ms_product.infrastructure.exception;
+
+/**
+ * Exception levée lorsqu'un utilisateur accède à une réservation de stock dont il n'est pas
+ * le propriétaire (hors rôles ADMIN et SERVICE).
+ */
+public class StockHoldAccessDeniedException extends RuntimeException {
+
+    public StockHoldAccessDeniedException(String holdId) {
+        super(String.format("La réservation %s appartient à un autre utilisateur", holdId));
+    }
+}
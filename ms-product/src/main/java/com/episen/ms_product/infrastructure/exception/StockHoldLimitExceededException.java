@@ -0,0 +1,12 @@
+package com.episen.ms_product.infrastructure.exception;
+
+/**
+ * Exception levée lorsqu'une nouvelle réservation ferait dépasser à un utilisateur le
+ * plafond d'unités réservées en cours ({@code products.holds.max-units-per-user}).
+ */
+public class StockHoldLimitExceededException extends RuntimeException {
+
+    public StockHoldLimitExceededException(Long ownerId, long heldUnits, int maxUnits) {
+        super(String.format("L'utilisateur %d a déjà %d unités réservées (plafond: %d)", ownerId, heldUnits, maxUnits));
+    }
+}
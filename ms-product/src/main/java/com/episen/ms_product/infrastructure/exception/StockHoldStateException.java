@@ -0,0 +1,14 @@
+package com.episen.ms_product.infrastructure.exception;
+
+import com.episen.ms_product.domain.enumerate.StockHoldStatus;
+
+/**
+ * Exception levée lorsqu'une réservation de stock ne peut plus changer d'état
+ * (confirmation d'une réservation expirée ou libérée, libération d'une réservation confirmée).
+ */
+public class StockHoldStateException extends RuntimeException {
+
+    public StockHoldStateException(String holdId, StockHoldStatus status) {
+        super(String.format("La réservation %s est dans l'état %s", holdId, status));
+    }
+}
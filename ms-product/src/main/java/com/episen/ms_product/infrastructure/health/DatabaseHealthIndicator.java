@@ -3,43 +3,43 @@ package com.episen.ms_product.infrastructure.health;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.actuate.health.Health;
-import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.stereotype.Component;
 
 import com.episen.ms_product.domain.repository.ProductRepository;
+import com.episen.ms_product.infrastructure.metrics.CatalogStatistics;
 
 /**
  * Health Indicator personnalisé pour vérifier l'état de la base de données.
  * Best practices :
- * - Implémente HealthIndicator pour les checks personnalisés
- * - Fournit des détails utiles pour le debugging
+ * - Vérification en tâche de fond, résultat servi depuis la mémoire ({@link CachedHealthIndicator})
+ * - Une seule requête COUNT par contrôle ; les autres détails viennent de {@link CatalogStatistics}
  * - Gère les exceptions proprement
- * - Utilisé par /actuator/health
+ * - Utilisé par /actuator/health et par le groupe readiness
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class DatabaseHealthIndicator implements HealthIndicator {
+public class DatabaseHealthIndicator extends CachedHealthIndicator {
 
     private final ProductRepository productRepository;
+    private final CatalogStatistics catalogStatistics;
 
     @Override
-    public Health health() {
+    protected Health check() {
         try {
             // Vérifie la connexion à la base de données
             long productCount = productRepository.count();
-            long activeProductCount = productRepository.findAvailable().size();
-            long lowStockProducts = productRepository.countByStockLessThan(5);
+            CatalogStatistics.Snapshot stats = catalogStatistics.snapshot();
 
             log.debug("Health check database - Total products: {}, Active products: {}",
-                    productCount, activeProductCount);
+                    productCount, stats.active());
 
             return Health.up()
                     .withDetail("database", "H2")
                     .withDetail("status", "Connection OK")
                     .withDetail("totalProducts", productCount)
-                    .withDetail("activeProducts", activeProductCount)
-                    .withDetail("lowStockProducts", lowStockProducts)
+                    .withDetail("activeProducts", stats.active())
+                    .withDetail("lowStockProducts", stats.lowStock())
                     .build();
 
         } catch (Exception e) {
@@ -0,0 +1,134 @@
+package com.episen.ms_product.infrastructure.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.episen.ms_product.application.event.ProductChangedEvent;
+import com.episen.ms_product.domain.enumerate.Category;
+import com.episen.ms_product.domain.repository.ProductRepository;
+import com.episen.ms_product.domain.repository.ProductRepository.CatalogStatsRow;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Statistiques du catalogue exposées en gauges Prometheus.
+ *
+ * <p>Les gauges lisent un instantané immuable en mémoire : un scrape ne touche jamais la
+ * table {@code product}. L'instantané est recalculé par une seule requête GROUP BY
+ * ({@link ProductRepository#aggregateCatalogStats(int)}) toutes les
+ * {@code products.stats.refresh-interval-ms}, et seulement si une écriture a été commitée
+ * depuis le dernier calcul.</p>
+ *
+ * <p><b>Métriques Prometheus :</b></p>
+ * <ul>
+ * <li>products_total - Nombre total de produits</li>
+ * <li>products_active - Nombre de produits actifs</li>
+ * <li>products_low_stock - Produits dont le stock est sous le seuil</li>
+ * <li>products_by_category - Nombre de produits par catégorie (tag category)</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class CatalogStatistics {
+
+    /**
+     * Instantané des statistiques du catalogue.
+     */
+    public record Snapshot(long total, long active, long lowStock, Map<Category, Long> byCategory) {
+
+        static final Snapshot EMPTY = new Snapshot(0, 0, 0, Collections.emptyMap());
+
+        public long category(Category category) {
+            return byCategory.getOrDefault(category, 0L);
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final int lowStockThreshold;
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public CatalogStatistics(ProductRepository productRepository, MeterRegistry meterRegistry,
+            @Value("${products.stats.low-stock-threshold:5}") int lowStockThreshold) {
+        this.productRepository = productRepository;
+        this.lowStockThreshold = lowStockThreshold;
+
+        Gauge.builder("products_total", this, stats -> stats.snapshot().total())
+                .description("Nombre total de produits")
+                .register(meterRegistry);
+        Gauge.builder("products_active", this, stats -> stats.snapshot().active())
+                .description("Nombre de produits actifs")
+                .register(meterRegistry);
+        Gauge.builder("products_low_stock", this, stats -> stats.snapshot().lowStock())
+                .description("Nombre de produits avec stock bas (< " + lowStockThreshold + ")")
+                .register(meterRegistry);
+        for (Category category : Category.values()) {
+            Gauge.builder("products_by_category", this, stats -> stats.snapshot().category(category))
+                    .tag("category", category.name())
+                    .description("Nombre de produits par catégorie")
+                    .register(meterRegistry);
+        }
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Calcule le premier instantané une fois la base initialisée.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        refresh();
+    }
+
+    /**
+     * Marque l'instantané comme périmé après chaque écriture commitée.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        dirty.set(true);
+    }
+
+    /**
+     * Recalcule l'instantané si le catalogue a changé depuis le dernier calcul.
+     */
+    @Scheduled(fixedDelayString = "${products.stats.refresh-interval-ms:15000}",
+            initialDelayString = "${products.stats.refresh-interval-ms:15000}")
+    public void refresh() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            long total = 0;
+            long active = 0;
+            long lowStock = 0;
+            Map<Category, Long> byCategory = new EnumMap<>(Category.class);
+            for (CatalogStatsRow row : productRepository.aggregateCatalogStats(lowStockThreshold)) {
+                total += row.getTotal();
+                lowStock += row.getLowStock();
+                if (Boolean.TRUE.equals(row.getActive())) {
+                    active += row.getTotal();
+                }
+                byCategory.merge(row.getCategory(), row.getTotal(), Long::sum);
+            }
+            snapshot = new Snapshot(total, active, lowStock, Collections.unmodifiableMap(byCategory));
+            log.debug("Statistiques catalogue recalculées: {} produits, {} actifs, {} en stock bas",
+                    total, active, lowStock);
+        } catch (RuntimeException e) {
+            dirty.set(true);
+            log.error("Échec du calcul des statistiques catalogue: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package com.episen.ms_product.infrastructure.wal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Journal d'écriture anticipée (WAL) des compteurs de stock en mémoire.
+ *
+ * <p>Chaque changement est un enregistrement binaire de {@value #RECORD_SIZE} octets
+ * {@code (productId, version, stock)} ajouté au segment courant ({@code stock-<n>.wal}).</p>
+ *
+ * <p><b>Validation groupée :</b> les appelants ne touchent jamais au fichier. Ils déposent leur
+ * enregistrement dans une file et attendent ; un seul thread rédacteur vide la file, écrit tous
+ * les enregistrements présents en un seul appel système, force le lot sur disque (si
+ * {@code syncEachBatch}) puis libère tous les appelants du lot. Sous forte concurrence, un seul
+ * {@code write} et un seul {@code fsync} couvrent ainsi des centaines de variations.</p>
+ *
+ * <p><b>Fenêtre de durabilité :</b> {@link #append} ne rend la main qu'une fois son lot écrit.
+ * Avec {@code syncEachBatch}, une variation acquittée survit à une panne machine ; sans, elle
+ * survit à un arrêt brutal du processus mais une panne machine peut perdre les lots écrits
+ * depuis le dernier {@link #sync()}. Dans les deux cas, un compteur en mémoire peut être lu par
+ * d'autres threads avant la fin de l'écriture de son enregistrement.</p>
+ *
+ * <p>La version est croissante par produit : à la relecture, seul l'enregistrement de plus
+ * haute version est retenu, quel que soit l'ordre d'écriture. Un enregistrement tronqué
+ * en fin de segment (arrêt pendant l'écriture) est ignoré.</p>
+ *
+ * <p>La sortie d'un produit du journal est un enregistrement de stock {@value #RELEASED}
+ * ({@link #appendReleased}) : tant qu'il est la plus haute version, le produit est retiré
+ * de l'ensemble des produits journalisés.</p>
+ */
+@Slf4j
+public class StockWriteAheadLog implements Closeable {
+
+    static final int RECORD_SIZE = 20;
+    /** Stock d'un enregistrement de sortie (un stock réel n'est jamais négatif). */
+    public static final int RELEASED = -1;
+    /** Nombre maximal d'enregistrements écrits par appel système. */
+    private static final int MAX_BATCH = 4096;
+    private static final String PREFIX = "stock-";
+    private static final String SUFFIX = ".wal";
+
+    /**
+     * Enregistrement du journal : niveau de stock d'un produit à une version donnée.
+     */
+    public record Entry(long productId, long version, int stock) {
+
+        /**
+         * @return true si le produit est sorti du journal à cette version
+         */
+        public boolean released() {
+            return stock == RELEASED;
+        }
+    }
+
+    private enum Operation {
+        APPEND,
+        SYNC,
+        ROLL,
+        CLOSE
+    }
+
+    /** Demande déposée pour le rédacteur ; {@code done} reçoit le segment concerné. */
+    private record Command(Operation operation, Entry entry, CompletableFuture<Long> done) {
+    }
+
+    private final Path directory;
+    private final boolean syncEachBatch;
+    private final BlockingQueue<Command> commands = new LinkedBlockingQueue<>();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * MAX_BATCH);
+    private final Thread writer;
+    /** Accès par le seul rédacteur (et le constructeur). */
+    private FileChannel channel;
+    private volatile long segment;
+    private volatile boolean closed;
+
+    /**
+     * Ouvre le journal en forçant chaque lot sur disque.
+     * @see #StockWriteAheadLog(Path, boolean)
+     */
+    public StockWriteAheadLog(Path directory) throws IOException {
+        this(directory, true);
+    }
+
+    /**
+     * Ouvre le journal dans le répertoire donné. Les segments existants sont conservés
+     * (voir {@link #recover()}) ; les nouvelles écritures vont dans un nouveau segment.
+     * @param syncEachBatch true pour forcer chaque lot sur disque avant d'acquitter ses appelants
+     */
+    public StockWriteAheadLog(Path directory, boolean syncEachBatch) throws IOException {
+        this.directory = directory;
+        this.syncEachBatch = syncEachBatch;
+        Files.createDirectories(directory);
+        List<Long> existing = segments();
+        this.segment = existing.isEmpty() ? 1 : existing.get(existing.size() - 1) + 1;
+        this.channel = open(segment);
+        this.writer = new Thread(this::run, "stock-wal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Relit tous les segments antérieurs au segment courant.
+     * @return pour chaque produit, l'enregistrement de plus haute version
+     */
+    public Map<Long, Entry> recover() throws IOException {
+        Map<Long, Entry> latest = new HashMap<>();
+        for (long number : segments()) {
+            if (number >= segment) {
+                continue;
+            }
+            ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(path(number)));
+            while (content.remaining() >= RECORD_SIZE) {
+                Entry entry = new Entry(content.getLong(), content.getLong(), content.getInt());
+                latest.merge(entry.productId(), entry, (a, b) -> b.version() > a.version() ? b : a);
+            }
+            if (content.hasRemaining()) {
+                log.warn("WAL stock: enregistrement tronqué ignoré en fin de segment {}", number);
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Numéro du segment courant (les segments inférieurs sont clos).
+     */
+    public long currentSegment() {
+        return segment;
+    }
+
+    /**
+     * Ajoute un enregistrement au segment courant et attend l'écriture de son lot.
+     */
+    public void append(long productId, long version, int stock) {
+        try {
+            submit(Operation.APPEND, new Entry(productId, version, stock)).join();
+        } catch (CompletionException e) {
+            throw unchecked(e.getCause());
+        }
+    }
+
+    /**
+     * Ajoute plusieurs enregistrements, déposés ensemble pour partager un même lot, et attend
+     * leur écriture.
+     */
+    public void appendAll(Collection<Entry> entries) {
+        List<CompletableFuture<Long>> pending = new ArrayList<>(entries.size());
+        entries.forEach(entry -> pending.add(submit(Operation.APPEND, entry)));
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            throw unchecked(e.getCause());
+        }
+    }
+
+    /**
+     * Journalise la sortie d'un produit, à une version supérieure à toutes ses précédentes.
+     */
+    public void appendReleased(long productId, long version) {
+        append(productId, version, RELEASED);
+    }
+
+    /**
+     * Force sur disque le segment courant, après les enregistrements déjà déposés.
+     */
+    public void sync() throws IOException {
+        await(submit(Operation.SYNC, null));
+    }
+
+    /**
+     * Ferme le segment courant (après l'avoir forcé sur disque) et en ouvre un nouveau.
+     * Les enregistrements déposés avant l'appel vont dans le segment fermé.
+     * @return le numéro du segment fermé
+     */
+    public long roll() throws IOException {
+        return await(submit(Operation.ROLL, null));
+    }
+
+    /**
+     * Supprime les segments de numéro inférieur ou égal à {@code upTo}.
+     */
+    public void deleteSegmentsUpTo(long upTo) throws IOException {
+        for (long number : segments()) {
+            if (number <= upTo) {
+                Files.deleteIfExists(path(number));
+            }
+        }
+    }
+
+    /**
+     * Écrit les enregistrements déposés, force le segment sur disque et arrête le rédacteur.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        CompletableFuture<Long> done = new CompletableFuture<>();
+        commands.add(new Command(Operation.CLOSE, null, done));
+        await(done);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failPending();
+    }
+
+    private CompletableFuture<Long> submit(Operation operation, Entry entry) {
+        CompletableFuture<Long> done = new CompletableFuture<>();
+        if (closed) {
+            done.completeExceptionally(new IOException("WAL stock fermé"));
+            return done;
+        }
+        commands.add(new Command(operation, entry, done));
+        return done;
+    }
+
+    private static long await(CompletableFuture<Long> done) throws IOException {
+        try {
+            return done.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw unchecked(e.getCause());
+        }
+    }
+
+    private static RuntimeException unchecked(Throwable cause) {
+        if (cause instanceof IOException io) {
+            return new UncheckedIOException("Écriture du WAL stock impossible", io);
+        }
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+
+    /**
+     * Boucle du rédacteur : un lot est tout ce qui a été déposé depuis le lot précédent.
+     */
+    private void run() {
+        List<Command> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(commands.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            commands.drainTo(batch, MAX_BATCH - 1);
+            boolean stop = process(batch);
+            batch.clear();
+            if (stop) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Écrit un lot dans l'ordre de dépôt ; les appelants ne sont libérés qu'après l'écriture
+     * (et le fsync) de tout le lot.
+     * @return true si le journal a été fermé
+     */
+    private boolean process(List<Command> batch) {
+        List<Command> completed = new ArrayList<>(batch.size());
+        try {
+            for (Command command : batch) {
+                switch (command.operation()) {
+                    case APPEND -> {
+                        Entry entry = command.entry();
+                        buffer.putLong(entry.productId()).putLong(entry.version()).putInt(entry.stock());
+                        completed.add(command);
+                    }
+                    case SYNC -> {
+                        write();
+                        channel.force(false);
+                        completed.add(command);
+                    }
+                    case ROLL -> {
+                        write();
+                        channel.force(false);
+                        channel.close();
+                        long rolled = segment;
+                        channel = open(rolled + 1);
+                        segment = rolled + 1;
+                        command.done().complete(rolled);
+                    }
+                    case CLOSE -> {
+                        write();
+                        channel.force(false);
+                        channel.close();
+                        completed.forEach(done -> done.done().complete(segment));
+                        command.done().complete(segment);
+                        failPending();
+                        return true;
+                    }
+                }
+            }
+            write();
+            if (syncEachBatch && !completed.isEmpty()) {
+                channel.force(false);
+            }
+            completed.forEach(command -> command.done().complete(segment));
+        } catch (IOException | RuntimeException e) {
+            buffer.clear();
+            log.error("WAL stock: échec de l'écriture d'un lot de {} demandes: {}", batch.size(), e.getMessage());
+            batch.forEach(command -> command.done().completeExceptionally(e));
+        }
+        return false;
+    }
+
+    private void write() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Refuse les demandes déposées après la fermeture.
+     */
+    private void failPending() {
+        Command command;
+        while ((command = commands.poll()) != null) {
+            command.done().completeExceptionally(new IOException("WAL stock fermé"));
+        }
+    }
+
+    private FileChannel open(long number) throws IOException {
+        return FileChannel.open(path(number), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private Path path(long number) {
+        return directory.resolve(PREFIX + number + SUFFIX);
+    }
+
+    private List<Long> segments() throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .forEach(name -> numbers.add(Long.parseLong(
+                            name.substring(PREFIX.length(), name.length() - SUFFIX.length()))));
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+}
@@ -0,0 +1,184 @@
+package com.episen.ms_product.infrastructure.web;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import com.episen.ms_product.application.catalog.CatalogSnapshot;
+import com.episen.ms_product.application.dto.ProductResponseDTO;
+import com.episen.ms_product.application.service.CatalogSnapshotService;
+import com.episen.ms_product.application.service.HotStockService;
+import com.episen.ms_product.application.service.ProductChangeFeedService;
+import com.episen.ms_product.infrastructure.web.ProductRepresentationCache.Representation;
+
+/**
+ * Validateurs HTTP (ETag, Last-Modified) et Cache-Control des lectures du catalogue.
+ *
+ * <p>Un produit a pour ETag son ID, sa version et son stock : la version ne change qu'avec les
+ * données descriptives du produit, le stock varie à part (et en mémoire pour un produit en
+ * vente flash). Un {@code If-Match} sur une modification n'est comparé qu'à la version : une
+ * variation de stock survenue depuis la lecture ne fait pas échouer la modification. Les listes ont pour ETag la
+ * version du catalogue, c'est-à-dire le curseur du flux de changements : elle est lue par clé
+ * primaire avant toute requête, une liste inchangée est donc servie en 304 sans la recalculer.
+ * Quand le catalogue en mémoire est chargé, c'est la version du snapshot qui fait foi : l'ETag
+ * ne peut pas annoncer un changement que le corps servi depuis le snapshot ne contient pas encore.
+ * Les ETag sont faibles : ils restent valides si la réponse est compressée.</p>
+ *
+ * <p>Un produit en vente flash n'a pas de Last-Modified : son stock varie en mémoire sans
+ * toucher {@code updatedAt}, et un {@code If-Modified-Since} renverrait 304 sur un stock périmé.
+ * Sa revalidation passe par l'ETag, qui porte le stock.</p>
+ */
+@Component
+public class HttpCachePolicy {
+
+    private final ProductChangeFeedService changeFeedService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ProductRepresentationCache representationCache;
+    private final HotStockService hotStockService;
+    private final CacheControl cacheControl;
+
+    public HttpCachePolicy(ProductChangeFeedService changeFeedService,
+            CatalogSnapshotService catalogSnapshotService,
+            ProductRepresentationCache representationCache,
+            HotStockService hotStockService,
+            @Value("${products.http-cache.max-age:60s}") Duration maxAge,
+            @Value("${products.http-cache.stale-while-revalidate:30s}") Duration staleWhileRevalidate,
+            @Value("${products.http-cache.public:true}") boolean shared) {
+        this.changeFeedService = changeFeedService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.representationCache = representationCache;
+        this.hotStockService = hotStockService;
+        CacheControl control = CacheControl.maxAge(maxAge).staleWhileRevalidate(staleWhileRevalidate);
+        this.cacheControl = shared ? control.cachePublic() : control.cachePrivate();
+    }
+
+    /**
+     * ETag commun à toutes les listes pour la version courante du catalogue.
+     */
+    public String catalogETag() {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        long version = snapshot != null ? snapshot.version() : changeFeedService.currentCursor();
+        return "W/\"catalog-" + version + "\"";
+    }
+
+    /**
+     * Réponse 304 si le client possède déjà la version {@code eTag} de la liste.
+     * @return la réponse 304, ou null si la liste doit être calculée
+     */
+    public <T> ResponseEntity<T> notModified(WebRequest request, String eTag) {
+        if (!request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .build();
+    }
+
+    /**
+     * Réponse 200 d'une liste, avec son ETag.
+     */
+    public <T> ResponseEntity<T> ok(String eTag, T body) {
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .body(body);
+    }
+
+    /**
+     * Réponse d'un produit avec ETag et Last-Modified (sauf en vente flash), ou 304 sans corps
+     * si If-None-Match ou If-Modified-Since correspondent. Le corps est pris dans
+     * {@link ProductRepresentationCache}, compressé en gzip si le client l'accepte :
+     * le serveur ne recompresse pas une réponse qui porte déjà un Content-Encoding.
+     */
+    public ResponseEntity<byte[]> ok(ProductResponseDTO product, WebRequest request) {
+        String eTag = productETag(product);
+        ZonedDateTime lastModified = product.getUpdatedAt() == null || hotStockService.isHot(product.getId()) ? null
+                : ZonedDateTime.of(product.getUpdatedAt(), ZoneId.systemDefault());
+        boolean notModified = lastModified == null
+                ? request.checkNotModified(eTag)
+                : request.checkNotModified(eTag, lastModified.toInstant().toEpochMilli());
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (lastModified != null) {
+            builder.lastModified(lastModified);
+        }
+        if (notModified) {
+            return builder.build();
+        }
+
+        Representation representation = representationCache.get(product, eTag);
+        builder.contentType(MediaType.APPLICATION_JSON);
+        if (representation.gzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(representation.gzip());
+        }
+        return builder.body(representation.json());
+    }
+
+    /** Vrai si l'en-tête Accept-Encoding autorise gzip (présent, ou via *, sans q=0). */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().replace(" ", "");
+                if (parameter.startsWith("q=") && parameter.substring(2).matches("0(\\.0*)?")) {
+                    refused = true;
+                }
+            }
+            return !refused;
+        }
+        return false;
+    }
+
+    /**
+     * ETag d'un produit : {@code W/"<id>-<version>-<stock>"}.
+     */
+    public String productETag(ProductResponseDTO product) {
+        return "W/\"" + product.getId() + "-" + product.getVersion() + "-" + product.getStock() + "\"";
+    }
+
+    /**
+     * Version du produit {@code productId} attendue par un en-tête If-Match.
+     * @param ifMatch valeur de l'en-tête (un ETag de produit, faible ou fort), ou null
+     * @return la version attendue, -1 pour l'ETag d'un autre produit (aucune version ne
+     *         correspond), ou null si l'en-tête est absent ou vaut {@code *}
+     * @throws IllegalArgumentException si l'en-tête n'est pas un ETag de produit
+     */
+    public Long expectedVersion(Long productId, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        String[] parts = tag.replace("\"", "").split("-");
+        try {
+            if (parts.length != 3) {
+                throw new NumberFormatException();
+            }
+            return Long.parseLong(parts[0]) == productId ? Long.parseLong(parts[1]) : -1L;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("En-tête If-Match invalide: " + ifMatch);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.episen.ms_product.infrastructure.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import com.episen.ms_product.application.dto.ProductResponseDTO;
+import com.episen.ms_product.application.event.ProductChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache des réponses déjà sérialisées de {@code GET /api/v1/products/{id}}.
+ *
+ * <p>Pour les produits les plus lus, l'essentiel du coût d'une lecture servie par
+ * {@code ProductCache} est la sérialisation Jackson puis la compression. Ce cache conserve,
+ * par produit, le JSON et sa variante gzip pour une version donnée (l'ETag du produit) :
+ * une lecture se réduit alors à une copie de tableau d'octets.</p>
+ *
+ * <p><b>Cohérence :</b> une représentation n'est servie que si son ETag est celui du
+ * {@link ProductResponseDTO} courant ; un produit modifié (ou dont le stock en vente flash
+ * a changé) est donc resérialisé à la lecture suivante. Les {@link ProductChangedEvent}
+ * libèrent en plus les entrées devenues inutiles.</p>
+ *
+ * <p><b>Structure :</b> LRU segmenté, comme {@code ProductCache}, borné à
+ * {@code products.response-cache.max-size} produits. La variante gzip n'est produite
+ * qu'au-delà de {@code server.compression.min-response-size}, seuil sous lequel le
+ * serveur ne compresse pas non plus.</p>
+ *
+ * <p><b>Métriques Prometheus :</b></p>
+ * <ul>
+ * <li>products.response_cache.requests - Lectures (tag result=hit|miss)</li>
+ * <li>products.response_cache.size - Nombre de produits en cache</li>
+ * </ul>
+ */
+@Component
+public class ProductRepresentationCache {
+
+    private static final int SEGMENTS = 16;
+
+    /**
+     * Réponse sérialisée d'une version de produit.
+     * @param eTag version du produit
+     * @param json corps non compressé
+     * @param gzip corps compressé, null sous le seuil de compression
+     */
+    public record Representation(String eTag, byte[] json, byte[] gzip) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int gzipMinSize;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public ProductRepresentationCache(ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${products.response-cache.enabled:true}") boolean enabled,
+            @Value("${products.response-cache.max-size:1000}") int maxSize,
+            @Value("${server.compression.min-response-size:2KB}") DataSize gzipMinSize) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.gzipMinSize = (int) gzipMinSize.toBytes();
+        int segmentCapacity = Math.max(1, maxSize / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+
+        this.hits = Counter.builder("products.response_cache.requests")
+                .description("Lectures du cache des réponses sérialisées")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("products.response_cache.requests")
+                .description("Lectures du cache des réponses sérialisées")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("products.response_cache.size", this, ProductRepresentationCache::size)
+                .description("Nombre de produits dont la réponse sérialisée est en cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Renvoie la représentation de {@code product} pour la version {@code eTag}, sérialisée
+     * et mise en cache si elle est absente ou périmée.
+     */
+    public Representation get(ProductResponseDTO product, String eTag) {
+        if (!enabled) {
+            return serialize(product, eTag);
+        }
+        Segment segment = segmentFor(product.getId());
+        Representation cached = segment.get(product.getId());
+        if (cached != null && cached.eTag().equals(eTag)) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        Representation representation = serialize(product, eTag);
+        segment.put(product.getId(), representation);
+        return representation;
+    }
+
+    /**
+     * Libère après commit les représentations des produits modifiés.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        for (Long id : event.productIds()) {
+            segmentFor(id).remove(id);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Representation serialize(ProductResponseDTO product, String eTag) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(product);
+            return new Representation(eTag, json, json.length >= gzipMinSize ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation impossible du produit " + product.getId(), e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 2);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private Segment segmentFor(Long id) {
+        return segments[Long.hashCode(id * 0x9E3779B97F4A7C15L) & (SEGMENTS - 1)];
+    }
+
+    /**
+     * Segment LRU : {@link LinkedHashMap} en ordre d'accès, synchronisée sur le segment.
+     */
+    private static final class Segment {
+
+        private final Map<Long, Representation> entries;
+
+        Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(Math.min(capacity, 1024), 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Representation> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized Representation get(Long id) {
+            return entries.get(id);
+        }
+
+        synchronized void put(Long id, Representation representation) {
+            entries.put(id, representation);
+        }
+
+        synchronized void remove(Long id) {
+            entries.remove(id);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.episen.ms_product.infrastructure.web.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.episen.ms_product.application.cache.ProductCache;
+import com.episen.ms_product.application.dto.HotStockDTO;
+import com.episen.ms_product.application.dto.InventoryLevelDTO;
+import com.episen.ms_product.application.dto.InventoryMovementDTO;
+import com.episen.ms_product.application.dto.ProductBulkUpdateRequestDTO;
+import com.episen.ms_product.application.dto.ProductBulkUpdateResultDTO;
+import com.episen.ms_product.application.dto.StockLevelDTO;
+import com.episen.ms_product.application.service.HotStockService;
+import com.episen.ms_product.application.service.InventoryLedgerService;
+import com.episen.ms_product.application.service.ProductBulkUpdateService;
+import com.episen.ms_product.application.service.ProductImportService;
+import com.episen.ms_product.application.service.StockAlertService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Endpoints d'administration du catalogue (réservés au rôle ADMIN, cf. {@code SecurityConfig}).
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/products/admin")
+@RequiredArgsConstructor
+@Tag(name = "Products admin", description = "API d'administration du catalogue")
+public class ProductAdminController {
+
+    private final ProductCache productCache;
+    private final HotStockService hotStockService;
+    private final ProductImportService productImportService;
+    private final ProductBulkUpdateService productBulkUpdateService;
+    private final StockAlertService stockAlertService;
+    private final InventoryLedgerService inventoryLedgerService;
+
+    @Operation(summary = "Vider le cache produit", description = "Supprime toutes les entrées du cache des produits par ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cache vidé"),
+            @ApiResponse(responseCode = "403", description = "Rôle ADMIN requis")
+    })
+    @DeleteMapping(value = "/cache", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Integer>> flushCache() {
+        log.warn("DELETE /api/v1/products/admin/cache - Vidage du cache produit");
+
+        int removed = productCache.invalidateAll();
+
+        return ResponseEntity.ok(Map.of("removed", removed));
+    }
+
+    @Operation(summary = "Lister les produits en mode vente flash", description = "Renvoie l'état des compteurs de stock tenus en mémoire")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Compteurs en mémoire"),
+            @ApiResponse(responseCode = "403", description = "Rôle ADMIN requis")
+    })
+    @GetMapping(value = "/hot-stock", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<HotStockDTO>> getHotStock() {
+        log.info("GET /api/v1/products/admin/hot-stock - Liste des produits en mode vente flash");
+
+        return ResponseEntity.ok(hotStockService.list());
+    }
+
+    @Operation(summary = "Activer le mode vente flash", description = "Le stock du produit est désormais tenu en mémoire et écrit périodiquement en base")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Mode vente flash activé"),
+            @ApiResponse(responseCode = "403", description = "Rôle ADMIN requis"),
+            @ApiResponse(responseCode = "404", description = "Produit non trouvé")
+    })
+    @PutMapping(value = "/hot-stock/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<HotStockDTO> enableHotStock(@PathVariable Long id) {
+        log.warn("PUT /api/v1/products/admin/hot-stock/{} - Activation du mode vente flash", id);
+
+        return ResponseEntity.ok(hotStockService.enable(id));
+    }
+
+    @Operation(summary = "Désactiver le mode vente flash", description = "Écrit le stock final en base et revient aux mises à jour SQL")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Mode vente flash désactivé"),
+            @ApiResponse(responseCode = "403", description = "Rôle ADMIN requis"),
+            @ApiResponse(responseCode = "404", description = "Produit non présent en mode vente flash")
+    })
+    @DeleteMapping("/hot-stock/{id}")
+    public ResponseEntity<Void> disableHotStock(@PathVariable Long id) {
+        log.warn("DELETE /api/v1/products/admin/hot-stock/{} - Désactivation du mode vente flash", id);
+
+        if (!hotStockService.disable(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Importer des produits en masse", description = "Importe un fichier NDJSON (un produit JSON par ligne) ou CSV (avec en-tête name,description,price,stock,category et optionnellement imageUrl,reorderThreshold). "
+            + "La réponse NDJSON contient une ligne par ligne rejetée puis le bilan de l'import")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import traité (voir les erreurs par ligne et le bilan)"),
+            @ApiResponse(responseCode = "403", description = "Rôle ADMIN requis"),
+            @ApiResponse(responseCode = "415", description = "Format non supporté")
+    })
+    @PostMapping(value = "/import", consumes = { "application/x-ndjson", "text/csv" }, produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, HttpServletRequest request) {
+        ProductImportService.Format format = MediaType.parseMediaType("text/csv").includes(contentType)
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+        log.warn("POST /api/v1/products/admin/import - Import en masse ({})", format);
+
+        StreamingResponseBody body = output ->
+                productImportService.importProducts(request.getInputStream(), format, output);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @Operation(summary = "Mettre à jour prix et stocks en masse", description = "Applique des lignes (id, price?, stock?) par lots SQL ne modifiant que les colonnes fournies. "
+            + "Les produits déjà à jour ne sont pas réécrits ; les IDs inconnus sont listés dans notFound")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Mise à jour appliquée (voir le bilan)"),
+            @ApiResponse(responseCode = "400", description = "Ligne invalide ou sans prix ni stock"),
+            @ApiResponse(responseCode = "403", description = "Rôle ADMIN requis")
+    })
+    @PatchMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductBulkUpdateResultDTO> bulkUpdate(@Valid @RequestBody ProductBulkUpdateRequestDTO request) {
+        log.warn("PATCH /api/v1/products/admin/bulk - Mise à jour en masse de {} lignes", request.getItems().size());
+
+        return ResponseEntity.ok(productBulkUpdateService.bulkUpdate(request.getItems()));
+    }
+
+    @Operation(summary = "Lister les produits sous leur seuil de réapprovisionnement", description = "Renvoie les produits actifs dont le stock est sous le seuil, du plus critique au moins critique, depuis l'index en mémoire")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produits sous leur seuil"),
+            @ApiResponse(responseCode = "403", description = "Rôle ADMIN requis")
+    })
+    @GetMapping(value = "/low-stock", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<StockLevelDTO>> getLowStock(@RequestParam(defaultValue = "100") int limit) {
+        log.info("GET /api/v1/products/admin/low-stock - Produits sous leur seuil (max {})", limit);
+
+        return ResponseEntity.ok(stockAlertService.belowThreshold(Math.clamp(limit, 1, 1000)));
+    }
+
+    @Operation(summary = "Stock reconstitué depuis le journal", description = "Rejoue le journal des mouvements depuis le dernier snapshot. "
+            + "Sans paramètre at, renvoie aussi le stock courant du produit (currentStock) pour contrôle")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock reconstitué"),
+            @ApiResponse(responseCode = "403", description = "Rôle ADMIN requis"),
+            @ApiResponse(responseCode = "404", description = "Produit non trouvé")
+    })
+    @GetMapping(value = "/inventory/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<InventoryLevelDTO> getInventoryLevel(@PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        log.info("GET /api/v1/products/admin/inventory/{} - Stock reconstitué (à {})", id, at != null ? at : "maintenant");
+
+        return ResponseEntity.ok(inventoryLedgerService.stockAt(id, at));
+    }
+
+    @Operation(summary = "Mouvements de stock d'un produit", description = "Renvoie le journal des mouvements du plus récent au plus ancien ; "
+            + "la page suivante s'obtient avec before = plus petite séquence reçue")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Mouvements du produit"),
+            @ApiResponse(responseCode = "403", description = "Rôle ADMIN requis"),
+            @ApiResponse(responseCode = "404", description = "Produit non trouvé")
+    })
+    @GetMapping(value = "/inventory/{id}/movements", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<InventoryMovementDTO>> getInventoryMovements(@PathVariable Long id,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("GET /api/v1/products/admin/inventory/{}/movements - Journal des mouvements (avant {})", id, before);
+
+        return ResponseEntity.ok(inventoryLedgerService.movements(id, before, limit));
+    }
+
+    @Operation(summary = "Calculer les snapshots de stock", description = "Agrège sans attendre le passage planifié les mouvements non encore couverts par un snapshot")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Snapshots à jour"),
+            @ApiResponse(responseCode = "403", description = "Rôle ADMIN requis")
+    })
+    @PostMapping("/inventory/snapshots")
+    public ResponseEntity<Void> snapshotInventory() {
+        log.warn("POST /api/v1/products/admin/inventory/snapshots - Calcul des snapshots de stock");
+
+        inventoryLedgerService.snapshot();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,9 +1,13 @@
 package com.episen.ms_product.infrastructure.web.controller;
 
+import java.math.BigDecimal;
 import java.net.URI;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,15 +16,32 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.episen.ms_product.application.service.ProductChangeFeedService;
+import com.episen.ms_product.application.service.ProductPopularityService;
+import com.episen.ms_product.application.service.ProductSearchService;
 import com.episen.ms_product.application.service.ProductService;
+import com.episen.ms_product.application.dto.ProductChangeFeedDTO;
+import com.episen.ms_product.application.dto.ProductFacetsDTO;
+import com.episen.ms_product.application.dto.ProductFilterDTO;
+import com.episen.ms_product.application.dto.ProductPageDTO;
+import com.episen.ms_product.application.dto.ProductPopularityDTO;
 import com.episen.ms_product.application.dto.ProductRequestDTO;
 import com.episen.ms_product.application.dto.ProductResponseDTO;
+import com.episen.ms_product.application.dto.ProductSearchResultDTO;
+import com.episen.ms_product.application.dto.StockAdjustmentRequestDTO;
+import com.episen.ms_product.domain.enumerate.Category;
+import com.episen.ms_product.domain.enumerate.ProductSortField;
+import com.episen.ms_product.domain.enumerate.StockMovementReason;
+import com.episen.ms_product.infrastructure.web.HttpCachePolicy;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -41,34 +62,136 @@ import lombok.extern.slf4j.Slf4j;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductSearchService productSearchService;
+    private final ProductChangeFeedService productChangeFeedService;
+    private final ProductPopularityService productPopularityService;
+    private final HttpCachePolicy httpCachePolicy;
 
     @Operation(summary = "Récupérer tous les produits", description = "Retourne la liste complète de tous les produits enregistrés")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Liste récupérée avec succès", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductResponseDTO.class)))
+            @ApiResponse(responseCode = "200", description = "Liste récupérée avec succès", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Non modifié depuis la version du client (If-None-Match / If-Modified-Since)", content = @Content)
     })
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<ProductResponseDTO>> getAllProducts() {
+    public ResponseEntity<List<ProductResponseDTO>> getAllProducts(WebRequest request) {
         log.info("GET /api/v1/products - Récupération de tous les produits");
 
+        String eTag = httpCachePolicy.catalogETag();
+        ResponseEntity<List<ProductResponseDTO>> notModified = httpCachePolicy.notModified(request, eTag);
+        if (notModified != null) {
+            return notModified;
+        }
+
         List<ProductResponseDTO> products = productService.getAllProducts();
 
-        return ResponseEntity.ok(products);
+        return httpCachePolicy.ok(eTag, products);
+    }
+
+    @Operation(summary = "Lister les produits (paginé)", description = "Retourne une page du catalogue filtrée et triée, avec pagination par curseur. Renvoyer nextCursor pour obtenir la page suivante")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page récupérée avec succès", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductPageDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Non modifié depuis la version du client (If-None-Match / If-Modified-Since)", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Paramètres ou curseur invalides", content = @Content)
+    })
+    @GetMapping(value = "/listing", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductPageDTO> listProducts(
+            @Parameter(description = "Catégorie") @RequestParam(required = false) Category category,
+            @Parameter(description = "Produits actifs (true) ou désactivés (false)") @RequestParam(required = false) Boolean active,
+            @Parameter(description = "Produits en stock (true) ou en rupture (false)") @RequestParam(required = false) Boolean inStock,
+            @Parameter(description = "Prix minimum (inclus)") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Prix maximum (inclus)") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Champ de tri: price, name, createdAt, stock") @RequestParam(defaultValue = "name") String sort,
+            @Parameter(description = "Sens du tri: asc ou desc") @RequestParam(defaultValue = "asc") String direction,
+            @Parameter(description = "Curseur de la page précédente") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Taille de la page (max 100)") @RequestParam(defaultValue = "20") int size,
+            WebRequest request
+    ) {
+        log.info("GET /api/v1/products/listing - Listing paginé (tri {} {}, taille {})", sort, direction, size);
+
+        String eTag = httpCachePolicy.catalogETag();
+        ResponseEntity<ProductPageDTO> notModified = httpCachePolicy.notModified(request, eTag);
+        if (notModified != null) {
+            return notModified;
+        }
+
+        ProductFilterDTO filter = ProductFilterDTO.builder()
+                .category(category)
+                .active(active)
+                .inStock(inStock)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .build();
+
+        ProductPageDTO page = productService.listProducts(filter, ProductSortField.fromAttribute(sort),
+                Sort.Direction.fromString(direction), cursor, size);
+
+        return httpCachePolicy.ok(eTag, page);
+    }
+
+    @Operation(summary = "Flux des changements du catalogue", description = "Retourne les changements (création, modification, désactivation, stock) postérieurs au curseur, un par produit avec son état courant. "
+            + "Sans since, retourne le curseur courant. Avec wait, attend jusqu'à wait secondes le prochain changement si la page est vide (long-poll)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changements récupérés (éventuellement aucun)", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductChangeFeedDTO.class))),
+            @ApiResponse(responseCode = "410", description = "Curseur expiré : recharger le catalogue", content = @Content)
+    })
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<ProductChangeFeedDTO> getChanges(
+            @Parameter(description = "Curseur de la page précédente") @RequestParam(required = false) Long since,
+            @Parameter(description = "Nombre maximal de changements lus (max 500)") @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Attente maximale en secondes si aucun changement") @RequestParam(defaultValue = "0") int wait
+    ) {
+        log.debug("GET /api/v1/products/changes - Flux de changements depuis {} (attente {} s)", since, wait);
+
+        return productChangeFeedService.poll(since, limit, Duration.ofSeconds(wait));
     }
 
     @Operation(summary = "Récupérer un produit par ID", description = "Retourne les détails d'un produit spécifique en fonction de son ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produit récupéré avec succès", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Non modifié depuis la version du client (If-None-Match / If-Modified-Since)", content = @Content),
             @ApiResponse(responseCode = "404", description = "Produit non trouvé", content = @Content)
     })
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<ProductResponseDTO> getProductById(
-            @Parameter(description = "ID du produit", required = true) @PathVariable Long id) {
+    public ResponseEntity<byte[]> getProductById(
+            @Parameter(description = "ID du produit", required = true) @PathVariable Long id,
+            WebRequest request) {
 
         log.info("GET /api/v1/products/{} - Récupération du produit", id);
 
         ProductResponseDTO product = productService.getProductById(id);
+        productPopularityService.recordView(id);
 
-        return ResponseEntity.ok(product);
+        return httpCachePolicy.ok(product, request);
+    }
+
+    @Operation(summary = "Produits les plus consultés", description = "Retourne les produits actifs les plus consultés depuis toujours, éventuellement dans une catégorie. "
+            + "Les consultations sont écrites en base périodiquement : les plus récentes peuvent ne pas encore être comptées")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produits récupérés avec succès", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductPopularityDTO.class)))
+    })
+    @GetMapping(value = "/popular", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ProductPopularityDTO>> getPopularProducts(
+            @Parameter(description = "Catégorie") @RequestParam(required = false) Category category,
+            @Parameter(description = "Nombre maximal de produits (max 100)") @RequestParam(defaultValue = "20") int limit
+    ) {
+        log.info("GET /api/v1/products/popular - Produits les plus consultés");
+
+        return ResponseEntity.ok(productPopularityService.popular(category, limit));
+    }
+
+    @Operation(summary = "Produits en tendance", description = "Retourne les produits actifs dont les consultations récentes sont les plus nombreuses : "
+            + "une consultation compte pour moitié après chaque demi-vie (products.popularity.half-life)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produits récupérés avec succès", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductPopularityDTO.class)))
+    })
+    @GetMapping(value = "/trending", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ProductPopularityDTO>> getTrendingProducts(
+            @Parameter(description = "Catégorie") @RequestParam(required = false) Category category,
+            @Parameter(description = "Nombre maximal de produits (max 100)") @RequestParam(defaultValue = "20") int limit
+    ) {
+        log.info("GET /api/v1/products/trending - Produits en tendance");
+
+        return ResponseEntity.ok(productPopularityService.trending(category, limit));
     }
 
     @Operation(summary = "Créer un nouveau produit", description = "Permet de créer un nouveau produit avec les données fournies")
@@ -80,9 +203,7 @@ public class ProductController {
     public ResponseEntity<ProductResponseDTO> createProduct(
             @Parameter(description = "Données du produit à créer", required = true) @Valid @RequestBody ProductRequestDTO productRequestDTO) {
 
-        log.warn("POST /api/v1/products - Création d'un produit: {}", productRequestDTO.getName());
-        System.out.println("Creating product: " + productRequestDTO.getName());
-        System.out.println("Product details: " + productRequestDTO.toString());
+        log.info("POST /api/v1/products - Création d'un produit: {}", productRequestDTO.getName());
 
         ProductResponseDTO createdProduct = productService.createProduct(productRequestDTO);
         URI location = ServletUriComponentsBuilder
@@ -96,22 +217,30 @@ public class ProductController {
                 .body(createdProduct);
     }
 
-    @Operation(summary = "Mettre à jour un produit existant", description = "Permet de mettre à jour les informations d'un produit existant en fonction de son ID")
+    @Operation(summary = "Mettre à jour un produit existant", description = "Permet de mettre à jour les informations d'un produit existant en fonction de son ID. "
+            + "Le stock envoyé est ignoré (PATCH /{id}/stock ou /stock). Avec If-Match (ETag d'une lecture), la modification est refusée si le produit a été modifié depuis ; "
+            + "une variation de stock intervenue entre-temps n'est pas un conflit")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produit mis à jour avec succès", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductResponseDTO.class))),
             @ApiResponse(responseCode = "400", description = "Données invalides", content = @Content),
-            @ApiResponse(responseCode = "404", description = "Produit non trouvé", content = @Content)
+            @ApiResponse(responseCode = "404", description = "Produit non trouvé", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Modification concurrente du produit", content = @Content),
+            @ApiResponse(responseCode = "412", description = "Produit modifié depuis la version de If-Match", content = @Content)
     })
     @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ProductResponseDTO> updateProduct(
             @Parameter(description = "ID du produit à mettre à jour", required = true) @PathVariable Long id,
+            @Parameter(description = "ETag de la version modifiée") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Données du produit à mettre à jour", required = true) @Valid @RequestBody ProductRequestDTO productRequestDTO
     ) {
         log.info("PUT /api/v1/products/{} - Mise à jour du produit: {}", id, productRequestDTO.getName());
 
-        ProductResponseDTO updatedProduct = productService.updateProduct(id, productRequestDTO);
+        ProductResponseDTO updatedProduct = productService.updateProduct(id, productRequestDTO,
+                httpCachePolicy.expectedVersion(id, ifMatch));
 
-        return ResponseEntity.ok(updatedProduct);
+        return ResponseEntity.ok()
+                .eTag(httpCachePolicy.productETag(updatedProduct))
+                .body(updatedProduct);
     }
 
     @Operation(summary = "Supprimer un produit", description = "Permet de supprimer un produit en fonction de son ID")
@@ -135,7 +264,7 @@ public class ProductController {
             @ApiResponse(responseCode = "200", description = "Produit récupéré avec succès", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductResponseDTO.class))),
             @ApiResponse(responseCode = "404", description = "Produit non trouvé", content = @Content)
     })
-    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/search", params = "name", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<List<ProductResponseDTO>> getProductByName(
         @Parameter(description = "Nom du produit", required = true) @RequestParam("name") String name
     ) {
@@ -146,33 +275,111 @@ public class ProductController {
         return ResponseEntity.ok(product);
     }
 
+    @Operation(summary = "Rechercher des produits", description = "Recherche plein texte sur le nom et la description des produits actifs (accents et casse ignorés, préfixes acceptés), triée par pertinence, avec filtres et compteurs de facettes optionnels")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Résultats de la recherche", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductSearchResultDTO.class)))
+    })
+    @GetMapping(value = "/search", params = "q", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductSearchResultDTO> searchProducts(
+            @Parameter(description = "Texte recherché", required = true) @RequestParam("q") String query,
+            @Parameter(description = "Catégorie") @RequestParam(required = false) Category category,
+            @Parameter(description = "Produits en stock (true) ou en rupture (false)") @RequestParam(required = false) Boolean inStock,
+            @Parameter(description = "Prix minimum (inclus)") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Prix maximum (inclus)") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Inclure les compteurs de facettes") @RequestParam(defaultValue = "false") boolean facets,
+            @Parameter(description = "Numéro de page (à partir de 0)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Taille de la page (max 100)") @RequestParam(defaultValue = "20") int size
+    ) {
+        log.info("GET /api/v1/products/search - Recherche plein texte: {}", query);
+
+        ProductFilterDTO filter = ProductFilterDTO.builder()
+                .category(category)
+                .inStock(inStock)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .build();
+
+        ProductSearchResultDTO result = productSearchService.search(query, filter, page, size, facets);
+
+        return ResponseEntity.ok(result);
+    }
+
+    @Operation(summary = "Compteurs de facettes", description = "Retourne le nombre de produits actifs par catégorie, par tranche de prix et par disponibilité pour une recherche et des filtres optionnels")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Compteurs calculés", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductFacetsDTO.class)))
+    })
+    @GetMapping(value = "/facets", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductFacetsDTO> getFacets(
+            @Parameter(description = "Texte recherché") @RequestParam(value = "q", required = false) String query,
+            @Parameter(description = "Catégorie") @RequestParam(required = false) Category category,
+            @Parameter(description = "Produits en stock (true) ou en rupture (false)") @RequestParam(required = false) Boolean inStock,
+            @Parameter(description = "Prix minimum (inclus)") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Prix maximum (inclus)") @RequestParam(required = false) BigDecimal maxPrice
+    ) {
+        log.info("GET /api/v1/products/facets - Compteurs de facettes");
+
+        ProductFilterDTO filter = ProductFilterDTO.builder()
+                .category(category)
+                .inStock(inStock)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .build();
+
+        return ResponseEntity.ok(productSearchService.facets(query, filter));
+    }
+
     @Operation(summary = "Récupérer des produits par catégorie", description = "Retourne la liste des produits appartenant à une catégorie spécifique")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produits récupérés avec succès", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Non modifié depuis la version du client (If-None-Match / If-Modified-Since)", content = @Content),
             @ApiResponse(responseCode = "404", description = "Aucun produit trouvé dans cette catégorie", content = @Content)
     })
     @GetMapping(value = "/category/{category}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<List<ProductResponseDTO>> getProductByCategory(
-            @Parameter(description = "Catégorie du produit", required = true) @PathVariable String category
+            @Parameter(description = "Catégorie du produit", required = true) @PathVariable String category,
+            WebRequest request
     ) {
         log.info("GET /api/v1/products/category/ - Récupération du produit par catégorie", category);
 
+        String eTag = httpCachePolicy.catalogETag();
+        ResponseEntity<List<ProductResponseDTO>> notModified = httpCachePolicy.notModified(request, eTag);
+        if (notModified != null) {
+            return notModified;
+        }
+
         List<ProductResponseDTO> product = productService.getProductsByCategory(category.toUpperCase());
 
-        return ResponseEntity.ok(product);
+        return httpCachePolicy.ok(eTag, product);
     }
 
-    @Operation(summary = "Récupérer les produits disponibles", description = "Retourne la liste des produits avec un stock supérieur à zéro")
+    @Operation(summary = "Récupérer les produits disponibles", description = "Retourne la liste des produits avec un stock supérieur à zéro. "
+            + "Avec une catégorie ou une fourchette de prix, retourne au plus 'limit' produits actifs, triés par prix croissant")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Produits disponibles récupérés avec succès", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductResponseDTO.class)))
+            @ApiResponse(responseCode = "200", description = "Produits disponibles récupérés avec succès", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Non modifié depuis la version du client (If-None-Match / If-Modified-Since)", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Fourchette de prix invalide", content = @Content)
     })
     @GetMapping(value = "/available", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<ProductResponseDTO>> getAvailableProducts() {
+    public ResponseEntity<List<ProductResponseDTO>> getAvailableProducts(
+            @Parameter(description = "Catégorie") @RequestParam(required = false) Category category,
+            @Parameter(description = "Prix minimum (inclus)") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Prix maximum (inclus)") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Nombre maximal de produits avec un filtre (max 100)") @RequestParam(defaultValue = "100") int limit,
+            WebRequest request
+    ) {
         log.info("GET /api/v1/products/available - Récupération des produits disponibles");
 
-        List<ProductResponseDTO> products = productService.getAvailableProducts();
+        String eTag = httpCachePolicy.catalogETag();
+        ResponseEntity<List<ProductResponseDTO>> notModified = httpCachePolicy.notModified(request, eTag);
+        if (notModified != null) {
+            return notModified;
+        }
 
-        return ResponseEntity.ok(products);
+        List<ProductResponseDTO> products = category == null && minPrice == null && maxPrice == null
+                ? productService.getAvailableProducts()
+                : productService.getAvailableProducts(category, minPrice, maxPrice, limit);
+
+        return httpCachePolicy.ok(eTag, products);
     }
 
     @Operation(summary = "Mettre à jour le stock d'un produit", description = "Permet de mettre à jour le stock d'un produit en fonction de son ID et de la quantité à ajouter")
@@ -191,4 +398,24 @@ public class ProductController {
 
         return ResponseEntity.ok(updatedProduct);
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Ajuster le stock de plusieurs produits", description = "Applique atomiquement des variations relatives (productId, delta) au stock de plusieurs produits en un seul appel. "
+            + "Le motif (reason) et la référence sont inscrits au journal des mouvements de stock")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stocks ajustés avec succès", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductResponseDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Produit non trouvé", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Stock insuffisant", content = @Content)
+    })
+    @PatchMapping(value = "/stock", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ProductResponseDTO>> adjustStock(
+        @Parameter(description = "Variations de stock à appliquer", required = true) @Valid @RequestBody StockAdjustmentRequestDTO request
+    ) {
+        log.info("PATCH /api/v1/products/stock - Ajustement groupé du stock de {} lignes", request.getItems().size());
+
+        List<ProductResponseDTO> products = productService.adjustStock(request.getItems(),
+                request.getReason() != null ? request.getReason() : StockMovementReason.MANUAL_ADJUST,
+                request.getReference());
+
+        return ResponseEntity.ok(products);
+    }
+}
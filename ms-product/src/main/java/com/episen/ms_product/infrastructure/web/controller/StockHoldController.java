@@ -0,0 +1,123 @@
+package com.episen.ms_product.infrastructure.web.controller;
+
+import java.net.URI;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.episen.ms_product.application.dto.StockHoldDTO;
+import com.episen.ms_product.application.dto.StockHoldRequestDTO;
+import com.episen.ms_product.application.service.StockHoldService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Réservations de stock à durée limitée (tunnel de commande).
+ * Une réservation appartient à l'utilisateur du token ; les rôles ADMIN et SERVICE
+ * accèdent à toutes les réservations.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/products/holds")
+@RequiredArgsConstructor
+@Tag(name = "Stock holds", description = "API de réservation temporaire du stock")
+public class StockHoldController {
+
+    private final StockHoldService stockHoldService;
+
+    @Operation(summary = "Réserver du stock", description = "Retire temporairement une quantité du stock disponible ; elle est restituée à l'expiration sauf confirmation")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Réservation créée", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = StockHoldDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Données invalides", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Produit non trouvé", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Stock disponible insuffisant ou plafond de réservations atteint", content = @Content)
+    })
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StockHoldDTO> createHold(@Valid @RequestBody StockHoldRequestDTO request,
+            Authentication authentication) {
+        log.info("POST /api/v1/products/holds - Réservation de {} unités du produit {}",
+                request.getQuantity(), request.getProductId());
+
+        StockHoldDTO hold = stockHoldService.hold(request.getProductId(), request.getQuantity(), request.getTtlSeconds(),
+                callerId(authentication), isPrivileged(authentication));
+
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(hold.getId())
+                .toUri();
+        return ResponseEntity.created(location).body(hold);
+    }
+
+    @Operation(summary = "Consulter une réservation", description = "Retourne l'état d'une réservation de stock")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Réservation trouvée", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = StockHoldDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Réservation d'un autre utilisateur", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Réservation non trouvée", content = @Content)
+    })
+    @GetMapping(value = "/{holdId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StockHoldDTO> getHold(
+            @Parameter(description = "ID de la réservation", required = true) @PathVariable String holdId,
+            Authentication authentication) {
+        return ResponseEntity.ok(stockHoldService.getHold(holdId, callerId(authentication), isPrivileged(authentication)));
+    }
+
+    @Operation(summary = "Confirmer une réservation", description = "Rend définitive la sortie de stock (idempotent)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Réservation confirmée", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = StockHoldDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Réservation d'un autre utilisateur", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Réservation non trouvée", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Réservation expirée ou libérée", content = @Content)
+    })
+    @PostMapping(value = "/{holdId}/confirm", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StockHoldDTO> confirmHold(
+            @Parameter(description = "ID de la réservation", required = true) @PathVariable String holdId,
+            Authentication authentication) {
+        log.info("POST /api/v1/products/holds/{}/confirm - Confirmation de la réservation", holdId);
+
+        return ResponseEntity.ok(stockHoldService.confirm(holdId, callerId(authentication), isPrivileged(authentication)));
+    }
+
+    @Operation(summary = "Libérer une réservation", description = "Restitue la quantité réservée au stock disponible (idempotent)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Réservation libérée", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = StockHoldDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Réservation d'un autre utilisateur", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Réservation non trouvée", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Réservation déjà confirmée", content = @Content)
+    })
+    @DeleteMapping(value = "/{holdId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StockHoldDTO> releaseHold(
+            @Parameter(description = "ID de la réservation", required = true) @PathVariable String holdId,
+            Authentication authentication) {
+        log.info("DELETE /api/v1/products/holds/{} - Libération de la réservation", holdId);
+
+        return ResponseEntity.ok(stockHoldService.release(holdId, callerId(authentication), isPrivileged(authentication)));
+    }
+
+    private static Long callerId(Authentication authentication) {
+        return (Long) authentication.getPrincipal();
+    }
+
+    private static boolean isPrivileged(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority())
+                        || "ROLE_SERVICE".equals(authority.getAuthority()));
+    }
+}
@@ -1,7 +1,10 @@
 package com.episen.ms_product.security;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -29,8 +32,14 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Reprise d'une requête asynchrone (long-poll) : déjà autorisée à l'appel initial
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/actuator/**").permitAll()
                         .requestMatchers("/v3/api-docs/**").permitAll()
+                        .requestMatchers("/api/v1/products/admin/**").hasRole("ADMIN")
+                        // Écritures directes du stock : réservées aux services appelants (ms-order) et aux administrateurs
+                        .requestMatchers(HttpMethod.PATCH, "/api/v1/products/stock", "/api/v1/products/*/stock")
+                        .hasAnyRole("ADMIN", "SERVICE")
                         .anyRequest().authenticated())
                 .addFilterBefore(jwtAuthentificationFilter, UsernamePasswordAuthenticationFilter.class);
 
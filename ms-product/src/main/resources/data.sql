@@ -9,10 +9,123 @@ CREATE TABLE IF NOT EXISTS product (
     stock INT NOT NULL,
     category VARCHAR(20) NOT NULL,
     imageUrl VARCHAR(255),
+    reorder_threshold INT,
     active BOOLEAN DEFAULT TRUE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- Version des données descriptives (verrouillage optimiste, If-Match) ; le stock n'en change pas
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+-- Index du listing paginé (GET /api/v1/products/listing)
+-- Chaque index se termine par id : il sert à la fois le tri, le départage
+-- et la condition de pagination par clé (tri, id) > (valeur, id).
+-- Listing par catégorie (storefront : active + category), un index par champ de tri
+CREATE INDEX IF NOT EXISTS idx_product_cat_active_price ON product (category, active, price, id);
+CREATE INDEX IF NOT EXISTS idx_product_cat_active_name ON product (category, active, name, id);
+CREATE INDEX IF NOT EXISTS idx_product_cat_active_created ON product (category, active, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_product_cat_active_stock ON product (category, active, stock, id);
+-- Produits en stock par fourchette de prix, toutes catégories (GET /api/v1/products/available)
+CREATE INDEX IF NOT EXISTS idx_product_active_price ON product (active, price, id);
+-- Listing sans filtre de catégorie
+CREATE INDEX IF NOT EXISTS idx_product_price ON product (price, id);
+CREATE INDEX IF NOT EXISTS idx_product_name ON product (name, id);
+CREATE INDEX IF NOT EXISTS idx_product_created ON product (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_product_stock ON product (stock, id);
+
+-- Produits en mode vente flash : leur stock fait foi en mémoire (HotStockService)
+-- et n'est réécrit dans product.stock que périodiquement.
+CREATE TABLE IF NOT EXISTS hot_sku (
+    product_id BIGINT PRIMARY KEY,
+    enabled_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Journal des changements du catalogue (GET /api/v1/products/changes)
+-- Une ligne par produit et par écriture commitée ; seq est le curseur des consommateurs.
+-- Les lignes sont insérées après le commit par l'unique rédacteur du flux
+-- (ProductChangeFeedService) : l'identité suit l'ordre des commits sans verrou commun.
+CREATE TABLE IF NOT EXISTS product_change (
+    seq BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    change_type VARCHAR(10) NOT NULL,
+    changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_product_change_at ON product_change (changed_at);
+
+-- Réservations de stock à durée limitée (POST /api/v1/products/holds)
+-- La quantité est déjà retirée de product.stock tant que la réservation est HELD.
+CREATE TABLE IF NOT EXISTS stock_hold (
+    id VARCHAR(36) PRIMARY KEY,
+    owner_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INT NOT NULL,
+    status VARCHAR(10) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_stock_hold_status ON stock_hold (status, updated_at);
+CREATE INDEX IF NOT EXISTS idx_stock_hold_owner ON stock_hold (owner_id, status);
+
+-- Références des réservations de stock des commandes (ORDER_RESERVE / ORDER_CANCEL) :
+-- une référence n'est réservée, puis restaurée, qu'une fois (OrderReservationService).
+-- RELEASED sans réservation préalable : restauration arrivée avant une réservation retardée.
+CREATE TABLE IF NOT EXISTS order_reservation (
+    reference VARCHAR(64) PRIMARY KEY,
+    status VARCHAR(10) NOT NULL,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
+CREATE INDEX IF NOT EXISTS idx_order_reservation_status ON order_reservation (status, updated_at);
+
+-- Journal des mouvements de stock (GET /api/v1/products/admin/inventory/{id}/movements)
+-- Append-only : une ligne par produit et par variation commitée, reason est le code de
+-- StockMovementReason. seq suit l'ordre des commits ; il est attribué par l'unique rédacteur
+-- du journal (InventoryLedgerService), seul à verrouiller inventory_movement_head.
+CREATE TABLE IF NOT EXISTS inventory_movement (
+    seq BIGINT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    delta INT NOT NULL,
+    reason SMALLINT NOT NULL,
+    reference VARCHAR(64),
+    created_at TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_inventory_movement_product ON inventory_movement (product_id, seq);
+CREATE TABLE IF NOT EXISTS inventory_movement_head (
+    id INT PRIMARY KEY,
+    seq BIGINT NOT NULL
+);
+MERGE INTO inventory_movement_head (id, seq) KEY (id) VALUES (1, 0);
+-- Stock d'un produit après le mouvement seq (créé à created_at) : point de départ du rejeu.
+CREATE TABLE IF NOT EXISTS inventory_snapshot (
+    product_id BIGINT NOT NULL,
+    seq BIGINT NOT NULL,
+    stock INT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (product_id, seq)
+);
+-- Dernière séquence prise en compte par les snapshots
+CREATE TABLE IF NOT EXISTS inventory_snapshot_head (
+    id INT PRIMARY KEY,
+    seq BIGINT NOT NULL
+);
+MERGE INTO inventory_snapshot_head (id, seq) KEY (id) VALUES (1, 0);
+
+-- Popularité des produits (GET /api/v1/products/popular et /trending)
+-- views : consultations cumulées ; score : consultations pondérées par 2^((t - landmark) / demi-vie),
+-- comparable d'un produit à l'autre sans recalcul (décroissance "vers l'avant").
+CREATE TABLE IF NOT EXISTS product_popularity (
+    product_id BIGINT PRIMARY KEY,
+    views BIGINT NOT NULL,
+    score DOUBLE PRECISION NOT NULL,
+    last_viewed_at TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_product_popularity_views ON product_popularity (views);
+CREATE INDEX IF NOT EXISTS idx_product_popularity_score ON product_popularity (score);
+-- Instant de référence des scores (ms epoch), avancé quand les poids deviennent trop grands
+CREATE TABLE IF NOT EXISTS product_popularity_head (
+    id INT PRIMARY KEY,
+    landmark BIGINT NOT NULL
+);
+MERGE INTO product_popularity_head (id, landmark) KEY (id) VALUES (1, 0);
 
 INSERT INTO
     product (
@@ -0,0 +1,82 @@
+package com.episen.ms_product.application.cache;
+
+import com.episen.ms_product.application.dto.ProductResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires pour ProductCache
+ */
+class ProductCacheTest {
+
+    private ProductCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductCache(new SimpleMeterRegistry(), true, 1000, Duration.ofMinutes(10));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("L'invalidation d'un autre produit pendant un chargement ne doit pas empêcher sa mise en cache")
+    void get_WhenOtherProductInvalidatedDuringLoad_ShouldCache() {
+        // Given : pendant le chargement du produit 1, tous les autres produits sont invalidés
+        cache.get(1L, id -> {
+            cache.invalidate(List.of(2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L, 13L, 14L, 15L, 16L, 17L));
+            return load(id);
+        });
+
+        // When
+        cache.get(1L, this::load);
+
+        // Then
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Un chargement lancé avant l'invalidation de son produit ne doit pas être mis en cache")
+    void get_WhenSameProductInvalidatedDuringLoad_ShouldNotCache() {
+        // Given
+        cache.get(1L, id -> {
+            cache.invalidate(List.of(1L));
+            return load(id);
+        });
+
+        // When
+        cache.get(1L, this::load);
+
+        // Then
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Un chargement lancé avant le vidage du cache ne doit pas être mis en cache")
+    void getAll_WhenCacheClearedDuringLoad_ShouldNotCache() {
+        // Given
+        cache.getAll(List.of(1L, 2L), ids -> {
+            cache.invalidateAll();
+            return ids.stream().collect(Collectors.toMap(id -> id, this::load));
+        });
+
+        // When
+        cache.get(1L, this::load);
+
+        // Then
+        assertThat(loads).hasValue(3);
+    }
+
+    private ProductResponseDTO load(Long id) {
+        loads.incrementAndGet();
+        return ProductResponseDTO.builder().id(id).name("Produit " + id).build();
+    }
+}
@@ -0,0 +1,287 @@
+package com.episen.ms_product.application.service;
+
+import com.episen.ms_product.application.event.StockMovedEvent;
+import com.episen.ms_product.application.event.StockMovedEvent.Movement;
+import com.episen.ms_product.application.service.HotStockService.AdjustResult;
+import com.episen.ms_product.domain.enumerate.StockMovementReason;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests unitaires pour HotStockService (base H2 en mémoire, journal dans un répertoire temporaire)
+ */
+@ExtendWith(MockitoExtension.class)
+class HotStockServiceTest {
+
+    private static final long PRODUCT_ID = 1L;
+    private static final int INITIAL_STOCK = 100;
+
+    @TempDir
+    Path walDirectory;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private JdbcTemplate jdbcTemplate;
+    private HotStockService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = start();
+    }
+
+    @Test
+    @DisplayName("Les réservations concurrentes ne doivent jamais vendre plus que le stock")
+    void tryAdjust_WhenConcurrent_ShouldNeverOversell() throws Exception {
+        // Given
+        service.enable(PRODUCT_ID);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Integer>> buyers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            buyers.add(() -> {
+                int bought = 0;
+                for (int j = 0; j < 50; j++) {
+                    if (service.tryAdjust(PRODUCT_ID, -1) == AdjustResult.APPLIED) {
+                        bought++;
+                    }
+                }
+                return bought;
+            });
+        }
+
+        // When
+        int sold = 0;
+        for (Future<Integer> buyer : executor.invokeAll(buyers)) {
+            sold += buyer.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(sold).isEqualTo(INITIAL_STOCK);
+        assertThat(service.currentStock(PRODUCT_ID)).contains(0);
+        assertThat(service.list().get(0).getVersion()).isEqualTo(INITIAL_STOCK);
+    }
+
+    @Test
+    @DisplayName("Une variation qui rendrait le stock négatif doit être refusée sans rien modifier")
+    void tryAdjust_WhenInsufficient_ShouldLeaveStockUnchanged() {
+        // Given
+        service.enable(PRODUCT_ID);
+
+        // When / Then
+        assertThat(service.tryAdjust(PRODUCT_ID, -(INITIAL_STOCK + 1))).isEqualTo(AdjustResult.INSUFFICIENT);
+        assertThat(service.currentStock(PRODUCT_ID)).contains(INITIAL_STOCK);
+        assertThat(service.tryAdjust(2L, -1)).isEqualTo(AdjustResult.NOT_HOT);
+    }
+
+    @Test
+    @DisplayName("La compensation doit annuler les variations d'une transaction annulée")
+    void compensate_ShouldRevertAppliedDeltas() {
+        // Given
+        service.enable(PRODUCT_ID);
+        service.tryAdjust(PRODUCT_ID, -7);
+
+        // When
+        service.compensate(Map.of(PRODUCT_ID, -7));
+
+        // Then
+        assertThat(service.currentStock(PRODUCT_ID)).contains(INITIAL_STOCK);
+    }
+
+    @Test
+    @DisplayName("Un produit sorti du mode vente flash avant la compensation doit être compensé en base")
+    void compensate_WhenDisabledMeanwhile_ShouldRevertInDatabase() {
+        // Given : la réservation est emportée dans product.stock par la sortie du mode
+        service.enable(PRODUCT_ID);
+        service.tryAdjust(PRODUCT_ID, -7);
+        service.disable(PRODUCT_ID);
+        assertThat(databaseStock()).isEqualTo(INITIAL_STOCK - 7);
+
+        // When
+        service.compensate(Map.of(PRODUCT_ID, -7));
+
+        // Then
+        assertThat(service.isHot(PRODUCT_ID)).isFalse();
+        assertThat(databaseStock()).isEqualTo(INITIAL_STOCK);
+    }
+
+    @Test
+    @DisplayName("Après un arrêt brutal et une base en mémoire vide, le journal doit être rejoué")
+    void recover_AfterCrashWithEmptyDatabase_ShouldReplayJournal() throws IOException {
+        // Given : variations journalisées, jamais écrites en base
+        service.enable(PRODUCT_ID);
+        service.tryAdjust(PRODUCT_ID, -3);
+        service.tryAdjust(PRODUCT_ID, -2);
+
+        // When : redémarrage sur une base neuve (hot_sku vide)
+        HotStockService restarted = start();
+
+        // Then
+        assertThat(restarted.isHot(PRODUCT_ID)).isTrue();
+        assertThat(restarted.currentStock(PRODUCT_ID)).contains(95);
+        assertThat(databaseStock()).isEqualTo(95);
+        assertThat(jdbcTemplate.queryForList("SELECT product_id FROM hot_sku", Long.class))
+                .containsExactly(PRODUCT_ID);
+        assertThat(restarted.list().get(0).getVersion()).isEqualTo(2);
+        assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Les segments doivent être conservés si la reprise échoue")
+    void recover_WhenReplayFails_ShouldKeepSegments() throws IOException {
+        // Given
+        service.enable(PRODUCT_ID);
+        service.tryAdjust(PRODUCT_ID, -3);
+        List<Path> before = segments();
+
+        // When : base sans schéma
+        jdbcTemplate = newDatabase();
+        HotStockService restarted = newService();
+
+        // Then
+        assertThatThrownBy(restarted::recover).isInstanceOf(RuntimeException.class);
+        assertThat(segments()).containsAll(before);
+        assertThat(start().currentStock(PRODUCT_ID)).contains(97);
+    }
+
+    @Test
+    @DisplayName("Un produit sorti du mode vente flash ne doit pas être rechargé au redémarrage")
+    void recover_WhenDisabled_ShouldNotReloadProduct() throws IOException {
+        // Given
+        service.enable(PRODUCT_ID);
+        service.tryAdjust(PRODUCT_ID, -3);
+        service.disable(PRODUCT_ID);
+
+        // When
+        HotStockService restarted = start();
+
+        // Then
+        assertThat(restarted.isHot(PRODUCT_ID)).isFalse();
+        assertThat(restarted.list()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Un produit réactivé doit reprendre après ses versions journalisées")
+    void enable_AfterDisable_ShouldContinueVersions() throws IOException {
+        // Given : versions 0 à 2, sortie journalisée en version 3
+        service.enable(PRODUCT_ID);
+        service.tryAdjust(PRODUCT_ID, -1);
+        service.tryAdjust(PRODUCT_ID, -1);
+        service.disable(PRODUCT_ID);
+
+        // When
+        service.enable(PRODUCT_ID);
+        service.tryAdjust(PRODUCT_ID, -1);
+
+        // Then
+        assertThat(service.list().get(0).getVersion()).isEqualTo(5);
+        HotStockService restarted = start();
+        assertThat(restarted.isHot(PRODUCT_ID)).isTrue();
+        assertThat(restarted.currentStock(PRODUCT_ID)).contains(INITIAL_STOCK - 3);
+    }
+
+    @Test
+    @DisplayName("L'écriture périodique doit mettre la base à jour et supprimer les segments précédents")
+    void flush_ShouldWriteStockAndTruncateSegments() throws IOException {
+        // Given
+        service.enable(PRODUCT_ID);
+        service.tryAdjust(PRODUCT_ID, -4);
+        service.flush();
+        service.tryAdjust(PRODUCT_ID, -1);
+
+        // When
+        service.flush();
+
+        // Then
+        assertThat(databaseStock()).isEqualTo(INITIAL_STOCK - 5);
+        assertThat(segments()).hasSize(1);
+        assertThat(service.list().get(0).getFlushedVersion()).isEqualTo(2);
+        assertThat(start().currentStock(PRODUCT_ID)).contains(INITIAL_STOCK - 5);
+    }
+
+    @Test
+    @DisplayName("Les variations commitées doivent être publiées au journal agrégées, à l'écriture périodique")
+    void flush_ShouldPublishAggregatedMovements() {
+        // Given
+        service.enable(PRODUCT_ID);
+        service.recordMovements(Map.of(PRODUCT_ID, -2), StockMovementReason.ORDER_RESERVE);
+        service.recordMovements(Map.of(PRODUCT_ID, -3), StockMovementReason.ORDER_RESERVE);
+        service.recordMovements(Map.of(PRODUCT_ID, 1), StockMovementReason.ORDER_CANCEL);
+        verify(eventPublisher, never()).publishEvent(any(StockMovedEvent.class));
+
+        // When
+        service.flush();
+        service.flush();
+
+        // Then : un mouvement par motif, publié une seule fois
+        ArgumentCaptor<StockMovedEvent> event = ArgumentCaptor.forClass(StockMovedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().movements()).containsExactlyInAnyOrder(
+                        new Movement(PRODUCT_ID, -5, StockMovementReason.ORDER_RESERVE, null),
+                        new Movement(PRODUCT_ID, 1, StockMovementReason.ORDER_CANCEL, null));
+    }
+
+    /**
+     * Démarre un service sur une base neuve, comme après le redémarrage d'une base en mémoire.
+     */
+    private HotStockService start() throws IOException {
+        jdbcTemplate = newDatabase();
+        jdbcTemplate.execute("CREATE TABLE product (id BIGINT PRIMARY KEY, stock INT NOT NULL, updated_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE hot_sku (product_id BIGINT PRIMARY KEY, "
+                + "enabled_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO product (id, stock) VALUES (?, ?)", PRODUCT_ID, INITIAL_STOCK);
+        HotStockService started = newService();
+        started.recover();
+        return started;
+    }
+
+    private JdbcTemplate newDatabase() {
+        return new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:hot-stock-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+    }
+
+    private HotStockService newService() {
+        return new HotStockService(jdbcTemplate, new DataSourceTransactionManager(jdbcTemplate.getDataSource()),
+                eventPublisher, new SimpleMeterRegistry(), walDirectory.toString(), true);
+    }
+
+    private int databaseStock() {
+        return jdbcTemplate.queryForObject("SELECT stock FROM product WHERE id = ?", Integer.class, PRODUCT_ID);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(walDirectory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".wal")).toList();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.episen.ms_product.application.service;
+
+import com.episen.ms_product.application.dto.InventoryLevelDTO;
+import com.episen.ms_product.application.event.StockMovedEvent;
+import com.episen.ms_product.domain.enumerate.StockMovementReason;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Tests unitaires pour InventoryLedgerService (base H2 en mémoire)
+ */
+@ExtendWith(MockitoExtension.class)
+class InventoryLedgerServiceTest {
+
+    private static final long PRODUCT_ID = 1L;
+
+    @Mock
+    private HotStockService hotStockService;
+
+    private JdbcTemplate jdbcTemplate;
+    private MeterRegistry meterRegistry;
+    private InventoryLedgerService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:inventory-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE product (id BIGINT PRIMARY KEY, stock INT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE inventory_movement (seq BIGINT PRIMARY KEY, product_id BIGINT NOT NULL, "
+                + "delta INT NOT NULL, reason SMALLINT NOT NULL, reference VARCHAR(64), created_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE inventory_movement_head (id INT PRIMARY KEY, seq BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE inventory_snapshot (product_id BIGINT NOT NULL, seq BIGINT NOT NULL, "
+                + "stock INT NOT NULL, created_at TIMESTAMP NOT NULL, PRIMARY KEY (product_id, seq))");
+        jdbcTemplate.execute("CREATE TABLE inventory_snapshot_head (id INT PRIMARY KEY, seq BIGINT NOT NULL)");
+        jdbcTemplate.update("INSERT INTO inventory_movement_head (id, seq) VALUES (1, 0)");
+        jdbcTemplate.update("INSERT INTO inventory_snapshot_head (id, seq) VALUES (1, 0)");
+        jdbcTemplate.update("INSERT INTO product (id, stock) VALUES (?, 0)", PRODUCT_ID);
+        lenient().when(hotStockService.currentStock(any())).thenReturn(Optional.empty());
+
+        meterRegistry = new SimpleMeterRegistry();
+        service = new InventoryLedgerService(jdbcTemplate, new NamedParameterJdbcTemplate(dataSource),
+                new DataSourceTransactionManager(dataSource), hotStockService, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Les mouvements doivent être mis en file, puis écrits par le rédacteur dans l'ordre")
+    void record_ShouldQueueUntilFlush() {
+        // Given
+        move(10, StockMovementReason.CREATION);
+        move(-3, StockMovementReason.ORDER_RESERVE);
+        move(0, StockMovementReason.MANUAL_ADJUST);
+        assertThat(movementCount()).isZero();
+        assertThat(pending()).isEqualTo(2);
+
+        // When
+        service.flush();
+
+        // Then
+        assertThat(jdbcTemplate.queryForList("SELECT delta FROM inventory_movement ORDER BY seq", Integer.class))
+                .containsExactly(10, -3);
+        assertThat(jdbcTemplate.queryForObject("SELECT seq FROM inventory_movement_head", Long.class)).isEqualTo(2);
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("Le stock courant doit être le dernier snapshot plus les seuls mouvements qui le suivent")
+    void stockAt_ShouldReplayMovementsAfterSnapshot() {
+        // Given
+        move(10, StockMovementReason.CREATION);
+        move(-3, StockMovementReason.ORDER_RESERVE);
+        service.flush();
+        service.snapshot();
+        // Mouvement encore en file : la lecture l'écrit d'abord
+        move(-2, StockMovementReason.ORDER_RESERVE);
+        setStock(5);
+
+        // When
+        InventoryLevelDTO level = service.stockAt(PRODUCT_ID, null);
+
+        // Then
+        assertThat(level.getStock()).isEqualTo(5);
+        assertThat(level.getSnapshotSeq()).isEqualTo(2);
+        assertThat(level.getReplayedMovements()).isEqualTo(1);
+        assertThat(level.getSeq()).isEqualTo(3);
+        assertThat(level.getCurrentStock()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Le stock passé doit partir du dernier snapshot antérieur à l'instant demandé")
+    void stockAt_WhenPastInstant_ShouldUseEarlierSnapshot() {
+        // Given : +10 il y a deux heures, -4 il y a une heure, chacun suivi d'un snapshot
+        LocalDateTime now = LocalDateTime.now();
+        move(10, StockMovementReason.CREATION);
+        service.flush();
+        service.snapshot();
+        backdate(1, now.minusHours(2));
+        move(-4, StockMovementReason.ORDER_RESERVE);
+        service.flush();
+        service.snapshot();
+        backdate(2, now.minusHours(1));
+        move(-1, StockMovementReason.ORDER_RESERVE);
+
+        // When
+        InventoryLevelDTO beforeReserve = service.stockAt(PRODUCT_ID, now.minusMinutes(90));
+        InventoryLevelDTO afterReserve = service.stockAt(PRODUCT_ID, now.minusMinutes(30));
+
+        // Then
+        assertThat(beforeReserve.getStock()).isEqualTo(10);
+        assertThat(beforeReserve.getSnapshotSeq()).isEqualTo(1);
+        assertThat(beforeReserve.getReplayedMovements()).isZero();
+        assertThat(beforeReserve.getCurrentStock()).isNull();
+        assertThat(afterReserve.getStock()).isEqualTo(6);
+        assertThat(afterReserve.getSnapshotSeq()).isEqualTo(2);
+        assertThat(afterReserve.getReplayedMovements()).isZero();
+        assertThat(service.stockAt(PRODUCT_ID, null).getStock()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Un lot en échec ne doit pas être perdu et doit être écrit au passage suivant")
+    void flush_WhenWriteFails_ShouldRetryOnNextPass() {
+        // Given
+        move(10, StockMovementReason.CREATION);
+        jdbcTemplate.execute("ALTER TABLE inventory_movement RENAME TO inventory_movement_off");
+
+        // When
+        service.flush();
+
+        // Then
+        assertThat(pending()).isEqualTo(1);
+        jdbcTemplate.execute("ALTER TABLE inventory_movement_off RENAME TO inventory_movement");
+        move(-1, StockMovementReason.ORDER_RESERVE);
+        service.flush();
+        assertThat(jdbcTemplate.queryForList("SELECT seq FROM inventory_movement ORDER BY seq", Long.class))
+                .containsExactly(1L, 2L);
+        assertThat(pending()).isZero();
+    }
+
+    private void move(int delta, StockMovementReason reason) {
+        service.record(StockMovedEvent.of(PRODUCT_ID, delta, reason, null));
+    }
+
+    private void setStock(int stock) {
+        jdbcTemplate.update("UPDATE product SET stock = ? WHERE id = ?", stock, PRODUCT_ID);
+    }
+
+    private void backdate(long seq, LocalDateTime createdAt) {
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        jdbcTemplate.update("UPDATE inventory_movement SET created_at = ? WHERE seq = ?", timestamp, seq);
+        jdbcTemplate.update("UPDATE inventory_snapshot SET created_at = ? WHERE seq = ?", timestamp, seq);
+    }
+
+    private int movementCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM inventory_movement", Integer.class);
+    }
+
+    private double pending() {
+        return meterRegistry.get("products.inventory.pending").gauge().value();
+    }
+}
@@ -0,0 +1,105 @@
+package com.episen.ms_product.application.service;
+
+import com.episen.ms_product.domain.enumerate.StockMovementReason;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires pour OrderReservationService (base H2 en mémoire)
+ */
+class OrderReservationServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private OrderReservationService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:reservation-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE order_reservation (reference VARCHAR(64) PRIMARY KEY, "
+                + "status VARCHAR(10) NOT NULL, updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        service = new OrderReservationService(jdbcTemplate, Duration.ofDays(30));
+    }
+
+    @Test
+    @DisplayName("Une réservation ne doit être appliquée qu'une fois")
+    void claim_WhenReserveRetried_ShouldApplyOnce() {
+        assertThat(service.claim(StockMovementReason.ORDER_RESERVE, "order-1")).isTrue();
+        assertThat(service.claim(StockMovementReason.ORDER_RESERVE, "order-1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Une restauration ne doit être appliquée qu'une fois, après la réservation")
+    void claim_WhenCancelRetried_ShouldRestoreOnce() {
+        service.claim(StockMovementReason.ORDER_RESERVE, "order-1");
+
+        assertThat(service.claim(StockMovementReason.ORDER_CANCEL, "order-1")).isTrue();
+        assertThat(service.claim(StockMovementReason.ORDER_CANCEL, "order-1")).isFalse();
+        assertThat(status("order-1")).isEqualTo("RELEASED");
+    }
+
+    @Test
+    @DisplayName("Une restauration sans réservation ne doit rien restituer et écarter la réservation retardée")
+    void claim_WhenCancelArrivesBeforeReserve_ShouldBlockLateReserve() {
+        assertThat(service.claim(StockMovementReason.ORDER_CANCEL, "order-1")).isFalse();
+
+        assertThat(service.claim(StockMovementReason.ORDER_RESERVE, "order-1")).isFalse();
+        assertThat(status("order-1")).isEqualTo("RELEASED");
+    }
+
+    @Test
+    @DisplayName("Les ajustements sans référence ou d'un autre motif ne doivent pas être suivis")
+    void claim_WithoutReferenceOrOtherReason_ShouldAlwaysApply() {
+        assertThat(service.claim(StockMovementReason.ORDER_RESERVE, null)).isTrue();
+        assertThat(service.claim(StockMovementReason.ORDER_RESERVE, null)).isTrue();
+        assertThat(service.claim(StockMovementReason.MANUAL_ADJUST, "inventaire")).isTrue();
+        assertThat(service.claim(StockMovementReason.MANUAL_ADJUST, "inventaire")).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_reservation", Integer.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("Une référence déjà présente ne doit pas lever d'erreur ni annuler la transaction de l'ajustement")
+    void claim_WhenDuplicateInTransaction_ShouldKeepTransactionUsable() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(
+                new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+
+        Boolean reapplied = transactionTemplate.execute(status -> {
+            service.claim(StockMovementReason.ORDER_RESERVE, "order-1");
+            boolean second = service.claim(StockMovementReason.ORDER_RESERVE, "order-1");
+            service.claim(StockMovementReason.ORDER_RESERVE, "order-2");
+            return second;
+        });
+
+        assertThat(reapplied).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_reservation", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("La purge ne doit supprimer que les références restaurées anciennes")
+    void purge_ShouldKeepReservedReferences() {
+        service.claim(StockMovementReason.ORDER_RESERVE, "order-1");
+        service.claim(StockMovementReason.ORDER_RESERVE, "order-2");
+        service.claim(StockMovementReason.ORDER_CANCEL, "order-2");
+        jdbcTemplate.update("UPDATE order_reservation SET updated_at = DATEADD('DAY', -31, CURRENT_TIMESTAMP)");
+
+        service.purge();
+
+        assertThat(status("order-1")).isEqualTo("RESERVED");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_reservation", Integer.class)).isEqualTo(1);
+    }
+
+    private String status(String reference) {
+        return jdbcTemplate.queryForObject("SELECT status FROM order_reservation WHERE reference = ?",
+                String.class, reference);
+    }
+}
@@ -0,0 +1,119 @@
+package com.episen.ms_product.application.service;
+
+import com.episen.ms_product.application.event.ProductChangedEvent;
+import com.episen.ms_product.application.event.ProductChangedEvent.ChangeType;
+import com.episen.ms_product.application.mapper.ProductMapper;
+import com.episen.ms_product.application.service.ProductChangeFeedService.ChangedProducts;
+import com.episen.ms_product.domain.repository.ProductRepository;
+import com.episen.ms_product.infrastructure.exception.ChangeFeedCursorExpiredException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitaires pour ProductChangeFeedService (base H2 en mémoire)
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductChangeFeedServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Mock
+    private HotStockService hotStockService;
+
+    private JdbcTemplate jdbcTemplate;
+    private ProductChangeFeedService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:changes-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE product_change (seq BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "product_id BIGINT NOT NULL, change_type VARCHAR(10) NOT NULL, "
+                + "changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        service = new ProductChangeFeedService(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                productRepository, productMapper, hotStockService, new SimpleMeterRegistry(),
+                Duration.ofSeconds(30), 1000, Duration.ofDays(7));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Les changements commités doivent être écrits dans l'ordre et le curseur suivre la dernière séquence")
+    void changedProducts_ShouldSeeQueuedChangesInOrder() {
+        // Given
+        service.record(ProductChangedEvent.of(ChangeType.CREATED, List.of(1L, 2L)));
+        service.record(ProductChangedEvent.of(ChangeType.STOCK, 1L));
+
+        // When
+        ChangedProducts changes = service.changedProducts(0, 10);
+
+        // Then
+        assertThat(changes.productIds()).containsExactly(1L, 2L);
+        assertThat(changes.cursor()).isEqualTo(3);
+        assertThat(changes.hasMore()).isFalse();
+        assertThat(service.currentCursor()).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForList("SELECT change_type FROM product_change ORDER BY seq", String.class))
+                .containsExactly("CREATED", "CREATED", "STOCK");
+    }
+
+    @Test
+    @DisplayName("La purge doit conserver la dernière ligne, qui porte le curseur courant")
+    void purge_ShouldKeepCurrentCursor() {
+        // Given
+        service.record(ProductChangedEvent.of(ChangeType.UPDATED, List.of(1L, 2L)));
+        service.flush();
+        jdbcTemplate.update("UPDATE product_change SET changed_at = DATEADD('DAY', -8, CURRENT_TIMESTAMP)");
+
+        // When
+        service.purge();
+
+        // Then
+        assertThat(service.currentCursor()).isEqualTo(2);
+        assertThat(service.changedProducts(1, 10).productIds()).containsExactly(2L);
+        assertThatThrownBy(() -> service.changedProducts(0, 10))
+                .isInstanceOf(ChangeFeedCursorExpiredException.class);
+    }
+
+    @Test
+    @DisplayName("Un lot en échec ne doit pas être perdu et doit être écrit au passage suivant")
+    void flush_WhenWriteFails_ShouldRetryOnNextPass() {
+        // Given
+        jdbcTemplate.execute("ALTER TABLE product_change RENAME TO product_change_off");
+        service.record(ProductChangedEvent.of(ChangeType.UPDATED, 1L));
+        service.flush();
+
+        // When
+        jdbcTemplate.execute("ALTER TABLE product_change_off RENAME TO product_change");
+        service.record(ProductChangedEvent.of(ChangeType.DELETED, 2L));
+        service.flush();
+
+        // Then
+        assertThat(jdbcTemplate.queryForList("SELECT product_id FROM product_change ORDER BY seq", Long.class))
+                .containsExactly(1L, 2L);
+        assertThat(service.currentCursor()).isEqualTo(2);
+    }
+}
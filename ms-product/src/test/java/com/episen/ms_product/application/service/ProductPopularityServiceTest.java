@@ -0,0 +1,152 @@
+package com.episen.ms_product.application.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests unitaires pour ProductPopularityService (base H2 en mémoire)
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductPopularityServiceTest {
+
+    private static final Duration HALF_LIFE = Duration.ofHours(1);
+
+    @Mock
+    private ProductService productService;
+
+    private JdbcTemplate jdbcTemplate;
+    private MeterRegistry meterRegistry;
+    private ProductPopularityService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:popularity-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE product_popularity (product_id BIGINT PRIMARY KEY, views BIGINT NOT NULL, "
+                + "score DOUBLE PRECISION NOT NULL, last_viewed_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE product_popularity_head (id INT PRIMARY KEY, landmark BIGINT NOT NULL)");
+        jdbcTemplate.update("INSERT INTO product_popularity_head (id, landmark) VALUES (1, ?)",
+                System.currentTimeMillis());
+
+        meterRegistry = new SimpleMeterRegistry();
+        service = new ProductPopularityService(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                productService, meterRegistry, true, HALF_LIFE);
+    }
+
+    @Test
+    @DisplayName("Chaque passage ne doit écrire que les consultations arrivées depuis le précédent")
+    void flush_ShouldWriteOnlyNewViews() {
+        // Given
+        view(1L, 3);
+        view(2L, 1);
+        service.flush();
+
+        // When
+        view(1L, 2);
+        service.flush();
+
+        // Then
+        assertThat(views(1L)).isEqualTo(5);
+        assertThat(views(2L)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Les compteurs entièrement écrits doivent être retirés de la mémoire")
+    void flush_ShouldEvictFullyFlushedCounters() {
+        // Given
+        view(1L, 3);
+        view(2L, 1);
+        assertThat(tracked()).isEqualTo(2);
+
+        // When
+        service.flush();
+
+        // Then
+        assertThat(tracked()).isZero();
+
+        // Une consultation après le retrait recrée le compteur, qui est retiré une fois écrit
+        view(1L, 1);
+        assertThat(tracked()).isEqualTo(1);
+        service.flush();
+        assertThat(tracked()).isZero();
+        assertThat(views(1L)).isEqualTo(4);
+
+        // Un produit retiré puis consulté à nouveau repart de son total en base
+        view(2L, 2);
+        service.flush();
+        assertThat(views(2L)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Un passage en échec ne doit ni perdre ni retirer les consultations")
+    void flush_WhenWriteFails_ShouldRetryOnNextPass() {
+        // Given
+        view(1L, 3);
+        jdbcTemplate.execute("ALTER TABLE product_popularity RENAME TO product_popularity_off");
+
+        // When
+        service.flush();
+
+        // Then
+        assertThat(tracked()).isEqualTo(1);
+        jdbcTemplate.execute("ALTER TABLE product_popularity_off RENAME TO product_popularity");
+        view(1L, 1);
+        service.flush();
+        assertThat(views(1L)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Les scores doivent être ramenés à un nouveau landmark quand les poids deviennent trop grands")
+    void flush_WhenLandmarkTooOld_ShouldRebaseScores() {
+        // Given : un score écrit il y a 40 demi-vies
+        long oldLandmark = System.currentTimeMillis() - 40 * HALF_LIFE.toMillis();
+        jdbcTemplate.update("UPDATE product_popularity_head SET landmark = ?", oldLandmark);
+        jdbcTemplate.update("INSERT INTO product_popularity VALUES (1, 10, ?, CURRENT_TIMESTAMP)", Math.pow(2, 40));
+        view(2L, 1);
+
+        // When
+        service.flush();
+
+        // Then : l'ancien score est ramené à environ 1, la nouvelle consultation pèse 1
+        long landmark = jdbcTemplate.queryForObject("SELECT landmark FROM product_popularity_head", Long.class);
+        assertThat(landmark).isGreaterThan(oldLandmark + 39 * HALF_LIFE.toMillis());
+        assertThat(score(1L)).isCloseTo(1.0, within(0.01));
+        assertThat(score(2L)).isCloseTo(1.0, within(0.01));
+    }
+
+    private void view(Long productId, int times) {
+        for (int i = 0; i < times; i++) {
+            service.recordView(productId);
+        }
+    }
+
+    private long views(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT views FROM product_popularity WHERE product_id = ?",
+                Long.class, productId);
+    }
+
+    private double score(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT score FROM product_popularity WHERE product_id = ?",
+                Double.class, productId);
+    }
+
+    private double tracked() {
+        return meterRegistry.get("products.popularity.tracked").gauge().value();
+    }
+}
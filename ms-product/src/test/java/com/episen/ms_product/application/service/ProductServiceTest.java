@@ -0,0 +1,481 @@
+package com.episen.ms_product.application.service;
+
+import com.episen.ms_product.application.cache.ProductCache;
+import com.episen.ms_product.application.catalog.CatalogSnapshot;
+import com.episen.ms_product.application.dto.ProductRequestDTO;
+import com.episen.ms_product.application.dto.ProductResponseDTO;
+import com.episen.ms_product.application.dto.StockAdjustmentDTO;
+import com.episen.ms_product.application.event.StockMovedEvent;
+import com.episen.ms_product.application.mapper.ProductMapper;
+import com.episen.ms_product.domain.entity.Product;
+import com.episen.ms_product.domain.enumerate.Category;
+import com.episen.ms_product.domain.enumerate.StockMovementReason;
+import com.episen.ms_product.domain.repository.ProductRepository;
+import com.episen.ms_product.infrastructure.exception.InsufficientStockException;
+import com.episen.ms_product.infrastructure.exception.ProductVersionMismatchException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ProductService
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private HotStockService hotStockService;
+
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Mock
+    private OrderReservationService orderReservationService;
+
+    private MeterRegistry meterRegistry;
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        productService = new ProductService(productRepository, productMapper, meterRegistry, eventPublisher,
+                new ProductCache(meterRegistry, true, 100, Duration.ofMinutes(1)), hotStockService,
+                catalogSnapshotService, orderReservationService);
+        lenient().when(hotStockService.overlay(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(orderReservationService.claim(any(), any())).thenReturn(true);
+    }
+
+    /*
+     * getAllProducts
+     */
+    @Test
+    @DisplayName("Doit retourner tous les produits")
+    void getAllProducts_ShouldReturnAllProducts() {
+        // Given
+        Product product = createProduct();
+        ProductResponseDTO dto = createProductResponseDTO();
+
+        when(productRepository.findAll()).thenReturn(List.of(product));
+        when(productMapper.toDTO(product)).thenReturn(dto);
+
+        // When
+        List<ProductResponseDTO> result = productService.getAllProducts();
+
+        // Then
+        assertThat(result).hasSize(1);
+        verify(productRepository).findAll();
+    }
+
+    @Test
+    @DisplayName("Doit servir les listes depuis le catalogue en mémoire s'il est chargé")
+    void getProductsByCategory_WhenSnapshotLoaded_ShouldNotQueryRepository() {
+        // Given
+        ProductResponseDTO phone = createProductResponseDTO().toBuilder().id(1L).category(Category.ELECTRONICS).build();
+        ProductResponseDTO book = createProductResponseDTO().toBuilder().id(2L).category(Category.BOOKS).build();
+        when(catalogSnapshotService.current()).thenReturn(CatalogSnapshot.of(7L, List.of(phone, book)));
+
+        // When
+        List<ProductResponseDTO> result = productService.getProductsByCategory("BOOKS");
+
+        // Then
+        assertThat(result).containsExactly(book);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Doit appliquer le stock en mémoire des produits en vente flash au catalogue")
+    void getAvailableProducts_WhenHotProductSoldOut_ShouldExcludeIt() {
+        // Given
+        ProductResponseDTO hot = createProductResponseDTO().toBuilder()
+                .id(1L).category(Category.ELECTRONICS).active(true).stock(5).build();
+        ProductResponseDTO cold = createProductResponseDTO().toBuilder()
+                .id(2L).category(Category.ELECTRONICS).active(true).stock(5).build();
+        when(catalogSnapshotService.current()).thenReturn(CatalogSnapshot.of(7L, List.of(hot, cold)));
+        when(hotStockService.overlay(hot)).thenReturn(hot.toBuilder().stock(0).build());
+
+        // When / Then
+        assertThat(productService.getAvailableProducts()).containsExactly(cold);
+        assertThat(productService.getAllProducts()).extracting(ProductResponseDTO::getStock).containsExactly(0, 5);
+    }
+
+    /*
+     * getProductById
+     */
+    @Test
+    @DisplayName("Doit retourner un produit existant par ID")
+    void getProductById_WhenProductExists_ShouldReturnProduct() {
+        // Given
+        Product product = createProduct();
+        ProductResponseDTO dto = createProductResponseDTO();
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productMapper.toDTO(product)).thenReturn(dto);
+
+        // When
+        ProductResponseDTO result = productService.getProductById(1L);
+
+        // Then
+        assertThat(result).isNotNull();
+        assertThat(result.getName()).isEqualTo("Produit Test");
+    }
+
+    @Test
+    @DisplayName("Doit servir les lectures suivantes depuis le cache")
+    void getProductById_WhenCalledTwice_ShouldHitDatabaseOnce() {
+        // Given
+        Product product = createProduct();
+        ProductResponseDTO dto = createProductResponseDTO();
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productMapper.toDTO(product)).thenReturn(dto);
+
+        // When
+        productService.getProductById(1L);
+        ProductResponseDTO result = productService.getProductById(1L);
+
+        // Then
+        assertThat(result).isSameAs(dto);
+        verify(productRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Doit lever une exception si le produit n'existe pas")
+    void getProductById_WhenNotFound_ShouldThrowException() {
+        // Given
+        when(productRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // When / Then
+        assertThatThrownBy(() -> productService.getProductById(99L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Produit non trouvé");
+    }
+
+    @Test
+    @DisplayName("Doit regrouper les lectures simultanées d'un produit absent du cache")
+    void getProductById_WhenConcurrentMisses_ShouldLoadOnce() throws Exception {
+        // Given
+        Product product = createProduct();
+        ProductResponseDTO dto = createProductResponseDTO();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.findById(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return Optional.of(product);
+        });
+        when(productMapper.toDTO(product)).thenReturn(dto);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            // When
+            List<Future<ProductResponseDTO>> reads = new ArrayList<>();
+            reads.add(executor.submit(() -> productService.getProductById(1L)));
+            loading.await();
+            for (int i = 0; i < 7; i++) {
+                reads.add(executor.submit(() -> productService.getProductById(1L)));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (coalesced() < 7 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            // Then
+            for (Future<ProductResponseDTO> read : reads) {
+                assertThat(read.get(5, TimeUnit.SECONDS)).isEqualTo(dto);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(productRepository, times(1)).findById(1L);
+        assertThat(coalesced()).isEqualTo(7);
+    }
+
+    /*
+     * createProduct
+     */
+    @Test
+    @DisplayName("Doit créer un produit avec succès")
+    void createProduct_WithValidData_ShouldCreateProduct() {
+        // Given
+        ProductRequestDTO request = createProductRequestDTO();
+        Product product = createProduct();
+        ProductResponseDTO dto = createProductResponseDTO();
+
+        when(productMapper.toEntity(request)).thenReturn(product);
+        when(productRepository.save(product)).thenReturn(product);
+        when(productMapper.toDTO(product)).thenReturn(dto);
+
+        // When
+        ProductResponseDTO result = productService.createProduct(request);
+
+        // Then
+        assertThat(result).isNotNull();
+        verify(productRepository).save(product);
+    }
+
+    /*
+     * updateProduct
+     */
+    @Test
+    @DisplayName("Doit mettre à jour un produit existant")
+    void updateProduct_WhenProductExists_ShouldUpdateProduct() {
+        // Given
+        Product product = createProduct();
+        ProductRequestDTO request = createProductRequestDTO();
+        ProductResponseDTO dto = createProductResponseDTO();
+
+        request.setName("Produit Renommé");
+        request.setStock(99);
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.saveAndFlush(product)).thenReturn(product);
+        when(productMapper.toDTO(product)).thenReturn(dto);
+
+        // When
+        ProductResponseDTO result = productService.updateProduct(1L, request);
+
+        // Then
+        assertThat(result).isNotNull();
+        assertThat(product.getName()).isEqualTo(request.getName());
+        // Le stock ne change que par variations relatives
+        assertThat(product.getStock()).isEqualTo(10);
+        verify(productRepository, never()).incrementStock(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Doit refuser la mise à jour d'une version périmée (If-Match)")
+    void updateProduct_WhenVersionIsStale_ShouldThrowException() {
+        // Given
+        Product product = createProduct();
+        product.setVersion(3L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        // When / Then
+        assertThatThrownBy(() -> productService.updateProduct(1L, createProductRequestDTO(), 2L))
+                .isInstanceOf(ProductVersionMismatchException.class);
+        verify(productRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Doit lever une exception si le produit à mettre à jour n'existe pas")
+    void updateProduct_WhenNotFound_ShouldThrowException() {
+        // Given
+        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // When / Then
+        assertThatThrownBy(() -> productService.updateProduct(1L, createProductRequestDTO()))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    /*
+     * deleteProduct
+     */
+    @Test
+    @DisplayName("Doit désactiver un produit (soft delete)")
+    void deleteProduct_ShouldDisableProduct() {
+        // Given
+        Product product = createProduct();
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        // When
+        productService.deleteProduct(1L);
+
+        // Then
+        assertThat(product.isActive()).isFalse();
+        verify(productRepository).save(product);
+    }
+
+    /*
+     * getProductByName
+     */
+    @Test
+    @DisplayName("Doit retourner les produits par nom")
+    void getProductByName_WhenExists_ShouldReturnProducts() {
+        // Given
+        Product product = createProduct();
+        ProductResponseDTO dto = createProductResponseDTO();
+
+        when(productRepository.findByName("Produit Test")).thenReturn(List.of(product));
+        when(productMapper.toDTO(product)).thenReturn(dto);
+
+        // When
+        List<ProductResponseDTO> result = productService.getProductByName("Produit Test");
+
+        // Then
+        assertThat(result).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Doit lever une exception si aucun produit ne correspond au nom")
+    void getProductByName_WhenEmpty_ShouldThrowException() {
+        // Given
+        when(productRepository.findByName("Unknown")).thenReturn(List.of());
+
+        // When / Then
+        assertThatThrownBy(() -> productService.getProductByName("Unknown"))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    /*
+     * updateStock
+     */
+    @Test
+    @DisplayName("Doit mettre à jour le stock d'un produit par un incrément relatif")
+    void updateStock_ShouldIncreaseStock() {
+        // Given
+        Product product = createProduct();
+        ProductResponseDTO dto = createProductResponseDTO();
+
+        when(productRepository.incrementStock(1L, 5)).thenReturn(1);
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
+        when(productMapper.toDTO(product)).thenReturn(dto);
+
+        // When
+        productService.updateStock(1L, 5);
+
+        // Then
+        verify(productRepository).incrementStock(1L, 5);
+        verify(productRepository, never()).findById(any());
+    }
+
+    /*
+     * adjustStock
+     */
+    @Test
+    @DisplayName("Doit cumuler les variations d'un même produit en un seul incrément")
+    void adjustStock_ShouldMergeDeltasPerProduct() {
+        // Given
+        when(productRepository.incrementStock(1L, 5)).thenReturn(1);
+        when(productRepository.findAllById(any())).thenReturn(List.of(createProduct()));
+
+        // When
+        productService.adjustStock(List.of(
+                new StockAdjustmentDTO(1L, 2),
+                new StockAdjustmentDTO(1L, 3)));
+
+        // Then
+        verify(productRepository).incrementStock(1L, 5);
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Doit lever une exception si le stock deviendrait négatif")
+    void adjustStock_WhenStockInsufficient_ShouldThrowException() {
+        // Given
+        when(productRepository.incrementStock(1L, -50)).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        // When / Then
+        assertThatThrownBy(() -> productService.adjustStock(List.of(new StockAdjustmentDTO(1L, -50))))
+                .isInstanceOf(InsufficientStockException.class);
+    }
+
+    @Test
+    @DisplayName("Ne doit pas réappliquer une réservation de commande déjà traitée")
+    void adjustStock_WhenReferenceAlreadyProcessed_ShouldNotApply() {
+        // Given
+        when(orderReservationService.claim(StockMovementReason.ORDER_RESERVE, "order-42")).thenReturn(false);
+        when(productRepository.findAllById(any())).thenReturn(List.of(createProduct()));
+        when(productMapper.toDTO(any(Product.class))).thenReturn(createProductResponseDTO());
+
+        // When
+        List<ProductResponseDTO> products = productService.adjustStock(List.of(new StockAdjustmentDTO(1L, -2)),
+                StockMovementReason.ORDER_RESERVE, "order-42");
+
+        // Then
+        assertThat(products).hasSize(1);
+        verify(productRepository, never()).incrementStock(any(), anyInt());
+        verify(hotStockService, never()).tryAdjust(any(), anyInt());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Ne doit pas journaliser une à une les variations des produits en vente flash")
+    void adjustStock_WhenProductHot_ShouldRecordMovementsForFlush() {
+        // Given : produit 1 en base, produit 2 en vente flash
+        when(productRepository.incrementStock(1L, -1)).thenReturn(1);
+        when(hotStockService.isHot(1L)).thenReturn(false);
+        when(hotStockService.isHot(2L)).thenReturn(true);
+        when(hotStockService.tryAdjust(2L, -3)).thenReturn(HotStockService.AdjustResult.APPLIED);
+        when(productRepository.findAllById(any())).thenReturn(List.of(createProduct()));
+
+        // When
+        productService.adjustStock(List.of(new StockAdjustmentDTO(1L, -1), new StockAdjustmentDTO(2L, -3)),
+                StockMovementReason.ORDER_RESERVE, "order-42");
+
+        // Then
+        verify(hotStockService).recordMovements(Map.of(2L, -3), StockMovementReason.ORDER_RESERVE);
+        ArgumentCaptor<StockMovedEvent> event = ArgumentCaptor.forClass(StockMovedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().movements()).extracting(StockMovedEvent.Movement::productId)
+                .containsExactly(1L);
+    }
+
+    /*
+     * Helpers
+     */
+    private Product createProduct() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setName("Produit Test");
+        product.setPrice(BigDecimal.valueOf(29.99));
+        product.setStock(10);
+        product.setCategory(Category.FOOD);
+        product.setActive(true);
+        return product;
+    }
+
+    private ProductRequestDTO createProductRequestDTO() {
+        ProductRequestDTO dto = new ProductRequestDTO();
+        dto.setName("Produit Test");
+        dto.setPrice(BigDecimal.valueOf(29.99));
+        dto.setStock(10);
+        dto.setCategory(Category.FOOD);
+        return dto;
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("products.cache.coalesced").functionCounter().count();
+    }
+
+    private ProductResponseDTO createProductResponseDTO() {
+        ProductResponseDTO dto = new ProductResponseDTO();
+        dto.setName("Produit Test");
+        return dto;
+    }
+}
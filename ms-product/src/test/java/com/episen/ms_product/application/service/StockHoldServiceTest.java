@@ -0,0 +1,120 @@
+package com.episen.ms_product.application.service;
+
+import com.episen.ms_product.application.dto.StockHoldDTO;
+import com.episen.ms_product.domain.enumerate.StockHoldStatus;
+import com.episen.ms_product.domain.enumerate.StockMovementReason;
+import com.episen.ms_product.infrastructure.exception.StockHoldAccessDeniedException;
+import com.episen.ms_product.infrastructure.exception.StockHoldLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Tests unitaires pour StockHoldService (base H2 en mémoire)
+ */
+@ExtendWith(MockitoExtension.class)
+class StockHoldServiceTest {
+
+    private static final long PRODUCT_ID = 1L;
+    private static final long OWNER_ID = 7L;
+    private static final long OTHER_USER_ID = 8L;
+    private static final long SERVICE_ID = 99L;
+
+    @Mock
+    private ProductService productService;
+
+    private JdbcTemplate jdbcTemplate;
+    private StockHoldService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:holds-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE stock_hold (id VARCHAR(36) PRIMARY KEY, owner_id BIGINT NOT NULL, "
+                + "product_id BIGINT NOT NULL, quantity INT NOT NULL, status VARCHAR(10) NOT NULL, "
+                + "expires_at TIMESTAMP NOT NULL, updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        service = new StockHoldService(jdbcTemplate, new NamedParameterJdbcTemplate(dataSource),
+                new DataSourceTransactionManager(dataSource), productService, new SimpleMeterRegistry(),
+                Duration.ofMinutes(10), Duration.ofHours(1), Duration.ofDays(1), 5, 8, 1000);
+    }
+
+    @Test
+    @DisplayName("Une durée nulle ou négative doit être refusée avant toute sortie de stock")
+    void hold_WhenTtlNotPositive_ShouldThrowException() {
+        // When & Then
+        assertThatThrownBy(() -> service.hold(PRODUCT_ID, 1, 0, OWNER_ID, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.hold(PRODUCT_ID, 1, -60, OWNER_ID, false))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Une réservation ne doit pas dépasser products.holds.max-quantity, même pour un service")
+    void hold_WhenQuantityAboveCap_ShouldThrowException() {
+        // When & Then
+        assertThatThrownBy(() -> service.hold(PRODUCT_ID, 6, null, SERVICE_ID, true))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Les réservations en cours d'un utilisateur doivent être plafonnées, pas celles d'un service")
+    void hold_WhenUserCapReached_ShouldThrowException() {
+        // Given
+        StockHoldDTO first = service.hold(PRODUCT_ID, 5, null, OWNER_ID, false);
+        service.hold(PRODUCT_ID, 3, null, OWNER_ID, false);
+
+        // When & Then
+        assertThatThrownBy(() -> service.hold(PRODUCT_ID, 1, null, OWNER_ID, false))
+                .isInstanceOf(StockHoldLimitExceededException.class);
+        assertThat(service.hold(PRODUCT_ID, 5, null, OTHER_USER_ID, false).getOwnerId()).isEqualTo(OTHER_USER_ID);
+        assertThat(service.hold(PRODUCT_ID, 5, null, SERVICE_ID, true).getStatus()).isEqualTo(StockHoldStatus.HELD);
+        assertThat(service.hold(PRODUCT_ID, 5, null, SERVICE_ID, true).getStatus()).isEqualTo(StockHoldStatus.HELD);
+
+        // Une réservation terminée ne compte plus dans le plafond
+        service.release(first.getId(), OWNER_ID, false);
+        assertThat(service.hold(PRODUCT_ID, 5, null, OWNER_ID, false).getStatus()).isEqualTo(StockHoldStatus.HELD);
+    }
+
+    @Test
+    @DisplayName("Seul le propriétaire, ou un appelant ADMIN/SERVICE, doit pouvoir consulter, confirmer ou libérer une réservation")
+    void confirmAndRelease_WhenNotOwner_ShouldThrowException() {
+        // Given
+        StockHoldDTO hold = service.hold(PRODUCT_ID, 2, 600, OWNER_ID, false);
+
+        // When & Then
+        assertThatThrownBy(() -> service.getHold(hold.getId(), OTHER_USER_ID, false))
+                .isInstanceOf(StockHoldAccessDeniedException.class);
+        assertThatThrownBy(() -> service.release(hold.getId(), OTHER_USER_ID, false))
+                .isInstanceOf(StockHoldAccessDeniedException.class);
+        assertThatThrownBy(() -> service.confirm(hold.getId(), OTHER_USER_ID, false))
+                .isInstanceOf(StockHoldAccessDeniedException.class);
+        verify(productService, never()).adjustStock(anyList(), eq(StockMovementReason.HOLD_RELEASE), eq(hold.getId()));
+
+        assertThat(service.getHold(hold.getId(), OWNER_ID, false).getStatus()).isEqualTo(StockHoldStatus.HELD);
+        assertThat(service.confirm(hold.getId(), SERVICE_ID, true).getStatus()).isEqualTo(StockHoldStatus.CONFIRMED);
+    }
+}
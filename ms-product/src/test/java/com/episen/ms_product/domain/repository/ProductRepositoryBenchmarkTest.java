@@ -0,0 +1,129 @@
+package com.episen.ms_product.domain.repository;
+
+import com.episen.ms_product.domain.entity.Product;
+import com.episen.ms_product.domain.enumerate.Category;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Banc d'essai des requêtes de catalogue sur un million de produits générés.
+ *
+ * <p>Désactivé par défaut : {@code mvn test -Dbenchmark=true [-Dbenchmark.rows=1000000]}.
+ * Les durées sont seulement journalisées ; les assertions portent sur les plans d'exécution
+ * (index utilisé et lecture dans l'ordre de l'index), qui ne dépendent pas de la machine.</p>
+ */
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductRepositoryBenchmarkTest {
+
+    private static final int ITERATIONS = 200;
+    private static final BigDecimal MIN_PRICE = new BigDecimal("100.00");
+    private static final BigDecimal MAX_PRICE = new BigDecimal("200.00");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void generateCatalog() {
+        int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+        long start = System.currentTimeMillis();
+        // Prix de 1 à 1000, stock de 0 à 199, 4 catégories, 10 % de produits désactivés
+        jdbcTemplate.update("INSERT INTO product (name, description, price, stock, category, active) "
+                + "SELECT 'Produit ' || X, 'Produit généré ' || X, "
+                + "CAST(MOD(X * 7919, 100000) AS DECIMAL(10, 2)) / 100 + 1, MOD(X * 31, 200), "
+                + "CASE MOD(X, 4) WHEN 0 THEN 'ELECTRONICS' WHEN 1 THEN 'FOOD' WHEN 2 THEN 'BOOKS' ELSE 'OTHER' END, "
+                + "MOD(X, 10) <> 0 FROM SYSTEM_RANGE(1, ?)", rows);
+        jdbcTemplate.execute("ANALYZE");
+        log.info("Catalogue de {} produits généré en {} ms", rows, System.currentTimeMillis() - start);
+    }
+
+    @Test
+    @DisplayName("Catégorie + actif + fourchette de prix + en stock : lecture ordonnée de l'index composite")
+    void categoryPriceRange_usesCompositeIndex() {
+        List<Product> products = measure("catégorie + prix", () -> productRepository
+                .findAvailableByCategoryAndPriceBetween(Category.BOOKS, MIN_PRICE, MAX_PRICE, Limit.of(20)));
+
+        assertThat(products).hasSize(20)
+                .allMatch(p -> p.getCategory() == Category.BOOKS && p.isActive() && p.getStock() > 0)
+                .allMatch(p -> p.getPrice().compareTo(MIN_PRICE) >= 0 && p.getPrice().compareTo(MAX_PRICE) <= 0)
+                .isSortedAccordingTo(Comparator.comparing(Product::getPrice).thenComparing(Product::getId));
+        assertThat(explain("SELECT * FROM product WHERE category = 'BOOKS' AND active = TRUE "
+                + "AND price BETWEEN 100 AND 200 AND stock > 0 ORDER BY category, active, price, id LIMIT 20"))
+                .contains("IDX_PRODUCT_CAT_ACTIVE_PRICE")
+                .contains("index sorted");
+    }
+
+    @Test
+    @DisplayName("Actif + fourchette de prix + en stock : lecture ordonnée de l'index (active, price, id)")
+    void priceRange_usesActivePriceIndex() {
+        List<Product> products = measure("prix", () -> productRepository
+                .findAvailableByPriceBetween(MIN_PRICE, MAX_PRICE, Limit.of(20)));
+
+        assertThat(products).hasSize(20)
+                .allMatch(p -> p.isActive() && p.getStock() > 0)
+                .isSortedAccordingTo(Comparator.comparing(Product::getPrice).thenComparing(Product::getId));
+        assertThat(explain("SELECT * FROM product WHERE active = TRUE "
+                + "AND price BETWEEN 100 AND 200 AND stock > 0 ORDER BY active, price, id LIMIT 20"))
+                .contains("IDX_PRODUCT_ACTIVE_PRICE")
+                .contains("index sorted");
+    }
+
+    @Test
+    @DisplayName("Page suivante du listing par catégorie : accès direct à la position du curseur")
+    void categoryListingNextPage_seeksToCursor() {
+        String plan = explain("EXPLAIN ANALYZE SELECT * FROM product WHERE category = 'FOOD' AND active = TRUE "
+                + "AND name >= 'Produit 5' AND (name > 'Produit 5' OR (name = 'Produit 5' AND id > 5)) "
+                + "ORDER BY category, active, name, id LIMIT 21");
+
+        assertThat(plan).contains("IDX_PRODUCT_CAT_ACTIVE_NAME")
+                .contains("index sorted")
+                .contains("scanCount: 21");
+    }
+
+    private String explain(String sql) {
+        String statement = sql.startsWith("EXPLAIN") ? sql : "EXPLAIN " + sql;
+        return jdbcTemplate.queryForObject(statement, String.class);
+    }
+
+    private static <T> T measure(String label, Supplier<T> query) {
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            query.get();
+        }
+        long[] durations = new long[ITERATIONS];
+        T result = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            result = query.get();
+            durations[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(durations);
+        log.info("{} : médiane {} ms, p99 {} ms", label,
+                String.format("%.2f", durations[ITERATIONS / 2] / 1e6),
+                String.format("%.2f", durations[ITERATIONS * 99 / 100] / 1e6));
+        return result;
+    }
+}
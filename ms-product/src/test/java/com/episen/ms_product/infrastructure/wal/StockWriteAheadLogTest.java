@@ -0,0 +1,146 @@
+package com.episen.ms_product.infrastructure.wal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires pour StockWriteAheadLog
+ */
+class StockWriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("La relecture doit retenir la plus haute version de chaque produit, quel que soit l'ordre")
+    void recover_ShouldKeepHighestVersion() throws IOException {
+        // Given
+        try (StockWriteAheadLog wal = new StockWriteAheadLog(directory)) {
+            wal.append(1L, 0, 10);
+            wal.append(1L, 2, 8);
+            wal.append(1L, 1, 9);
+            wal.roll();
+            wal.append(2L, 5, 3);
+        }
+
+        // When
+        Map<Long, StockWriteAheadLog.Entry> entries = reopen();
+
+        // Then
+        assertThat(entries).containsOnlyKeys(1L, 2L);
+        assertThat(entries.get(1L)).isEqualTo(new StockWriteAheadLog.Entry(1L, 2, 8));
+        assertThat(entries.get(2L)).isEqualTo(new StockWriteAheadLog.Entry(2L, 5, 3));
+    }
+
+    @Test
+    @DisplayName("Une sortie journalisée à une version supérieure doit l'emporter sur le dernier niveau")
+    void recover_WhenReleased_ShouldReturnReleasedEntry() throws IOException {
+        // Given
+        try (StockWriteAheadLog wal = new StockWriteAheadLog(directory)) {
+            wal.append(1L, 3, 7);
+            wal.appendReleased(1L, 4);
+        }
+
+        // When / Then
+        StockWriteAheadLog.Entry entry = reopen().get(1L);
+        assertThat(entry.released()).isTrue();
+        assertThat(entry.version()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Un enregistrement tronqué en fin de segment doit être ignoré")
+    void recover_WhenLastRecordTruncated_ShouldIgnoreIt() throws IOException {
+        // Given
+        try (StockWriteAheadLog wal = new StockWriteAheadLog(directory)) {
+            wal.append(1L, 1, 9);
+        }
+        Path segment = segments().get(0);
+        Files.write(segment, new byte[StockWriteAheadLog.RECORD_SIZE - 1], StandardOpenOption.APPEND);
+
+        // When / Then
+        assertThat(reopen()).containsExactly(Map.entry(1L, new StockWriteAheadLog.Entry(1L, 1, 9)));
+    }
+
+    @Test
+    @DisplayName("Seuls les segments clos jusqu'au numéro donné doivent être supprimés")
+    void deleteSegmentsUpTo_ShouldKeepLaterSegments() throws IOException {
+        try (StockWriteAheadLog wal = new StockWriteAheadLog(directory)) {
+            // Given
+            wal.append(1L, 1, 9);
+            long closed = wal.roll();
+            wal.append(1L, 2, 8);
+
+            // When
+            wal.deleteSegmentsUpTo(closed);
+
+            // Then
+            assertThat(segments()).hasSize(1);
+            assertThat(wal.currentSegment()).isEqualTo(closed + 1);
+        }
+        assertThat(reopen().get(1L).stock()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Les enregistrements déposés en parallèle doivent tous être écrits avant l'acquittement")
+    void append_WhenConcurrent_ShouldWriteEveryRecord() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (StockWriteAheadLog wal = new StockWriteAheadLog(directory, false)) {
+            List<Callable<Void>> writers = new ArrayList<>();
+            for (long productId = 1; productId <= 8; productId++) {
+                long id = productId;
+                writers.add(() -> {
+                    for (int version = 1; version <= 200; version++) {
+                        wal.append(id, version, 1000 - version);
+                    }
+                    return null;
+                });
+            }
+
+            // When
+            for (Future<Void> writer : executor.invokeAll(writers)) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        Map<Long, StockWriteAheadLog.Entry> entries = reopen();
+        assertThat(entries).hasSize(8);
+        assertThat(entries.values()).allSatisfy(entry -> assertThat(entry.version()).isEqualTo(200));
+        long written = 0;
+        for (Path segment : segments()) {
+            written += Files.size(segment);
+        }
+        assertThat(written).isEqualTo(8L * 200 * StockWriteAheadLog.RECORD_SIZE);
+    }
+
+    private Map<Long, StockWriteAheadLog.Entry> reopen() throws IOException {
+        try (StockWriteAheadLog wal = new StockWriteAheadLog(directory)) {
+            return wal.recover();
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".wal")).toList();
+        }
+    }
+}
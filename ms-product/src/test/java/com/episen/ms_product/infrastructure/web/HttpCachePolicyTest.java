@@ -0,0 +1,98 @@
+package com.episen.ms_product.infrastructure.web;
+
+import com.episen.ms_product.application.dto.ProductResponseDTO;
+import com.episen.ms_product.application.service.CatalogSnapshotService;
+import com.episen.ms_product.application.service.HotStockService;
+import com.episen.ms_product.application.service.ProductChangeFeedService;
+import com.episen.ms_product.infrastructure.web.ProductRepresentationCache.Representation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour HttpCachePolicy
+ */
+@ExtendWith(MockitoExtension.class)
+class HttpCachePolicyTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 12, 1, 10, 0);
+
+    @Mock
+    private ProductChangeFeedService changeFeedService;
+
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Mock
+    private ProductRepresentationCache representationCache;
+
+    @Mock
+    private HotStockService hotStockService;
+
+    private HttpCachePolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        policy = new HttpCachePolicy(changeFeedService, catalogSnapshotService, representationCache, hotStockService,
+                Duration.ofSeconds(60), Duration.ofSeconds(30), true);
+    }
+
+    @Test
+    @DisplayName("Un produit non modifié depuis If-Modified-Since doit être servi en 304")
+    void ok_WhenNotModifiedSince_ShouldReturn304() {
+        // Given
+        when(hotStockService.isHot(1L)).thenReturn(false);
+
+        // When
+        ResponseEntity<byte[]> response = policy.ok(product(), ifModifiedSince());
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getLastModified()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Un produit en vente flash ne doit pas porter de Last-Modified ni être servi en 304 sur la date")
+    void ok_WhenHot_ShouldIgnoreIfModifiedSince() {
+        // Given : le stock en mémoire a varié sans toucher updatedAt
+        when(hotStockService.isHot(1L)).thenReturn(true);
+        when(representationCache.get(any(), anyString())).thenReturn(new Representation("e", new byte[] { '{', '}' }, null));
+
+        // When
+        ResponseEntity<byte[]> response = policy.ok(product(), ifModifiedSince());
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().containsKey(HttpHeaders.LAST_MODIFIED)).isFalse();
+        assertThat(response.getHeaders().getETag()).isEqualTo("W/\"1-3-42\"");
+    }
+
+    private static ProductResponseDTO product() {
+        return ProductResponseDTO.builder().id(1L).version(3L).stock(42).updatedAt(UPDATED_AT).build();
+    }
+
+    private static ServletWebRequest ifModifiedSince() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/1");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE,
+                UPDATED_AT.plusHours(1).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
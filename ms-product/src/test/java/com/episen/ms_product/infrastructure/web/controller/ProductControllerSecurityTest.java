@@ -0,0 +1,126 @@
+package com.episen.ms_product.infrastructure.web.controller;
+
+import com.episen.ms_product.application.dto.ProductResponseDTO;
+import com.episen.ms_product.application.service.ProductChangeFeedService;
+import com.episen.ms_product.application.service.ProductPopularityService;
+import com.episen.ms_product.application.service.ProductSearchService;
+import com.episen.ms_product.application.service.ProductService;
+import com.episen.ms_product.domain.entity.User;
+import com.episen.ms_product.domain.enumerate.StockMovementReason;
+import com.episen.ms_product.infrastructure.web.HttpCachePolicy;
+import com.episen.ms_product.security.JwtTokenValidator;
+import com.episen.ms_product.security.SecurityConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests des règles d'accès de ProductController (filtre JWT et SecurityConfig réels, token simulé)
+ */
+@WebMvcTest(ProductController.class)
+@Import(SecurityConfig.class)
+class ProductControllerSecurityTest {
+
+    private static final String ADJUSTMENT = """
+            {"items": [{"productId": 1, "delta": -2}], "reason": "ORDER_RESERVE", "reference": "order-42"}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private JwtTokenValidator jwtTokenValidator;
+
+    @MockitoBean
+    private ProductService productService;
+
+    @MockitoBean
+    private ProductSearchService productSearchService;
+
+    @MockitoBean
+    private ProductChangeFeedService productChangeFeedService;
+
+    @MockitoBean
+    private ProductPopularityService productPopularityService;
+
+    @MockitoBean
+    private HttpCachePolicy httpCachePolicy;
+
+    @Test
+    @DisplayName("Un utilisateur ne doit pas pouvoir ajuster le stock en masse")
+    void adjustStock_AsUser_ShouldBeForbidden() throws Exception {
+        mockMvc.perform(adjustStock("user-token", "ROLE_USER"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Le service ms-order doit pouvoir ajuster le stock en masse")
+    void adjustStock_AsService_ShouldApply() throws Exception {
+        when(productService.adjustStock(anyList(), eq(StockMovementReason.ORDER_RESERVE), eq("order-42")))
+                .thenReturn(List.of(new ProductResponseDTO()));
+
+        mockMvc.perform(adjustStock("service-token", "ROLE_SERVICE"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Un administrateur doit pouvoir ajuster le stock en masse")
+    void adjustStock_AsAdmin_ShouldApply() throws Exception {
+        when(productService.adjustStock(anyList(), any(), any())).thenReturn(List.of());
+
+        mockMvc.perform(adjustStock("admin-token", "ROLE_ADMIN"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Un utilisateur ne doit pas pouvoir modifier le stock d'un produit")
+    void updateStock_AsUser_ShouldBeForbidden() throws Exception {
+        mockMvc.perform(updateStock("user-token", "ROLE_USER"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Un administrateur doit pouvoir modifier le stock d'un produit")
+    void updateStock_AsAdmin_ShouldApply() throws Exception {
+        when(productService.updateStock(1L, 5)).thenReturn(new ProductResponseDTO());
+
+        mockMvc.perform(updateStock("admin-token", "ROLE_ADMIN"))
+                .andExpect(status().isOk());
+    }
+
+    private RequestBuilder updateStock(String token, String role) {
+        when(jwtTokenValidator.transform(token)).thenReturn(new User(1L, "test@example.com", List.of(role)));
+        return patch("/api/v1/products/1/stock")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\": 5}");
+    }
+
+    private RequestBuilder adjustStock(String token, String role) {
+        when(jwtTokenValidator.transform(token)).thenReturn(new User(1L, "test@example.com", List.of(role)));
+        return patch("/api/v1/products/stock")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ADJUSTMENT);
+    }
+}